@@ -0,0 +1,91 @@
+plugins {
+    java
+    id("me.champeau.jmh") version "0.7.3"
+}
+
+dependencies {
+    jmh(project(":common:common-domain"))
+    jmh(project(":order:order-domain"))
+    jmh(project(":order:order-application"))
+    jmh(project(":order:order-infrastructure"))
+    jmh(project(":cart:cart-domain"))
+    jmh(project(":product:product-domain"))
+    jmh(project(":product:product-application"))
+    jmh(project(":product:product-infrastructure"))
+
+    jmh("org.springframework.boot:spring-boot-starter-data-jpa")
+}
+
+jmh {
+    warmupIterations.set(3)
+    iterations.set(5)
+    fork.set(1)
+    // Allocation rate per operation (gc.alloc.rate.norm) is the number to watch on these per-request paths.
+    profilers.add("gc")
+    resultFormat.set("JSON")
+    resultsFile.set(layout.buildDirectory.file("results/jmh/results.json"))
+}
+
+// Promotes the last ./gradlew :benchmarks:jmh run to the committed baseline.
+tasks.register<Copy>("jmhBaseline") {
+    from(layout.buildDirectory.file("results/jmh/results.json"))
+    into(layout.projectDirectory.dir("baseline"))
+}
+
+// Compares the last ./gradlew :benchmarks:jmh run with the committed baseline and fails when a benchmark's score
+// or its allocation per operation got worse by more than -Pjmh.tolerance percent (default 10).
+tasks.register("jmhCompare") {
+    val baselineFile = layout.projectDirectory.file("baseline/results.json")
+    val currentFile = layout.buildDirectory.file("results/jmh/results.json")
+    val tolerance = (findProperty("jmh.tolerance") as String?)?.toDouble() ?: 10.0
+    inputs.file(baselineFile)
+    inputs.file(currentFile)
+    doLast {
+        @Suppress("UNCHECKED_CAST")
+        fun load(file: File): Map<String, Map<String, Any?>> =
+            (groovy.json.JsonSlurper().parse(file) as List<Map<String, Any?>>).associateBy { run ->
+                val params = (run["params"] as Map<String, Any?>?)?.entries?.joinToString(",") { "${it.key}=${it.value}" }
+                run["benchmark"] as String + (if (params.isNullOrEmpty()) "" else "($params)")
+            }
+
+        val baseline = load(baselineFile.asFile)
+        if (baseline.isEmpty()) {
+            throw GradleException("No JMH baseline recorded: run ./gradlew :benchmarks:jmh :benchmarks:jmhBaseline " +
+                "on the reference machine and commit benchmarks/baseline/results.json")
+        }
+        val current = load(currentFile.get().asFile)
+
+        @Suppress("UNCHECKED_CAST")
+        fun score(run: Map<String, Any?>, metric: String?): Double? {
+            val result = if (metric == null) run["primaryMetric"] else
+                (run["secondaryMetrics"] as Map<String, Any?>?)?.get(metric)
+            return ((result as Map<String, Any?>?)?.get("score") as Number?)?.toDouble()
+        }
+
+        val regressions = mutableListOf<String>()
+        for ((name, base) in baseline) {
+            val run = current[name]
+            if (run == null) {
+                logger.lifecycle("MISSING  $name")
+                continue
+            }
+            // Throughput is better when higher; every time-per-operation mode is better when lower.
+            val higherIsBetter = run["mode"] == "thrpt"
+            listOf(null to higherIsBetter, "gc.alloc.rate.norm" to false).forEach { (metric, higher) ->
+                val before = score(base, metric) ?: return@forEach
+                val after = score(run, metric) ?: return@forEach
+                val change = if (before == 0.0) 0.0 else (after - before) / before * 100
+                val worse = if (higher) -change else change
+                val label = "$name ${metric ?: run["mode"]}"
+                logger.lifecycle(String.format("%-8s %s: %.3f -> %.3f (%+.1f%%)",
+                    if (worse > tolerance) "WORSE" else "ok", label, before, after, change))
+                if (worse > tolerance) {
+                    regressions.add(label)
+                }
+            }
+        }
+        if (regressions.isNotEmpty()) {
+            throw GradleException("${regressions.size} benchmark(s) regressed by more than $tolerance%: $regressions")
+        }
+    }
+}
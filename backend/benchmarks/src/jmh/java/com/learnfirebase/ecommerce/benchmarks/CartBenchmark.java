@@ -0,0 +1,75 @@
+package com.learnfirebase.ecommerce.benchmarks;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.learnfirebase.ecommerce.cart.domain.model.Cart;
+import com.learnfirebase.ecommerce.cart.domain.model.CartId;
+import com.learnfirebase.ecommerce.cart.domain.model.CartItem;
+import com.learnfirebase.ecommerce.common.domain.valueobject.Money;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CartBenchmark {
+    @Param({"5", "50"})
+    private int itemCount;
+
+    private Cart cart;
+    private List<CartItem> itemsWithDuplicates;
+
+    @Setup
+    public void setUp() {
+        List<CartItem> items = new ArrayList<>();
+        for (int i = 0; i < itemCount; i++) {
+            items.add(item("product-" + i, "sku-" + i, i + 1));
+        }
+        cart = Cart.builder().id(new CartId("cart-1")).items(items).build();
+
+        itemsWithDuplicates = new ArrayList<>();
+        for (int i = 0; i < itemCount; i++) {
+            // Every second line repeats the previous product, as after a guest cart merge.
+            int product = i - (i % 2);
+            itemsWithDuplicates.add(item("product-" + product, "sku-" + product, 1));
+        }
+    }
+
+    @Benchmark
+    public Money total() {
+        return cart.total("VND");
+    }
+
+    /**
+     * Includes copying the input lines, since deduplication mutates the cart and its items.
+     */
+    @Benchmark
+    public Cart deduplicateItems() {
+        List<CartItem> items = new ArrayList<>(itemsWithDuplicates.size());
+        for (CartItem item : itemsWithDuplicates) {
+            items.add(new CartItem(item.getProductId(), item.getVariantSku(), item.getQuantity(), item.getPrice()));
+        }
+        Cart fresh = Cart.builder().id(new CartId("cart-2")).items(items).build();
+        fresh.deduplicateItems();
+        return fresh;
+    }
+
+    private static CartItem item(String productId, String sku, int quantity) {
+        return CartItem.builder()
+            .productId(productId)
+            .variantSku(sku)
+            .quantity(quantity)
+            .price(Money.builder().amount(new BigDecimal("19900.00")).currency("VND").build())
+            .build();
+    }
+}
@@ -0,0 +1,38 @@
+package com.learnfirebase.ecommerce.benchmarks;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.learnfirebase.ecommerce.common.domain.valueobject.Money;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MoneyBenchmark {
+    private Money price;
+    private Money other;
+
+    @Setup
+    public void setUp() {
+        price = Money.builder().amount(new BigDecimal("129900.50")).currency("VND").build();
+        other = Money.builder().amount(new BigDecimal("45000.25")).currency("vnd").build();
+    }
+
+    @Benchmark
+    public Money add() {
+        return price.add(other);
+    }
+
+    @Benchmark
+    public Money multiply() {
+        return price.multiply(3);
+    }
+}
@@ -0,0 +1,52 @@
+package com.learnfirebase.ecommerce.benchmarks;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.learnfirebase.ecommerce.common.domain.valueobject.Money;
+import com.learnfirebase.ecommerce.order.domain.model.Order;
+import com.learnfirebase.ecommerce.order.domain.model.OrderItem;
+import com.learnfirebase.ecommerce.order.domain.model.UserId;
+import com.learnfirebase.ecommerce.order.domain.service.OrderDomainService;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class OrderDomainServiceBenchmark {
+    @Param({"1", "10", "100"})
+    private int itemCount;
+
+    private final OrderDomainService orderDomainService = new OrderDomainService();
+    private final UserId userId = new UserId("buyer-1");
+    private List<OrderItem> items;
+
+    @Setup
+    public void setUp() {
+        items = new ArrayList<>(itemCount);
+        for (int i = 0; i < itemCount; i++) {
+            items.add(OrderItem.builder()
+                .productId("product-" + i)
+                .variantSku("sku-" + i)
+                .sellerId("seller-" + (i % 3))
+                .quantity(1 + i % 4)
+                .price(Money.builder().amount(new BigDecimal("59900.00")).currency("VND").build())
+                .build());
+        }
+    }
+
+    @Benchmark
+    public Order initiateOrder() {
+        return orderDomainService.initiateOrder(userId, items, "VND");
+    }
+}
@@ -0,0 +1,87 @@
+package com.learnfirebase.ecommerce.order.infrastructure.payment;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+/**
+ * Callback verification as VnPayGateway did it before {@link VnPaySigner} (TreeMap copy, URLEncoder per value,
+ * a new Mac per signature) against the signer, on a callback shaped like VNPAY's return/IPN requests.
+ * Runs with four threads to reflect the burst of callbacks after a promotion ends.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Threads(4)
+public class VnPaySigningBenchmark {
+    private static final String HASH_SECRET = "benchmark-secret";
+
+    private final VnPaySigner signer = new VnPaySigner(HASH_SECRET);
+    private Map<String, String> callback;
+
+    @Setup
+    public void setUp() {
+        Map<String, String> params = new HashMap<>();
+        params.put("vnp_Amount", "1000000000");
+        params.put("vnp_BankCode", "NCB");
+        params.put("vnp_BankTranNo", "VNP14226112");
+        params.put("vnp_CardType", "ATM");
+        params.put("vnp_OrderInfo", "Thanh toan don hang 8f3c2a10-6b1e-4d7a-9c55-0e2f4b7d9a01");
+        params.put("vnp_PayDate", "20241207170112");
+        params.put("vnp_ResponseCode", "00");
+        params.put("vnp_TmnCode", "TESTTMN");
+        params.put("vnp_TransactionNo", "14226112");
+        params.put("vnp_TransactionStatus", "00");
+        params.put("vnp_TxnRef", "8f3c2a10-6b1e-4d7a-9c55-0e2f4b7d9a01");
+        String signed = signer.signedQuery(params);
+        params.put(VnPaySigner.SECURE_HASH, signed.substring(signed.lastIndexOf('=') + 1));
+        callback = params;
+    }
+
+    @Benchmark
+    public boolean signer() {
+        return signer.verify(callback);
+    }
+
+    @Benchmark
+    public boolean legacy() {
+        Map<String, String> params = new TreeMap<>(callback);
+        String secureHash = params.remove(VnPaySigner.SECURE_HASH);
+        params.remove(VnPaySigner.SECURE_HASH_TYPE);
+        String query = params.entrySet().stream()
+            .map(entry -> entry.getKey() + "=" + URLEncoder.encode(entry.getValue(), StandardCharsets.UTF_8))
+            .collect(Collectors.joining("&"));
+        return secureHash != null && secureHash.equalsIgnoreCase(legacyHmac(query));
+    }
+
+    private static String legacyHmac(String data) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA512");
+            mac.init(new SecretKeySpec(HASH_SECRET.getBytes(StandardCharsets.UTF_8), "HmacSHA512"));
+            byte[] hashBytes = mac.doFinal(data.getBytes(StandardCharsets.UTF_8));
+            StringBuilder sb = new StringBuilder();
+            for (byte b : hashBytes) {
+                sb.append(String.format("%02x", b));
+            }
+            return sb.toString();
+        } catch (Exception e) {
+            throw new IllegalStateException("Failed to compute VNPAY signature", e);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.learnfirebase.ecommerce.order.infrastructure.persistence;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.learnfirebase.ecommerce.common.domain.valueobject.Money;
+import com.learnfirebase.ecommerce.order.domain.model.Order;
+import com.learnfirebase.ecommerce.order.domain.model.OrderItem;
+import com.learnfirebase.ecommerce.order.domain.model.UserId;
+import com.learnfirebase.ecommerce.order.domain.service.OrderDomainService;
+
+/**
+ * Lives in the repository's package to reach its package-private mappers; the JPA repository is never touched.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class OrderRepositoryMappingBenchmark {
+    @Param({"1", "10", "100"})
+    private int itemCount;
+
+    private final OrderRepositoryImpl repository = new OrderRepositoryImpl(null);
+    private Order order;
+    private JpaOrderEntity entity;
+
+    @Setup
+    public void setUp() {
+        List<OrderItem> items = new ArrayList<>(itemCount);
+        for (int i = 0; i < itemCount; i++) {
+            items.add(OrderItem.builder()
+                .productId("product-" + i)
+                .variantSku("sku-" + i)
+                .sellerId("seller-" + (i % 3))
+                .quantity(2)
+                .price(Money.builder().amount(new BigDecimal("59900.00")).currency("VND").build())
+                .build());
+        }
+        order = new OrderDomainService().initiateOrder(new UserId("buyer-1"), items, "VND");
+        entity = repository.toEntity(order);
+    }
+
+    @Benchmark
+    public JpaOrderEntity toEntity() {
+        return repository.toEntity(order);
+    }
+
+    @Benchmark
+    public Order toDomain() {
+        return repository.toDomain(entity);
+    }
+}
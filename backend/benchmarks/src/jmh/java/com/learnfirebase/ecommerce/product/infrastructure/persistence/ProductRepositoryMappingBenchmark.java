@@ -0,0 +1,82 @@
+package com.learnfirebase.ecommerce.product.infrastructure.persistence;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.learnfirebase.ecommerce.common.domain.valueobject.Money;
+import com.learnfirebase.ecommerce.product.domain.model.Category;
+import com.learnfirebase.ecommerce.product.domain.model.Product;
+import com.learnfirebase.ecommerce.product.domain.model.ProductId;
+import com.learnfirebase.ecommerce.product.domain.model.ProductImage;
+import com.learnfirebase.ecommerce.product.domain.model.ProductImageId;
+import com.learnfirebase.ecommerce.product.domain.model.ProductVariant;
+
+/**
+ * Lives in the repository's package to reach its package-private mappers; the JPA repository is never touched.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ProductRepositoryMappingBenchmark {
+    @Param({"1", "20"})
+    private int variantCount;
+
+    private final ProductRepositoryImpl repository = new ProductRepositoryImpl(null);
+    private Product product;
+    private ProductEntity entity;
+
+    @Setup
+    public void setUp() {
+        Money price = Money.builder().amount(new BigDecimal("249000.00")).currency("VND").build();
+        List<ProductVariant> variants = new ArrayList<>(variantCount);
+        for (int i = 0; i < variantCount; i++) {
+            variants.add(ProductVariant.builder().sku("sku-" + i).name("Variant " + i).price(price).quantity(10).build());
+        }
+        List<ProductImage> images = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            images.add(ProductImage.builder()
+                .id(new ProductImageId("image-" + i))
+                .url("https://cdn.example.com/products/product-1/" + i + ".jpg")
+                .sortOrder(i)
+                .primary(i == 0)
+                .build());
+        }
+        product = Product.builder()
+            .id(new ProductId("product-1"))
+            .name("Benchmark product")
+            .description("A product with variants and images")
+            .price(price)
+            .stock(variantCount * 10)
+            .soldCount(42)
+            .category(Category.builder().id("category-1").name("Category").build())
+            .sellerId("seller-1")
+            .variants(variants)
+            .images(images)
+            .createdAt(Instant.now())
+            .updatedAt(Instant.now())
+            .build();
+        entity = repository.toEntity(product);
+    }
+
+    @Benchmark
+    public ProductEntity toEntity() {
+        return repository.toEntity(product);
+    }
+
+    @Benchmark
+    public Product toDomain() {
+        return repository.toDomain(entity);
+    }
+}
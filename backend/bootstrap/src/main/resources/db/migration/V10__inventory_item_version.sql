@@ -0,0 +1,5 @@
+-- V10__inventory_item_version.sql
+
+-- Stock is adjusted one (inventory, SKU) row at a time; the version column lets concurrent adjustments of the
+-- same row detect each other instead of overwriting.
+ALTER TABLE inventory_items ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
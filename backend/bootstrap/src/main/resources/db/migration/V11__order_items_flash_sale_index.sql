@@ -0,0 +1,4 @@
+-- V11__order_items_flash_sale_index.sql
+
+-- A lost flash-sale counter is re-seeded from the units its orders hold; only flash-sale lines are indexed.
+CREATE INDEX idx_order_items_flash_sale_id ON order_items(flash_sale_id) WHERE flash_sale_id IS NOT NULL;
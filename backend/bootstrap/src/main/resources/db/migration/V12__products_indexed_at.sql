@@ -0,0 +1,8 @@
+-- The last change of each product that Elasticsearch has settled (ProductIndexLedger). Rows changed since,
+-- soft deletes included, stay in the partial index until the indexer settles them; ProductIndexSweeper reads it
+-- to queue again whatever a node lost from its in-memory queue.
+-- Existing rows start unsettled, so the sweeper reindexes the catalog once, sweep-limit products per run.
+ALTER TABLE products ADD COLUMN indexed_at TIMESTAMP;
+
+CREATE INDEX idx_products_index_pending ON products (id)
+    WHERE indexed_at IS NULL OR indexed_at < updated_at OR indexed_at < deleted_at;
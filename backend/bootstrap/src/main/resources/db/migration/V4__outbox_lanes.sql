@@ -0,0 +1,44 @@
+-- V4__outbox_lanes.sql
+
+-- 1. Each outbox row belongs to a lane derived from its aggregate id.
+ALTER TABLE order_outbox
+    ADD COLUMN lane INT NOT NULL DEFAULT 0;
+
+-- Same value as OutboxLaneLeaseManager.laneOf: Java's String.hashCode (aggregate ids are ASCII UUIDs), floorMod lanes.
+CREATE FUNCTION outbox_lane_of(aggregate_id TEXT, lanes INT) RETURNS INT AS $$
+DECLARE
+    h BIGINT := 0;
+BEGIN
+    IF aggregate_id IS NULL THEN
+        RETURN 0;
+    END IF;
+    FOR i IN 1..length(aggregate_id) LOOP
+        h := (h * 31 + ascii(substr(aggregate_id, i, 1))) % 4294967296;
+    END LOOP;
+    IF h >= 2147483648 THEN
+        h := h - 4294967296;
+    END IF;
+    RETURN ((h % lanes) + lanes) % lanes;
+END
+$$ LANGUAGE plpgsql IMMUTABLE;
+
+-- Unfinished rows written before this migration go to the lane of their aggregate, so the lane's owner publishes
+-- them in order with the aggregate's newer events. The lane count is outbox.lanes, passed in as a placeholder.
+UPDATE order_outbox
+SET lane = outbox_lane_of(aggregate_id, ${outbox_lanes})
+WHERE status IN ('PENDING', 'FAILED', 'PROCESSING');
+
+DROP FUNCTION outbox_lane_of(TEXT, INT);
+
+-- 2. Time-bounded ownership of a lane by one dispatcher node
+CREATE TABLE outbox_lane_lease (
+    lane INT PRIMARY KEY,
+    owner VARCHAR(255) NOT NULL,
+    lease_until TIMESTAMP NOT NULL
+);
+
+-- 3. Dispatcher heartbeats, used to split lanes fairly between live nodes
+CREATE TABLE outbox_dispatcher_node (
+    node_id VARCHAR(255) PRIMARY KEY,
+    heartbeat_at TIMESTAMP NOT NULL
+);
@@ -0,0 +1,58 @@
+-- V5__partition_order_outbox.sql
+
+-- 1. Recreate order_outbox range-partitioned by created_at (one partition per day). Postgres requires the
+--    partition key in every unique constraint, so the primary key becomes (id, created_at).
+ALTER TABLE order_outbox RENAME TO order_outbox_legacy;
+ALTER TABLE order_outbox_legacy RENAME CONSTRAINT order_outbox_pkey TO order_outbox_legacy_pkey;
+
+CREATE TABLE order_outbox (
+    id VARCHAR(255) NOT NULL,
+    aggregate_id VARCHAR(255),
+    type VARCHAR(255),
+    payload TEXT,
+    status VARCHAR(50),
+    created_at TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP,
+    attempt_count INT NOT NULL DEFAULT 0,
+    last_error TEXT,
+    next_retry_at TIMESTAMP,
+    dead_letter_at TIMESTAMP,
+    lane INT NOT NULL DEFAULT 0,
+    PRIMARY KEY (id, created_at)
+) PARTITION BY RANGE (created_at);
+
+-- 2. Rows older than a week and rows written while no daily partition existed land in the default partition.
+CREATE TABLE order_outbox_default PARTITION OF order_outbox DEFAULT;
+
+DO $$
+DECLARE
+    day DATE;
+BEGIN
+    SELECT GREATEST(COALESCE(MIN(created_at)::date, CURRENT_DATE), CURRENT_DATE - 7)
+    INTO day
+    FROM order_outbox_legacy;
+
+    WHILE day <= CURRENT_DATE + 3 LOOP
+        EXECUTE format('CREATE TABLE order_outbox_p%s PARTITION OF order_outbox FOR VALUES FROM (%L) TO (%L)',
+                to_char(day, 'YYYYMMDD'), day, day + 1);
+        day := day + 1;
+    END LOOP;
+END $$;
+
+INSERT INTO order_outbox (id, aggregate_id, type, payload, status, created_at, updated_at,
+                          attempt_count, last_error, next_retry_at, dead_letter_at, lane)
+SELECT id, aggregate_id, type, payload, status, COALESCE(created_at, updated_at, now()), updated_at,
+       attempt_count, last_error, next_retry_at, dead_letter_at, lane
+FROM order_outbox_legacy;
+
+DROP TABLE order_outbox_legacy;
+
+-- 3. Only unfinished rows are ever claimed or retried, so the hot index skips PUBLISHED and DEAD_LETTER rows.
+CREATE INDEX idx_order_outbox_unfinished ON order_outbox(status, lane, created_at)
+    WHERE status IN ('PENDING', 'FAILED', 'PROCESSING');
+
+-- 4. Admin listing by status (including PUBLISHED and DEAD_LETTER)
+CREATE INDEX idx_order_outbox_status_created ON order_outbox(status, created_at);
+
+-- 5. Destination for retired partitions when archival is enabled
+CREATE TABLE order_outbox_archive (LIKE order_outbox INCLUDING DEFAULTS);
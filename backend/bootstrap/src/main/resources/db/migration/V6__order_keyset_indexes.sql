@@ -0,0 +1,9 @@
+-- V6__order_keyset_indexes.sql
+
+-- 1. Keyset pagination orders by (created_at, id); a NULL created_at would drop an order out of every page.
+UPDATE orders SET created_at = COALESCE(updated_at, now()) WHERE created_at IS NULL;
+ALTER TABLE orders ALTER COLUMN created_at SET NOT NULL;
+
+-- 2. Composite indexes matching the keyset order of each listing
+CREATE INDEX idx_orders_created_id ON orders(created_at DESC, id DESC);
+CREATE INDEX idx_orders_user_created_id ON orders(user_id, created_at DESC, id DESC);
@@ -0,0 +1,36 @@
+-- V7__seller_order_view.sql
+
+-- 1. One row per (seller, order), maintained from OrderCreated/OrderPaid/OrderCancelled events
+CREATE TABLE seller_order_view (
+    seller_id VARCHAR(255) NOT NULL,
+    order_id VARCHAR(255) NOT NULL,
+    status VARCHAR(50) NOT NULL,
+    seller_subtotal NUMERIC(19, 2) NOT NULL,
+    currency VARCHAR(10),
+    item_count INT NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP NOT NULL,
+    PRIMARY KEY (seller_id, order_id)
+);
+
+CREATE INDEX idx_seller_order_view_seller_created ON seller_order_view(seller_id, created_at DESC, order_id DESC);
+CREATE INDEX idx_seller_order_view_order ON seller_order_view(order_id);
+
+-- 2. Backfill from existing orders
+INSERT INTO seller_order_view (seller_id, order_id, status, seller_subtotal, currency, item_count, created_at, updated_at)
+SELECT i.seller_id,
+       o.id,
+       CASE
+           WHEN o.status IS NULL OR o.status IN ('CREATED', 'CONFIRMED') THEN 'PENDING'
+           WHEN o.status = 'COMPLETED' THEN 'DELIVERED'
+           ELSE o.status
+       END,
+       COALESCE(SUM(i.price * i.quantity), 0),
+       o.currency,
+       SUM(i.quantity),
+       o.created_at,
+       COALESCE(o.updated_at, o.created_at)
+FROM orders o
+JOIN order_items i ON i.order_id = o.id
+WHERE i.seller_id IS NOT NULL
+GROUP BY i.seller_id, o.id, o.status, o.currency, o.created_at, o.updated_at;
@@ -0,0 +1,15 @@
+-- V8__order_idempotency_keys.sql
+
+-- Fallback store for Idempotency-Key records while Redis is unavailable
+CREATE TABLE order_idempotency_keys (
+    user_id VARCHAR(255) NOT NULL,
+    idempotency_key VARCHAR(255) NOT NULL,
+    fingerprint VARCHAR(64) NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    response TEXT,
+    created_at TIMESTAMP NOT NULL,
+    expires_at TIMESTAMP NOT NULL,
+    PRIMARY KEY (user_id, idempotency_key)
+);
+
+CREATE INDEX idx_order_idempotency_keys_expires ON order_idempotency_keys(expires_at);
@@ -0,0 +1,6 @@
+-- V9__payment_reconciliation_indexes.sql
+
+-- Payment reconciliation merge-joins both tables in binary key order; these indexes let each cursor stream
+-- in that order instead of sorting the whole table first.
+CREATE INDEX idx_payment_transactions_order_ref_c ON payment_transactions(order_id COLLATE "C", reference COLLATE "C");
+CREATE INDEX idx_orders_id_c ON orders(id COLLATE "C");
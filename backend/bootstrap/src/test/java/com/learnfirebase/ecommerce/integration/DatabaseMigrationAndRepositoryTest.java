@@ -22,6 +22,9 @@ import org.springframework.jdbc.core.JdbcTemplate;
 import com.learnfirebase.ecommerce.order.infrastructure.outbox.OutboxEntity;
 import com.learnfirebase.ecommerce.order.infrastructure.outbox.OutboxRepository;
 import com.learnfirebase.ecommerce.order.infrastructure.outbox.OutboxStatus;
+import com.learnfirebase.ecommerce.order.infrastructure.payment.PaymentTransactionEntity;
+import com.learnfirebase.ecommerce.order.infrastructure.payment.PaymentTransactionJpaRepository;
+import com.learnfirebase.ecommerce.order.infrastructure.payment.PaymentTransactionStatus;
 import com.learnfirebase.ecommerce.product.infrastructure.persistence.ProductEntity;
 import com.learnfirebase.ecommerce.product.infrastructure.persistence.ProductJpaRepository;
 import com.learnfirebase.ecommerce.bootstrap.EcommerceApplication;
@@ -57,6 +60,9 @@ class DatabaseMigrationAndRepositoryTest {
     @Autowired
     private ProductJpaRepository productRepository;
 
+    @Autowired
+    private PaymentTransactionJpaRepository paymentTransactionRepository;
+
     @Autowired
     private JdbcTemplate jdbcTemplate;
 
@@ -137,4 +143,44 @@ class DatabaseMigrationAndRepositoryTest {
         java.sql.Timestamp deletedAt = jdbcTemplate.queryForObject(sql, java.sql.Timestamp.class, productId);
         assertThat(deletedAt).isNotNull();
     }
+
+    @Test
+    void paymentTransactionKeysetPagesFollowBinaryOrder() {
+        java.time.Instant settled = java.time.Instant.now().minus(java.time.Duration.ofHours(1));
+        paymentTransactionRepository.saveAllAndFlush(List.of(
+                paymentTransaction("ref-2", "order-a", settled),
+                paymentTransaction("ref-1", "order-a", settled),
+                paymentTransaction("ref-3", "order-B", settled),
+                paymentTransaction("ref-4", "order-c", settled),
+                paymentTransaction("ref-5", "order-c", java.time.Instant.now())));
+        java.time.Instant updatedBefore = java.time.Instant.now().minus(java.time.Duration.ofMinutes(15));
+
+        List<PaymentTransactionJpaRepository.TransactionKey> first =
+                paymentTransactionRepository.findFirstUpdatedBefore(updatedBefore, 2);
+        PaymentTransactionJpaRepository.TransactionKey last = first.get(first.size() - 1);
+        List<PaymentTransactionJpaRepository.TransactionKey> second = paymentTransactionRepository
+                .findUpdatedBeforeAfter(updatedBefore, last.getOrderId(), last.getReference(), 2);
+
+        // Upper case sorts before lower case in binary order; the recently updated ref-5 is still settling.
+        assertThat(first).extracting(PaymentTransactionJpaRepository.TransactionKey::getReference)
+                .containsExactly("ref-3", "ref-1");
+        assertThat(second).extracting(PaymentTransactionJpaRepository.TransactionKey::getReference)
+                .containsExactly("ref-2", "ref-4");
+        assertThat(second.get(0).getStatus()).isEqualTo("SUCCESS");
+        assertThat(second.get(0).getAmount()).isEqualByComparingTo("100000");
+    }
+
+    private static PaymentTransactionEntity paymentTransaction(String reference, String orderId,
+            java.time.Instant updatedAt) {
+        return PaymentTransactionEntity.builder()
+                .reference(reference)
+                .orderId(orderId)
+                .gateway("VNPAY")
+                .amount(new BigDecimal("100000"))
+                .currency("VND")
+                .status(PaymentTransactionStatus.SUCCESS)
+                .createdAt(updatedAt)
+                .updatedAt(updatedAt)
+                .build();
+    }
 }
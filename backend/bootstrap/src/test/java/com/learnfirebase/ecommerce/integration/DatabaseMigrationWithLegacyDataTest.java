@@ -106,6 +106,7 @@ class DatabaseMigrationWithLegacyDataTest {
         org.flywaydb.core.Flyway flywayLatest = org.flywaydb.core.Flyway.configure()
                 .dataSource(dataSource)
                 .locations("classpath:db/migration")
+                .placeholders(java.util.Map.of("outbox_lanes", "8"))
                 .load();
         flywayLatest.migrate();
 
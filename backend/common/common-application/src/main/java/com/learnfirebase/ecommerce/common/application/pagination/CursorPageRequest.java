@@ -0,0 +1,16 @@
+package com.learnfirebase.ecommerce.common.application.pagination;
+
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Keyset page request. {@code cursor} is the opaque value returned as {@code nextCursor} by the previous page,
+ * or null for the first page. Counting the full result set is only done when {@code includeTotal} is set.
+ */
+@Value
+@Builder
+public class CursorPageRequest {
+    String cursor;
+    int size;
+    boolean includeTotal;
+}
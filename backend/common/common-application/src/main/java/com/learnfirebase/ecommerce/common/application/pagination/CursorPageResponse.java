@@ -0,0 +1,21 @@
+package com.learnfirebase.ecommerce.common.application.pagination;
+
+import java.util.List;
+
+import lombok.Builder;
+import lombok.Singular;
+import lombok.Value;
+
+@Value
+@Builder
+public class CursorPageResponse<T> {
+    @Singular("item")
+    List<T> content;
+    String nextCursor;
+    boolean hasNext;
+    int size;
+    /**
+     * Only populated when the request asked for it.
+     */
+    Long totalElements;
+}
@@ -0,0 +1,7 @@
+package com.learnfirebase.ecommerce.common.domain;
+
+public class ConflictDomainException extends DomainException {
+    public ConflictDomainException(String message) {
+        super(message);
+    }
+}
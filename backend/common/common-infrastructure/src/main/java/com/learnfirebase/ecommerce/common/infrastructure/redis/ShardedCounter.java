@@ -0,0 +1,259 @@
+package com.learnfirebase.ecommerce.common.infrastructure.redis;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+
+/**
+ * A stock counter split across N Redis keys, so concurrent takers of one hot counter hit different keys and, on a
+ * Redis Cluster, different slots. Sub-counter {@code i} lives at {@code <key>:<i>} and {@code <key>:shards} holds
+ * N; a counter without the shards key is a plain single key {@code <key>}, which keeps counters written before
+ * sharding readable.
+ * <p>
+ * A take starts at the sub-counter the hint hashes to and probes the next ones. Every script only ever touches one
+ * key, and a sub-counter never goes below zero, so the counter cannot be oversold. When no single sub-counter
+ * holds the quantity the take is gathered from several and given back if they do not add up. A sub-counter that
+ * empties pulls half of the fullest one; units moved between two keys are briefly invisible to {@link #total},
+ * which can therefore under-report but never over-report.
+ * <p>
+ * Units are only ever put back into a sub-counter that still exists, so a counter stays gone once it is
+ * {@linkplain #delete deleted}: a late release neither recreates it as a key without expiry nor revives a sale.
+ */
+public class ShardedCounter {
+    private static final String SHARDS_SUFFIX = ":shards";
+
+    /**
+     * Takes exactly ARGV[1] units if KEYS[1] holds them. Returns what is left, or -1 (also for a missing key).
+     */
+    static final RedisScript<Long> TAKE = new DefaultRedisScript<>(
+            "local current = tonumber(redis.call('get', KEYS[1]) or '-1'); " +
+            "if current >= tonumber(ARGV[1]) then " +
+            "   return redis.call('decrby', KEYS[1], ARGV[1]); " +
+            "end; " +
+            "return -1;",
+            Long.class);
+
+    /**
+     * Takes up to ARGV[1] units from KEYS[1]. Returns the number of units taken.
+     */
+    static final RedisScript<Long> TAKE_UP_TO = new DefaultRedisScript<>(
+            "local current = tonumber(redis.call('get', KEYS[1]) or '0'); " +
+            "local taken = math.min(current, tonumber(ARGV[1])); " +
+            "if taken > 0 then " +
+            "   redis.call('decrby', KEYS[1], taken); " +
+            "end; " +
+            "return math.max(taken, 0);",
+            Long.class);
+
+    /**
+     * Adds ARGV[1] units to KEYS[1] if it exists. Returns the new value, or -1 for a missing key.
+     */
+    static final RedisScript<Long> ADD_IF_EXISTS = new DefaultRedisScript<>(
+            "if redis.call('exists', KEYS[1]) == 1 then " +
+            "   return redis.call('incrby', KEYS[1], ARGV[1]); " +
+            "end; " +
+            "return -1;",
+            Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final int defaultShards;
+    private final int maxProbes;
+    // The shard count of a counter never changes once set, so it is read from Redis once per counter and node.
+    private final Map<String, Integer> shardCounts = new ConcurrentHashMap<>();
+
+    public ShardedCounter(StringRedisTemplate redisTemplate, int defaultShards, int maxProbes) {
+        if (defaultShards < 1 || maxProbes < 1) {
+            throw new IllegalArgumentException("Shards and probes must be positive");
+        }
+        this.redisTemplate = redisTemplate;
+        this.defaultShards = defaultShards;
+        this.maxProbes = maxProbes;
+    }
+
+    /**
+     * Sets the counter to {@code total}, spread evenly over the default number of sub-counters.
+     */
+    public void set(String key, int total) {
+        set(key, total, defaultShards);
+    }
+
+    public void set(String key, int total, int shards) {
+        Map<String, String> values = new LinkedHashMap<>();
+        for (int i = 0; i < shards; i++) {
+            values.put(shardKey(key, i, shards), String.valueOf(total / shards + (i < total % shards ? 1 : 0)));
+        }
+        values.put(key + SHARDS_SUFFIX, String.valueOf(shards));
+        redisTemplate.opsForValue().multiSet(values);
+        shardCounts.put(key, shards);
+    }
+
+    /**
+     * Takes {@code quantity} units, or nothing if the counter does not hold them.
+     *
+     * @param hint spreads takers over the sub-counters (e.g. an order id); {@code null} picks one at random
+     */
+    public boolean tryTake(String key, int quantity, String hint) {
+        int shards = shardCount(key);
+        int start = start(hint, shards);
+        for (int probe = 0; probe < Math.min(shards, maxProbes); probe++) {
+            int shard = (start + probe) % shards;
+            Long left = redisTemplate.execute(TAKE, List.of(shardKey(key, shard, shards)), String.valueOf(quantity));
+            if (left != null && left >= 0) {
+                if (left == 0 && shards > 1) {
+                    rebalance(key, shards, shard);
+                }
+                return true;
+            }
+        }
+        if (shards == 1) {
+            return false;
+        }
+        // One read of every sub-counter rejects a sold-out counter without trying each of them.
+        Integer total = total(key);
+        return total != null && total >= quantity && gather(key, shards, start, quantity);
+    }
+
+    /**
+     * Takes as many units as are available, up to {@code max}, and returns how many were taken.
+     */
+    public int takeUpTo(String key, int max, String hint) {
+        Integer total = total(key);
+        if (total == null || total <= 0) {
+            return 0;
+        }
+        int shards = shardCount(key);
+        int start = start(hint, shards);
+        int taken = 0;
+        for (int probe = 0; probe < shards && taken < max; probe++) {
+            Long got = redisTemplate.execute(TAKE_UP_TO, List.of(shardKey(key, (start + probe) % shards, shards)),
+                    String.valueOf(max - taken));
+            if (got != null) {
+                taken += got.intValue();
+            }
+        }
+        return taken;
+    }
+
+    /**
+     * Puts {@code quantity} units back, e.g. when a reservation is released. Returns {@code false}, and changes
+     * nothing, if the counter does not exist (any more).
+     */
+    public boolean add(String key, int quantity, String hint) {
+        int shards = shardCount(key);
+        return addIfExists(shardKey(key, start(hint, shards), shards), quantity);
+    }
+
+    /**
+     * Sum of all sub-counters, or {@code null} if the counter does not exist.
+     */
+    public Integer total(String key) {
+        List<String> values = read(key, shardCount(key));
+        Integer total = null;
+        for (String value : values) {
+            if (value != null) {
+                total = (total == null ? 0 : total) + Integer.parseInt(value);
+            }
+        }
+        return total;
+    }
+
+    public void delete(String key) {
+        int shards = shardCount(key);
+        List<String> keys = new ArrayList<>(shards + 1);
+        for (int i = 0; i < shards; i++) {
+            keys.add(shardKey(key, i, shards));
+        }
+        keys.add(key + SHARDS_SUFFIX);
+        redisTemplate.delete(keys);
+        shardCounts.remove(key);
+    }
+
+    int shardCount(String key) {
+        Integer cached = shardCounts.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        String stored = redisTemplate.opsForValue().get(key + SHARDS_SUFFIX);
+        if (stored == null) {
+            // Not created yet or written before sharding; not cached, a later set may still shard it.
+            return 1;
+        }
+        int shards = Integer.parseInt(stored);
+        shardCounts.put(key, shards);
+        return shards;
+    }
+
+    static String shardKey(String key, int shard, int shards) {
+        return shards == 1 ? key : key + ":" + shard;
+    }
+
+    private boolean gather(String key, int shards, int start, int quantity) {
+        int remaining = quantity;
+        int[] taken = new int[shards];
+        for (int probe = 0; probe < shards && remaining > 0; probe++) {
+            int shard = (start + probe) % shards;
+            Long got = redisTemplate.execute(TAKE_UP_TO, List.of(shardKey(key, shard, shards)),
+                    String.valueOf(remaining));
+            if (got != null && got > 0) {
+                taken[shard] = got.intValue();
+                remaining -= got.intValue();
+            }
+        }
+        if (remaining == 0) {
+            return true;
+        }
+        // Others took units meanwhile: return what was gathered where it came from.
+        for (int shard = 0; shard < shards; shard++) {
+            if (taken[shard] > 0) {
+                addIfExists(shardKey(key, shard, shards), taken[shard]);
+            }
+        }
+        return false;
+    }
+
+    private void rebalance(String key, int shards, int emptied) {
+        List<String> values = read(key, shards);
+        int donor = -1;
+        int most = 1;
+        for (int shard = 0; shard < values.size(); shard++) {
+            int value = values.get(shard) == null ? 0 : Integer.parseInt(values.get(shard));
+            if (shard != emptied && value > most) {
+                donor = shard;
+                most = value;
+            }
+        }
+        if (donor < 0) {
+            return;
+        }
+        Long moved = redisTemplate.execute(TAKE_UP_TO, List.of(shardKey(key, donor, shards)),
+                String.valueOf(most / 2));
+        if (moved != null && moved > 0) {
+            addIfExists(shardKey(key, emptied, shards), moved);
+        }
+    }
+
+    private boolean addIfExists(String shardKey, long quantity) {
+        Long result = redisTemplate.execute(ADD_IF_EXISTS, List.of(shardKey), String.valueOf(quantity));
+        return result != null && result >= 0;
+    }
+
+    private List<String> read(String key, int shards) {
+        List<String> keys = new ArrayList<>(shards);
+        for (int i = 0; i < shards; i++) {
+            keys.add(shardKey(key, i, shards));
+        }
+        List<String> values = redisTemplate.opsForValue().multiGet(keys);
+        return values == null ? List.of() : values;
+    }
+
+    private static int start(String hint, int shards) {
+        return hint == null ? ThreadLocalRandom.current().nextInt(shards) : Math.floorMod(hint.hashCode(), shards);
+    }
+}
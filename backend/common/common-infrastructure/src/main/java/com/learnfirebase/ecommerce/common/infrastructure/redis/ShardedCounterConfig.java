@@ -0,0 +1,20 @@
+package com.learnfirebase.ecommerce.common.infrastructure.redis;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+@Configuration
+@EnableConfigurationProperties({ShardedCounterProperties.class, StockLeaseProperties.class})
+public class ShardedCounterConfig {
+    @Bean
+    public ShardedCounter shardedCounter(StringRedisTemplate redisTemplate, ShardedCounterProperties properties) {
+        return new ShardedCounter(redisTemplate, properties.getShards(), properties.getMaxProbes());
+    }
+
+    @Bean
+    public StockLeases stockLeases(ShardedCounter shardedCounter, StockLeaseProperties properties) {
+        return new StockLeases(shardedCounter, properties);
+    }
+}
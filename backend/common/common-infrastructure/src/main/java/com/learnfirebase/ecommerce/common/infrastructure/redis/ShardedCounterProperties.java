@@ -0,0 +1,18 @@
+package com.learnfirebase.ecommerce.common.infrastructure.redis;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+@Data
+@ConfigurationProperties(prefix = "redis.sharded-counter")
+public class ShardedCounterProperties {
+    /**
+     * Sub-counters a new counter is split into. Fixed for the lifetime of a counter once it is set.
+     */
+    private int shards = 8;
+    /**
+     * Sub-counters tried for a whole take before the counter is checked as a whole and gathered from.
+     */
+    private int maxProbes = 2;
+}
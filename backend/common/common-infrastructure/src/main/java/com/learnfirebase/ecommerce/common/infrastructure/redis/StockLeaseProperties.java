@@ -0,0 +1,25 @@
+package com.learnfirebase.ecommerce.common.infrastructure.redis;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+@Data
+@ConfigurationProperties(prefix = "redis.stock-lease")
+public class StockLeaseProperties {
+    /**
+     * Serve flash-sale takes from blocks leased to this node instead of one Redis call per take.
+     */
+    private boolean enabled = false;
+    /**
+     * Units a node claims from the shared counter at a time.
+     */
+    private int blockSize = 20;
+    /**
+     * How long a node keeps unused units before handing them back. Bounds how long stock can sit on one node
+     * while another reports the sale as sold out.
+     */
+    private Duration ttl = Duration.ofSeconds(2);
+}
@@ -0,0 +1,156 @@
+package com.learnfirebase.ecommerce.common.infrastructure.redis;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.scheduling.annotation.Scheduled;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Lease mode for a {@link ShardedCounter}: a node claims a block of units from the shared counter in one go and
+ * serves takes from a local counter, so most takes never leave the JVM.
+ * <p>
+ * A unit is only ever sold from a block that was atomically moved out of the shared counter, and the local
+ * counter never goes below zero, so leases cannot oversell. Unused units go back to the shared counter when the
+ * lease expires, when the node cannot serve a take even with a fresh claim (so other nodes can sell them), and
+ * on shutdown. Until then they are missing from {@link ShardedCounter#total}; a node that dies without shutting
+ * down loses its leftovers, which undersells but never oversells.
+ * <p>
+ * When disabled every take goes straight to the shared counter.
+ */
+@Slf4j
+public class StockLeases implements AutoCloseable {
+    private static final int MAX_REFILL_ATTEMPTS = 3;
+
+    private final ShardedCounter counter;
+    private final StockLeaseProperties properties;
+    private final Map<String, Lease> leases = new ConcurrentHashMap<>();
+
+    public StockLeases(ShardedCounter counter, StockLeaseProperties properties) {
+        this.counter = counter;
+        this.properties = properties;
+    }
+
+    public boolean tryTake(String key, int quantity, String hint) {
+        if (!properties.isEnabled()) {
+            return counter.tryTake(key, quantity, hint);
+        }
+        Lease lease = leases.get(key);
+        if (lease != null && lease.take(quantity)) {
+            return true;
+        }
+        for (int attempt = 0; attempt < MAX_REFILL_ATTEMPTS; attempt++) {
+            lease = leases.computeIfAbsent(key, k -> new Lease(System.nanoTime() + properties.getTtl().toNanos()));
+            // Only one thread per key claims from Redis; the others find the refilled lease when they get in.
+            synchronized (lease) {
+                if (lease.take(quantity)) {
+                    return true;
+                }
+                int claimed = counter.takeUpTo(key, Math.max(properties.getBlockSize(), quantity), hint);
+                if (!lease.deposit(claimed)) {
+                    // Expired meanwhile: the units go back and the next attempt starts a fresh lease.
+                    giveBack(key, claimed, hint);
+                    continue;
+                }
+                if (lease.take(quantity)) {
+                    return true;
+                }
+                // Not enough left anywhere this node can see; hand its leftovers back for other nodes to sell.
+                retire(key, lease, hint);
+                return false;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Hands back the unused units of every expired lease.
+     */
+    @Scheduled(fixedDelayString = "${redis.stock-lease.sweep-interval-ms:500}")
+    public void returnExpired() {
+        long now = System.nanoTime();
+        leases.forEach((key, lease) -> {
+            if (now - lease.expiresAt >= 0) {
+                retire(key, lease, null);
+            }
+        });
+    }
+
+    /**
+     * Hands back every lease; called when the node shuts down.
+     */
+    @Override
+    public void close() {
+        leases.forEach((key, lease) -> retire(key, lease, null));
+    }
+
+    /**
+     * Units currently leased to this node for {@code key}.
+     */
+    public int leased(String key) {
+        Lease lease = leases.get(key);
+        return lease == null ? 0 : Math.max(0, lease.remaining.get());
+    }
+
+    private void retire(String key, Lease lease, String hint) {
+        if (leases.remove(key, lease)) {
+            giveBack(key, lease.retire(), hint);
+        }
+    }
+
+    private void giveBack(String key, int units, String hint) {
+        if (units <= 0) {
+            return;
+        }
+        try {
+            if (!counter.add(key, units, hint)) {
+                log.debug("Dropped {} leased units of {}: the counter no longer exists", units, key);
+            }
+        } catch (RuntimeException ex) {
+            log.error("Failed to return {} leased units of {}; they are lost to the sale", units, key, ex);
+        }
+    }
+
+    /**
+     * Local units of one counter. -1 marks a retired lease, which neither serves takes nor accepts deposits, so
+     * units can neither be sold from nor stranded in a lease that was already handed back.
+     */
+    static final class Lease {
+        private final AtomicInteger remaining = new AtomicInteger();
+        private final long expiresAt;
+
+        Lease(long expiresAt) {
+            this.expiresAt = expiresAt;
+        }
+
+        boolean take(int quantity) {
+            for (;;) {
+                int current = remaining.get();
+                if (current < quantity) {
+                    return false;
+                }
+                if (remaining.compareAndSet(current, current - quantity)) {
+                    return true;
+                }
+            }
+        }
+
+        boolean deposit(int units) {
+            for (;;) {
+                int current = remaining.get();
+                if (current < 0) {
+                    return false;
+                }
+                if (remaining.compareAndSet(current, current + units)) {
+                    return true;
+                }
+            }
+        }
+
+        int retire() {
+            return Math.max(0, remaining.getAndSet(-1));
+        }
+    }
+}
@@ -14,6 +14,7 @@ import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.web.server.ResponseStatusException;
 
 import com.learnfirebase.ecommerce.common.domain.AccessDeniedDomainException;
+import com.learnfirebase.ecommerce.common.domain.ConflictDomainException;
 import com.learnfirebase.ecommerce.common.domain.DomainException;
 import com.learnfirebase.ecommerce.common.domain.ResourceNotFoundDomainException;
 import com.learnfirebase.ecommerce.common.infrastructure.logging.LoggingUtils;
@@ -38,6 +39,11 @@ public class GlobalExceptionHandlerBase {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
                 .body(ErrorResponse.of("NOT_FOUND", ex.getMessage(), null));
         }
+        if (ex instanceof ConflictDomainException) {
+            log.warn("Domain conflict", ex);
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(ErrorResponse.of("CONFLICT", ex.getMessage(), null));
+        }
         log.warn("Domain validation error", ex);
         return ResponseEntity.badRequest().body(ErrorResponse.of("DOMAIN_ERROR", ex.getMessage(), null));
     }
@@ -0,0 +1,104 @@
+package com.learnfirebase.ecommerce.common.infrastructure.redis;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+
+/**
+ * Stand-in for the few Redis commands {@link ShardedCounter} uses. Scripts run under one lock, as
+ * they would run atomically in Redis; every template it hands out shares the same data, like nodes sharing one
+ * Redis.
+ */
+final class InMemoryRedis {
+    final Map<String, Long> store = new ConcurrentHashMap<>();
+    final AtomicInteger calls = new AtomicInteger();
+
+    @SuppressWarnings("unchecked")
+    StringRedisTemplate template() {
+        StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+        ValueOperations<String, String> values = mock(ValueOperations.class);
+        when(redisTemplate.opsForValue()).thenReturn(values);
+        when(values.get(anyString())).thenAnswer(invocation -> {
+            calls.incrementAndGet();
+            return read(invocation.getArgument(0));
+        });
+        when(values.multiGet(anyList())).thenAnswer(invocation -> {
+            calls.incrementAndGet();
+            List<String> result = new ArrayList<>();
+            invocation.<List<String>>getArgument(0).forEach(key -> result.add(read(key)));
+            return result;
+        });
+        doAnswer(invocation -> {
+            calls.incrementAndGet();
+            invocation.<Map<String, String>>getArgument(0).forEach((key, value) -> store.put(key, Long.valueOf(value)));
+            return null;
+        }).when(values).multiSet(anyMap());
+        when(redisTemplate.delete(anyCollection())).thenAnswer(invocation -> {
+            calls.incrementAndGet();
+            invocation.<Collection<String>>getArgument(0).forEach(store::remove);
+            return 0L;
+        });
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any())).thenAnswer(invocation -> {
+            RedisScript<?> script = invocation.getArgument(0);
+            String key = invocation.<List<String>>getArgument(1).get(0);
+            long quantity = Long.parseLong(invocation.getArgument(2));
+            if (script == ShardedCounter.ADD_IF_EXISTS) {
+                return addIfExists(key, quantity);
+            }
+            return script == ShardedCounter.TAKE ? take(key, quantity) : takeUpTo(key, quantity);
+        });
+        return redisTemplate;
+    }
+
+    private String read(String key) {
+        Long value = store.get(key);
+        return value == null ? null : String.valueOf(value);
+    }
+
+    private synchronized Long addIfExists(String key, long delta) {
+        calls.incrementAndGet();
+        Long current = store.get(key);
+        if (current == null) {
+            return -1L;
+        }
+        store.put(key, current + delta);
+        return current + delta;
+    }
+
+    private synchronized Long take(String key, long quantity) {
+        calls.incrementAndGet();
+        Long current = store.get(key);
+        if (current == null || current < quantity) {
+            return -1L;
+        }
+        store.put(key, current - quantity);
+        return current - quantity;
+    }
+
+    private synchronized Long takeUpTo(String key, long quantity) {
+        calls.incrementAndGet();
+        Long current = store.get(key);
+        if (current == null) {
+            return 0L;
+        }
+        long taken = Math.max(0, Math.min(current, quantity));
+        store.put(key, current - taken);
+        return taken;
+    }
+}
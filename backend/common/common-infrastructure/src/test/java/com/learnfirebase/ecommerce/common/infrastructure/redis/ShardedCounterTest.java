@@ -0,0 +1,134 @@
+package com.learnfirebase.ecommerce.common.infrastructure.redis;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ShardedCounterTest {
+    private static final String KEY = "flashsale:sale-1:stock";
+
+    private final InMemoryRedis redis = new InMemoryRedis();
+    private final Map<String, Long> store = redis.store;
+    private ShardedCounter counter;
+
+    @BeforeEach
+    void setUp() {
+        counter = new ShardedCounter(redis.template(), 4, 2);
+    }
+
+    @Test
+    void stockIsSpreadEvenlyAndSummedBack() {
+        counter.set(KEY, 10);
+
+        assertThat(store).containsEntry(KEY + ":0", 3L).containsEntry(KEY + ":1", 3L)
+                .containsEntry(KEY + ":2", 2L).containsEntry(KEY + ":3", 2L).containsEntry(KEY + ":shards", 4L);
+        assertThat(counter.total(KEY)).isEqualTo(10);
+    }
+
+    @Test
+    void takeLargerThanAnySubCounterIsGatheredFromSeveral() {
+        counter.set(KEY, 8);
+
+        assertThat(counter.tryTake(KEY, 5, "order-1")).isTrue();
+        assertThat(counter.total(KEY)).isEqualTo(3);
+    }
+
+    @Test
+    void takeBeyondTheTotalFailsAndLeavesStockUntouched() {
+        counter.set(KEY, 8);
+
+        assertThat(counter.tryTake(KEY, 9, "order-1")).isFalse();
+        assertThat(counter.total(KEY)).isEqualTo(8);
+    }
+
+    @Test
+    void emptiedSubCounterIsRefilledFromTheFullestOne() {
+        counter.set(KEY, 0);
+        store.put(KEY + ":1", 1L);
+        store.put(KEY + ":2", 6L);
+        assertThat(counter.tryTake(KEY, 1, hintFor(1))).isTrue();
+
+        assertThat(store.get(KEY + ":1")).isEqualTo(3L);
+        assertThat(store.get(KEY + ":2")).isEqualTo(3L);
+        assertThat(counter.total(KEY)).isEqualTo(6);
+    }
+
+    @Test
+    void counterWithoutShardsKeyIsASingleKey() {
+        store.put(KEY, 2L);
+
+        assertThat(counter.tryTake(KEY, 2, "order-1")).isTrue();
+        assertThat(counter.tryTake(KEY, 1, "order-2")).isFalse();
+        assertThat(counter.total(KEY)).isZero();
+    }
+
+    @Test
+    void releasedUnitsCanBeTakenAgain() {
+        counter.set(KEY, 1);
+        assertThat(counter.tryTake(KEY, 1, "order-1")).isTrue();
+
+        counter.add(KEY, 1, null);
+
+        assertThat(counter.tryTake(KEY, 1, "order-2")).isTrue();
+        assertThat(counter.total(KEY)).isZero();
+    }
+
+    @Test
+    void releaseAfterDeleteDoesNotRecreateTheCounter() {
+        counter.set(KEY, 4);
+        counter.delete(KEY);
+
+        assertThat(counter.add(KEY, 2, "order-1")).isFalse();
+
+        assertThat(store).isEmpty();
+        assertThat(counter.total(KEY)).isNull();
+    }
+
+    @Test
+    void releaseOnANodeThatMissedTheDeleteDoesNotRecreateASubCounter() {
+        counter.set(KEY, 4);
+        // This node still caches the shard count; another node deletes the counter.
+        new ShardedCounter(redis.template(), 4, 2).delete(KEY);
+
+        assertThat(counter.add(KEY, 2, "order-1")).isFalse();
+
+        assertThat(store).isEmpty();
+    }
+
+    @Test
+    void concurrentTakersNeverOversell() throws Exception {
+        counter.set(KEY, 500);
+        AtomicInteger sold = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 2000; i++) {
+            String orderId = "order-" + i;
+            int quantity = 1 + i % 3;
+            pool.execute(() -> {
+                if (counter.tryTake(KEY, quantity, orderId)) {
+                    sold.addAndGet(quantity);
+                }
+            });
+        }
+        pool.shutdown();
+        assertThat(pool.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(sold.get()).isLessThanOrEqualTo(500);
+        assertThat(sold.get() + counter.total(KEY)).isEqualTo(500);
+        store.forEach((key, value) -> assertThat(value).as(key).isNotNegative());
+    }
+
+    private static String hintFor(int shard) {
+        for (int i = 0; ; i++) {
+            if (Math.floorMod(("order-" + i).hashCode(), 4) == shard) {
+                return "order-" + i;
+            }
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.learnfirebase.ecommerce.common.infrastructure.redis;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+class StockLeasesTest {
+    private static final String KEY = "flashsale:sale-1:stock";
+
+    private final InMemoryRedis redis = new InMemoryRedis();
+
+    @Test
+    void takesAreServedLocallyFromOneClaimedBlock() {
+        ShardedCounter counter = new ShardedCounter(redis.template(), 4, 2);
+        counter.set(KEY, 100);
+        StockLeases leases = new StockLeases(counter, properties(true, 10, Duration.ofMinutes(1)));
+
+        assertThat(leases.tryTake(KEY, 1, "order-1")).isTrue();
+        int afterClaim = redis.calls.get();
+        for (int i = 0; i < 9; i++) {
+            assertThat(leases.tryTake(KEY, 1, "order-" + i)).isTrue();
+        }
+
+        assertThat(redis.calls.get()).isEqualTo(afterClaim);
+        assertThat(counter.total(KEY)).isEqualTo(90);
+        assertThat(leases.leased(KEY)).isZero();
+    }
+
+    @Test
+    void unusedUnitsGoBackOnExpiryAndShutdown() throws Exception {
+        ShardedCounter counter = new ShardedCounter(redis.template(), 4, 2);
+        counter.set(KEY, 100);
+        StockLeases expiring = new StockLeases(counter, properties(true, 10, Duration.ofMillis(1)));
+        StockLeases closing = new StockLeases(counter, properties(true, 10, Duration.ofMinutes(1)));
+
+        assertThat(expiring.tryTake(KEY, 3, "order-1")).isTrue();
+        assertThat(closing.tryTake(KEY, 4, "order-2")).isTrue();
+        assertThat(counter.total(KEY)).isEqualTo(80);
+
+        Thread.sleep(5);
+        expiring.returnExpired();
+        closing.returnExpired();
+        assertThat(counter.total(KEY)).isEqualTo(87);
+
+        closing.close();
+        assertThat(counter.total(KEY)).isEqualTo(93);
+    }
+
+    @Test
+    void nodeThatCannotServeATakeHandsItsLeftoversBack() {
+        ShardedCounter counter = new ShardedCounter(redis.template(), 4, 2);
+        counter.set(KEY, 12);
+        StockLeases first = new StockLeases(counter, properties(true, 10, Duration.ofMinutes(1)));
+        StockLeases second = new StockLeases(counter, properties(true, 10, Duration.ofMinutes(1)));
+
+        assertThat(first.tryTake(KEY, 1, "order-1")).isTrue();
+        assertThat(second.tryTake(KEY, 5, "order-2")).isFalse();
+
+        // The 2 units the second node could claim went back, so the first node's leftovers plus them remain.
+        assertThat(counter.total(KEY)).isEqualTo(2);
+        assertThat(first.leased(KEY)).isEqualTo(9);
+        assertThat(second.leased(KEY)).isZero();
+    }
+
+    @Test
+    void disabledLeasesTakeFromRedisEveryTime() {
+        ShardedCounter counter = new ShardedCounter(redis.template(), 4, 2);
+        counter.set(KEY, 5);
+        StockLeases leases = new StockLeases(counter, properties(false, 10, Duration.ofMinutes(1)));
+
+        assertThat(leases.tryTake(KEY, 2, "order-1")).isTrue();
+
+        assertThat(counter.total(KEY)).isEqualTo(3);
+        assertThat(leases.leased(KEY)).isZero();
+    }
+
+    /**
+     * Several nodes, each with its own counter and leases over one shared store, sell a sale out while their
+     * leases keep expiring. Every unit ends up either sold or back in Redis, and none is sold twice.
+     */
+    @Test
+    void simulatedNodesNeverOversell() throws Exception {
+        int stock = 2_000;
+        int nodes = 6;
+        int buyersPerNode = 4;
+        new ShardedCounter(redis.template(), 8, 2).set(KEY, stock);
+        List<StockLeases> cluster = new ArrayList<>();
+        for (int node = 0; node < nodes; node++) {
+            cluster.add(new StockLeases(new ShardedCounter(redis.template(), 8, 2),
+                    properties(true, 1 + node * 7, Duration.ofMillis(2 + node))));
+        }
+
+        AtomicInteger sold = new AtomicInteger();
+        AtomicBoolean running = new AtomicBoolean(true);
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(nodes * buyersPerNode + 1);
+        pool.execute(() -> {
+            while (running.get()) {
+                cluster.forEach(StockLeases::returnExpired);
+            }
+        });
+        List<Future<?>> buyers = new ArrayList<>();
+        for (int node = 0; node < nodes; node++) {
+            StockLeases leases = cluster.get(node);
+            for (int buyer = 0; buyer < buyersPerNode; buyer++) {
+                String prefix = "node-" + node + "-buyer-" + buyer + "-";
+                buyers.add(pool.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < 400; i++) {
+                        int quantity = 1 + i % 3;
+                        if (leases.tryTake(KEY, quantity, prefix + i)) {
+                            sold.addAndGet(quantity);
+                        }
+                    }
+                    return null;
+                }));
+            }
+        }
+        start.countDown();
+        for (Future<?> buyer : buyers) {
+            buyer.get(60, TimeUnit.SECONDS);
+        }
+        running.set(false);
+        pool.shutdown();
+        assertThat(pool.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+        cluster.forEach(StockLeases::close);
+
+        ShardedCounter reader = new ShardedCounter(redis.template(), 8, 2);
+        assertThat(sold.get()).isLessThanOrEqualTo(stock);
+        assertThat(sold.get() + reader.total(KEY)).isEqualTo(stock);
+        redis.store.forEach((key, value) -> assertThat(value).as(key).isNotNegative());
+    }
+
+    private static StockLeaseProperties properties(boolean enabled, int blockSize, Duration ttl) {
+        StockLeaseProperties properties = new StockLeaseProperties();
+        properties.setEnabled(enabled);
+        properties.setBlockSize(blockSize);
+        properties.setTtl(ttl);
+        return properties;
+    }
+}
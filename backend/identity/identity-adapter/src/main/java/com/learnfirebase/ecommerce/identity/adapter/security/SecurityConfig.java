@@ -32,7 +32,7 @@ public class SecurityConfig {
     @Value("${cors.allowed-methods:GET,POST,PUT,PATCH,DELETE,OPTIONS}")
     private String allowedMethods;
 
-    @Value("${cors.allowed-headers:Authorization,Content-Type,Accept,X-Requested-With,Cache-Control}")
+    @Value("${cors.allowed-headers:Authorization,Content-Type,Accept,X-Requested-With,Cache-Control,Idempotency-Key}")
     private String allowedHeaders;
 
     @Value("${cors.allow-credentials:true}")
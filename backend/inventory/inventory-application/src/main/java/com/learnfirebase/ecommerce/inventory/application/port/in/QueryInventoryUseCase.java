@@ -1,8 +1,17 @@
 package com.learnfirebase.ecommerce.inventory.application.port.in;
 
+import java.util.Collection;
+import java.util.Map;
+
 import com.learnfirebase.ecommerce.common.application.UseCase;
 import com.learnfirebase.ecommerce.inventory.application.dto.InventoryDto;
 
 public interface QueryInventoryUseCase extends UseCase {
     InventoryDto getInventoryByProductId(String productId);
+
+    /**
+     * Resolves the stock of many SKUs in one Redis round trip, reading the database only for SKUs Redis does not
+     * know. SKUs without stock in either store are absent from the result.
+     */
+    Map<String, InventoryDto.ItemDto> getAvailability(Collection<String> skus);
 }
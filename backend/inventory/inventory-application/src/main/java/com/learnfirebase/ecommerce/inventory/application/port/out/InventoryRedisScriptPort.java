@@ -1,9 +1,19 @@
 package com.learnfirebase.ecommerce.inventory.application.port.out;
 
+import java.util.Collection;
 import java.util.Map;
 
 public interface InventoryRedisScriptPort {
     boolean executeAtomicReserve(String inventoryId, Map<String, Integer> reservations);
     int getAvailable(String inventoryId, String productId);
     int getReserved(String inventoryId, String productId);
+
+    /**
+     * Reads the counters of all given products with a single MGET. Products whose available counter is not in
+     * Redis are left out of the result.
+     */
+    Map<String, StockLevel> getStockLevels(String inventoryId, Collection<String> productIds);
+
+    record StockLevel(int available, int reserved) {
+    }
 }
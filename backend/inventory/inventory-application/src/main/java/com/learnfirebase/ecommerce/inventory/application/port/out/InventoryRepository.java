@@ -1,12 +1,27 @@
 package com.learnfirebase.ecommerce.inventory.application.port.out;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 import com.learnfirebase.ecommerce.inventory.domain.model.Inventory;
 import com.learnfirebase.ecommerce.inventory.domain.model.InventoryId;
+import com.learnfirebase.ecommerce.inventory.domain.model.InventoryItem;
 
 public interface InventoryRepository {
     Inventory save(Inventory inventory);
 
     Optional<Inventory> findById(InventoryId id);
+
+    Optional<InventoryItem> findItem(InventoryId inventoryId, String productId);
+
+    List<InventoryItem> findItems(InventoryId inventoryId, Collection<String> productIds);
+
+    /**
+     * Inserts a new item or updates an existing one if its version is unchanged.
+     *
+     * @throws com.learnfirebase.ecommerce.common.domain.ConflictDomainException if the item was changed (or
+     *         created) concurrently
+     */
+    InventoryItem saveItem(InventoryItem item);
 }
@@ -1,74 +1,136 @@
 package com.learnfirebase.ecommerce.inventory.application.service;
 
-import java.util.UUID;
-import java.util.stream.Collectors;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
+import com.learnfirebase.ecommerce.common.domain.ConflictDomainException;
+import com.learnfirebase.ecommerce.common.domain.DomainEvent;
 import com.learnfirebase.ecommerce.inventory.application.command.AdjustInventoryCommand;
 import com.learnfirebase.ecommerce.inventory.application.dto.InventoryDto;
 import com.learnfirebase.ecommerce.inventory.application.port.in.ManageInventoryUseCase;
+import com.learnfirebase.ecommerce.inventory.application.port.in.QueryInventoryUseCase;
 import com.learnfirebase.ecommerce.inventory.application.port.out.InventoryEventPublisher;
 import com.learnfirebase.ecommerce.inventory.application.port.out.InventoryRedisScriptPort;
+import com.learnfirebase.ecommerce.inventory.application.port.out.InventoryRedisScriptPort.StockLevel;
 import com.learnfirebase.ecommerce.inventory.application.port.out.InventoryRepository;
-import com.learnfirebase.ecommerce.inventory.domain.exception.InventoryDomainException;
 import com.learnfirebase.ecommerce.inventory.domain.model.Inventory;
 import com.learnfirebase.ecommerce.inventory.domain.model.InventoryId;
+import com.learnfirebase.ecommerce.inventory.domain.model.InventoryItem;
 import com.learnfirebase.ecommerce.inventory.domain.model.Warehouse;
 
 import lombok.RequiredArgsConstructor;
 
-import com.learnfirebase.ecommerce.inventory.application.port.in.QueryInventoryUseCase;
-
+/**
+ * Adjusts and reads stock one (inventory, SKU) row at a time, so the cost of a call does not depend on the
+ * size of the catalog. Concurrent adjustments of the same SKU are serialised by the row version: a conflicting
+ * save is retried on a fresh read, adjustments of different SKUs never contend.
+ */
 @RequiredArgsConstructor
 public class InventoryApplicationService implements ManageInventoryUseCase, QueryInventoryUseCase {
+    static final int MAX_ADJUST_ATTEMPTS = 5;
+    private static final String DEFAULT_INVENTORY_ID = "DEFAULT_INVENTORY";
+    private static final String DEFAULT_WAREHOUSE_ID = "default";
+
     private final InventoryRepository inventoryRepository;
     private final InventoryRedisScriptPort redisScriptPort;
     private final InventoryEventPublisher eventPublisher;
-    private static final String DEFAULT_INVENTORY_ID = "DEFAULT_INVENTORY";
 
     @Override
     public InventoryDto execute(AdjustInventoryCommand command) {
-        String inventoryId = command.getInventoryId() != null ? command.getInventoryId() : DEFAULT_INVENTORY_ID;
-        Inventory inventory = inventoryRepository.findById(new InventoryId(inventoryId))
-            .orElse(Inventory.builder()
-                .id(new InventoryId(inventoryId != null ? inventoryId : UUID.randomUUID().toString()))
-                .warehouse(Warehouse.builder().id("default").name("Default").build())
-                .build());
-        inventory.adjust(command.getProductId(), command.getDelta());
-        Inventory saved = inventoryRepository.save(inventory);
-        redisScriptPort.executeAtomicReserve(saved.getId().getValue(), java.util.Map.of(command.getProductId(), command.getDelta()));
-        eventPublisher.publish(new com.learnfirebase.ecommerce.common.domain.DomainEvent() {});
-        return toDto(saved);
+        InventoryId inventoryId = new InventoryId(
+            command.getInventoryId() != null ? command.getInventoryId() : DEFAULT_INVENTORY_ID);
+        Inventory inventory = inventoryRepository.findById(inventoryId)
+            .orElseGet(() -> inventoryRepository.save(Inventory.builder()
+                .id(inventoryId)
+                .warehouse(Warehouse.builder().id(DEFAULT_WAREHOUSE_ID).name("Default").build())
+                .build()));
+        InventoryItem saved = adjust(inventoryId, command.getProductId(), command.getDelta());
+        redisScriptPort.executeAtomicReserve(inventoryId.getValue(), Map.of(command.getProductId(), command.getDelta()));
+        eventPublisher.publish(new DomainEvent() {});
+        return toDto(inventory, saved);
     }
 
     @Override
     public InventoryDto getInventoryByProductId(String productId) {
-        // Since we only have a default inventory for now, we scan for it.
-        // Ideally we should have a lookup table or index by productId
-        // For now, we'll fetch the default inventory
-        Inventory inventory = inventoryRepository.findById(new InventoryId(DEFAULT_INVENTORY_ID))
-             .orElseThrow(() -> new InventoryDomainException("Default inventory not found"));
-        
-        return toDto(inventory);
+        // Same path as the batch read: one Redis MGET, the item row only on a miss, no aggregate lookup.
+        InventoryDto.ItemDto item = getAvailability(List.of(productId)).get(productId);
+        return InventoryDto.builder()
+            .id(DEFAULT_INVENTORY_ID)
+            .warehouseId(DEFAULT_WAREHOUSE_ID)
+            .items(item == null ? List.of() : List.of(item))
+            .build();
     }
 
-    private InventoryDto toDto(Inventory inventory) {
-        if (inventory.getId() == null) {
-            throw new InventoryDomainException("Inventory missing id");
+    @Override
+    public Map<String, InventoryDto.ItemDto> getAvailability(Collection<String> skus) {
+        if (skus == null || skus.isEmpty()) {
+            return Map.of();
+        }
+        Set<String> distinct = new LinkedHashSet<>(skus);
+        distinct.remove(null);
+        Map<String, InventoryDto.ItemDto> result = new HashMap<>(distinct.size() * 2);
+        Map<String, StockLevel> cached = redisScriptPort.getStockLevels(DEFAULT_INVENTORY_ID, distinct);
+        List<String> missing = new ArrayList<>();
+        for (String sku : distinct) {
+            StockLevel level = cached.get(sku);
+            if (level == null) {
+                missing.add(sku);
+            } else {
+                result.put(sku, toItemDto(sku, level.available(), level.reserved()));
+            }
         }
+        if (!missing.isEmpty()) {
+            inventoryRepository.findItems(new InventoryId(DEFAULT_INVENTORY_ID), missing).forEach(item ->
+                result.put(item.getProductId(), toItemDto(item.getProductId(), item.getAvailable(), item.getReserved())));
+        }
+        return result;
+    }
+
+    private InventoryItem adjust(InventoryId inventoryId, String productId, int delta) {
+        for (int attempt = 1; ; attempt++) {
+            InventoryItem item = inventoryRepository.findItem(inventoryId, productId)
+                .orElse(InventoryItem.builder()
+                    .inventoryId(inventoryId.getValue())
+                    .productId(productId)
+                    .build());
+            item.adjust(delta);
+            try {
+                return inventoryRepository.saveItem(item);
+            } catch (ConflictDomainException ex) {
+                if (attempt >= MAX_ADJUST_ATTEMPTS) {
+                    throw ex;
+                }
+            }
+        }
+    }
+
+    private InventoryDto toDto(Inventory inventory, InventoryItem item) {
+        InventoryId inventoryId = inventory.getId();
         return InventoryDto.builder()
-            .id(inventory.getId().getValue())
+            .id(inventoryId.getValue())
             .warehouseId(inventory.getWarehouse() != null ? inventory.getWarehouse().getId() : null)
-            .items(inventory.getItems().stream()
-                .map(item -> InventoryDto.ItemDto.builder()
-                    .productId(item.getProductId())
-                    .available(resolveAvailable(inventory.getId(), item))
-                    .reserved(resolveReserved(inventory.getId(), item))
-                    .build())
-                .collect(Collectors.toList()))
+            .items(item == null ? List.of() : List.of(InventoryDto.ItemDto.builder()
+                .productId(item.getProductId())
+                .available(resolveAvailable(inventoryId, item))
+                .reserved(resolveReserved(inventoryId, item))
+                .build()))
+            .build();
+    }
+
+    private static InventoryDto.ItemDto toItemDto(String productId, int available, int reserved) {
+        return InventoryDto.ItemDto.builder()
+            .productId(productId)
+            .available(available)
+            .reserved(reserved)
             .build();
     }
 
-    private int resolveAvailable(InventoryId inventoryId, com.learnfirebase.ecommerce.inventory.domain.model.InventoryItem item) {
+    private int resolveAvailable(InventoryId inventoryId, InventoryItem item) {
         int available = redisScriptPort.getAvailable(inventoryId.getValue(), item.getProductId());
         if (available == 0) {
             available = item.getAvailable();
@@ -76,7 +138,7 @@ public class InventoryApplicationService implements ManageInventoryUseCase, Quer
         return available;
     }
 
-    private int resolveReserved(InventoryId inventoryId, com.learnfirebase.ecommerce.inventory.domain.model.InventoryItem item) {
+    private int resolveReserved(InventoryId inventoryId, InventoryItem item) {
         int reserved = redisScriptPort.getReserved(inventoryId.getValue(), item.getProductId());
         if (reserved == 0) {
             reserved = item.getReserved();
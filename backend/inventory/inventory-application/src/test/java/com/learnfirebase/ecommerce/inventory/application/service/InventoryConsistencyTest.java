@@ -3,22 +3,29 @@ package com.learnfirebase.ecommerce.inventory.application.service;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
-import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import com.learnfirebase.ecommerce.common.domain.ConflictDomainException;
 import com.learnfirebase.ecommerce.inventory.application.command.AdjustInventoryCommand;
 import com.learnfirebase.ecommerce.inventory.application.dto.InventoryDto;
 import com.learnfirebase.ecommerce.inventory.application.port.out.InventoryEventPublisher;
 import com.learnfirebase.ecommerce.inventory.application.port.out.InventoryRedisScriptPort;
+import com.learnfirebase.ecommerce.inventory.application.port.out.InventoryRedisScriptPort.StockLevel;
 import com.learnfirebase.ecommerce.inventory.application.port.out.InventoryRepository;
 import com.learnfirebase.ecommerce.inventory.domain.exception.InventoryDomainException;
 import com.learnfirebase.ecommerce.inventory.domain.model.Inventory;
@@ -28,6 +35,8 @@ import com.learnfirebase.ecommerce.inventory.domain.model.Warehouse;
 
 class InventoryConsistencyTest {
 
+    private static final InventoryId INVENTORY_ID = new InventoryId("DEFAULT_INVENTORY");
+
     private InventoryRepository inventoryRepository;
     private InventoryRedisScriptPort redisScriptPort;
     private InventoryEventPublisher eventPublisher;
@@ -39,19 +48,16 @@ class InventoryConsistencyTest {
         redisScriptPort = mock(InventoryRedisScriptPort.class);
         eventPublisher = mock(InventoryEventPublisher.class);
         service = new InventoryApplicationService(inventoryRepository, redisScriptPort, eventPublisher);
+        when(inventoryRepository.findById(eq(INVENTORY_ID))).thenReturn(Optional.of(Inventory.builder()
+                .id(INVENTORY_ID)
+                .warehouse(Warehouse.builder().id("default").name("Default").build())
+                .build()));
     }
 
     @Test
     void executeAdjustmentUpdatesDbAndRedis() {
-        InventoryId invId = new InventoryId("DEFAULT_INVENTORY");
-        Inventory mockInventory = Inventory.builder()
-                .id(invId)
-                .warehouse(Warehouse.builder().id("default").name("Default").build())
-                .items(new ArrayList<>())
-                .build();
-
-        when(inventoryRepository.findById(eq(invId))).thenReturn(Optional.of(mockInventory));
-        when(inventoryRepository.save(any(Inventory.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(inventoryRepository.findItem(eq(INVENTORY_ID), eq("prod-1"))).thenReturn(Optional.empty());
+        when(inventoryRepository.saveItem(any(InventoryItem.class))).thenAnswer(invocation -> invocation.getArgument(0));
         when(redisScriptPort.executeAtomicReserve(eq("DEFAULT_INVENTORY"), any())).thenReturn(true);
         when(redisScriptPort.getAvailable(eq("DEFAULT_INVENTORY"), eq("prod-1"))).thenReturn(50);
         when(redisScriptPort.getReserved(eq("DEFAULT_INVENTORY"), eq("prod-1"))).thenReturn(5);
@@ -66,29 +72,23 @@ class InventoryConsistencyTest {
 
         assertNotNull(result);
         assertEquals("DEFAULT_INVENTORY", result.getId());
+        assertEquals("default", result.getWarehouseId());
         assertEquals(1, result.getItems().size());
         assertEquals("prod-1", result.getItems().get(0).getProductId());
         assertEquals(50, result.getItems().get(0).getAvailable());
         assertEquals(5, result.getItems().get(0).getReserved());
 
-        verify(inventoryRepository).save(any(Inventory.class));
+        verify(inventoryRepository).saveItem(any(InventoryItem.class));
+        verify(inventoryRepository, never()).save(any(Inventory.class));
         verify(redisScriptPort).executeAtomicReserve(eq("DEFAULT_INVENTORY"), any());
         verify(eventPublisher).publish(any());
     }
 
     @Test
     void executeAdjustmentThrowsOnInsufficientStock() {
-        InventoryId invId = new InventoryId("DEFAULT_INVENTORY");
-        ArrayList<InventoryItem> items = new ArrayList<>();
-        items.add(InventoryItem.builder().productId("prod-1").available(10).reserved(0).build());
-        
-        Inventory mockInventory = Inventory.builder()
-                .id(invId)
-                .warehouse(Warehouse.builder().id("default").name("Default").build())
-                .items(items)
-                .build();
-
-        when(inventoryRepository.findById(eq(invId))).thenReturn(Optional.of(mockInventory));
+        when(inventoryRepository.findItem(eq(INVENTORY_ID), eq("prod-1"))).thenReturn(Optional.of(
+                InventoryItem.builder().inventoryId("DEFAULT_INVENTORY").productId("prod-1").available(10).reserved(0)
+                        .version(3L).build()));
 
         AdjustInventoryCommand command = AdjustInventoryCommand.builder()
                 .inventoryId("DEFAULT_INVENTORY")
@@ -97,5 +97,116 @@ class InventoryConsistencyTest {
                 .build();
 
         assertThrows(InventoryDomainException.class, () -> service.execute(command));
+        verify(inventoryRepository, never()).saveItem(any());
+    }
+
+    @Test
+    void conflictingAdjustmentIsRetriedOnAFreshRead() {
+        when(inventoryRepository.findItem(eq(INVENTORY_ID), eq("prod-1")))
+                .thenReturn(Optional.of(item(10, 1L)))
+                .thenReturn(Optional.of(item(7, 2L)));
+        when(inventoryRepository.saveItem(any(InventoryItem.class)))
+                .thenThrow(new ConflictDomainException("changed concurrently"))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        InventoryDto result = service.execute(AdjustInventoryCommand.builder()
+                .productId("prod-1")
+                .delta(-2)
+                .build());
+
+        assertEquals(5, result.getItems().get(0).getAvailable());
+        verify(inventoryRepository, times(2)).saveItem(any(InventoryItem.class));
+    }
+
+    @Test
+    void persistentConflictGivesUpAfterTheRetryBudget() {
+        when(inventoryRepository.findItem(eq(INVENTORY_ID), eq("prod-1"))).thenReturn(Optional.of(item(10, 1L)));
+        when(inventoryRepository.saveItem(any(InventoryItem.class)))
+                .thenThrow(new ConflictDomainException("changed concurrently"));
+
+        assertThrows(ConflictDomainException.class, () -> service.execute(AdjustInventoryCommand.builder()
+                .productId("prod-1")
+                .delta(1)
+                .build()));
+        verify(inventoryRepository, times(InventoryApplicationService.MAX_ADJUST_ATTEMPTS)).saveItem(any());
+    }
+
+    @Test
+    void queryReadsOnlyTheRequestedSku() {
+        when(inventoryRepository.findItems(eq(INVENTORY_ID), eq(List.of("prod-1")))).thenReturn(List.of(item(8, 4L)));
+
+        InventoryDto result = service.getInventoryByProductId("prod-1");
+
+        assertEquals(1, result.getItems().size());
+        assertEquals("prod-1", result.getItems().get(0).getProductId());
+        assertEquals(8, result.getItems().get(0).getAvailable());
+        assertEquals("default", result.getWarehouseId());
+        verify(inventoryRepository, never()).findById(any());
+        verify(inventoryRepository, never()).findItem(any(), any());
+    }
+
+    @Test
+    void queryServedFromRedisDoesNotTouchTheDatabase() {
+        when(redisScriptPort.getStockLevels(eq("DEFAULT_INVENTORY"), any()))
+                .thenReturn(Map.of("prod-1", new StockLevel(5, 1)));
+
+        InventoryDto result = service.getInventoryByProductId("prod-1");
+
+        assertEquals(5, result.getItems().get(0).getAvailable());
+        assertEquals(1, result.getItems().get(0).getReserved());
+        verifyNoInteractions(inventoryRepository);
+    }
+
+    @Test
+    void queryOfAnUnknownSkuHasNoItems() {
+        when(inventoryRepository.findItems(eq(INVENTORY_ID), eq(List.of("unknown")))).thenReturn(List.of());
+
+        assertTrue(service.getInventoryByProductId("unknown").getItems().isEmpty());
+    }
+
+    @Test
+    void availabilityReadsRedisOnceAndFallsBackToDbForUnknownSkus() {
+        when(redisScriptPort.getStockLevels(eq("DEFAULT_INVENTORY"), any()))
+                .thenReturn(Map.of("prod-1", new StockLevel(12, 2)));
+        when(inventoryRepository.findItems(eq(INVENTORY_ID), eq(List.of("sku-2", "sku-3"))))
+                .thenReturn(List.of(InventoryItem.builder().inventoryId("DEFAULT_INVENTORY").productId("sku-2")
+                        .available(4).reserved(1).version(1L).build()));
+
+        Map<String, InventoryDto.ItemDto> result = service.getAvailability(List.of("prod-1", "sku-2", "sku-3", "prod-1"));
+
+        assertEquals(2, result.size());
+        assertEquals(12, result.get("prod-1").getAvailable());
+        assertEquals(2, result.get("prod-1").getReserved());
+        assertEquals(4, result.get("sku-2").getAvailable());
+        assertEquals(1, result.get("sku-2").getReserved());
+        verify(redisScriptPort, times(1)).getStockLevels(any(), any());
+        verify(inventoryRepository, times(1)).findItems(any(), any());
+    }
+
+    @Test
+    void availabilityServedFromRedisDoesNotTouchTheDb() {
+        when(redisScriptPort.getStockLevels(eq("DEFAULT_INVENTORY"), any()))
+                .thenReturn(Map.of("prod-1", new StockLevel(0, 0)));
+
+        Map<String, InventoryDto.ItemDto> result = service.getAvailability(List.of("prod-1"));
+
+        assertEquals(0, result.get("prod-1").getAvailable());
+        verify(inventoryRepository, never()).findItems(any(), any());
+    }
+
+    @Test
+    void availabilityOfNothingIsEmpty() {
+        assertTrue(service.getAvailability(List.of()).isEmpty());
+        verifyNoInteractions(redisScriptPort);
+    }
+
+    private static InventoryItem item(int available, long version) {
+        return InventoryItem.builder()
+                .inventoryId("DEFAULT_INVENTORY")
+                .productId("prod-1")
+                .available(available)
+                .reserved(0)
+                .version(version)
+                .build();
     }
 }
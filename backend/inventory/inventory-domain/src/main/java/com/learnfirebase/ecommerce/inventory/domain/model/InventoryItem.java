@@ -1,16 +1,32 @@
 package com.learnfirebase.ecommerce.inventory.domain.model;
 
+import com.learnfirebase.ecommerce.inventory.domain.exception.InventoryDomainException;
+
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+/**
+ * Stock of one SKU in one inventory (warehouse). Stored and updated on its own; {@code version} guards
+ * concurrent adjustments of the same row and is null until the item is first saved.
+ */
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 public class InventoryItem {
+    private String inventoryId;
     private String productId;
     private int available;
     private int reserved;
+    private Long version;
+
+    public void adjust(int delta) {
+        int next = available + delta;
+        if (next < 0) {
+            throw new InventoryDomainException("Insufficient stock for product " + productId);
+        }
+        available = next;
+    }
 }
@@ -1,13 +1,7 @@
 package com.learnfirebase.ecommerce.inventory.infrastructure.persistence;
 
-import java.util.List;
-
-import jakarta.persistence.CollectionTable;
-import jakarta.persistence.ElementCollection;
 import jakarta.persistence.Entity;
-import jakarta.persistence.FetchType;
 import jakarta.persistence.Id;
-import jakarta.persistence.JoinColumn;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -24,8 +18,4 @@ public class InventoryEntity {
     @Id
     private String id;
     private String warehouseId;
-
-    @ElementCollection(fetch = FetchType.EAGER)
-    @CollectionTable(name = "inventory_items", joinColumns = @JoinColumn(name = "inventory_id"))
-    private List<InventoryItemEmbeddable> items;
 }
@@ -0,0 +1,42 @@
+package com.learnfirebase.ecommerce.inventory.infrastructure.persistence;
+
+import java.io.Serializable;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import jakarta.persistence.Version;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Entity
+@Table(name = "inventory_items")
+@IdClass(InventoryItemEntity.Key.class)
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryItemEntity {
+    @Id
+    @Column(name = "inventory_id")
+    private String inventoryId;
+    @Id
+    @Column(name = "product_id")
+    private String productId;
+    private int available;
+    private int reserved;
+    @Version
+    private Long version;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private String inventoryId;
+        private String productId;
+    }
+}
@@ -0,0 +1,10 @@
+package com.learnfirebase.ecommerce.inventory.infrastructure.persistence;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface InventoryItemJpaRepository extends JpaRepository<InventoryItemEntity, InventoryItemEntity.Key> {
+    List<InventoryItemEntity> findByInventoryIdAndProductIdIn(String inventoryId, Collection<String> productIds);
+}
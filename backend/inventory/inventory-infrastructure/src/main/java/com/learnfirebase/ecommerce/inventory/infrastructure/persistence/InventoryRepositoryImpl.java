@@ -1,11 +1,17 @@
 package com.learnfirebase.ecommerce.inventory.infrastructure.persistence;
 
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Repository;
 
+import com.learnfirebase.ecommerce.common.domain.ConflictDomainException;
 import com.learnfirebase.ecommerce.inventory.application.port.out.InventoryRepository;
 import com.learnfirebase.ecommerce.inventory.domain.model.Inventory;
 import com.learnfirebase.ecommerce.inventory.domain.model.InventoryId;
@@ -17,7 +23,10 @@ import lombok.RequiredArgsConstructor;
 @Repository
 @RequiredArgsConstructor
 public class InventoryRepositoryImpl implements InventoryRepository {
+    private static final String UNIQUE_VIOLATION = "23505";
+
     private final InventoryJpaRepository inventoryJpaRepository;
+    private final InventoryItemJpaRepository inventoryItemJpaRepository;
 
     @Override
     public Inventory save(Inventory inventory) {
@@ -31,17 +40,56 @@ public class InventoryRepositoryImpl implements InventoryRepository {
         return inventoryJpaRepository.findById(Objects.requireNonNull(id.getValue())).map(this::toDomain);
     }
 
+    @Override
+    public Optional<InventoryItem> findItem(InventoryId inventoryId, String productId) {
+        return inventoryItemJpaRepository.findById(new InventoryItemEntity.Key(inventoryId.getValue(), productId))
+                .map(this::toDomain);
+    }
+
+    @Override
+    public List<InventoryItem> findItems(InventoryId inventoryId, Collection<String> productIds) {
+        return inventoryItemJpaRepository.findByInventoryIdAndProductIdIn(inventoryId.getValue(), productIds).stream()
+                .map(this::toDomain)
+                .toList();
+    }
+
+    @Override
+    public InventoryItem saveItem(InventoryItem item) {
+        try {
+            // A null version makes Spring Data insert; otherwise the update carries "WHERE version = ?".
+            return toDomain(inventoryItemJpaRepository.saveAndFlush(toEntity(item)));
+        } catch (ObjectOptimisticLockingFailureException ex) {
+            throw concurrentChange(item);
+        } catch (DataIntegrityViolationException ex) {
+            // Only a concurrent insert of the same row is a conflict worth retrying; any other constraint
+            // violation fails the same way every time.
+            if (isDuplicateKey(ex)) {
+                throw concurrentChange(item);
+            }
+            throw ex;
+        }
+    }
+
+    private static ConflictDomainException concurrentChange(InventoryItem item) {
+        return new ConflictDomainException("Stock of " + item.getProductId() + " was changed concurrently");
+    }
+
+    private static boolean isDuplicateKey(DataIntegrityViolationException ex) {
+        if (ex instanceof DuplicateKeyException) {
+            return true;
+        }
+        for (Throwable cause = ex.getCause(); cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sql && UNIQUE_VIOLATION.equals(sql.getSQLState())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     private InventoryEntity toEntity(Inventory inventory) {
         return InventoryEntity.builder()
                 .id(inventory.getId().getValue())
                 .warehouseId(inventory.getWarehouse() != null ? inventory.getWarehouse().getId() : null)
-                .items(inventory.getItems().stream()
-                        .map(item -> InventoryItemEmbeddable.builder()
-                                .productId(item.getProductId())
-                                .available(item.getAvailable())
-                                .reserved(item.getReserved())
-                                .build())
-                        .collect(Collectors.toList()))
                 .build();
     }
 
@@ -51,13 +99,26 @@ public class InventoryRepositoryImpl implements InventoryRepository {
                 .warehouse(entity.getWarehouseId() != null
                         ? Warehouse.builder().id(entity.getWarehouseId()).name(entity.getWarehouseId()).build()
                         : null)
-                .items(entity.getItems().stream()
-                        .map(item -> InventoryItem.builder()
-                                .productId(item.getProductId())
-                                .available(item.getAvailable())
-                                .reserved(item.getReserved())
-                                .build())
-                        .collect(Collectors.toList()))
+                .build();
+    }
+
+    private InventoryItemEntity toEntity(InventoryItem item) {
+        return InventoryItemEntity.builder()
+                .inventoryId(item.getInventoryId())
+                .productId(item.getProductId())
+                .available(item.getAvailable())
+                .reserved(item.getReserved())
+                .version(item.getVersion())
+                .build();
+    }
+
+    private InventoryItem toDomain(InventoryItemEntity entity) {
+        return InventoryItem.builder()
+                .inventoryId(entity.getInventoryId())
+                .productId(entity.getProductId())
+                .available(entity.getAvailable())
+                .reserved(entity.getReserved())
+                .version(entity.getVersion())
                 .build();
     }
 }
@@ -1,11 +1,15 @@
 package com.learnfirebase.ecommerce.inventory.infrastructure.redis;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 
 import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.stereotype.Component;
 
 import com.learnfirebase.ecommerce.inventory.application.port.out.InventoryRedisScriptPort;
@@ -17,34 +21,29 @@ import lombok.extern.slf4j.Slf4j;
 @Component
 @RequiredArgsConstructor
 public class InventoryRedisScriptAdapter implements InventoryRedisScriptPort {
-    private static final String AVAILABLE_KEY = "inventory:%s:%s:available";
-    private static final String RESERVED_KEY = "inventory:%s:%s:reserved";
+    /**
+     * Applies a delta to one available counter unless it would go negative, and marks the SKU for write-behind.
+     * KEYS: available counter, dirty-stock set. ARGV: delta, dirty-stock member.
+     */
+    private static final RedisScript<Long> ADJUST_AVAILABLE = new DefaultRedisScript<>(
+            "local availKey = KEYS[1]; " +
+            "local delta = tonumber(ARGV[1]); " +
+            "local current = tonumber(redis.call('get', availKey) or '0'); " +
+            "if current + delta < 0 then return -1 end; " +
+            "redis.call('incrby', availKey, delta); " +
+            "redis.call('sadd', KEYS[2], ARGV[2]); " +
+            "return redis.call('get', availKey);",
+            Long.class);
 
     private final StringRedisTemplate redisTemplate;
 
     @Override
     public boolean executeAtomicReserve(String inventoryId, Map<String, Integer> reservations) {
-        String scriptText = "local availKey = KEYS[1]; " +
-                "local delta = tonumber(ARGV[1]); " +
-                "local current = tonumber(redis.call('get', availKey) or '0'); " +
-                "if current + delta < 0 then return -1 end; " +
-                "redis.call('incrby', availKey, delta); " +
-                "return redis.call('get', availKey);";
-
-        DefaultRedisScript<Long> script = new DefaultRedisScript<>();
-        script.setScriptText(scriptText);
-        script.setResultType(Long.class);
-
         for (Map.Entry<String, Integer> entry : reservations.entrySet()) {
             String availKey = availableKey(inventoryId, entry.getKey());
-            // Objects.requireNonNull(availKey) prevents null, but List.of should return a
-            // valid list.
-            // The warning might be due to generic type inference. Explicitly typing or
-            // using Collections.singletonList might help if strict checks are on.
-            // Using List.of ensures the list and its elements are non-null
-            Long result = redisTemplate.execute(script,
-                    Objects.requireNonNull(List.of(Objects.requireNonNull(availKey))),
-                    String.valueOf(entry.getValue()));
+            Long result = redisTemplate.execute(ADJUST_AVAILABLE,
+                    List.of(availKey, InventoryStockKeys.DIRTY_STOCK),
+                    String.valueOf(entry.getValue()), InventoryStockKeys.member(inventoryId, entry.getKey()));
             if (result == null || result < 0) {
                 log.warn("Inventory update failed for {} delta {}", entry.getKey(), entry.getValue());
                 return false;
@@ -65,11 +64,36 @@ public class InventoryRedisScriptAdapter implements InventoryRedisScriptPort {
         return value == null ? 0 : Integer.parseInt(value);
     }
 
+    @Override
+    public Map<String, StockLevel> getStockLevels(String inventoryId, Collection<String> productIds) {
+        List<String> ids = new ArrayList<>(productIds);
+        List<String> keys = new ArrayList<>(ids.size() * 2);
+        for (String productId : ids) {
+            keys.add(availableKey(inventoryId, productId));
+            keys.add(reservedKey(inventoryId, productId));
+        }
+        // One MGET for both counters of every product: a single round trip whatever the page size.
+        List<String> values = redisTemplate.opsForValue().multiGet(keys);
+        if (values == null) {
+            return Map.of();
+        }
+        Map<String, StockLevel> levels = new HashMap<>(ids.size() * 2);
+        for (int i = 0; i < ids.size(); i++) {
+            String available = values.get(2 * i);
+            if (available != null) {
+                String reserved = values.get(2 * i + 1);
+                levels.put(ids.get(i), new StockLevel(Integer.parseInt(available),
+                        reserved == null ? 0 : Integer.parseInt(reserved)));
+            }
+        }
+        return levels;
+    }
+
     private String availableKey(String inventoryId, String productId) {
-        return String.format(AVAILABLE_KEY, inventoryId, productId);
+        return InventoryStockKeys.availableKey(inventoryId, productId);
     }
 
     private String reservedKey(String inventoryId, String productId) {
-        return String.format(RESERVED_KEY, inventoryId, productId);
+        return InventoryStockKeys.reservedKey(inventoryId, productId);
     }
 }
@@ -0,0 +1,56 @@
+package com.learnfirebase.ecommerce.inventory.infrastructure.redis;
+
+/**
+ * Redis key layout of stock counters, shared with the order module's reservation scripts (which spell the same
+ * formats out). A SKU is identified in the dirty-stock set as {@code "<inventoryId>:<productId>"}; inventory
+ * ids never contain a colon, product ids may.
+ */
+public final class InventoryStockKeys {
+    public static final String AVAILABLE_SUFFIX = ":available";
+    public static final String AVAILABLE_PATTERN = "inventory:*" + AVAILABLE_SUFFIX;
+    /**
+     * SKUs whose counters changed since they were last written to inventory_items.
+     */
+    public static final String DIRTY_STOCK = "inventory:stock:dirty";
+
+    private static final String PREFIX = "inventory:";
+    private static final String AVAILABLE_KEY = "inventory:%s:%s:available";
+    private static final String RESERVED_KEY = "inventory:%s:%s:reserved";
+
+    private InventoryStockKeys() {
+    }
+
+    public static String availableKey(String inventoryId, String productId) {
+        return String.format(AVAILABLE_KEY, inventoryId, productId);
+    }
+
+    public static String reservedKey(String inventoryId, String productId) {
+        return String.format(RESERVED_KEY, inventoryId, productId);
+    }
+
+    public static String member(String inventoryId, String productId) {
+        return inventoryId + ":" + productId;
+    }
+
+    /**
+     * Splits a dirty-stock member into (inventoryId, productId), or returns null if it is malformed.
+     */
+    public static String[] parseMember(String member) {
+        int split = member.indexOf(':');
+        if (split <= 0 || split == member.length() - 1) {
+            return null;
+        }
+        return new String[] { member.substring(0, split), member.substring(split + 1) };
+    }
+
+    /**
+     * Maps an available-counter key back to its dirty-stock member, or returns null for any other key.
+     */
+    public static String memberOfAvailableKey(String key) {
+        if (!key.startsWith(PREFIX) || !key.endsWith(AVAILABLE_SUFFIX)
+                || key.length() <= PREFIX.length() + AVAILABLE_SUFFIX.length()) {
+            return null;
+        }
+        return key.substring(PREFIX.length(), key.length() - AVAILABLE_SUFFIX.length());
+    }
+}
@@ -0,0 +1,275 @@
+package com.learnfirebase.ecommerce.inventory.infrastructure.sync;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.learnfirebase.ecommerce.inventory.infrastructure.redis.InventoryStockKeys;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Compares the stock counters in Redis, which are the source of truth, with inventory_items. Both sides are
+ * walked a page at a time: the table by keyset on its primary key, Redis by SCAN over the available counters,
+ * so neither side is ever loaded whole.
+ * <p>
+ * A SKU still in the dirty-stock set is expected to differ and only counted as a pending write. Repairs never
+ * overwrite a live counter: missing counters are restored with SETNX, and SKUs whose row is stale or absent are
+ * queued for the write-behind, which then writes Redis' current values.
+ * <p>
+ * Only the available counter is restored. The reserved count in inventory_items belongs to per-order reservations
+ * whose hashes and expiry entries were lost with the counters, so no release or expiry could ever free units put
+ * back under reserved. Those units are dropped instead, and the SKU is queued so the row follows.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class InventoryReconciler {
+    private static final String FIRST_PAGE_SQL = """
+            SELECT inventory_id, product_id, available, reserved
+            FROM inventory_items
+            ORDER BY inventory_id, product_id
+            LIMIT :limit
+            """;
+    private static final String NEXT_PAGE_SQL = """
+            SELECT inventory_id, product_id, available, reserved
+            FROM inventory_items
+            WHERE (inventory_id, product_id) > (:inventoryId, :productId)
+            ORDER BY inventory_id, product_id
+            LIMIT :limit
+            """;
+    private static final String EXISTING_SQL = """
+            SELECT product_id FROM inventory_items WHERE inventory_id = :inventoryId AND product_id IN (:productIds)
+            """;
+
+    private final StringRedisTemplate redisTemplate;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final InventorySyncProperties properties;
+
+    public InventoryReconciliationSummary reconcile(boolean repair) {
+        InventoryReconciliationSummary summary = new InventoryReconciliationSummary(Instant.now());
+        Row last = null;
+        List<Row> page;
+        do {
+            page = nextPage(last);
+            summary.rowsScanned(page.size());
+            compare(page, repair, summary);
+            last = page.isEmpty() ? null : page.get(page.size() - 1);
+        } while (page.size() == properties.getPageSize());
+
+        ScanOptions options = ScanOptions.scanOptions()
+                .match(InventoryStockKeys.AVAILABLE_PATTERN)
+                .count(properties.getPageSize())
+                .build();
+        List<String> batch = new ArrayList<>(properties.getPageSize());
+        try (Cursor<String> keys = redisTemplate.scan(options)) {
+            while (keys.hasNext()) {
+                String member = InventoryStockKeys.memberOfAvailableKey(keys.next());
+                if (member != null) {
+                    batch.add(member);
+                }
+                if (batch.size() == properties.getPageSize()) {
+                    findUnknown(batch, repair, summary);
+                    batch.clear();
+                }
+            }
+        }
+        findUnknown(batch, repair, summary);
+        return summary;
+    }
+
+    /**
+     * Restores every available counter Redis is missing from inventory_items, leaving existing counters
+     * untouched. Returns the number of SKUs restored.
+     */
+    public long rehydrate() {
+        long restored = 0;
+        Row last = null;
+        List<Row> page;
+        do {
+            page = nextPage(last);
+            restored += restore(page);
+            last = page.isEmpty() ? null : page.get(page.size() - 1);
+        } while (page.size() == properties.getPageSize());
+        return restored;
+    }
+
+    private List<Row> nextPage(Row last) {
+        MapSqlParameterSource params = new MapSqlParameterSource("limit", properties.getPageSize());
+        if (last == null) {
+            return jdbcTemplate.query(FIRST_PAGE_SQL, params, InventoryReconciler::row);
+        }
+        params.addValue("inventoryId", last.inventoryId()).addValue("productId", last.productId());
+        return jdbcTemplate.query(NEXT_PAGE_SQL, params, InventoryReconciler::row);
+    }
+
+    private void compare(List<Row> rows, boolean repair, InventoryReconciliationSummary summary) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        List<String> keys = new ArrayList<>(rows.size() * 2);
+        rows.forEach(row -> {
+            keys.add(InventoryStockKeys.availableKey(row.inventoryId(), row.productId()));
+            keys.add(InventoryStockKeys.reservedKey(row.inventoryId(), row.productId()));
+        });
+        List<String> values = Objects.requireNonNull(redisTemplate.opsForValue().multiGet(keys));
+        List<Row> missing = new ArrayList<>();
+        Map<String, StockDrift> mismatched = new LinkedHashMap<>();
+        for (int i = 0; i < rows.size(); i++) {
+            Row row = rows.get(i);
+            Integer available = parse(values.get(2 * i));
+            Integer reserved = parse(values.get(2 * i + 1));
+            if (available == null) {
+                missing.add(row);
+            } else if (available != row.available() || (reserved == null ? 0 : reserved) != row.reserved()) {
+                mismatched.put(InventoryStockKeys.member(row.inventoryId(), row.productId()),
+                        new StockDrift(StockDrift.Type.VALUE_MISMATCH, row.inventoryId(), row.productId(),
+                                row.available(), row.reserved(), available, reserved));
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            long restored = repair ? restore(missing) : 0;
+            missing.forEach(row -> summary.record(new StockDrift(StockDrift.Type.MISSING_IN_REDIS, row.inventoryId(),
+                    row.productId(), row.available(), row.reserved(), null, null), false));
+            summary.restored(restored);
+            log.info("[INVENTORY-RECONCILIATION] {} SKUs missing in Redis, {} restored", missing.size(), restored);
+        }
+
+        Set<String> pending = pending(mismatched.keySet());
+        for (Map.Entry<String, StockDrift> entry : mismatched.entrySet()) {
+            if (pending.contains(entry.getKey())) {
+                summary.pendingWrite();
+            } else {
+                report(entry.getKey(), entry.getValue(), repair, summary);
+            }
+        }
+    }
+
+    private void findUnknown(List<String> members, boolean repair, InventoryReconciliationSummary summary) {
+        if (members.isEmpty()) {
+            return;
+        }
+        summary.keysScanned(members.size());
+        Map<String, List<String>> byInventory = new LinkedHashMap<>();
+        for (String member : members) {
+            String[] sku = InventoryStockKeys.parseMember(member);
+            if (sku != null) {
+                byInventory.computeIfAbsent(sku[0], id -> new ArrayList<>()).add(sku[1]);
+            }
+        }
+        List<String> unknown = new ArrayList<>();
+        byInventory.forEach((inventoryId, productIds) -> {
+            Set<String> existing = new HashSet<>(jdbcTemplate.queryForList(EXISTING_SQL, new MapSqlParameterSource()
+                    .addValue("inventoryId", inventoryId)
+                    .addValue("productIds", productIds), String.class));
+            productIds.stream()
+                    .filter(productId -> !existing.contains(productId))
+                    .forEach(productId -> unknown.add(InventoryStockKeys.member(inventoryId, productId)));
+        });
+        Set<String> pending = pending(unknown);
+        for (String member : unknown) {
+            if (pending.contains(member)) {
+                summary.pendingWrite();
+                continue;
+            }
+            String[] sku = InventoryStockKeys.parseMember(member);
+            report(member, new StockDrift(StockDrift.Type.MISSING_IN_DB, sku[0], sku[1], null, null, null, null),
+                    repair, summary);
+        }
+    }
+
+    private void report(String member, StockDrift drift, boolean repair, InventoryReconciliationSummary summary) {
+        log.warn("[INVENTORY-RECONCILIATION] {} {}: db={}/{} redis={}/{}", drift.type(), member,
+                drift.dbAvailable(), drift.dbReserved(), drift.redisAvailable(), drift.redisReserved());
+        if (repair) {
+            redisTemplate.opsForSet().add(InventoryStockKeys.DIRTY_STOCK, member);
+        }
+        summary.record(drift, repair);
+    }
+
+    private Set<String> pending(Collection<String> members) {
+        if (members.isEmpty()) {
+            return Set.of();
+        }
+        Map<Object, Boolean> flags = redisTemplate.opsForSet().isMember(InventoryStockKeys.DIRTY_STOCK,
+                members.toArray());
+        Set<String> pending = new HashSet<>();
+        if (flags != null) {
+            flags.forEach((member, dirty) -> {
+                if (Boolean.TRUE.equals(dirty)) {
+                    pending.add(member.toString());
+                }
+            });
+        }
+        return pending;
+    }
+
+    private long restore(List<Row> rows) {
+        if (rows.isEmpty()) {
+            return 0;
+        }
+        // One pipelined round trip of SETNX per page; a counter set meanwhile by live traffic wins.
+        List<Object> results = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (Row row : rows) {
+                connection.stringCommands().setNX(
+                        bytes(InventoryStockKeys.availableKey(row.inventoryId(), row.productId())),
+                        bytes(String.valueOf(row.available())));
+            }
+            return null;
+        });
+        long restored = 0;
+        long droppedUnits = 0;
+        List<String> dropped = new ArrayList<>();
+        for (int i = 0; i < results.size(); i++) {
+            if (Boolean.TRUE.equals(results.get(i))) {
+                restored++;
+                Row row = rows.get(i);
+                if (row.reserved() > 0) {
+                    droppedUnits += row.reserved();
+                    dropped.add(InventoryStockKeys.member(row.inventoryId(), row.productId()));
+                }
+            }
+        }
+        if (!dropped.isEmpty()) {
+            redisTemplate.opsForSet().add(InventoryStockKeys.DIRTY_STOCK, dropped.toArray(String[]::new));
+            log.warn("[INVENTORY-RECONCILIATION] Dropped {} reserved units of {} restored SKUs; their reservations "
+                    + "were lost with the counters", droppedUnits, dropped.size());
+        }
+        return restored;
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static Integer parse(String value) {
+        return value == null ? null : Integer.valueOf(value);
+    }
+
+    private static Row row(ResultSet rs, int rowNum) throws SQLException {
+        return new Row(rs.getString("inventory_id"), rs.getString("product_id"), rs.getInt("available"),
+                rs.getInt("reserved"));
+    }
+
+    record Row(String inventoryId, String productId, int available, int reserved) {
+    }
+}
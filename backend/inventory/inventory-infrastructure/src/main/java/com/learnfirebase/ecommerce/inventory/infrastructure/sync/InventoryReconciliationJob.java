@@ -0,0 +1,65 @@
+package com.learnfirebase.ecommerce.inventory.infrastructure.sync;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Runs {@link InventoryReconciler} on a schedule, on one node at a time. The run is claimed with a Redis lease
+ * instead of an advisory transaction lock, so no database transaction stays open while Redis is scanned; every
+ * page the reconciler reads from inventory_items is a statement of its own. A run that outlives the lease may
+ * overlap the next one, which is harmless: repairs only SETNX missing counters and queue SKUs for the
+ * write-behind.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class InventoryReconciliationJob {
+    static final String LEASE_KEY = "inventory:reconciliation:lease";
+    /**
+     * Deletes the lease only if it is still held by the caller. KEYS: lease. ARGV: token.
+     */
+    private static final RedisScript<Long> RELEASE = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) end; return 0;",
+            Long.class);
+
+    private final InventoryReconciler reconciler;
+    private final StringRedisTemplate redisTemplate;
+    private final InventorySyncProperties properties;
+
+    @Scheduled(cron = "${inventory.sync.reconciliation-cron:0 15 4 * * *}")
+    public void run() {
+        try {
+            reconcile().ifPresentOrElse(
+                    summary -> log.info("[INVENTORY-RECONCILIATION] Finished: {}", summary),
+                    () -> log.debug("[INVENTORY-RECONCILIATION] Running on another node"));
+        } catch (Exception ex) {
+            log.error("[INVENTORY-RECONCILIATION] Reconciliation failed", ex);
+        }
+    }
+
+    /**
+     * Runs one reconciliation, or returns empty when another node holds the lease.
+     */
+    public Optional<InventoryReconciliationSummary> reconcile() {
+        String token = UUID.randomUUID().toString();
+        if (!Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(LEASE_KEY, token,
+                properties.getReconciliationLease()))) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(reconciler.reconcile(properties.isRepair()));
+        } finally {
+            redisTemplate.execute(RELEASE, List.of(LEASE_KEY), token);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.learnfirebase.ecommerce.inventory.infrastructure.sync;
+
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.Map;
+
+import lombok.Getter;
+
+/**
+ * Running totals of one inventory reconciliation; only counters, so it stays small however many SKUs there are.
+ */
+@Getter
+public final class InventoryReconciliationSummary {
+    private final Instant startedAt;
+    private final Map<StockDrift.Type, Long> drifts = new EnumMap<>(StockDrift.Type.class);
+    private long rowsScanned;
+    private long keysScanned;
+    private long pendingWrites;
+    private long repaired;
+
+    InventoryReconciliationSummary(Instant startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    void rowsScanned(int rows) {
+        rowsScanned += rows;
+    }
+
+    void keysScanned(int keys) {
+        keysScanned += keys;
+    }
+
+    void pendingWrite() {
+        pendingWrites++;
+    }
+
+    void record(StockDrift drift, boolean repaired) {
+        drifts.merge(drift.type(), 1L, Long::sum);
+        if (repaired) {
+            this.repaired++;
+        }
+    }
+
+    void restored(long count) {
+        repaired += count;
+    }
+
+    public long getDriftCount(StockDrift.Type type) {
+        return drifts.getOrDefault(type, 0L);
+    }
+
+    public long getTotalDrifts() {
+        return drifts.values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    @Override
+    public String toString() {
+        return "rows=" + rowsScanned + ", keys=" + keysScanned + ", drifts=" + drifts + ", pendingWrites="
+                + pendingWrites + ", repaired=" + repaired;
+    }
+}
@@ -0,0 +1,45 @@
+package com.learnfirebase.ecommerce.inventory.infrastructure.sync;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+@Data
+@ConfigurationProperties(prefix = "inventory.sync")
+public class InventorySyncProperties {
+    /**
+     * Pause between two write-behind flushes.
+     */
+    private long flushIntervalMs = 1000;
+    /**
+     * Dirty SKUs read from Redis and written to inventory_items in one statement batch.
+     */
+    private int flushBatchSize = 500;
+    /**
+     * Upper bound of batches one flush writes before yielding to the next scheduled run.
+     */
+    private int maxFlushBatchesPerRun = 20;
+    /**
+     * When the Redis/database reconciliation runs.
+     */
+    private String reconciliationCron = "0 15 4 * * *";
+    /**
+     * How long a node owns a reconciliation run; a node that dies mid-run frees it after this long.
+     */
+    private Duration reconciliationLease = Duration.ofHours(1);
+    /**
+     * Rows of inventory_items, and Redis keys per SCAN call, compared per step of a reconciliation.
+     */
+    private int pageSize = 1000;
+    /**
+     * Whether a reconciliation fixes what it finds: counters missing in Redis are restored from the database,
+     * drifted or unknown rows are queued for the write-behind so the database follows Redis.
+     */
+    private boolean repair = true;
+    /**
+     * Restore counters missing in Redis from inventory_items when the application starts.
+     */
+    private boolean rehydrateOnStartup = true;
+}
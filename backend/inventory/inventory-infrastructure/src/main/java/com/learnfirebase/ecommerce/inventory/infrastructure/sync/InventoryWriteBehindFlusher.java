@@ -0,0 +1,197 @@
+package com.learnfirebase.ecommerce.inventory.infrastructure.sync;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.learnfirebase.ecommerce.inventory.infrastructure.redis.InventoryStockKeys;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Write-behind of Redis stock counters into inventory_items. Every script that changes a counter adds the SKU to
+ * the dirty-stock set, so any number of reservations and releases of one SKU between two flushes coalesce into
+ * a single row write of its current counters. Writing absolute values rather than deltas makes a replayed batch
+ * harmless.
+ * <p>
+ * A batch is sampled, read and written inside one transaction holding an advisory lock, so two nodes never write
+ * the same SKU out of order. SKUs leave the dirty set only after that transaction committed, and only if their
+ * counters still hold the values written: a failed write or a crash leaves them dirty for the next run, and a SKU
+ * changed while its batch was written stays dirty instead of being lost.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class InventoryWriteBehindFlusher {
+    private static final long ADVISORY_LOCK_KEY = 0x696e7673796e63L;
+    private static final String ENSURE_INVENTORY_SQL = """
+            INSERT INTO inventory (id, warehouse_id) VALUES (?, 'default')
+            ON CONFLICT (id) DO NOTHING
+            """;
+    // Unchanged rows keep their version, so the write-behind does not make admin adjustments retry needlessly.
+    private static final String UPSERT_SQL = """
+            INSERT INTO inventory_items (inventory_id, product_id, available, reserved, version)
+            VALUES (?, ?, ?, ?, 0)
+            ON CONFLICT (inventory_id, product_id) DO UPDATE
+            SET available = EXCLUDED.available, reserved = EXCLUDED.reserved, version = inventory_items.version + 1
+            WHERE inventory_items.available <> EXCLUDED.available OR inventory_items.reserved <> EXCLUDED.reserved
+            """;
+    /**
+     * Removes written SKUs from the dirty-stock set unless their counters changed after they were read.
+     * KEYS: dirty-stock set, then available and reserved counter per SKU. ARGV: per SKU the member and the
+     * available and reserved values written, '' for a counter that was missing.
+     */
+    static final RedisScript<Long> CLEAR_FLUSHED = new DefaultRedisScript<>(
+            "local removed = 0; " +
+            "for i = 1, #ARGV, 3 do " +
+            "  local k = (i - 1) / 3 * 2 + 2; " +
+            "  local available = redis.call('get', KEYS[k]) or ''; " +
+            "  local reserved = redis.call('get', KEYS[k + 1]) or ''; " +
+            "  if available == ARGV[i + 1] and reserved == ARGV[i + 2] then " +
+            "    removed = removed + redis.call('srem', KEYS[1], ARGV[i]); " +
+            "  end; " +
+            "end; " +
+            "return removed;",
+            Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final InventorySyncProperties properties;
+
+    @Scheduled(fixedDelayString = "${inventory.sync.flush-interval-ms:1000}")
+    public void run() {
+        try {
+            int flushed = flush();
+            if (flushed > 0) {
+                log.debug("[INVENTORY-SYNC] Wrote {} SKUs to inventory_items", flushed);
+            }
+        } catch (Exception ex) {
+            log.error("[INVENTORY-SYNC] Write-behind flush failed", ex);
+        }
+    }
+
+    /**
+     * Drains the dirty-stock set batch by batch and returns the number of SKUs written.
+     */
+    public int flush() {
+        int flushed = 0;
+        for (int batch = 0; batch < properties.getMaxFlushBatchesPerRun(); batch++) {
+            int sampled = flushBatch();
+            if (sampled <= 0) {
+                break;
+            }
+            flushed += sampled;
+            if (sampled < properties.getFlushBatchSize()) {
+                break;
+            }
+        }
+        return flushed;
+    }
+
+    private int flushBatch() {
+        Batch batch = new Batch();
+        Integer result = transactionTemplate.execute(status -> {
+            Boolean locked = jdbcTemplate.queryForObject("SELECT pg_try_advisory_xact_lock(?)", Boolean.class,
+                    ADVISORY_LOCK_KEY);
+            if (!Boolean.TRUE.equals(locked)) {
+                return -1;
+            }
+            Set<String> members = redisTemplate.opsForSet().distinctRandomMembers(InventoryStockKeys.DIRTY_STOCK,
+                    properties.getFlushBatchSize());
+            if (members == null || members.isEmpty()) {
+                return 0;
+            }
+            read(members, batch);
+            write(batch.rows);
+            return members.size();
+        });
+        if (result != null && result > 0) {
+            clear(batch);
+        }
+        return result == null ? 0 : result;
+    }
+
+    private void read(Collection<String> members, Batch batch) {
+        List<String[]> skus = new ArrayList<>(members.size());
+        List<String> keys = new ArrayList<>(members.size() * 2);
+        for (String member : members) {
+            String[] sku = InventoryStockKeys.parseMember(member);
+            if (sku == null) {
+                log.warn("[INVENTORY-SYNC] Dropping malformed dirty-stock member {}", member);
+                batch.malformed.add(member);
+                continue;
+            }
+            skus.add(sku);
+            keys.add(InventoryStockKeys.availableKey(sku[0], sku[1]));
+            keys.add(InventoryStockKeys.reservedKey(sku[0], sku[1]));
+        }
+        List<String> values = keys.isEmpty() ? List.of() : redisTemplate.opsForValue().multiGet(keys);
+        for (int i = 0; values != null && i < skus.size(); i++) {
+            String available = values.get(2 * i);
+            String reserved = values.get(2 * i + 1);
+            batch.keys.add(keys.get(2 * i));
+            batch.keys.add(keys.get(2 * i + 1));
+            batch.expected.add(InventoryStockKeys.member(skus.get(i)[0], skus.get(i)[1]));
+            batch.expected.add(available == null ? "" : available);
+            batch.expected.add(reserved == null ? "" : reserved);
+            // A counter that is gone (e.g. lost in a failover) is restored by the reconciliation, not written.
+            if (available != null) {
+                batch.rows.add(new StockRow(skus.get(i)[0], skus.get(i)[1], Integer.parseInt(available),
+                        reserved == null ? 0 : Integer.parseInt(reserved)));
+            }
+        }
+        // A fixed row order keeps concurrent writers of the same rows from deadlocking.
+        batch.rows.sort(Comparator.comparing(StockRow::inventoryId).thenComparing(StockRow::productId));
+    }
+
+    private void clear(Batch batch) {
+        if (!batch.malformed.isEmpty()) {
+            redisTemplate.opsForSet().remove(InventoryStockKeys.DIRTY_STOCK, batch.malformed.toArray());
+        }
+        if (batch.expected.isEmpty()) {
+            return;
+        }
+        List<String> keys = new ArrayList<>(batch.keys.size() + 1);
+        keys.add(InventoryStockKeys.DIRTY_STOCK);
+        keys.addAll(batch.keys);
+        redisTemplate.execute(CLEAR_FLUSHED, keys, batch.expected.toArray());
+    }
+
+    private void write(List<StockRow> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        Set<String> inventories = new LinkedHashSet<>();
+        rows.forEach(row -> inventories.add(row.inventoryId()));
+        inventories.forEach(inventoryId -> jdbcTemplate.update(ENSURE_INVENTORY_SQL, inventoryId));
+        jdbcTemplate.batchUpdate(UPSERT_SQL, rows, rows.size(), (ps, row) -> {
+            ps.setString(1, row.inventoryId());
+            ps.setString(2, row.productId());
+            ps.setInt(3, row.available());
+            ps.setInt(4, row.reserved());
+        });
+    }
+
+    record StockRow(String inventoryId, String productId, int available, int reserved) {
+    }
+
+    private static final class Batch {
+        private final List<String> malformed = new ArrayList<>();
+        private final List<String> keys = new ArrayList<>();
+        private final List<String> expected = new ArrayList<>();
+        private final List<StockRow> rows = new ArrayList<>();
+    }
+}
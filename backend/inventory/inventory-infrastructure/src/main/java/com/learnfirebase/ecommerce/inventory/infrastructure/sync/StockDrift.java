@@ -0,0 +1,17 @@
+package com.learnfirebase.ecommerce.inventory.infrastructure.sync;
+
+/**
+ * A SKU whose counters in Redis and inventory_items disagree. Counters absent on a side are null.
+ */
+public record StockDrift(Type type, String inventoryId, String productId, Integer dbAvailable, Integer dbReserved,
+        Integer redisAvailable, Integer redisReserved) {
+
+    public enum Type {
+        /** A row of inventory_items has no counter in Redis, e.g. after a failover lost it. */
+        MISSING_IN_REDIS,
+        /** A Redis counter has no row in inventory_items and is not waiting for the write-behind. */
+        MISSING_IN_DB,
+        /** Both sides exist with different values and the SKU is not waiting for the write-behind. */
+        VALUE_MISMATCH
+    }
+}
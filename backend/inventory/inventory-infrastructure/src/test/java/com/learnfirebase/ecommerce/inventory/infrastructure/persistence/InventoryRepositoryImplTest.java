@@ -0,0 +1,62 @@
+package com.learnfirebase.ecommerce.inventory.infrastructure.persistence;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.sql.SQLException;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import com.learnfirebase.ecommerce.common.domain.ConflictDomainException;
+import com.learnfirebase.ecommerce.inventory.domain.model.InventoryItem;
+
+class InventoryRepositoryImplTest {
+    private InventoryItemJpaRepository inventoryItemJpaRepository;
+    private InventoryRepositoryImpl repository;
+
+    @BeforeEach
+    void setUp() {
+        inventoryItemJpaRepository = mock(InventoryItemJpaRepository.class);
+        repository = new InventoryRepositoryImpl(mock(InventoryJpaRepository.class), inventoryItemJpaRepository);
+    }
+
+    @Test
+    void staleVersionIsAConflict() {
+        when(inventoryItemJpaRepository.saveAndFlush(any()))
+                .thenThrow(new ObjectOptimisticLockingFailureException(InventoryItemEntity.class, "sku-1"));
+
+        assertThatThrownBy(() -> repository.saveItem(item())).isInstanceOf(ConflictDomainException.class);
+    }
+
+    @Test
+    void concurrentInsertOfTheSameItemIsAConflict() {
+        when(inventoryItemJpaRepository.saveAndFlush(any())).thenThrow(new DataIntegrityViolationException(
+                "duplicate key", new SQLException("duplicate key value violates unique constraint", "23505")));
+
+        assertThatThrownBy(() -> repository.saveItem(item())).isInstanceOf(ConflictDomainException.class);
+    }
+
+    @Test
+    void otherConstraintViolationsAreNotRetriedAsConflicts() {
+        DataIntegrityViolationException notNull = new DataIntegrityViolationException(
+                "not null", new SQLException("null value in column \"available\"", "23502"));
+        when(inventoryItemJpaRepository.saveAndFlush(any())).thenThrow(notNull);
+
+        assertThatThrownBy(() -> repository.saveItem(item())).isSameAs(notNull);
+    }
+
+    private static InventoryItem item() {
+        return InventoryItem.builder()
+                .inventoryId("DEFAULT_INVENTORY")
+                .productId("sku-1")
+                .available(5)
+                .reserved(0)
+                .version(3L)
+                .build();
+    }
+}
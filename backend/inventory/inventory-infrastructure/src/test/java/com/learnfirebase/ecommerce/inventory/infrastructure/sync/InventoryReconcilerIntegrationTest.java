@@ -0,0 +1,104 @@
+package com.learnfirebase.ecommerce.inventory.infrastructure.sync;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import com.learnfirebase.ecommerce.inventory.infrastructure.redis.InventoryStockKeys;
+
+@Testcontainers(disabledWithoutDocker = true)
+class InventoryReconcilerIntegrationTest {
+    private static final String INVENTORY = "DEFAULT_INVENTORY";
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine")
+            .withDatabaseName("inventory_reconciler_test")
+            .withUsername("test")
+            .withPassword("test");
+
+    @Container
+    static GenericContainer<?> redis = new GenericContainer<>(DockerImageName.parse("redis:7-alpine"))
+            .withExposedPorts(6379);
+
+    private static LettuceConnectionFactory connectionFactory;
+    private static StringRedisTemplate redisTemplate;
+
+    private JdbcTemplate jdbcTemplate;
+    private InventoryReconciler reconciler;
+
+    @BeforeAll
+    static void connect() {
+        connectionFactory = new LettuceConnectionFactory(
+                new RedisStandaloneConfiguration(redis.getHost(), redis.getMappedPort(6379)));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        redisTemplate = new StringRedisTemplate(connectionFactory);
+    }
+
+    @AfterAll
+    static void disconnect() {
+        connectionFactory.destroy();
+    }
+
+    @BeforeEach
+    void setUp() {
+        redisTemplate.execute(connection -> {
+            connection.serverCommands().flushDb();
+            return null;
+        }, true);
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(postgres.getJdbcUrl(), postgres.getUsername(),
+                postgres.getPassword());
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("DROP TABLE IF EXISTS inventory_items");
+        jdbcTemplate.execute("""
+                CREATE TABLE inventory_items (
+                    inventory_id VARCHAR(255) NOT NULL,
+                    product_id VARCHAR(255) NOT NULL,
+                    available INT NOT NULL,
+                    reserved INT NOT NULL,
+                    version BIGINT NOT NULL DEFAULT 0,
+                    PRIMARY KEY (inventory_id, product_id)
+                )
+                """);
+        InventorySyncProperties properties = new InventorySyncProperties();
+        properties.setPageSize(2);
+        reconciler = new InventoryReconciler(redisTemplate, new NamedParameterJdbcTemplate(dataSource), properties);
+    }
+
+    @Test
+    void rehydrateRestoresAvailableButNotReservationsItCannotRelease() {
+        row("p1", 10, 3);
+        row("p2", 5, 0);
+        row("p3", 7, 0);
+        redisTemplate.opsForValue().set(InventoryStockKeys.availableKey(INVENTORY, "p3"), "6");
+
+        assertThat(reconciler.rehydrate()).isEqualTo(2);
+
+        assertThat(redisTemplate.opsForValue().get(InventoryStockKeys.availableKey(INVENTORY, "p1"))).isEqualTo("10");
+        assertThat(redisTemplate.hasKey(InventoryStockKeys.reservedKey(INVENTORY, "p1"))).isFalse();
+        assertThat(redisTemplate.opsForValue().get(InventoryStockKeys.availableKey(INVENTORY, "p2"))).isEqualTo("5");
+        assertThat(redisTemplate.opsForValue().get(InventoryStockKeys.availableKey(INVENTORY, "p3"))).isEqualTo("6");
+        // The row of p1 still counts the dropped reservation, so it is queued for the write-behind.
+        assertThat(redisTemplate.opsForSet().members(InventoryStockKeys.DIRTY_STOCK))
+                .containsExactly(InventoryStockKeys.member(INVENTORY, "p1"));
+    }
+
+    private void row(String productId, int available, int reserved) {
+        jdbcTemplate.update("INSERT INTO inventory_items (inventory_id, product_id, available, reserved) VALUES (?, ?, ?, ?)",
+                INVENTORY, productId, available, reserved);
+    }
+}
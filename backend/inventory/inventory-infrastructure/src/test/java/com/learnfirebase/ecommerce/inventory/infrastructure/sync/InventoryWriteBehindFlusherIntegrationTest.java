@@ -0,0 +1,162 @@
+package com.learnfirebase.ecommerce.inventory.infrastructure.sync;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import com.learnfirebase.ecommerce.inventory.infrastructure.redis.InventoryStockKeys;
+
+@Testcontainers(disabledWithoutDocker = true)
+class InventoryWriteBehindFlusherIntegrationTest {
+    private static final String INVENTORY = "DEFAULT_INVENTORY";
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine")
+            .withDatabaseName("inventory_sync_test")
+            .withUsername("test")
+            .withPassword("test");
+
+    @Container
+    static GenericContainer<?> redis = new GenericContainer<>(DockerImageName.parse("redis:7-alpine"))
+            .withExposedPorts(6379);
+
+    private static LettuceConnectionFactory connectionFactory;
+    private static StringRedisTemplate redisTemplate;
+
+    private JdbcTemplate jdbcTemplate;
+    private DataSourceTransactionManager transactionManager;
+    private InventorySyncProperties properties;
+
+    @BeforeAll
+    static void connect() {
+        connectionFactory = new LettuceConnectionFactory(
+                new RedisStandaloneConfiguration(redis.getHost(), redis.getMappedPort(6379)));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        redisTemplate = new StringRedisTemplate(connectionFactory);
+    }
+
+    @AfterAll
+    static void disconnect() {
+        connectionFactory.destroy();
+    }
+
+    @BeforeEach
+    void setUp() {
+        redisTemplate.execute(connection -> {
+            connection.serverCommands().flushDb();
+            return null;
+        }, true);
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(postgres.getJdbcUrl(), postgres.getUsername(),
+                postgres.getPassword());
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactionManager = new DataSourceTransactionManager(dataSource);
+        jdbcTemplate.execute("DROP TABLE IF EXISTS inventory_items, inventory");
+        jdbcTemplate.execute("CREATE TABLE inventory (id VARCHAR(255) PRIMARY KEY, warehouse_id VARCHAR(255))");
+        jdbcTemplate.execute("""
+                CREATE TABLE inventory_items (
+                    inventory_id VARCHAR(255) REFERENCES inventory(id) ON DELETE CASCADE,
+                    product_id VARCHAR(255) NOT NULL,
+                    available INT NOT NULL,
+                    reserved INT NOT NULL,
+                    version BIGINT NOT NULL DEFAULT 0,
+                    PRIMARY KEY (inventory_id, product_id)
+                )
+                """);
+        properties = new InventorySyncProperties();
+        properties.setFlushBatchSize(2);
+    }
+
+    @Test
+    void dirtyCountersAreWrittenAndLeaveTheDirtySet() {
+        stock("p1", 10, 2);
+        stock("p2", 5, 0);
+        stock("p3", 7, 1);
+
+        assertThat(flusher(new TransactionTemplate(transactionManager)).flush()).isEqualTo(3);
+
+        assertThat(row("p1")).containsEntry("available", 10).containsEntry("reserved", 2);
+        assertThat(row("p2")).containsEntry("available", 5).containsEntry("reserved", 0);
+        assertThat(row("p3")).containsEntry("available", 7).containsEntry("reserved", 1);
+        assertThat(redisTemplate.opsForSet().size(InventoryStockKeys.DIRTY_STOCK)).isZero();
+    }
+
+    @Test
+    void skuChangedWhileItsBatchIsWrittenStaysDirty() {
+        stock("p1", 10, 0);
+        // A reservation lands after the batch was read, between the commit and the cleanup of the dirty set.
+        TransactionTemplate racing = new TransactionTemplate(transactionManager) {
+            @Override
+            public <T> T execute(TransactionCallback<T> action) throws TransactionException {
+                T result = super.execute(action);
+                redisTemplate.opsForValue().decrement(InventoryStockKeys.availableKey(INVENTORY, "p1"));
+                redisTemplate.opsForValue().increment(InventoryStockKeys.reservedKey(INVENTORY, "p1"));
+                return result;
+            }
+        };
+
+        flusher(racing).flush();
+
+        assertThat(row("p1")).containsEntry("available", 10).containsEntry("reserved", 0);
+        assertThat(redisTemplate.opsForSet().isMember(InventoryStockKeys.DIRTY_STOCK,
+                InventoryStockKeys.member(INVENTORY, "p1"))).isTrue();
+
+        flusher(new TransactionTemplate(transactionManager)).flush();
+
+        assertThat(row("p1")).containsEntry("available", 9).containsEntry("reserved", 1);
+        assertThat(redisTemplate.opsForSet().size(InventoryStockKeys.DIRTY_STOCK)).isZero();
+    }
+
+    @Test
+    void failedWriteLeavesTheSkusDirty() {
+        jdbcTemplate.execute("ALTER TABLE inventory_items ADD CONSTRAINT bounded CHECK (available < 100)");
+        stock("p1", 500, 0);
+
+        assertThatThrownBy(() -> flusher(new TransactionTemplate(transactionManager)).flush())
+                .isInstanceOf(DataIntegrityViolationException.class);
+
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM inventory_items", Integer.class)).isZero();
+        assertThat(redisTemplate.opsForSet().members(InventoryStockKeys.DIRTY_STOCK))
+                .containsExactly(InventoryStockKeys.member(INVENTORY, "p1"));
+    }
+
+    private InventoryWriteBehindFlusher flusher(TransactionTemplate transactionTemplate) {
+        return new InventoryWriteBehindFlusher(redisTemplate, jdbcTemplate, transactionTemplate, properties);
+    }
+
+    private void stock(String productId, int available, int reserved) {
+        redisTemplate.opsForValue().set(InventoryStockKeys.availableKey(INVENTORY, productId), String.valueOf(available));
+        redisTemplate.opsForValue().set(InventoryStockKeys.reservedKey(INVENTORY, productId), String.valueOf(reserved));
+        redisTemplate.opsForSet().add(InventoryStockKeys.DIRTY_STOCK, InventoryStockKeys.member(INVENTORY, productId));
+    }
+
+    private Map<String, Object> row(String productId) {
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+                "SELECT available, reserved FROM inventory_items WHERE inventory_id = ? AND product_id = ?",
+                INVENTORY, productId);
+        assertThat(rows).hasSize(1);
+        return rows.get(0);
+    }
+}
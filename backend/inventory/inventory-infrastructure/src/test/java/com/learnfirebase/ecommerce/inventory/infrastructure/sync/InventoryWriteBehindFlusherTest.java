@@ -0,0 +1,141 @@
+package com.learnfirebase.ecommerce.inventory.infrastructure.sync;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.redis.core.SetOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.learnfirebase.ecommerce.inventory.infrastructure.sync.InventoryWriteBehindFlusher.StockRow;
+
+class InventoryWriteBehindFlusherTest {
+    private static final String DIRTY = "inventory:stock:dirty";
+
+    private StringRedisTemplate redisTemplate;
+    private SetOperations<String, String> setOperations;
+    private ValueOperations<String, String> valueOperations;
+    private JdbcTemplate jdbcTemplate;
+    private InventorySyncProperties properties;
+    private InventoryWriteBehindFlusher flusher;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        redisTemplate = mock(StringRedisTemplate.class);
+        setOperations = mock(SetOperations.class);
+        valueOperations = mock(ValueOperations.class);
+        when(redisTemplate.opsForSet()).thenReturn(setOperations);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        jdbcTemplate = mock(JdbcTemplate.class);
+        when(jdbcTemplate.queryForObject(anyString(), eq(Boolean.class), anyLong())).thenReturn(true);
+        TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        properties = new InventorySyncProperties();
+        properties.setFlushBatchSize(3);
+        flusher = new InventoryWriteBehindFlusher(redisTemplate, jdbcTemplate, transactionTemplate, properties);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void dirtySkusAreWrittenWithTheirCurrentCountersInKeyOrder() {
+        when(setOperations.distinctRandomMembers(DIRTY, 3))
+                .thenReturn(new LinkedHashSet<>(List.of("DEFAULT_INVENTORY:p2", "DEFAULT_INVENTORY:p1")));
+        when(valueOperations.multiGet(List.of(
+                "inventory:DEFAULT_INVENTORY:p2:available", "inventory:DEFAULT_INVENTORY:p2:reserved",
+                "inventory:DEFAULT_INVENTORY:p1:available", "inventory:DEFAULT_INVENTORY:p1:reserved")))
+                .thenReturn(Arrays.asList("7", "1", "12", null));
+
+        assertThat(flusher.flush()).isEqualTo(2);
+
+        ArgumentCaptor<Collection<StockRow>> rows = ArgumentCaptor.forClass(Collection.class);
+        verify(jdbcTemplate).batchUpdate(anyString(), rows.capture(), eq(2),
+                any(ParameterizedPreparedStatementSetter.class));
+        assertThat(rows.getValue()).containsExactly(
+                new StockRow("DEFAULT_INVENTORY", "p1", 12, 0),
+                new StockRow("DEFAULT_INVENTORY", "p2", 7, 1));
+        verify(jdbcTemplate).update(anyString(), eq((Object) "DEFAULT_INVENTORY"));
+        verify(redisTemplate).execute(InventoryWriteBehindFlusher.CLEAR_FLUSHED, List.of(DIRTY,
+                "inventory:DEFAULT_INVENTORY:p2:available", "inventory:DEFAULT_INVENTORY:p2:reserved",
+                "inventory:DEFAULT_INVENTORY:p1:available", "inventory:DEFAULT_INVENTORY:p1:reserved"),
+                "DEFAULT_INVENTORY:p2", "7", "1", "DEFAULT_INVENTORY:p1", "12", "");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void skuWhoseCounterIsGoneIsNotWritten() {
+        when(setOperations.distinctRandomMembers(DIRTY, 3)).thenReturn(Set.of("DEFAULT_INVENTORY:p1"));
+        when(valueOperations.multiGet(any())).thenReturn(Arrays.asList(null, null));
+
+        assertThat(flusher.flush()).isEqualTo(1);
+
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), any(Collection.class), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void fullBatchesAreDrainedUntilAShortOne() {
+        when(setOperations.distinctRandomMembers(DIRTY, 3))
+                .thenReturn(Set.of("I:a", "I:b", "I:c"))
+                .thenReturn(Set.of("I:d"));
+        when(valueOperations.multiGet(any())).thenAnswer(invocation -> {
+            List<String> values = new ArrayList<>();
+            invocation.<List<String>>getArgument(0).forEach(key -> values.add("1"));
+            return values;
+        });
+
+        assertThat(flusher.flush()).isEqualTo(4);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void failedWriteLeavesTheSkusDirty() {
+        when(setOperations.distinctRandomMembers(DIRTY, 3)).thenReturn(Set.of("DEFAULT_INVENTORY:p1"));
+        when(valueOperations.multiGet(any())).thenReturn(List.of("5", "0"));
+        when(jdbcTemplate.batchUpdate(anyString(), any(Collection.class), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class)))
+                .thenThrow(new DataAccessResourceFailureException("down"));
+
+        assertThatThrownBy(() -> flusher.flush()).isInstanceOf(DataAccessResourceFailureException.class);
+
+        verify(setOperations, never()).remove(anyString(), any(Object[].class));
+        verify(redisTemplate, never()).execute(eq(InventoryWriteBehindFlusher.CLEAR_FLUSHED), anyList(),
+                any(Object[].class));
+    }
+
+    @Test
+    void nothingIsReadWhileAnotherNodeFlushes() {
+        when(jdbcTemplate.queryForObject(anyString(), eq(Boolean.class), anyLong())).thenReturn(false);
+
+        assertThat(flusher.flush()).isZero();
+
+        verify(setOperations, never()).distinctRandomMembers(anyString(), anyLong());
+    }
+}
@@ -0,0 +1,47 @@
+package com.learnfirebase.ecommerce.order.adapter.messaging;
+
+import java.time.Instant;
+import java.util.Set;
+
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.learnfirebase.ecommerce.order.application.port.in.ProjectSellerOrderViewUseCase;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Feeds seller_order_view from the order events published by the outbox. Projection writes are idempotent
+ * and ignore stale changes, so redeliveries need no processed-event marker.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SellerOrderViewListener {
+    private static final Set<String> PROJECTED_TYPES = Set.of("OrderCreated", "OrderPaid", "OrderCancelled");
+
+    private final ProjectSellerOrderViewUseCase projectSellerOrderViewUseCase;
+    private final ObjectMapper objectMapper;
+
+    @KafkaListener(topics = "order-events", groupId = "order-seller-view")
+    public void handle(String message) {
+        try {
+            JsonNode root = objectMapper.readTree(message);
+            String type = root.has("type") ? root.get("type").asText() : null;
+            String orderId = root.has("aggregateId") ? root.get("aggregateId").asText() : null;
+            if (type == null || orderId == null || !PROJECTED_TYPES.contains(type)) {
+                return;
+            }
+            Instant occurredAt = root.hasNonNull("occurredAt")
+                    ? objectMapper.convertValue(root.get("occurredAt"), Instant.class)
+                    : Instant.now();
+            projectSellerOrderViewUseCase.project(type, orderId, occurredAt);
+        } catch (Exception e) {
+            log.error("Failed to project order event into seller_order_view: {}", message, e);
+            throw new IllegalStateException("Seller order view projection failed", e);
+        }
+    }
+}
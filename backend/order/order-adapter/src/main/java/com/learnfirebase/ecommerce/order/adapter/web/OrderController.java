@@ -1,5 +1,9 @@
 package com.learnfirebase.ecommerce.order.adapter.web;
 
+import java.net.URI;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
@@ -7,10 +11,13 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.learnfirebase.ecommerce.common.application.pagination.CursorPageRequest;
+import com.learnfirebase.ecommerce.common.application.pagination.CursorPageResponse;
 import com.learnfirebase.ecommerce.common.application.pagination.PageRequest;
 import com.learnfirebase.ecommerce.common.application.pagination.PageResponse;
 import com.learnfirebase.ecommerce.order.application.command.ApproveReturnCommand;
@@ -22,11 +29,13 @@ import com.learnfirebase.ecommerce.order.application.command.RejectReturnCommand
 import com.learnfirebase.ecommerce.order.application.command.RequestReturnCommand;
 import com.learnfirebase.ecommerce.order.application.command.ShipOrderCommand;
 import com.learnfirebase.ecommerce.order.application.dto.OrderDto;
+import com.learnfirebase.ecommerce.order.application.model.OrderTicket;
+import com.learnfirebase.ecommerce.order.application.model.OrderTicketStatus;
 import com.learnfirebase.ecommerce.order.application.port.in.CancelOrderUseCase;
-import com.learnfirebase.ecommerce.order.application.port.in.CreateOrderUseCase;
 import com.learnfirebase.ecommerce.order.application.port.in.GetOrderUseCase;
+import com.learnfirebase.ecommerce.order.application.port.in.IdempotentOrderUseCase;
 import com.learnfirebase.ecommerce.order.application.port.in.ListOrdersUseCase;
-import com.learnfirebase.ecommerce.order.application.port.in.PayOrderUseCase;
+import com.learnfirebase.ecommerce.order.application.port.in.OrderIntakeUseCase;
 import com.learnfirebase.ecommerce.order.application.port.in.ShipOrderUseCase;
 import com.learnfirebase.ecommerce.order.application.port.in.MarkDeliveredUseCase;
 import com.learnfirebase.ecommerce.order.application.port.in.RequestReturnUseCase;
@@ -39,8 +48,10 @@ import lombok.RequiredArgsConstructor;
 @RequestMapping("/api/orders")
 @RequiredArgsConstructor
 public class OrderController {
-    private final CreateOrderUseCase createOrderUseCase;
-    private final PayOrderUseCase payOrderUseCase;
+    static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
+    private final IdempotentOrderUseCase idempotentOrderUseCase;
+    private final OrderIntakeUseCase orderIntakeUseCase;
     private final CancelOrderUseCase cancelOrderUseCase;
     private final ListOrdersUseCase listOrdersUseCase;
     private final GetOrderUseCase getOrderUseCase;
@@ -50,6 +61,9 @@ public class OrderController {
     private final ApproveReturnUseCase approveReturnUseCase;
     private final RejectReturnUseCase rejectReturnUseCase;
 
+    @Value("${order-intake.async:false}")
+    private boolean asyncIntake;
+
     @GetMapping
     public ResponseEntity<PageResponse<OrderDto>> list(
         @RequestParam(name = "page", defaultValue = "0") int page,
@@ -81,6 +95,42 @@ public class OrderController {
         return ResponseEntity.ok(listOrdersUseCase.listOrdersForUser(pageRequest, authentication.getName()));
     }
 
+    @GetMapping("/scroll")
+    public ResponseEntity<CursorPageResponse<OrderDto>> scroll(
+        @RequestParam(name = "cursor", required = false) String cursor,
+        @RequestParam(name = "size", defaultValue = "10") int size,
+        @RequestParam(name = "sellerId", required = false) String sellerId,
+        @RequestParam(name = "includeTotal", defaultValue = "false") boolean includeTotal,
+        Authentication authentication) {
+        int safeSize = Math.max(1, Math.min(size, 100));
+        CursorPageRequest pageRequest = CursorPageRequest.builder()
+            .cursor(cursor)
+            .size(safeSize)
+            .includeTotal(includeTotal)
+            .build();
+        if (authentication == null) {
+            throw new org.springframework.web.server.ResponseStatusException(org.springframework.http.HttpStatus.UNAUTHORIZED);
+        }
+        if (hasRole(authentication, "ADMIN")) {
+            return ResponseEntity.ok(listOrdersUseCase.listOrders(pageRequest, sellerId));
+        }
+        if (hasRole(authentication, "SELLER")) {
+            String effectiveSellerId = sellerId != null ? sellerId : authentication.getName();
+            if (!effectiveSellerId.equals(authentication.getName())) {
+                throw new org.springframework.web.server.ResponseStatusException(
+                    org.springframework.http.HttpStatus.FORBIDDEN, "You are not authorized to view another seller's orders"
+                );
+            }
+            return ResponseEntity.ok(listOrdersUseCase.listOrders(pageRequest, effectiveSellerId));
+        }
+        if (sellerId != null) {
+            throw new org.springframework.web.server.ResponseStatusException(
+                org.springframework.http.HttpStatus.FORBIDDEN, "Customers cannot filter seller orders"
+            );
+        }
+        return ResponseEntity.ok(listOrdersUseCase.listOrdersForUser(pageRequest, authentication.getName()));
+    }
+
     @GetMapping("/{orderId}")
     public ResponseEntity<OrderDto> getOrder(@PathVariable("orderId") String orderId, Authentication authentication) {
         OrderDto order = getOrderUseCase.getOrder(orderId);
@@ -93,7 +143,9 @@ public class OrderController {
     }
 
     @PostMapping
-    public ResponseEntity<OrderDto> create(@RequestBody CreateOrderCommand command, Authentication authentication) {
+    public ResponseEntity<?> create(@RequestBody CreateOrderCommand command,
+        @RequestHeader(name = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+        Authentication authentication) {
         requireAuthenticated(authentication);
         CreateOrderCommand secureCommand = CreateOrderCommand.builder()
             .userId(authentication.getName())
@@ -102,18 +154,35 @@ public class OrderController {
             .address(command.getAddress())
             .paymentMethod(command.getPaymentMethod())
             .build();
-        return ResponseEntity.ok(createOrderUseCase.execute(secureCommand));
+        if (asyncIntake) {
+            OrderTicket ticket = orderIntakeUseCase.submit(idempotencyKey, secureCommand);
+            if (ticket.getStatus() == OrderTicketStatus.REJECTED) {
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(ticket);
+            }
+            return ResponseEntity.accepted()
+                .location(URI.create("/api/orders/tickets/" + ticket.getTicketId()))
+                .body(ticket);
+        }
+        return ResponseEntity.ok(idempotentOrderUseCase.create(idempotencyKey, secureCommand));
+    }
+
+    @GetMapping("/tickets/{ticketId}")
+    public ResponseEntity<OrderTicket> getTicket(@PathVariable("ticketId") String ticketId,
+        Authentication authentication) {
+        requireAuthenticated(authentication);
+        return ResponseEntity.ok(orderIntakeUseCase.getTicket(ticketId, authentication.getName()));
     }
 
     @PostMapping("/{orderId}/pay")
     public ResponseEntity<OrderDto> pay(@PathVariable("orderId") String orderId, @RequestBody PayOrderCommand command,
+        @RequestHeader(name = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
         Authentication authentication) {
         requireBuyerOwnerOrAdmin(orderId, authentication);
         PayOrderCommand enriched = PayOrderCommand.builder()
             .orderId(orderId)
             .paymentReference(command.getPaymentReference())
             .build();
-        return ResponseEntity.ok(payOrderUseCase.execute(enriched));
+        return ResponseEntity.ok(idempotentOrderUseCase.pay(authentication.getName(), idempotencyKey, enriched));
     }
 
     @PostMapping("/{orderId}/cancel")
@@ -20,6 +20,8 @@ public class CreateOrderCommand {
         String productId;
         String variantSku;
         String flashSaleId;
+        // Waiting-room admission token for flashSaleId.
+        String admissionToken;
         int quantity;
         String price;
     }
@@ -0,0 +1,23 @@
+package com.learnfirebase.ecommerce.order.application.model;
+
+import java.time.Instant;
+
+import com.learnfirebase.ecommerce.order.application.dto.OrderDto;
+
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Outcome of a request sent with an Idempotency-Key, scoped to the user who sent it. The fingerprint
+ * identifies the request body so a key cannot be reused for a different request.
+ */
+@Value
+@Builder(toBuilder = true)
+public class IdempotencyRecord {
+    String userId;
+    String key;
+    String fingerprint;
+    IdempotencyStatus status;
+    OrderDto response;
+    Instant createdAt;
+}
@@ -0,0 +1,6 @@
+package com.learnfirebase.ecommerce.order.application.model;
+
+public enum IdempotencyStatus {
+    IN_PROGRESS,
+    COMPLETED
+}
@@ -0,0 +1,37 @@
+package com.learnfirebase.ecommerce.order.application.model;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+import com.learnfirebase.ecommerce.order.domain.exception.OrderDomainException;
+
+import lombok.Value;
+
+/**
+ * Position of the last order on a keyset page. Orders are listed newest first by (createdAt, id), so the next
+ * page holds everything strictly below this pair. Exposed to clients as an opaque URL-safe token.
+ */
+@Value
+public class OrderCursor {
+    Instant createdAt;
+    String id;
+
+    public String encode() {
+        String raw = createdAt.toString() + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static OrderCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf('|');
+            return new OrderCursor(Instant.parse(raw.substring(0, separator)), raw.substring(separator + 1));
+        } catch (RuntimeException ex) {
+            throw new OrderDomainException("Invalid order cursor");
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.learnfirebase.ecommerce.order.application.model;
+
+import java.time.Instant;
+
+import com.learnfirebase.ecommerce.order.application.dto.OrderDto;
+
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Handle for an order accepted by the asynchronous intake. Once processed it carries either the created order
+ * or the reason it failed.
+ */
+@Value
+@Builder(toBuilder = true)
+public class OrderTicket {
+    String ticketId;
+    String userId;
+    OrderTicketStatus status;
+    OrderDto order;
+    String error;
+    Instant createdAt;
+    Instant updatedAt;
+}
@@ -0,0 +1,11 @@
+package com.learnfirebase.ecommerce.order.application.model;
+
+public enum OrderTicketStatus {
+    QUEUED,
+    COMPLETED,
+    FAILED,
+    /**
+     * The intake queue was full; the order was not accepted and the client should retry later.
+     */
+    REJECTED
+}
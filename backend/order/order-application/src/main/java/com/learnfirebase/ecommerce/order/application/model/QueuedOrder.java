@@ -0,0 +1,11 @@
+package com.learnfirebase.ecommerce.order.application.model;
+
+import com.learnfirebase.ecommerce.order.application.command.CreateOrderCommand;
+
+import lombok.Value;
+
+@Value
+public class QueuedOrder {
+    OrderTicket ticket;
+    CreateOrderCommand command;
+}
@@ -0,0 +1,22 @@
+package com.learnfirebase.ecommerce.order.application.model;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * One seller's share of an order, denormalized so seller dashboards never join orders to order_items.
+ */
+@Value
+@Builder
+public class SellerOrderView {
+    String sellerId;
+    String orderId;
+    String status;
+    BigDecimal sellerSubtotal;
+    String currency;
+    int itemCount;
+    Instant createdAt;
+}
@@ -6,4 +6,10 @@ import com.learnfirebase.ecommerce.order.application.dto.OrderDto;
 
 public interface CreateOrderUseCase extends UseCase {
     OrderDto execute(CreateOrderCommand command);
+
+    /**
+     * Creates an order whose flash-sale admissions the caller has already consumed; they are given back if the
+     * order cannot be created.
+     */
+    OrderDto executeAdmitted(CreateOrderCommand command);
 }
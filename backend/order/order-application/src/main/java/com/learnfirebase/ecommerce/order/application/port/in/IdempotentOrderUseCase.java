@@ -0,0 +1,16 @@
+package com.learnfirebase.ecommerce.order.application.port.in;
+
+import com.learnfirebase.ecommerce.common.application.UseCase;
+import com.learnfirebase.ecommerce.order.application.command.CreateOrderCommand;
+import com.learnfirebase.ecommerce.order.application.command.PayOrderCommand;
+import com.learnfirebase.ecommerce.order.application.dto.OrderDto;
+
+/**
+ * Order commands that clients may retry. A repeated Idempotency-Key returns the first response instead of
+ * running the command again; a null key runs the command as usual.
+ */
+public interface IdempotentOrderUseCase extends UseCase {
+    OrderDto create(String idempotencyKey, CreateOrderCommand command);
+
+    OrderDto pay(String userId, String idempotencyKey, PayOrderCommand command);
+}
@@ -1,5 +1,7 @@
 package com.learnfirebase.ecommerce.order.application.port.in;
 
+import com.learnfirebase.ecommerce.common.application.pagination.CursorPageRequest;
+import com.learnfirebase.ecommerce.common.application.pagination.CursorPageResponse;
 import com.learnfirebase.ecommerce.common.application.pagination.PageRequest;
 import com.learnfirebase.ecommerce.common.application.pagination.PageResponse;
 import com.learnfirebase.ecommerce.order.application.dto.OrderDto;
@@ -8,4 +10,6 @@ public interface ListOrdersUseCase {
     PageResponse<OrderDto> listOrders(PageRequest pageRequest);
     PageResponse<OrderDto> listOrdersForUser(PageRequest pageRequest, String userId);
     PageResponse<OrderDto> listOrders(PageRequest pageRequest, String sellerId);
+    CursorPageResponse<OrderDto> listOrders(CursorPageRequest pageRequest, String sellerId);
+    CursorPageResponse<OrderDto> listOrdersForUser(CursorPageRequest pageRequest, String userId);
 }
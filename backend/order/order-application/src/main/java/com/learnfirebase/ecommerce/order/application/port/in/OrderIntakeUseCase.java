@@ -0,0 +1,16 @@
+package com.learnfirebase.ecommerce.order.application.port.in;
+
+import com.learnfirebase.ecommerce.common.application.UseCase;
+import com.learnfirebase.ecommerce.order.application.command.CreateOrderCommand;
+import com.learnfirebase.ecommerce.order.application.model.OrderTicket;
+
+/**
+ * Accept-then-process order creation: the command is validated and queued, and the caller gets a ticket to
+ * follow instead of waiting for the order. A retry with the same Idempotency-Key gets the ticket of the first
+ * submission back instead of queueing the order again.
+ */
+public interface OrderIntakeUseCase extends UseCase {
+    OrderTicket submit(String idempotencyKey, CreateOrderCommand command);
+
+    OrderTicket getTicket(String ticketId, String userId);
+}
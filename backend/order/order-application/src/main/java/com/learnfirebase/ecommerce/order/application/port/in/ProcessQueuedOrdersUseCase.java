@@ -0,0 +1,13 @@
+package com.learnfirebase.ecommerce.order.application.port.in;
+
+import java.util.List;
+
+import com.learnfirebase.ecommerce.common.application.UseCase;
+import com.learnfirebase.ecommerce.order.application.model.QueuedOrder;
+
+public interface ProcessQueuedOrdersUseCase extends UseCase {
+    /**
+     * Creates the orders of one micro-batch. A failing order only fails its own ticket.
+     */
+    void process(List<QueuedOrder> batch);
+}
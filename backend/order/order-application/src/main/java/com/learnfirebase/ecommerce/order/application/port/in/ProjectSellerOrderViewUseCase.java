@@ -0,0 +1,7 @@
+package com.learnfirebase.ecommerce.order.application.port.in;
+
+import java.time.Instant;
+
+public interface ProjectSellerOrderViewUseCase {
+    void project(String eventType, String orderId, Instant occurredAt);
+}
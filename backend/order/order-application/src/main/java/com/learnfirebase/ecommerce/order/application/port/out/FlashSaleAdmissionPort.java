@@ -0,0 +1,11 @@
+package com.learnfirebase.ecommerce.order.application.port.out;
+
+/**
+ * Admission tokens handed out by the flash-sale waiting room. A token buys once: it is consumed before an order
+ * is created and given back if the order fails.
+ */
+public interface FlashSaleAdmissionPort {
+    boolean consume(String flashSaleId, String userId, String token);
+
+    void restore(String flashSaleId, String userId, String token);
+}
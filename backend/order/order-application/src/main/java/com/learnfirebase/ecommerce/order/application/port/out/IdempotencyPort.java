@@ -0,0 +1,25 @@
+package com.learnfirebase.ecommerce.order.application.port.out;
+
+import java.util.Optional;
+
+import com.learnfirebase.ecommerce.order.application.model.IdempotencyRecord;
+
+public interface IdempotencyPort {
+    /**
+     * Stores an IN_PROGRESS record unless the key is already taken. Returns empty when the caller now owns
+     * the key, otherwise the record that holds it.
+     */
+    Optional<IdempotencyRecord> begin(IdempotencyRecord inProgress);
+
+    Optional<IdempotencyRecord> find(String userId, String key);
+
+    /**
+     * Replaces the IN_PROGRESS record with the final response.
+     */
+    void complete(IdempotencyRecord completed);
+
+    /**
+     * Frees a key whose request failed so the client can retry it.
+     */
+    void release(String userId, String key);
+}
@@ -2,11 +2,18 @@ package com.learnfirebase.ecommerce.order.application.port.out;
 
 import java.math.BigDecimal;
 import java.util.Map;
+import java.util.Set;
+
 import lombok.Builder;
 import lombok.Value;
 
 public interface LoadProductPort {
-    Map<String, ProductInfo> loadProducts(String currency, Iterable<String> productIds);
+    /**
+     * @param flashSaleProductIds products ordered in a flash sale; only these may be served from the pre-warmed
+     *        flash-sale snapshot, whose price is not used for them
+     */
+    Map<String, ProductInfo> loadProducts(String currency, Iterable<String> productIds,
+            Set<String> flashSaleProductIds);
 
     @Value
     @Builder
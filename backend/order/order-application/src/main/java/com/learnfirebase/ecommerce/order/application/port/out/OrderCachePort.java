@@ -0,0 +1,25 @@
+package com.learnfirebase.ecommerce.order.application.port.out;
+
+import java.util.Optional;
+
+import com.learnfirebase.ecommerce.order.application.dto.OrderDto;
+
+public interface OrderCachePort {
+    Optional<OrderDto> get(String orderId);
+
+    /**
+     * Stores the latest state of an order and drops older copies cached by other nodes.
+     */
+    void put(OrderDto order);
+
+    /**
+     * Caches an order just loaded on a miss. Never replaces a copy a writer stored meanwhile, since the
+     * loaded state may already be older than it.
+     */
+    void fill(OrderDto order);
+
+    /**
+     * Drops every cached copy of an order, e.g. after it was changed outside the order service.
+     */
+    void evict(String orderId);
+}
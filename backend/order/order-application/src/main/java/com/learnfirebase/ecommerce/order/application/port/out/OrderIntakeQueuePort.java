@@ -0,0 +1,10 @@
+package com.learnfirebase.ecommerce.order.application.port.out;
+
+import com.learnfirebase.ecommerce.order.application.model.QueuedOrder;
+
+public interface OrderIntakeQueuePort {
+    /**
+     * Queues an order without blocking. Returns false when the queue is full.
+     */
+    boolean offer(QueuedOrder order);
+}
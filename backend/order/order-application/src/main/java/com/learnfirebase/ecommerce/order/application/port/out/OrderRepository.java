@@ -3,6 +3,7 @@ package com.learnfirebase.ecommerce.order.application.port.out;
 import java.util.List;
 import java.util.Optional;
 
+import com.learnfirebase.ecommerce.order.application.model.OrderCursor;
 import com.learnfirebase.ecommerce.order.domain.model.Order;
 import com.learnfirebase.ecommerce.order.domain.model.OrderId;
 
@@ -14,12 +15,21 @@ public interface OrderRepository {
     List<Order> findAll(int page, int size);
 
     List<Order> findByUserId(String userId, int page, int size);
-    
-    List<Order> findBySellerId(String sellerId, int page, int size);
+
+    /**
+     * Loads the given orders in the order of {@code ids}, skipping ids that no longer exist.
+     */
+    List<Order> findAllByIds(List<String> ids);
+
+    /**
+     * Keyset variants of the listings above: newest first by (createdAt, id), strictly after {@code after}
+     * (or from the start when it is null), at most {@code limit} orders.
+     */
+    List<Order> findAllAfter(OrderCursor after, int limit);
+
+    List<Order> findByUserIdAfter(String userId, OrderCursor after, int limit);
 
     long count();
 
     long countByUserId(String userId);
-
-    long countBySellerId(String sellerId);
 }
@@ -0,0 +1,10 @@
+package com.learnfirebase.ecommerce.order.application.port.out;
+
+import com.learnfirebase.ecommerce.order.application.model.OrderTicket;
+
+public interface OrderTicketNotifierPort {
+    /**
+     * Pushes a finished ticket to its user. Delivery is best effort; clients can always poll the ticket.
+     */
+    void publish(OrderTicket ticket);
+}
@@ -0,0 +1,20 @@
+package com.learnfirebase.ecommerce.order.application.port.out;
+
+import java.util.List;
+import java.util.Optional;
+
+import com.learnfirebase.ecommerce.order.application.model.OrderTicket;
+
+public interface OrderTicketPort {
+    void saveAll(List<OrderTicket> tickets);
+
+    Optional<OrderTicket> find(String ticketId);
+
+    /**
+     * Binds the user's idempotency key to {@code ticketId} unless it is already bound, atomically across nodes.
+     * Returns the ticket id the key is bound to afterwards.
+     */
+    String bindKey(String userId, String idempotencyKey, String ticketId);
+
+    void unbindKey(String userId, String idempotencyKey);
+}
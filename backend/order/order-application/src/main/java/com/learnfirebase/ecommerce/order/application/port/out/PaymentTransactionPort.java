@@ -1,5 +1,7 @@
 package com.learnfirebase.ecommerce.order.application.port.out;
 
+import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 
 import com.learnfirebase.ecommerce.order.application.model.PaymentRecord;
@@ -9,4 +11,11 @@ public interface PaymentTransactionPort {
     void save(PaymentRecord record);
     Optional<PaymentRecord> findByReference(String reference);
     void updateStatus(String reference, PaymentStatus status, String transactionNo, String rawPayload);
+
+    /**
+     * One keyset page of the transactions last updated before {@code updatedBefore}, in binary (order id,
+     * reference) order, starting after the given key or from the beginning when it is null. The records carry
+     * only the reference, order id, status and amount.
+     */
+    List<PaymentRecord> findUpdatedBefore(Instant updatedBefore, String afterOrderId, String afterReference, int limit);
 }
@@ -0,0 +1,30 @@
+package com.learnfirebase.ecommerce.order.application.port.out;
+
+import java.time.Instant;
+import java.util.List;
+
+import com.learnfirebase.ecommerce.order.application.model.OrderCursor;
+import com.learnfirebase.ecommerce.order.application.model.SellerOrderView;
+
+public interface SellerOrderViewPort {
+    /**
+     * Inserts or replaces the rows of an order. Rows already written from a later change are left untouched.
+     */
+    void upsert(List<SellerOrderView> views, Instant changedAt);
+
+    /**
+     * Sets the status of every seller row of an order unless a later change was already applied.
+     *
+     * @return the number of rows the order has in the view, or 0 if it was never projected
+     */
+    int updateStatus(String orderId, String status, Instant changedAt);
+
+    List<String> findOrderIds(String sellerId, int page, int size);
+
+    /**
+     * Newest first by (createdAt, orderId), strictly after {@code after} or from the start when it is null.
+     */
+    List<String> findOrderIdsAfter(String sellerId, OrderCursor after, int limit);
+
+    long countBySellerId(String sellerId);
+}
@@ -0,0 +1,43 @@
+package com.learnfirebase.ecommerce.order.application.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.learnfirebase.ecommerce.common.domain.AccessDeniedDomainException;
+import com.learnfirebase.ecommerce.order.application.command.CreateOrderCommand;
+import com.learnfirebase.ecommerce.order.application.port.out.FlashSaleAdmissionPort;
+
+/**
+ * Consumes and gives back the waiting-room admissions of an order's flash-sale lines, all or nothing.
+ */
+final class FlashSaleAdmissions {
+    private FlashSaleAdmissions() {
+    }
+
+    /**
+     * Consumes the admission of every flash-sale line, or none of them.
+     *
+     * @throws AccessDeniedDomainException if a line has no valid admission
+     */
+    static void consume(FlashSaleAdmissionPort port, CreateOrderCommand command) {
+        List<CreateOrderCommand.OrderItemCommand> admitted = new ArrayList<>();
+        for (CreateOrderCommand.OrderItemCommand item : flashSaleItems(command)) {
+            if (!port.consume(item.getFlashSaleId(), command.getUserId(), item.getAdmissionToken())) {
+                admitted.forEach(done -> port.restore(done.getFlashSaleId(), command.getUserId(),
+                        done.getAdmissionToken()));
+                throw new AccessDeniedDomainException("No valid waiting-room admission for Flash Sale "
+                        + item.getFlashSaleId());
+            }
+            admitted.add(item);
+        }
+    }
+
+    static void restore(FlashSaleAdmissionPort port, CreateOrderCommand command) {
+        flashSaleItems(command).forEach(item -> port.restore(item.getFlashSaleId(), command.getUserId(),
+                item.getAdmissionToken()));
+    }
+
+    private static List<CreateOrderCommand.OrderItemCommand> flashSaleItems(CreateOrderCommand command) {
+        return command.getItems().stream().filter(item -> item.getFlashSaleId() != null).toList();
+    }
+}
@@ -0,0 +1,174 @@
+package com.learnfirebase.ecommerce.order.application.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import com.learnfirebase.ecommerce.common.domain.ConflictDomainException;
+import com.learnfirebase.ecommerce.order.application.command.CreateOrderCommand;
+import com.learnfirebase.ecommerce.order.application.command.PayOrderCommand;
+import com.learnfirebase.ecommerce.order.application.dto.OrderDto;
+import com.learnfirebase.ecommerce.order.application.model.IdempotencyRecord;
+import com.learnfirebase.ecommerce.order.application.model.IdempotencyStatus;
+import com.learnfirebase.ecommerce.order.application.port.in.CreateOrderUseCase;
+import com.learnfirebase.ecommerce.order.application.port.in.IdempotentOrderUseCase;
+import com.learnfirebase.ecommerce.order.application.port.in.PayOrderUseCase;
+import com.learnfirebase.ecommerce.order.application.port.out.IdempotencyPort;
+import com.learnfirebase.ecommerce.order.domain.exception.OrderDomainException;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Runs each (user, Idempotency-Key) once. Duplicates arriving on the same node wait on the first execution
+ * directly; duplicates arriving on other nodes find its IN_PROGRESS record in the store and poll it until the
+ * response is stored. A failed execution frees the key so the client can retry with it.
+ */
+@RequiredArgsConstructor
+public class IdempotentOrderService implements IdempotentOrderUseCase {
+    static final int MAX_KEY_LENGTH = 255;
+    private static final long POLL_INTERVAL_MS = 50;
+
+    private final CreateOrderUseCase createOrderUseCase;
+    private final PayOrderUseCase payOrderUseCase;
+    private final IdempotencyPort idempotencyPort;
+    private final Duration inFlightWait;
+    private final Map<String, InFlight> inFlight = new ConcurrentHashMap<>();
+
+    @Override
+    public OrderDto create(String idempotencyKey, CreateOrderCommand command) {
+        return execute(command.getUserId(), idempotencyKey, fingerprint("create", command),
+            () -> createOrderUseCase.execute(command));
+    }
+
+    @Override
+    public OrderDto pay(String userId, String idempotencyKey, PayOrderCommand command) {
+        return execute(userId, idempotencyKey, fingerprint("pay", command), () -> payOrderUseCase.execute(command));
+    }
+
+    private OrderDto execute(String userId, String key, String fingerprint, Supplier<OrderDto> command) {
+        if (key == null || key.isBlank()) {
+            return command.get();
+        }
+        if (key.length() > MAX_KEY_LENGTH) {
+            throw new OrderDomainException("Idempotency-Key must be at most " + MAX_KEY_LENGTH + " characters");
+        }
+        String scope = userId + ":" + key;
+        InFlight mine = new InFlight(fingerprint, new CompletableFuture<>());
+        InFlight running = inFlight.putIfAbsent(scope, mine);
+        if (running != null) {
+            if (!running.fingerprint().equals(fingerprint)) {
+                throw new ConflictDomainException("Idempotency-Key was already used for a different request");
+            }
+            return join(running.response());
+        }
+        try {
+            OrderDto response = claimAndRun(userId, key, fingerprint, command);
+            mine.response().complete(response);
+            return response;
+        } catch (RuntimeException ex) {
+            mine.response().completeExceptionally(ex);
+            throw ex;
+        } finally {
+            inFlight.remove(scope, mine);
+        }
+    }
+
+    private OrderDto claimAndRun(String userId, String key, String fingerprint, Supplier<OrderDto> command) {
+        Instant deadline = Instant.now().plus(inFlightWait);
+        IdempotencyRecord inProgress = IdempotencyRecord.builder()
+            .userId(userId)
+            .key(key)
+            .fingerprint(fingerprint)
+            .status(IdempotencyStatus.IN_PROGRESS)
+            .createdAt(Instant.now())
+            .build();
+        while (true) {
+            Optional<IdempotencyRecord> existing = idempotencyPort.begin(inProgress);
+            if (existing.isEmpty()) {
+                return run(inProgress, command);
+            }
+            Optional<OrderDto> response = awaitResponse(existing.get(), fingerprint, deadline);
+            if (response.isPresent()) {
+                return response.get();
+            }
+            // The first attempt failed and released the key; take it over.
+        }
+    }
+
+    private OrderDto run(IdempotencyRecord inProgress, Supplier<OrderDto> command) {
+        OrderDto response;
+        try {
+            response = command.get();
+        } catch (RuntimeException ex) {
+            idempotencyPort.release(inProgress.getUserId(), inProgress.getKey());
+            throw ex;
+        }
+        idempotencyPort.complete(inProgress.toBuilder()
+            .status(IdempotencyStatus.COMPLETED)
+            .response(response)
+            .build());
+        return response;
+    }
+
+    private Optional<OrderDto> awaitResponse(IdempotencyRecord record, String fingerprint, Instant deadline) {
+        IdempotencyRecord current = record;
+        while (true) {
+            if (!current.getFingerprint().equals(fingerprint)) {
+                throw new ConflictDomainException("Idempotency-Key was already used for a different request");
+            }
+            if (current.getStatus() == IdempotencyStatus.COMPLETED) {
+                return Optional.of(current.getResponse());
+            }
+            if (Instant.now().isAfter(deadline)) {
+                throw new ConflictDomainException("A request with this Idempotency-Key is still being processed");
+            }
+            sleep();
+            Optional<IdempotencyRecord> next = idempotencyPort.find(current.getUserId(), current.getKey());
+            if (next.isEmpty()) {
+                return Optional.empty();
+            }
+            current = next.get();
+        }
+    }
+
+    private static OrderDto join(CompletableFuture<OrderDto> running) {
+        try {
+            return running.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+
+    private static void sleep() {
+        try {
+            Thread.sleep(POLL_INTERVAL_MS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new ConflictDomainException("A request with this Idempotency-Key is still being processed");
+        }
+    }
+
+    private record InFlight(String fingerprint, CompletableFuture<OrderDto> response) {
+    }
+
+    static String fingerprint(String operation, Object command) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest((operation + "|" + command).getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not available", ex);
+        }
+    }
+}
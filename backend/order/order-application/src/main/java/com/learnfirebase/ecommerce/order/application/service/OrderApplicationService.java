@@ -8,6 +8,8 @@ import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 
+import com.learnfirebase.ecommerce.common.application.pagination.CursorPageRequest;
+import com.learnfirebase.ecommerce.common.application.pagination.CursorPageResponse;
 import com.learnfirebase.ecommerce.common.application.pagination.PageRequest;
 import com.learnfirebase.ecommerce.common.application.pagination.PageResponse;
 import com.learnfirebase.ecommerce.common.domain.valueobject.Money;
@@ -23,6 +25,7 @@ import com.learnfirebase.ecommerce.order.application.command.RequestReturnComman
 import com.learnfirebase.ecommerce.order.application.command.ShipOrderCommand;
 import com.learnfirebase.ecommerce.order.application.dto.OrderDto;
 import com.learnfirebase.ecommerce.order.application.dto.PaymentInitResponse;
+import com.learnfirebase.ecommerce.order.application.model.OrderCursor;
 import com.learnfirebase.ecommerce.order.application.model.PaymentRecord;
 import com.learnfirebase.ecommerce.order.application.model.PaymentStatus;
 import com.learnfirebase.ecommerce.order.application.port.in.HandlePaymentCallbackUseCase;
@@ -37,12 +40,15 @@ import com.learnfirebase.ecommerce.order.application.port.in.MarkDeliveredUseCas
 import com.learnfirebase.ecommerce.order.application.port.in.RequestReturnUseCase;
 import com.learnfirebase.ecommerce.order.application.port.in.ApproveReturnUseCase;
 import com.learnfirebase.ecommerce.order.application.port.in.RejectReturnUseCase;
+import com.learnfirebase.ecommerce.order.application.port.out.FlashSaleAdmissionPort;
 import com.learnfirebase.ecommerce.order.application.port.out.InventoryReservationPort;
 import com.learnfirebase.ecommerce.order.application.port.out.LoadProductPort;
+import com.learnfirebase.ecommerce.order.application.port.out.OrderCachePort;
 import com.learnfirebase.ecommerce.order.application.port.out.OrderOutboxPort;
 import com.learnfirebase.ecommerce.order.application.port.out.OrderRepository;
 import com.learnfirebase.ecommerce.order.application.port.out.PaymentGatewayPort;
 import com.learnfirebase.ecommerce.order.application.port.out.PaymentTransactionPort;
+import com.learnfirebase.ecommerce.order.application.port.out.SellerOrderViewPort;
 import com.learnfirebase.ecommerce.order.domain.model.Order;
 import com.learnfirebase.ecommerce.order.domain.model.OrderId;
 import com.learnfirebase.ecommerce.order.domain.model.OrderItem;
@@ -51,6 +57,7 @@ import com.learnfirebase.ecommerce.order.domain.model.UserId;
 import com.learnfirebase.ecommerce.order.domain.model.ReturnStatus;
 import com.learnfirebase.ecommerce.order.domain.service.OrderDomainService;
 import com.learnfirebase.ecommerce.order.domain.exception.OrderDomainException;
+import com.learnfirebase.ecommerce.promotion.domain.model.FlashSaleStatus;
 
 import lombok.RequiredArgsConstructor;
 
@@ -62,22 +69,46 @@ public class OrderApplicationService implements CreateOrderUseCase, PayOrderUseC
     private final OrderRepository orderRepository;
     private final LoadProductPort loadProductPort;
     private final com.learnfirebase.ecommerce.order.application.port.out.LoadFlashSalePort loadFlashSalePort;
+    private final FlashSaleAdmissionPort flashSaleAdmissionPort;
     private final InventoryReservationPort inventoryReservationPort;
     private final OrderOutboxPort orderOutboxPort;
     private final PaymentGatewayPort paymentGatewayPort;
     private final PaymentTransactionPort paymentTransactionPort;
+    private final SellerOrderViewPort sellerOrderViewPort;
+    private final OrderCachePort orderCachePort;
     private final OrderDomainService domainService = new OrderDomainService();
 
     @Override
     public OrderDto execute(CreateOrderCommand command) {
+        // Runs before any lookup so buyers without a waiting-room admission never reach the database or stock.
+        FlashSaleAdmissions.consume(flashSaleAdmissionPort, command);
+        return executeAdmitted(command);
+    }
+
+    @Override
+    public OrderDto executeAdmitted(CreateOrderCommand command) {
+        try {
+            return create(command);
+        } catch (RuntimeException ex) {
+            FlashSaleAdmissions.restore(flashSaleAdmissionPort, command);
+            throw ex;
+        }
+    }
+
+    private OrderDto create(CreateOrderCommand command) {
         List<OrderItem> items = new ArrayList<>();
 
         Set<String> allProductIds = command.getItems().stream()
                 .map(CreateOrderCommand.OrderItemCommand::getProductId)
                 .collect(Collectors.toSet());
 
+        Set<String> flashSaleProductIds = command.getItems().stream()
+                .filter(item -> item.getFlashSaleId() != null)
+                .map(CreateOrderCommand.OrderItemCommand::getProductId)
+                .collect(Collectors.toSet());
+
         Map<String, LoadProductPort.ProductInfo> productsInfo = loadProductPort.loadProducts(command.getCurrency(),
-                allProductIds);
+                allProductIds, flashSaleProductIds);
 
         for (CreateOrderCommand.OrderItemCommand itemCmd : command.getItems()) {
             LoadProductPort.ProductInfo productInfo = productsInfo.get(itemCmd.getProductId());
@@ -121,7 +152,7 @@ public class OrderApplicationService implements CreateOrderUseCase, PayOrderUseC
         }
 
         Order order = domainService.initiateOrder(new UserId(command.getUserId()), items, command.getCurrency());
-        Order saved = orderRepository.save(order);
+        Order saved = persist(order);
 
         // Standard Reservations
         Map<String, Integer> standardReservations = buildReservationMap(order.getItems().stream()
@@ -135,17 +166,23 @@ public class OrderApplicationService implements CreateOrderUseCase, PayOrderUseC
             }
         }
 
-        // Flash Sale Reservations
-        command.getItems().stream()
-                .filter(i -> i.getFlashSaleId() != null)
-                .forEach(i -> {
-                    boolean success = inventoryReservationPort.reserveFlashSale(saved.getId().getValue(),
-                            i.getFlashSaleId(), i.getQuantity());
-                    if (!success) {
-                        throw new OrderDomainException(
-                                "Flash Sale stock exhausted or invalid for product " + i.getProductId());
-                    }
-                });
+        // Flash Sale Reservations. A line that cannot be served gives back everything this order already took.
+        List<CreateOrderCommand.OrderItemCommand> taken = new ArrayList<>();
+        for (CreateOrderCommand.OrderItemCommand i : command.getItems()) {
+            if (i.getFlashSaleId() == null) {
+                continue;
+            }
+            if (!inventoryReservationPort.reserveFlashSale(saved.getId().getValue(), i.getFlashSaleId(),
+                    i.getQuantity())) {
+                taken.forEach(t -> inventoryReservationPort.releaseFlashSale(t.getFlashSaleId(), t.getQuantity()));
+                if (!standardReservations.isEmpty()) {
+                    inventoryReservationPort.release(saved.getId().getValue(), standardReservations);
+                }
+                throw new OrderDomainException(
+                        "Flash Sale stock exhausted or invalid for product " + i.getProductId());
+            }
+            taken.add(i);
+        }
 
         order.getDomainEvents().forEach(event -> {
             orderOutboxPort.saveEvent(event);
@@ -167,7 +204,7 @@ public class OrderApplicationService implements CreateOrderUseCase, PayOrderUseC
             return toDto(order);
         }
         order.pay();
-        Order saved = orderRepository.save(order);
+        Order saved = persist(order);
         inventoryReservationPort.confirm(order.getId().getValue());
         order.getDomainEvents().forEach(event -> {
             orderOutboxPort.saveEvent(event);
@@ -181,11 +218,14 @@ public class OrderApplicationService implements CreateOrderUseCase, PayOrderUseC
         Order order = orderRepository.findById(new OrderId(command.getOrderId()))
                 .orElseThrow(() -> new OrderDomainException("Order not found"));
         order.cancel(command.getReason());
-        Order saved = orderRepository.save(order);
+        Order saved = persist(order);
 
-        // Release Flash Sale Stock
+        // Release Flash Sale Stock. A finalized sale has stored its count and dropped its counter; nothing goes back.
         saved.getItems().stream()
                 .filter(item -> item.getFlashSaleId() != null)
+                .filter(item -> loadFlashSalePort.loadFlashSale(item.getFlashSaleId())
+                        .filter(sale -> sale.getStatus() == FlashSaleStatus.ACTIVE)
+                        .isPresent())
                 .forEach(item -> inventoryReservationPort.releaseFlashSale(item.getFlashSaleId(), item.getQuantity()));
         Map<String, Integer> standardReservations = buildReservationMap(saved.getItems().stream()
                 .filter(item -> item.getFlashSaleId() == null)
@@ -218,18 +258,44 @@ public class OrderApplicationService implements CreateOrderUseCase, PayOrderUseC
     @Override
     public PageResponse<OrderDto> listOrders(PageRequest pageRequest, String sellerId) {
         if (sellerId != null) {
-            List<Order> orders = orderRepository.findBySellerId(sellerId, pageRequest.getPage(), pageRequest.getSize());
-            long total = orderRepository.countBySellerId(sellerId);
+            List<Order> orders = orderRepository.findAllByIds(
+                    sellerOrderViewPort.findOrderIds(sellerId, pageRequest.getPage(), pageRequest.getSize()));
+            long total = sellerOrderViewPort.countBySellerId(sellerId);
             return toPageResponse(pageRequest, orders, total);
         }
         return listOrders(pageRequest);
     }
 
+    @Override
+    public CursorPageResponse<OrderDto> listOrders(CursorPageRequest pageRequest, String sellerId) {
+        OrderCursor after = OrderCursor.decode(pageRequest.getCursor());
+        if (sellerId != null) {
+            List<Order> orders = orderRepository.findAllByIds(
+                    sellerOrderViewPort.findOrderIdsAfter(sellerId, after, pageRequest.getSize() + 1));
+            return toCursorPageResponse(pageRequest, orders,
+                    pageRequest.isIncludeTotal() ? sellerOrderViewPort.countBySellerId(sellerId) : null);
+        }
+        List<Order> orders = orderRepository.findAllAfter(after, pageRequest.getSize() + 1);
+        return toCursorPageResponse(pageRequest, orders, pageRequest.isIncludeTotal() ? orderRepository.count() : null);
+    }
+
+    @Override
+    public CursorPageResponse<OrderDto> listOrdersForUser(CursorPageRequest pageRequest, String userId) {
+        OrderCursor after = OrderCursor.decode(pageRequest.getCursor());
+        List<Order> orders = orderRepository.findByUserIdAfter(userId, after, pageRequest.getSize() + 1);
+        return toCursorPageResponse(pageRequest, orders,
+                pageRequest.isIncludeTotal() ? orderRepository.countByUserId(userId) : null);
+    }
+
     @Override
     public OrderDto getOrder(String orderId) {
-        Order order = orderRepository.findById(new OrderId(orderId))
-                .orElseThrow(() -> new OrderDomainException("Order not found"));
-        return toDto(order);
+        return orderCachePort.get(orderId).orElseGet(() -> {
+            Order order = orderRepository.findById(new OrderId(orderId))
+                    .orElseThrow(() -> new OrderDomainException("Order not found"));
+            OrderDto dto = toDto(order);
+            orderCachePort.fill(dto);
+            return dto;
+        });
     }
 
     @Override
@@ -324,7 +390,7 @@ public class OrderApplicationService implements CreateOrderUseCase, PayOrderUseC
             order.pay();
         }
 
-        Order saved = orderRepository.save(order);
+        Order saved = persist(order);
 
         paymentTransactionPort.updateStatus(verification.getReference(), PaymentStatus.SUCCESS,
                 verification.getTransactionNo(), verification.getRawPayload());
@@ -343,7 +409,7 @@ public class OrderApplicationService implements CreateOrderUseCase, PayOrderUseC
         Order order = orderRepository.findById(new OrderId(command.getOrderId()))
                 .orElseThrow(() -> new OrderDomainException("Order not found"));
         order.ship(command.getTrackingNumber(), command.getTrackingCarrier());
-        Order saved = orderRepository.save(order);
+        Order saved = persist(order);
         return toDto(saved);
     }
 
@@ -352,7 +418,7 @@ public class OrderApplicationService implements CreateOrderUseCase, PayOrderUseC
         Order order = orderRepository.findById(new OrderId(command.getOrderId()))
                 .orElseThrow(() -> new OrderDomainException("Order not found"));
         order.markDelivered();
-        Order saved = orderRepository.save(order);
+        Order saved = persist(order);
         return toDto(saved);
     }
 
@@ -365,7 +431,7 @@ public class OrderApplicationService implements CreateOrderUseCase, PayOrderUseC
             throw new OrderDomainException("Only order owner can request a return");
         }
         order.requestReturn(command.getReason(), command.getNote());
-        Order saved = orderRepository.save(order);
+        Order saved = persist(order);
         return toDto(saved);
     }
 
@@ -384,7 +450,7 @@ public class OrderApplicationService implements CreateOrderUseCase, PayOrderUseC
         // inventoryReservationPort.release() here.
 
         order.approveReturn(Money.builder().amount(refundAmount).currency(currency).build(), command.getNote());
-        Order saved = orderRepository.save(order);
+        Order saved = persist(order);
         return toDto(saved);
     }
 
@@ -393,10 +459,17 @@ public class OrderApplicationService implements CreateOrderUseCase, PayOrderUseC
         Order order = orderRepository.findById(new OrderId(command.getOrderId()))
                 .orElseThrow(() -> new OrderDomainException("Order not found"));
         order.rejectReturn(command.getNote());
-        Order saved = orderRepository.save(order);
+        Order saved = persist(order);
         return toDto(saved);
     }
 
+    // Every write goes through here so the order cache never serves a state older than the database.
+    private Order persist(Order order) {
+        Order saved = orderRepository.save(order);
+        orderCachePort.put(toDto(saved));
+        return saved;
+    }
+
     private OrderDto toDto(Order order) {
         return OrderDto.builder()
                 .id(order.getId().getValue())
@@ -444,6 +517,26 @@ public class OrderApplicationService implements CreateOrderUseCase, PayOrderUseC
                 .build();
     }
 
+    // Repositories are asked for one extra row so the presence of a next page is known without counting.
+    private CursorPageResponse<OrderDto> toCursorPageResponse(CursorPageRequest pageRequest, List<Order> orders,
+            Long total) {
+        boolean hasNext = orders.size() > pageRequest.getSize();
+        List<Order> page = hasNext ? orders.subList(0, pageRequest.getSize()) : orders;
+        String nextCursor = null;
+        if (hasNext) {
+            Order last = page.get(page.size() - 1);
+            nextCursor = new OrderCursor(last.getCreatedAt(), last.getId().getValue()).encode();
+        }
+
+        return CursorPageResponse.<OrderDto>builder()
+                .content(page.stream().map(this::toDto).collect(Collectors.toList()))
+                .nextCursor(nextCursor)
+                .hasNext(hasNext)
+                .size(pageRequest.getSize())
+                .totalElements(total)
+                .build();
+    }
+
     private Map<String, Integer> buildReservationMap(List<OrderItem> items) {
         Map<String, Integer> reservations = new HashMap<>();
         for (OrderItem item : items) {
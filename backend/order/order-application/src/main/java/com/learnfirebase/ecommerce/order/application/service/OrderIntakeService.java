@@ -0,0 +1,109 @@
+package com.learnfirebase.ecommerce.order.application.service;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import com.learnfirebase.ecommerce.common.domain.AccessDeniedDomainException;
+import com.learnfirebase.ecommerce.common.domain.ResourceNotFoundDomainException;
+import com.learnfirebase.ecommerce.order.application.command.CreateOrderCommand;
+import com.learnfirebase.ecommerce.order.application.model.OrderTicket;
+import com.learnfirebase.ecommerce.order.application.model.OrderTicketStatus;
+import com.learnfirebase.ecommerce.order.application.model.QueuedOrder;
+import com.learnfirebase.ecommerce.order.application.port.in.OrderIntakeUseCase;
+import com.learnfirebase.ecommerce.order.application.port.out.FlashSaleAdmissionPort;
+import com.learnfirebase.ecommerce.order.application.port.out.OrderIntakeQueuePort;
+import com.learnfirebase.ecommerce.order.application.port.out.OrderTicketPort;
+import com.learnfirebase.ecommerce.order.domain.exception.OrderDomainException;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Front half of the asynchronous intake: only cheap, request-local checks run on the request thread. Catalog
+ * lookups, persistence and stock reservation happen later in {@link QueuedOrderProcessor}. Waiting-room admissions
+ * are consumed here, before anything is queued, so buyers without one never take a place in the queue.
+ */
+@RequiredArgsConstructor
+public class OrderIntakeService implements OrderIntakeUseCase {
+    private final OrderIntakeQueuePort orderIntakeQueuePort;
+    private final OrderTicketPort orderTicketPort;
+    private final FlashSaleAdmissionPort flashSaleAdmissionPort;
+
+    @Override
+    public OrderTicket submit(String idempotencyKey, CreateOrderCommand command) {
+        validate(command);
+        boolean keyed = idempotencyKey != null && !idempotencyKey.isBlank();
+        if (keyed && idempotencyKey.length() > IdempotentOrderService.MAX_KEY_LENGTH) {
+            throw new OrderDomainException(
+                "Idempotency-Key must be at most " + IdempotentOrderService.MAX_KEY_LENGTH + " characters");
+        }
+        Instant now = Instant.now();
+        OrderTicket ticket = OrderTicket.builder()
+            .ticketId(UUID.randomUUID().toString())
+            .userId(command.getUserId())
+            .status(OrderTicketStatus.QUEUED)
+            .createdAt(now)
+            .updatedAt(now)
+            .build();
+        // The ticket is stored first so a fast worker can never finish an order the client cannot look up,
+        // and so a key is only ever bound to a ticket a retry can read.
+        orderTicketPort.saveAll(List.of(ticket));
+        if (keyed) {
+            String bound = orderTicketPort.bindKey(command.getUserId(), idempotencyKey, ticket.getTicketId());
+            if (!bound.equals(ticket.getTicketId())) {
+                return getTicket(bound, command.getUserId());
+            }
+        }
+        try {
+            FlashSaleAdmissions.consume(flashSaleAdmissionPort, command);
+        } catch (AccessDeniedDomainException ex) {
+            reject(ticket, keyed ? idempotencyKey : null, ex.getMessage());
+            throw ex;
+        }
+        if (!orderIntakeQueuePort.offer(new QueuedOrder(ticket, command))) {
+            FlashSaleAdmissions.restore(flashSaleAdmissionPort, command);
+            return reject(ticket, keyed ? idempotencyKey : null, "Order intake is at capacity, please retry");
+        }
+        return ticket;
+    }
+
+    @Override
+    public OrderTicket getTicket(String ticketId, String userId) {
+        return orderTicketPort.find(ticketId)
+            .filter(ticket -> ticket.getUserId().equals(userId))
+            .orElseThrow(() -> new ResourceNotFoundDomainException("Order ticket not found: " + ticketId));
+    }
+
+    private OrderTicket reject(OrderTicket ticket, String idempotencyKey, String error) {
+        OrderTicket rejected = ticket.toBuilder()
+            .status(OrderTicketStatus.REJECTED)
+            .error(error)
+            .build();
+        orderTicketPort.saveAll(List.of(rejected));
+        if (idempotencyKey != null) {
+            // Nothing was queued, so a retry with the same key must get a fresh chance.
+            orderTicketPort.unbindKey(rejected.getUserId(), idempotencyKey);
+        }
+        return rejected;
+    }
+
+    private void validate(CreateOrderCommand command) {
+        if (command.getUserId() == null || command.getUserId().isBlank()) {
+            throw new OrderDomainException("User is required");
+        }
+        if (command.getCurrency() == null || command.getCurrency().isBlank()) {
+            throw new OrderDomainException("Currency is required");
+        }
+        if (command.getItems() == null || command.getItems().isEmpty()) {
+            throw new OrderDomainException("Order must contain at least one item");
+        }
+        for (CreateOrderCommand.OrderItemCommand item : command.getItems()) {
+            if (item.getProductId() == null || item.getProductId().isBlank()) {
+                throw new OrderDomainException("Product is required for every item");
+            }
+            if (item.getQuantity() <= 0) {
+                throw new OrderDomainException("Quantity must be positive for product " + item.getProductId());
+            }
+        }
+    }
+}
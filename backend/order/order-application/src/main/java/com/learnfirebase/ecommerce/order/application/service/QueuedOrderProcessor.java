@@ -0,0 +1,55 @@
+package com.learnfirebase.ecommerce.order.application.service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.learnfirebase.ecommerce.common.domain.DomainException;
+import com.learnfirebase.ecommerce.order.application.dto.OrderDto;
+import com.learnfirebase.ecommerce.order.application.model.OrderTicket;
+import com.learnfirebase.ecommerce.order.application.model.OrderTicketStatus;
+import com.learnfirebase.ecommerce.order.application.model.QueuedOrder;
+import com.learnfirebase.ecommerce.order.application.port.in.CreateOrderUseCase;
+import com.learnfirebase.ecommerce.order.application.port.in.ProcessQueuedOrdersUseCase;
+import com.learnfirebase.ecommerce.order.application.port.out.OrderTicketNotifierPort;
+import com.learnfirebase.ecommerce.order.application.port.out.OrderTicketPort;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Back half of the asynchronous intake. Orders of a micro-batch are created one by one through the regular
+ * {@link CreateOrderUseCase}, so they keep its per-order guarantees; the ticket results are written in one go.
+ * Flash-sale admissions were consumed at intake already.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class QueuedOrderProcessor implements ProcessQueuedOrdersUseCase {
+    private final CreateOrderUseCase createOrderUseCase;
+    private final OrderTicketPort orderTicketPort;
+    private final OrderTicketNotifierPort orderTicketNotifierPort;
+
+    @Override
+    public void process(List<QueuedOrder> batch) {
+        List<OrderTicket> finished = new ArrayList<>(batch.size());
+        for (QueuedOrder queued : batch) {
+            finished.add(processOne(queued));
+        }
+        orderTicketPort.saveAll(finished);
+        finished.forEach(orderTicketNotifierPort::publish);
+    }
+
+    private OrderTicket processOne(QueuedOrder queued) {
+        OrderTicket.OrderTicketBuilder ticket = queued.getTicket().toBuilder();
+        try {
+            OrderDto order = createOrderUseCase.executeAdmitted(queued.getCommand());
+            ticket.status(OrderTicketStatus.COMPLETED).order(order);
+        } catch (DomainException ex) {
+            ticket.status(OrderTicketStatus.FAILED).error(ex.getMessage());
+        } catch (RuntimeException ex) {
+            log.error("Queued order of ticket {} failed", queued.getTicket().getTicketId(), ex);
+            ticket.status(OrderTicketStatus.FAILED).error("Order could not be processed");
+        }
+        return ticket.updatedAt(Instant.now()).build();
+    }
+}
@@ -0,0 +1,79 @@
+package com.learnfirebase.ecommerce.order.application.service;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.learnfirebase.ecommerce.order.application.model.SellerOrderView;
+import com.learnfirebase.ecommerce.order.application.port.in.ProjectSellerOrderViewUseCase;
+import com.learnfirebase.ecommerce.order.application.port.out.OrderRepository;
+import com.learnfirebase.ecommerce.order.application.port.out.SellerOrderViewPort;
+import com.learnfirebase.ecommerce.order.domain.model.Order;
+import com.learnfirebase.ecommerce.order.domain.model.OrderId;
+import com.learnfirebase.ecommerce.order.domain.model.OrderItem;
+import com.learnfirebase.ecommerce.order.domain.model.OrderStatus;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Keeps seller_order_view in step with order events. Status changes are applied in place; an order that is
+ * not in the view yet (created event missed or still in flight) is rebuilt from the order itself, so replays
+ * and out-of-order deliveries converge on the same rows.
+ */
+@RequiredArgsConstructor
+public class SellerOrderViewService implements ProjectSellerOrderViewUseCase {
+    private final OrderRepository orderRepository;
+    private final SellerOrderViewPort sellerOrderViewPort;
+
+    @Override
+    public void project(String eventType, String orderId, Instant occurredAt) {
+        switch (eventType) {
+            case "OrderCreated" -> rebuild(orderId, occurredAt);
+            case "OrderPaid" -> updateStatus(orderId, OrderStatus.PAID, occurredAt);
+            case "OrderCancelled" -> updateStatus(orderId, OrderStatus.CANCELLED, occurredAt);
+            default -> {
+            }
+        }
+    }
+
+    private void updateStatus(String orderId, OrderStatus status, Instant occurredAt) {
+        if (sellerOrderViewPort.updateStatus(orderId, status.name(), occurredAt) == 0) {
+            rebuild(orderId, occurredAt);
+        }
+    }
+
+    private void rebuild(String orderId, Instant occurredAt) {
+        orderRepository.findById(new OrderId(orderId)).ifPresent(order -> {
+            Instant changedAt = order.getUpdatedAt() != null ? order.getUpdatedAt() : occurredAt;
+            sellerOrderViewPort.upsert(toViews(order), changedAt);
+        });
+    }
+
+    static List<SellerOrderView> toViews(Order order) {
+        Map<String, SellerOrderView.SellerOrderViewBuilder> bySeller = new LinkedHashMap<>();
+        Map<String, BigDecimal> subtotals = new LinkedHashMap<>();
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        for (OrderItem item : order.getItems()) {
+            if (item.getSellerId() == null) {
+                continue;
+            }
+            bySeller.computeIfAbsent(item.getSellerId(), sellerId -> SellerOrderView.builder()
+                    .sellerId(sellerId)
+                    .orderId(order.getId().getValue())
+                    .status(order.getStatus().name())
+                    .currency(order.getTotalAmount().getCurrency())
+                    .createdAt(order.getCreatedAt()));
+            BigDecimal lineTotal = item.getPrice().getAmount().multiply(BigDecimal.valueOf(item.getQuantity()));
+            subtotals.merge(item.getSellerId(), lineTotal, BigDecimal::add);
+            counts.merge(item.getSellerId(), item.getQuantity(), Integer::sum);
+        }
+        return bySeller.entrySet().stream()
+                .map(entry -> entry.getValue()
+                        .sellerSubtotal(subtotals.get(entry.getKey()))
+                        .itemCount(counts.get(entry.getKey()))
+                        .build())
+                .toList();
+    }
+}
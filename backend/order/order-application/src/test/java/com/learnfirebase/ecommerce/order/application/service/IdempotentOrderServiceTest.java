@@ -0,0 +1,173 @@
+package com.learnfirebase.ecommerce.order.application.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import com.learnfirebase.ecommerce.common.domain.ConflictDomainException;
+import com.learnfirebase.ecommerce.order.application.command.CreateOrderCommand;
+import com.learnfirebase.ecommerce.order.application.command.PayOrderCommand;
+import com.learnfirebase.ecommerce.order.application.dto.OrderDto;
+import com.learnfirebase.ecommerce.order.application.model.IdempotencyRecord;
+import com.learnfirebase.ecommerce.order.application.port.in.CreateOrderUseCase;
+import com.learnfirebase.ecommerce.order.application.port.in.PayOrderUseCase;
+import com.learnfirebase.ecommerce.order.application.port.out.IdempotencyPort;
+import com.learnfirebase.ecommerce.order.domain.exception.OrderDomainException;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotentOrderServiceTest {
+    @Mock
+    private CreateOrderUseCase createOrderUseCase;
+    @Mock
+    private PayOrderUseCase payOrderUseCase;
+
+    private InMemoryIdempotencyPort idempotencyPort;
+    private IdempotentOrderService service;
+
+    @BeforeEach
+    void setUp() {
+        idempotencyPort = new InMemoryIdempotencyPort();
+        service = new IdempotentOrderService(createOrderUseCase, payOrderUseCase, idempotencyPort,
+            Duration.ofSeconds(5));
+    }
+
+    @Test
+    void retryReplaysTheFirstResponse() {
+        when(createOrderUseCase.execute(command("product-1"))).thenReturn(order("order-1"));
+
+        OrderDto first = service.create("key-1", command("product-1"));
+        OrderDto retry = service.create("key-1", command("product-1"));
+
+        assertThat(retry).isEqualTo(first);
+        verify(createOrderUseCase, times(1)).execute(any());
+    }
+
+    @Test
+    void keyIsScopedToTheUser() {
+        when(payOrderUseCase.execute(any())).thenReturn(order("order-1"));
+        PayOrderCommand pay = PayOrderCommand.builder().orderId("order-1").paymentReference("ref-1").build();
+
+        service.pay("buyer-1", "key-1", pay);
+        service.pay("admin-1", "key-1", pay);
+
+        verify(payOrderUseCase, times(2)).execute(pay);
+    }
+
+    @Test
+    void reusingAKeyForAnotherRequestIsAConflict() {
+        when(createOrderUseCase.execute(command("product-1"))).thenReturn(order("order-1"));
+        service.create("key-1", command("product-1"));
+
+        assertThatThrownBy(() -> service.create("key-1", command("product-2")))
+            .isInstanceOf(ConflictDomainException.class);
+    }
+
+    @Test
+    void concurrentDuplicatesShareOneExecution() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(createOrderUseCase.execute(command("product-1"))).thenAnswer(invocation -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return order("order-1");
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<OrderDto> first = executor.submit(() -> service.create("key-1", command("product-1")));
+            assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+            Future<OrderDto> duplicate = executor.submit(() -> service.create("key-1", command("product-1")));
+            release.countDown();
+
+            assertThat(first.get(5, TimeUnit.SECONDS).getId()).isEqualTo("order-1");
+            assertThat(duplicate.get(5, TimeUnit.SECONDS).getId()).isEqualTo("order-1");
+        } finally {
+            executor.shutdownNow();
+        }
+        verify(createOrderUseCase, times(1)).execute(any());
+    }
+
+    @Test
+    void failedExecutionFreesTheKeyForARetry() {
+        when(createOrderUseCase.execute(command("product-1")))
+            .thenThrow(new OrderDomainException("Insufficient stock"))
+            .thenReturn(order("order-1"));
+
+        assertThatThrownBy(() -> service.create("key-1", command("product-1")))
+            .isInstanceOf(OrderDomainException.class);
+        assertThat(service.create("key-1", command("product-1")).getId()).isEqualTo("order-1");
+    }
+
+    @Test
+    void requestsWithoutAKeyBypassTheStore() {
+        when(createOrderUseCase.execute(command("product-1"))).thenReturn(order("order-1"));
+
+        service.create(null, command("product-1"));
+        service.create(null, command("product-1"));
+
+        verify(createOrderUseCase, times(2)).execute(any());
+        assertThat(idempotencyPort.records).isEmpty();
+        verifyNoInteractions(payOrderUseCase);
+    }
+
+    private CreateOrderCommand command(String productId) {
+        return CreateOrderCommand.builder()
+            .userId("buyer-1")
+            .currency("VND")
+            .items(List.of(CreateOrderCommand.OrderItemCommand.builder().productId(productId).quantity(1).build()))
+            .build();
+    }
+
+    private OrderDto order(String orderId) {
+        return OrderDto.builder().id(orderId).userId("buyer-1").status("PENDING").build();
+    }
+
+    private static class InMemoryIdempotencyPort implements IdempotencyPort {
+        private final Map<String, IdempotencyRecord> records = new ConcurrentHashMap<>();
+
+        @Override
+        public Optional<IdempotencyRecord> begin(IdempotencyRecord inProgress) {
+            return Optional.ofNullable(records.putIfAbsent(scope(inProgress.getUserId(), inProgress.getKey()), inProgress));
+        }
+
+        @Override
+        public Optional<IdempotencyRecord> find(String userId, String key) {
+            return Optional.ofNullable(records.get(scope(userId, key)));
+        }
+
+        @Override
+        public void complete(IdempotencyRecord completed) {
+            records.put(scope(completed.getUserId(), completed.getKey()), completed);
+        }
+
+        @Override
+        public void release(String userId, String key) {
+            records.remove(scope(userId, key));
+        }
+
+        private static String scope(String userId, String key) {
+            return userId + ":" + key;
+        }
+    }
+}
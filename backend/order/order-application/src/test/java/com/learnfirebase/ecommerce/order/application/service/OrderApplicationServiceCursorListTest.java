@@ -0,0 +1,142 @@
+package com.learnfirebase.ecommerce.order.application.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+import com.learnfirebase.ecommerce.common.application.pagination.CursorPageRequest;
+import com.learnfirebase.ecommerce.common.application.pagination.CursorPageResponse;
+import com.learnfirebase.ecommerce.common.domain.valueobject.Money;
+import com.learnfirebase.ecommerce.order.application.dto.OrderDto;
+import com.learnfirebase.ecommerce.order.application.model.OrderCursor;
+import com.learnfirebase.ecommerce.order.application.port.out.FlashSaleAdmissionPort;
+import com.learnfirebase.ecommerce.order.application.port.out.InventoryReservationPort;
+import com.learnfirebase.ecommerce.order.application.port.out.LoadFlashSalePort;
+import com.learnfirebase.ecommerce.order.application.port.out.LoadProductPort;
+import com.learnfirebase.ecommerce.order.application.port.out.OrderCachePort;
+import com.learnfirebase.ecommerce.order.application.port.out.OrderOutboxPort;
+import com.learnfirebase.ecommerce.order.application.port.out.OrderRepository;
+import com.learnfirebase.ecommerce.order.application.port.out.PaymentGatewayPort;
+import com.learnfirebase.ecommerce.order.application.port.out.PaymentTransactionPort;
+import com.learnfirebase.ecommerce.order.application.port.out.SellerOrderViewPort;
+import com.learnfirebase.ecommerce.order.domain.exception.OrderDomainException;
+import com.learnfirebase.ecommerce.order.domain.model.Order;
+import com.learnfirebase.ecommerce.order.domain.model.OrderId;
+import com.learnfirebase.ecommerce.order.domain.model.OrderItem;
+import com.learnfirebase.ecommerce.order.domain.model.OrderStatus;
+import com.learnfirebase.ecommerce.order.domain.model.UserId;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class OrderApplicationServiceCursorListTest {
+    @Mock
+    private OrderRepository orderRepository;
+    @Mock
+    private LoadProductPort loadProductPort;
+    @Mock
+    private LoadFlashSalePort loadFlashSalePort;
+    @Mock
+    private FlashSaleAdmissionPort flashSaleAdmissionPort;
+    @Mock
+    private InventoryReservationPort inventoryReservationPort;
+    @Mock
+    private OrderOutboxPort orderOutboxPort;
+    @Mock
+    private PaymentGatewayPort paymentGatewayPort;
+    @Mock
+    private PaymentTransactionPort paymentTransactionPort;
+    @Mock
+    private SellerOrderViewPort sellerOrderViewPort;
+    @Mock
+    private OrderCachePort orderCachePort;
+
+    private OrderApplicationService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new OrderApplicationService(
+            orderRepository,
+            loadProductPort,
+            loadFlashSalePort,
+            flashSaleAdmissionPort,
+            inventoryReservationPort,
+            orderOutboxPort,
+            paymentGatewayPort,
+            paymentTransactionPort,
+            sellerOrderViewPort,
+            orderCachePort
+        );
+    }
+
+    @Test
+    void fullPageReturnsCursorOfLastOrderAndSkipsCounting() {
+        when(orderRepository.findByUserIdAfter("buyer-1", null, 3)).thenReturn(List.of(
+            order("order-3", "2026-06-15T00:00:03Z"),
+            order("order-2", "2026-06-15T00:00:02Z"),
+            order("order-1", "2026-06-15T00:00:01Z")));
+
+        CursorPageResponse<OrderDto> page = service.listOrdersForUser(
+            CursorPageRequest.builder().size(2).build(), "buyer-1");
+
+        assertThat(page.getContent()).extracting(OrderDto::getId).containsExactly("order-3", "order-2");
+        assertThat(page.isHasNext()).isTrue();
+        assertThat(page.getTotalElements()).isNull();
+        assertThat(OrderCursor.decode(page.getNextCursor()))
+            .isEqualTo(new OrderCursor(Instant.parse("2026-06-15T00:00:02Z"), "order-2"));
+        verify(orderRepository, never()).countByUserId(anyString());
+    }
+
+    @Test
+    void lastPageHasNoCursorAndCountsOnlyWhenAsked() {
+        OrderCursor after = new OrderCursor(Instant.parse("2026-06-15T00:00:02Z"), "order-2");
+        when(sellerOrderViewPort.findOrderIdsAfter("seller-1", after, 3)).thenReturn(List.of("order-1"));
+        when(orderRepository.findAllByIds(List.of("order-1")))
+            .thenReturn(List.of(order("order-1", "2026-06-15T00:00:01Z")));
+        when(sellerOrderViewPort.countBySellerId("seller-1")).thenReturn(3L);
+
+        CursorPageResponse<OrderDto> page = service.listOrders(
+            CursorPageRequest.builder().cursor(after.encode()).size(2).includeTotal(true).build(), "seller-1");
+
+        assertThat(page.getContent()).extracting(OrderDto::getId).containsExactly("order-1");
+        assertThat(page.isHasNext()).isFalse();
+        assertThat(page.getNextCursor()).isNull();
+        assertThat(page.getTotalElements()).isEqualTo(3L);
+    }
+
+    @Test
+    void malformedCursorIsRejected() {
+        assertThatThrownBy(() -> service.listOrders(
+            CursorPageRequest.builder().cursor("not-a-cursor").size(10).build(), null))
+            .isInstanceOf(OrderDomainException.class);
+    }
+
+    private Order order(String orderId, String createdAt) {
+        return Order.builder()
+            .id(new OrderId(orderId))
+            .userId(new UserId("buyer-1"))
+            .status(OrderStatus.PENDING)
+            .items(List.of(OrderItem.builder()
+                .productId("product-1")
+                .variantSku("variant-1")
+                .sellerId("seller-1")
+                .quantity(1)
+                .price(Money.builder().amount(new BigDecimal("100.00")).currency("VND").build())
+                .build()))
+            .totalAmount(Money.builder().amount(new BigDecimal("100.00")).currency("VND").build())
+            .createdAt(Instant.parse(createdAt))
+            .updatedAt(Instant.parse(createdAt))
+            .build();
+    }
+}
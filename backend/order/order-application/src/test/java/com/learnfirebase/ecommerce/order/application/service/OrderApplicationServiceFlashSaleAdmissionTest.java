@@ -0,0 +1,195 @@
+package com.learnfirebase.ecommerce.order.application.service;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import com.learnfirebase.ecommerce.common.domain.AccessDeniedDomainException;
+import com.learnfirebase.ecommerce.common.domain.valueobject.Money;
+import com.learnfirebase.ecommerce.order.application.command.CancelOrderCommand;
+import com.learnfirebase.ecommerce.order.application.command.CreateOrderCommand;
+import com.learnfirebase.ecommerce.order.application.port.out.FlashSaleAdmissionPort;
+import com.learnfirebase.ecommerce.order.application.port.out.InventoryReservationPort;
+import com.learnfirebase.ecommerce.order.application.port.out.LoadFlashSalePort;
+import com.learnfirebase.ecommerce.order.application.port.out.LoadProductPort;
+import com.learnfirebase.ecommerce.order.application.port.out.OrderCachePort;
+import com.learnfirebase.ecommerce.order.application.port.out.OrderOutboxPort;
+import com.learnfirebase.ecommerce.order.application.port.out.OrderRepository;
+import com.learnfirebase.ecommerce.order.application.port.out.PaymentGatewayPort;
+import com.learnfirebase.ecommerce.order.application.port.out.PaymentTransactionPort;
+import com.learnfirebase.ecommerce.order.application.port.out.SellerOrderViewPort;
+import com.learnfirebase.ecommerce.order.domain.model.Order;
+import com.learnfirebase.ecommerce.order.domain.model.OrderId;
+import com.learnfirebase.ecommerce.order.domain.model.OrderItem;
+import com.learnfirebase.ecommerce.order.domain.model.OrderStatus;
+import com.learnfirebase.ecommerce.order.domain.model.UserId;
+import com.learnfirebase.ecommerce.promotion.domain.model.FlashSale;
+import com.learnfirebase.ecommerce.promotion.domain.model.FlashSaleId;
+import com.learnfirebase.ecommerce.promotion.domain.model.FlashSaleStatus;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class OrderApplicationServiceFlashSaleAdmissionTest {
+    private static final String SALE_1 = "5d1f0a52-6f3c-4c0e-9d7c-1a2b3c4d5e6f";
+    private static final String SALE_2 = "9e8d7c6b-5a49-4838-a726-15f4e3d2c1b0";
+
+    @Mock
+    private OrderRepository orderRepository;
+    @Mock
+    private LoadProductPort loadProductPort;
+    @Mock
+    private LoadFlashSalePort loadFlashSalePort;
+    @Mock
+    private FlashSaleAdmissionPort flashSaleAdmissionPort;
+    @Mock
+    private InventoryReservationPort inventoryReservationPort;
+    @Mock
+    private OrderOutboxPort orderOutboxPort;
+    @Mock
+    private PaymentGatewayPort paymentGatewayPort;
+    @Mock
+    private PaymentTransactionPort paymentTransactionPort;
+    @Mock
+    private SellerOrderViewPort sellerOrderViewPort;
+    @Mock
+    private OrderCachePort orderCachePort;
+
+    private OrderApplicationService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new OrderApplicationService(
+            orderRepository,
+            loadProductPort,
+            loadFlashSalePort,
+            flashSaleAdmissionPort,
+            inventoryReservationPort,
+            orderOutboxPort,
+            paymentGatewayPort,
+            paymentTransactionPort,
+            sellerOrderViewPort,
+            orderCachePort
+        );
+    }
+
+    @Test
+    void orderWithoutAdmissionIsRejectedBeforeAnyLookup() {
+        when(flashSaleAdmissionPort.consume(SALE_1, "buyer-1", "forged")).thenReturn(false);
+
+        assertThatThrownBy(() -> service.execute(command(item(SALE_1, "forged"))))
+            .isInstanceOf(AccessDeniedDomainException.class);
+
+        verifyNoInteractions(loadProductPort, loadFlashSalePort, orderRepository, inventoryReservationPort);
+    }
+
+    @Test
+    void admissionsAlreadyConsumedAreGivenBackWhenALaterOneIsInvalid() {
+        when(flashSaleAdmissionPort.consume(SALE_1, "buyer-1", "token-1")).thenReturn(true);
+        when(flashSaleAdmissionPort.consume(SALE_2, "buyer-1", "used")).thenReturn(false);
+
+        assertThatThrownBy(() -> service.execute(command(item(SALE_1, "token-1"), item(SALE_2, "used"))))
+            .isInstanceOf(AccessDeniedDomainException.class);
+
+        verify(flashSaleAdmissionPort).restore(SALE_1, "buyer-1", "token-1");
+        verify(flashSaleAdmissionPort, never()).restore(SALE_2, "buyer-1", "used");
+    }
+
+    @Test
+    void admissionIsGivenBackWhenTheOrderFails() {
+        when(flashSaleAdmissionPort.consume(SALE_1, "buyer-1", "token-1")).thenReturn(true);
+        when(loadProductPort.loadProducts(any(), any(), any())).thenThrow(new IllegalStateException("catalog down"));
+
+        assertThatThrownBy(() -> service.execute(command(item(SALE_1, "token-1"))))
+            .isInstanceOf(IllegalStateException.class);
+
+        verify(flashSaleAdmissionPort).restore(SALE_1, "buyer-1", "token-1");
+    }
+
+    @Test
+    void cancellationGivesUnitsBackToARunningSale() {
+        when(orderRepository.findById(new OrderId("order-1"))).thenReturn(Optional.of(order(SALE_1)));
+        when(orderRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(loadFlashSalePort.loadFlashSale(SALE_1)).thenReturn(Optional.of(sale(SALE_1, FlashSaleStatus.ACTIVE)));
+
+        service.execute(CancelOrderCommand.builder().orderId("order-1").reason("changed mind").build());
+
+        verify(inventoryReservationPort).releaseFlashSale(SALE_1, 2);
+    }
+
+    @Test
+    void cancellationAfterTheSaleWasFinalizedReleasesNothing() {
+        when(orderRepository.findById(new OrderId("order-1"))).thenReturn(Optional.of(order(SALE_1)));
+        when(orderRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(loadFlashSalePort.loadFlashSale(SALE_1)).thenReturn(Optional.of(sale(SALE_1, FlashSaleStatus.ENDED)));
+
+        service.execute(CancelOrderCommand.builder().orderId("order-1").reason("changed mind").build());
+
+        verify(inventoryReservationPort, never()).releaseFlashSale(any(), anyInt());
+    }
+
+    private static Order order(String flashSaleId) {
+        Money price = Money.builder().amount(new BigDecimal("100")).currency("VND").build();
+        return Order.builder()
+            .id(new OrderId("order-1"))
+            .userId(new UserId("buyer-1"))
+            .status(OrderStatus.PENDING)
+            .items(List.of(OrderItem.builder()
+                .productId("product-1")
+                .flashSaleId(flashSaleId)
+                .sellerId("seller-1")
+                .quantity(2)
+                .price(price)
+                .build()))
+            .totalAmount(price)
+            .createdAt(Instant.parse("2026-06-15T00:00:00Z"))
+            .updatedAt(Instant.parse("2026-06-15T00:00:00Z"))
+            .build();
+    }
+
+    private static FlashSale sale(String flashSaleId, FlashSaleStatus status) {
+        Money price = Money.builder().amount(new BigDecimal("100")).currency("VND").build();
+        return FlashSale.builder()
+            .id(new FlashSaleId(UUID.fromString(flashSaleId)))
+            .productId("product-1")
+            .price(price)
+            .originalPrice(price)
+            .startTime(Instant.parse("2026-06-15T00:00:00Z"))
+            .endTime(Instant.parse("2026-06-15T01:00:00Z"))
+            .totalQuantity(10)
+            .remainingQuantity(5)
+            .status(status)
+            .build();
+    }
+
+    private static CreateOrderCommand command(CreateOrderCommand.OrderItemCommand... items) {
+        return CreateOrderCommand.builder()
+            .userId("buyer-1")
+            .currency("VND")
+            .items(List.of(items))
+            .build();
+    }
+
+    private static CreateOrderCommand.OrderItemCommand item(String flashSaleId, String token) {
+        return CreateOrderCommand.OrderItemCommand.builder()
+            .productId("product-1")
+            .flashSaleId(flashSaleId)
+            .admissionToken(token)
+            .quantity(1)
+            .build();
+    }
+}
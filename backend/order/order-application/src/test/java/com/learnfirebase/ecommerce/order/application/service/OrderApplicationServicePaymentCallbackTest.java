@@ -18,13 +18,16 @@ import com.learnfirebase.ecommerce.common.domain.valueobject.Money;
 import com.learnfirebase.ecommerce.order.application.command.HandlePaymentCallbackCommand;
 import com.learnfirebase.ecommerce.order.application.dto.OrderDto;
 import com.learnfirebase.ecommerce.order.application.model.PaymentStatus;
+import com.learnfirebase.ecommerce.order.application.port.out.FlashSaleAdmissionPort;
 import com.learnfirebase.ecommerce.order.application.port.out.InventoryReservationPort;
 import com.learnfirebase.ecommerce.order.application.port.out.LoadFlashSalePort;
 import com.learnfirebase.ecommerce.order.application.port.out.LoadProductPort;
+import com.learnfirebase.ecommerce.order.application.port.out.OrderCachePort;
 import com.learnfirebase.ecommerce.order.application.port.out.OrderOutboxPort;
 import com.learnfirebase.ecommerce.order.application.port.out.OrderRepository;
 import com.learnfirebase.ecommerce.order.application.port.out.PaymentGatewayPort;
 import com.learnfirebase.ecommerce.order.application.port.out.PaymentTransactionPort;
+import com.learnfirebase.ecommerce.order.application.port.out.SellerOrderViewPort;
 import com.learnfirebase.ecommerce.order.domain.exception.OrderDomainException;
 import com.learnfirebase.ecommerce.order.domain.model.Order;
 import com.learnfirebase.ecommerce.order.domain.model.OrderId;
@@ -48,6 +51,8 @@ class OrderApplicationServicePaymentCallbackTest {
     @Mock
     private LoadFlashSalePort loadFlashSalePort;
     @Mock
+    private FlashSaleAdmissionPort flashSaleAdmissionPort;
+    @Mock
     private InventoryReservationPort inventoryReservationPort;
     @Mock
     private OrderOutboxPort orderOutboxPort;
@@ -55,6 +60,10 @@ class OrderApplicationServicePaymentCallbackTest {
     private PaymentGatewayPort paymentGatewayPort;
     @Mock
     private PaymentTransactionPort paymentTransactionPort;
+    @Mock
+    private SellerOrderViewPort sellerOrderViewPort;
+    @Mock
+    private OrderCachePort orderCachePort;
 
     private OrderApplicationService service;
 
@@ -64,10 +73,13 @@ class OrderApplicationServicePaymentCallbackTest {
             orderRepository,
             loadProductPort,
             loadFlashSalePort,
+            flashSaleAdmissionPort,
             inventoryReservationPort,
             orderOutboxPort,
             paymentGatewayPort,
-            paymentTransactionPort
+            paymentTransactionPort,
+            sellerOrderViewPort,
+            orderCachePort
         );
     }
 
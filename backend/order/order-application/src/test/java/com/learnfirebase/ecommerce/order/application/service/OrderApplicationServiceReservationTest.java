@@ -0,0 +1,164 @@
+package com.learnfirebase.ecommerce.order.application.service;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import com.learnfirebase.ecommerce.common.domain.valueobject.Money;
+import com.learnfirebase.ecommerce.order.application.command.CreateOrderCommand;
+import com.learnfirebase.ecommerce.order.application.port.out.FlashSaleAdmissionPort;
+import com.learnfirebase.ecommerce.order.application.port.out.InventoryReservationPort;
+import com.learnfirebase.ecommerce.order.application.port.out.LoadFlashSalePort;
+import com.learnfirebase.ecommerce.order.application.port.out.LoadProductPort;
+import com.learnfirebase.ecommerce.order.application.port.out.OrderCachePort;
+import com.learnfirebase.ecommerce.order.application.port.out.OrderOutboxPort;
+import com.learnfirebase.ecommerce.order.application.port.out.OrderRepository;
+import com.learnfirebase.ecommerce.order.application.port.out.PaymentGatewayPort;
+import com.learnfirebase.ecommerce.order.application.port.out.PaymentTransactionPort;
+import com.learnfirebase.ecommerce.order.application.port.out.SellerOrderViewPort;
+import com.learnfirebase.ecommerce.order.domain.exception.OrderDomainException;
+import com.learnfirebase.ecommerce.promotion.domain.model.FlashSale;
+import com.learnfirebase.ecommerce.promotion.domain.model.FlashSaleId;
+import com.learnfirebase.ecommerce.promotion.domain.model.FlashSaleStatus;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class OrderApplicationServiceReservationTest {
+    private static final String SALE_1 = "5d1f0a52-6f3c-4c0e-9d7c-1a2b3c4d5e6f";
+    private static final String SALE_2 = "9e8d7c6b-5a49-4838-a726-15f4e3d2c1b0";
+
+    @Mock
+    private OrderRepository orderRepository;
+    @Mock
+    private LoadProductPort loadProductPort;
+    @Mock
+    private LoadFlashSalePort loadFlashSalePort;
+    @Mock
+    private FlashSaleAdmissionPort flashSaleAdmissionPort;
+    @Mock
+    private InventoryReservationPort inventoryReservationPort;
+    @Mock
+    private OrderOutboxPort orderOutboxPort;
+    @Mock
+    private PaymentGatewayPort paymentGatewayPort;
+    @Mock
+    private PaymentTransactionPort paymentTransactionPort;
+    @Mock
+    private SellerOrderViewPort sellerOrderViewPort;
+    @Mock
+    private OrderCachePort orderCachePort;
+
+    private OrderApplicationService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new OrderApplicationService(
+            orderRepository,
+            loadProductPort,
+            loadFlashSalePort,
+            flashSaleAdmissionPort,
+            inventoryReservationPort,
+            orderOutboxPort,
+            paymentGatewayPort,
+            paymentTransactionPort,
+            sellerOrderViewPort,
+            orderCachePort
+        );
+        when(orderRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(loadProductPort.loadProducts(any(), any(), any())).thenReturn(Map.of(
+            "product-1", product("product-1"),
+            "product-2", product("product-2"),
+            "product-3", product("product-3")));
+    }
+
+    @Test
+    void shortStandardLineFailsTheOrderBeforeAnyFlashSaleStockIsTaken() {
+        when(loadFlashSalePort.loadFlashSale(SALE_1)).thenReturn(Optional.of(sale(SALE_1, "product-2")));
+        when(inventoryReservationPort.reserve(anyString(), anyMap())).thenReturn(false);
+
+        assertThatThrownBy(() -> service.executeAdmitted(command(
+                item("product-1", null, 2),
+                item("product-2", SALE_1, 1))))
+            .isInstanceOf(OrderDomainException.class);
+
+        verify(inventoryReservationPort, never()).reserveFlashSale(anyString(), anyString(), anyInt());
+    }
+
+    @Test
+    void failedFlashSaleLineGivesBackEverythingTheOrderAlreadyTook() {
+        when(loadFlashSalePort.loadFlashSale(SALE_1)).thenReturn(Optional.of(sale(SALE_1, "product-2")));
+        when(loadFlashSalePort.loadFlashSale(SALE_2)).thenReturn(Optional.of(sale(SALE_2, "product-3")));
+        when(inventoryReservationPort.reserve(anyString(), eq(Map.of("product-1", 2)))).thenReturn(true);
+        when(inventoryReservationPort.reserveFlashSale(anyString(), eq(SALE_1), eq(1))).thenReturn(true);
+        when(inventoryReservationPort.reserveFlashSale(anyString(), eq(SALE_2), eq(3))).thenReturn(false);
+
+        assertThatThrownBy(() -> service.executeAdmitted(command(
+                item("product-1", null, 2),
+                item("product-2", SALE_1, 1),
+                item("product-3", SALE_2, 3))))
+            .isInstanceOf(OrderDomainException.class);
+
+        verify(inventoryReservationPort).releaseFlashSale(SALE_1, 1);
+        verify(inventoryReservationPort, never()).releaseFlashSale(eq(SALE_2), anyInt());
+        verify(inventoryReservationPort).release(anyString(), eq(Map.of("product-1", 2)));
+    }
+
+    private static CreateOrderCommand command(CreateOrderCommand.OrderItemCommand... items) {
+        return CreateOrderCommand.builder()
+            .userId("buyer-1")
+            .currency("VND")
+            .items(List.of(items))
+            .build();
+    }
+
+    private static CreateOrderCommand.OrderItemCommand item(String productId, String flashSaleId, int quantity) {
+        return CreateOrderCommand.OrderItemCommand.builder()
+            .productId(productId)
+            .flashSaleId(flashSaleId)
+            .quantity(quantity)
+            .build();
+    }
+
+    private static LoadProductPort.ProductInfo product(String productId) {
+        return LoadProductPort.ProductInfo.builder()
+            .id(productId)
+            .price(new BigDecimal("100"))
+            .currency("VND")
+            .sellerId("seller-1")
+            .build();
+    }
+
+    private static FlashSale sale(String flashSaleId, String productId) {
+        Money price = Money.builder().amount(new BigDecimal("50")).currency("VND").build();
+        Instant now = Instant.now();
+        return FlashSale.builder()
+            .id(new FlashSaleId(UUID.fromString(flashSaleId)))
+            .productId(productId)
+            .price(price)
+            .originalPrice(price)
+            .startTime(now.minusSeconds(60))
+            .endTime(now.plusSeconds(3600))
+            .totalQuantity(10)
+            .remainingQuantity(10)
+            .status(FlashSaleStatus.ACTIVE)
+            .build();
+    }
+}
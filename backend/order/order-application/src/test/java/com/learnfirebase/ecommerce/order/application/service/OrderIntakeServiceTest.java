@@ -0,0 +1,195 @@
+package com.learnfirebase.ecommerce.order.application.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import com.learnfirebase.ecommerce.common.domain.AccessDeniedDomainException;
+import com.learnfirebase.ecommerce.common.domain.ResourceNotFoundDomainException;
+import com.learnfirebase.ecommerce.order.application.command.CreateOrderCommand;
+import com.learnfirebase.ecommerce.order.application.model.OrderTicket;
+import com.learnfirebase.ecommerce.order.application.model.OrderTicketStatus;
+import com.learnfirebase.ecommerce.order.application.model.QueuedOrder;
+import com.learnfirebase.ecommerce.order.application.port.out.FlashSaleAdmissionPort;
+import com.learnfirebase.ecommerce.order.application.port.out.OrderIntakeQueuePort;
+import com.learnfirebase.ecommerce.order.application.port.out.OrderTicketPort;
+import com.learnfirebase.ecommerce.order.domain.exception.OrderDomainException;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class OrderIntakeServiceTest {
+    private static final String SALE = "5d1f0a52-6f3c-4c0e-9d7c-1a2b3c4d5e6f";
+
+    @Mock
+    private OrderIntakeQueuePort orderIntakeQueuePort;
+    @Mock
+    private OrderTicketPort orderTicketPort;
+    @Mock
+    private FlashSaleAdmissionPort flashSaleAdmissionPort;
+
+    private OrderIntakeService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new OrderIntakeService(orderIntakeQueuePort, orderTicketPort, flashSaleAdmissionPort);
+    }
+
+    @Test
+    void submitStoresTheTicketAndQueuesTheCommand() {
+        when(orderIntakeQueuePort.offer(any())).thenReturn(true);
+
+        OrderTicket ticket = service.submit(null, command(1));
+
+        assertThat(ticket.getStatus()).isEqualTo(OrderTicketStatus.QUEUED);
+        assertThat(ticket.getUserId()).isEqualTo("buyer-1");
+        ArgumentCaptor<QueuedOrder> queued = ArgumentCaptor.forClass(QueuedOrder.class);
+        verify(orderIntakeQueuePort).offer(queued.capture());
+        assertThat(queued.getValue().getTicket()).isEqualTo(ticket);
+        verify(orderTicketPort).saveAll(List.of(ticket));
+    }
+
+    @Test
+    void fullQueueRejectsTheSubmission() {
+        when(orderIntakeQueuePort.offer(any())).thenReturn(false);
+
+        assertThat(service.submit(null, command(1)).getStatus()).isEqualTo(OrderTicketStatus.REJECTED);
+    }
+
+    @Test
+    void retryWithTheSameKeyGetsTheFirstTicketWithoutQueueingAgain() {
+        OrderTicket first = OrderTicket.builder()
+            .ticketId("ticket-1")
+            .userId("buyer-1")
+            .status(OrderTicketStatus.QUEUED)
+            .createdAt(Instant.parse("2026-06-15T00:00:00Z"))
+            .build();
+        when(orderTicketPort.bindKey(eq("buyer-1"), eq("key-1"), anyString())).thenReturn("ticket-1");
+        when(orderTicketPort.find("ticket-1")).thenReturn(Optional.of(first));
+
+        assertThat(service.submit("key-1", command(1))).isEqualTo(first);
+
+        verify(orderIntakeQueuePort, never()).offer(any());
+    }
+
+    @Test
+    void firstSubmissionWithAKeyBindsItAndQueues() {
+        when(orderTicketPort.bindKey(eq("buyer-1"), eq("key-1"), anyString()))
+            .thenAnswer(invocation -> invocation.getArgument(2));
+        when(orderIntakeQueuePort.offer(any())).thenReturn(true);
+
+        OrderTicket ticket = service.submit("key-1", command(1));
+
+        assertThat(ticket.getStatus()).isEqualTo(OrderTicketStatus.QUEUED);
+        verify(orderTicketPort).bindKey("buyer-1", "key-1", ticket.getTicketId());
+        verify(orderTicketPort, never()).unbindKey(any(), any());
+    }
+
+    @Test
+    void rejectedSubmissionFreesItsKeyForTheRetry() {
+        when(orderTicketPort.bindKey(eq("buyer-1"), eq("key-1"), anyString()))
+            .thenAnswer(invocation -> invocation.getArgument(2));
+        when(orderIntakeQueuePort.offer(any())).thenReturn(false);
+
+        assertThat(service.submit("key-1", command(1)).getStatus()).isEqualTo(OrderTicketStatus.REJECTED);
+
+        verify(orderTicketPort).unbindKey("buyer-1", "key-1");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flashSaleLineWithoutAValidAdmissionIsNeverQueued() {
+        when(flashSaleAdmissionPort.consume(SALE, "buyer-1", "forged")).thenReturn(false);
+
+        assertThatThrownBy(() -> service.submit(null, flashSaleCommand("forged")))
+            .isInstanceOf(AccessDeniedDomainException.class);
+
+        verify(orderIntakeQueuePort, never()).offer(any());
+        ArgumentCaptor<List<OrderTicket>> saved = ArgumentCaptor.forClass(List.class);
+        verify(orderTicketPort, times(2)).saveAll(saved.capture());
+        assertThat(saved.getValue().get(0).getStatus()).isEqualTo(OrderTicketStatus.REJECTED);
+    }
+
+    @Test
+    void admissionIsConsumedAtIntakeAndGivenBackWhenTheQueueIsFull() {
+        when(flashSaleAdmissionPort.consume(SALE, "buyer-1", "token-1")).thenReturn(true);
+        when(orderIntakeQueuePort.offer(any())).thenReturn(false);
+
+        assertThat(service.submit(null, flashSaleCommand("token-1")).getStatus())
+            .isEqualTo(OrderTicketStatus.REJECTED);
+
+        verify(flashSaleAdmissionPort).restore(SALE, "buyer-1", "token-1");
+    }
+
+    @Test
+    void retryWithTheSameKeyDoesNotConsumeTheAdmissionAgain() {
+        when(orderTicketPort.bindKey(eq("buyer-1"), eq("key-1"), anyString())).thenReturn("ticket-1");
+        when(orderTicketPort.find("ticket-1")).thenReturn(Optional.of(OrderTicket.builder()
+            .ticketId("ticket-1")
+            .userId("buyer-1")
+            .status(OrderTicketStatus.QUEUED)
+            .build()));
+
+        service.submit("key-1", flashSaleCommand("token-1"));
+
+        verify(flashSaleAdmissionPort, never()).consume(any(), any(), any());
+    }
+
+    @Test
+    void invalidCommandIsRejectedBeforeQueueing() {
+        assertThatThrownBy(() -> service.submit(null, command(0))).isInstanceOf(OrderDomainException.class);
+
+        verify(orderIntakeQueuePort, never()).offer(any());
+    }
+
+    @Test
+    void ticketsAreOnlyVisibleToTheirOwner() {
+        OrderTicket ticket = OrderTicket.builder()
+            .ticketId("ticket-1")
+            .userId("buyer-1")
+            .status(OrderTicketStatus.QUEUED)
+            .createdAt(Instant.parse("2026-06-15T00:00:00Z"))
+            .build();
+        when(orderTicketPort.find("ticket-1")).thenReturn(Optional.of(ticket));
+
+        assertThat(service.getTicket("ticket-1", "buyer-1")).isEqualTo(ticket);
+        assertThatThrownBy(() -> service.getTicket("ticket-1", "buyer-2"))
+            .isInstanceOf(ResourceNotFoundDomainException.class);
+    }
+
+    private CreateOrderCommand flashSaleCommand(String admissionToken) {
+        return CreateOrderCommand.builder()
+            .userId("buyer-1")
+            .currency("VND")
+            .items(List.of(CreateOrderCommand.OrderItemCommand.builder()
+                .productId("product-1")
+                .quantity(1)
+                .flashSaleId(SALE)
+                .admissionToken(admissionToken)
+                .build()))
+            .build();
+    }
+
+    private CreateOrderCommand command(int quantity) {
+        return CreateOrderCommand.builder()
+            .userId("buyer-1")
+            .currency("VND")
+            .items(List.of(CreateOrderCommand.OrderItemCommand.builder().productId("product-1").quantity(quantity).build()))
+            .build();
+    }
+}
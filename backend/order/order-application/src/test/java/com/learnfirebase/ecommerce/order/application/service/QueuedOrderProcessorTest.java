@@ -0,0 +1,77 @@
+package com.learnfirebase.ecommerce.order.application.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import java.util.List;
+
+import com.learnfirebase.ecommerce.order.application.command.CreateOrderCommand;
+import com.learnfirebase.ecommerce.order.application.dto.OrderDto;
+import com.learnfirebase.ecommerce.order.application.model.OrderTicket;
+import com.learnfirebase.ecommerce.order.application.model.OrderTicketStatus;
+import com.learnfirebase.ecommerce.order.application.model.QueuedOrder;
+import com.learnfirebase.ecommerce.order.application.port.in.CreateOrderUseCase;
+import com.learnfirebase.ecommerce.order.application.port.out.OrderTicketNotifierPort;
+import com.learnfirebase.ecommerce.order.application.port.out.OrderTicketPort;
+import com.learnfirebase.ecommerce.order.domain.exception.OrderDomainException;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class QueuedOrderProcessorTest {
+    @Mock
+    private CreateOrderUseCase createOrderUseCase;
+    @Mock
+    private OrderTicketPort orderTicketPort;
+    @Mock
+    private OrderTicketNotifierPort orderTicketNotifierPort;
+
+    private QueuedOrderProcessor processor;
+
+    @BeforeEach
+    void setUp() {
+        processor = new QueuedOrderProcessor(createOrderUseCase, orderTicketPort, orderTicketNotifierPort);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void failedOrderOnlyFailsItsOwnTicketAndResultsAreSavedTogether() {
+        QueuedOrder ok = queued("ticket-1", "product-1");
+        QueuedOrder soldOut = queued("ticket-2", "product-2");
+        when(createOrderUseCase.executeAdmitted(ok.getCommand())).thenReturn(OrderDto.builder().id("order-1").build());
+        when(createOrderUseCase.executeAdmitted(soldOut.getCommand()))
+            .thenThrow(new OrderDomainException("Insufficient stock for one or more items"));
+
+        processor.process(List.of(ok, soldOut));
+
+        ArgumentCaptor<List<OrderTicket>> saved = ArgumentCaptor.forClass(List.class);
+        verify(orderTicketPort).saveAll(saved.capture());
+        assertThat(saved.getValue()).extracting(OrderTicket::getStatus)
+            .containsExactly(OrderTicketStatus.COMPLETED, OrderTicketStatus.FAILED);
+        assertThat(saved.getValue().get(0).getOrder().getId()).isEqualTo("order-1");
+        assertThat(saved.getValue().get(1).getError()).isEqualTo("Insufficient stock for one or more items");
+        verify(orderTicketNotifierPort).publish(saved.getValue().get(0));
+        verify(orderTicketNotifierPort).publish(saved.getValue().get(1));
+    }
+
+    private QueuedOrder queued(String ticketId, String productId) {
+        OrderTicket ticket = OrderTicket.builder()
+            .ticketId(ticketId)
+            .userId("buyer-1")
+            .status(OrderTicketStatus.QUEUED)
+            .createdAt(Instant.parse("2026-06-15T00:00:00Z"))
+            .build();
+        return new QueuedOrder(ticket, CreateOrderCommand.builder()
+            .userId("buyer-1")
+            .currency("VND")
+            .items(List.of(CreateOrderCommand.OrderItemCommand.builder().productId(productId).quantity(1).build()))
+            .build());
+    }
+}
@@ -0,0 +1,109 @@
+package com.learnfirebase.ecommerce.order.application.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import com.learnfirebase.ecommerce.common.domain.valueobject.Money;
+import com.learnfirebase.ecommerce.order.application.model.SellerOrderView;
+import com.learnfirebase.ecommerce.order.application.port.out.OrderRepository;
+import com.learnfirebase.ecommerce.order.application.port.out.SellerOrderViewPort;
+import com.learnfirebase.ecommerce.order.domain.model.Order;
+import com.learnfirebase.ecommerce.order.domain.model.OrderId;
+import com.learnfirebase.ecommerce.order.domain.model.OrderItem;
+import com.learnfirebase.ecommerce.order.domain.model.OrderStatus;
+import com.learnfirebase.ecommerce.order.domain.model.UserId;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class SellerOrderViewServiceTest {
+    private static final Instant CREATED_AT = Instant.parse("2026-06-15T00:00:00Z");
+
+    @Mock
+    private OrderRepository orderRepository;
+    @Mock
+    private SellerOrderViewPort sellerOrderViewPort;
+
+    private SellerOrderViewService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new SellerOrderViewService(orderRepository, sellerOrderViewPort);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void createdEventWritesOneRowPerSellerWithItsOwnSubtotal() {
+        when(orderRepository.findById(new OrderId("order-1"))).thenReturn(Optional.of(order()));
+
+        service.project("OrderCreated", "order-1", CREATED_AT);
+
+        ArgumentCaptor<List<SellerOrderView>> views = ArgumentCaptor.forClass(List.class);
+        verify(sellerOrderViewPort).upsert(views.capture(), any(Instant.class));
+        assertThat(views.getValue()).extracting(SellerOrderView::getSellerId).containsExactly("seller-1", "seller-2");
+        assertThat(views.getValue().get(0).getSellerSubtotal()).isEqualByComparingTo("250.00");
+        assertThat(views.getValue().get(0).getItemCount()).isEqualTo(3);
+        assertThat(views.getValue().get(1).getSellerSubtotal()).isEqualByComparingTo("40.00");
+        assertThat(views.getValue().get(1).getItemCount()).isEqualTo(1);
+    }
+
+    @Test
+    void paidEventUpdatesStatusInPlace() {
+        Instant paidAt = CREATED_AT.plusSeconds(60);
+        when(sellerOrderViewPort.updateStatus("order-1", "PAID", paidAt)).thenReturn(2);
+
+        service.project("OrderPaid", "order-1", paidAt);
+
+        verify(orderRepository, never()).findById(any());
+        verify(sellerOrderViewPort, never()).upsert(anyList(), any());
+    }
+
+    @Test
+    void cancelledEventForUnprojectedOrderRebuildsIt() {
+        Instant cancelledAt = CREATED_AT.plusSeconds(60);
+        when(sellerOrderViewPort.updateStatus("order-1", "CANCELLED", cancelledAt)).thenReturn(0);
+        when(orderRepository.findById(new OrderId("order-1"))).thenReturn(Optional.of(order()));
+
+        service.project("OrderCancelled", "order-1", cancelledAt);
+
+        verify(sellerOrderViewPort).upsert(anyList(), any(Instant.class));
+    }
+
+    private Order order() {
+        return Order.builder()
+            .id(new OrderId("order-1"))
+            .userId(new UserId("buyer-1"))
+            .status(OrderStatus.PENDING)
+            .items(List.of(
+                item("seller-1", 2, "100.00"),
+                item("seller-2", 1, "40.00"),
+                item("seller-1", 1, "50.00")))
+            .totalAmount(Money.builder().amount(new BigDecimal("290.00")).currency("VND").build())
+            .createdAt(CREATED_AT)
+            .updatedAt(CREATED_AT)
+            .build();
+    }
+
+    private OrderItem item(String sellerId, int quantity, String price) {
+        return OrderItem.builder()
+            .productId("product-" + sellerId + "-" + price)
+            .sellerId(sellerId)
+            .quantity(quantity)
+            .price(Money.builder().amount(new BigDecimal(price)).currency("VND").build())
+            .build();
+    }
+}
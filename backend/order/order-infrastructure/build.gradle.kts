@@ -15,10 +15,38 @@ dependencies {
 
     implementation("org.springframework.boot:spring-boot-starter-data-jpa")
     implementation("org.springframework.boot:spring-boot-starter-data-redis")
+    implementation("org.springframework.boot:spring-boot-starter-websocket")
     implementation("org.springframework.kafka:spring-kafka")
     implementation("org.postgresql:postgresql")
     implementation("org.elasticsearch.client:elasticsearch-rest-client")
     implementation("com.fasterxml.jackson.core:jackson-databind")
     implementation("com.fasterxml.jackson.datatype:jackson-datatype-jsr310")
+    implementation("io.micrometer:micrometer-core")
 }
 
+tasks.named<Test>("test") {
+    useJUnitPlatform {
+        excludeTags("load")
+    }
+}
+
+// Flash-sale concurrency harness against a Testcontainers Redis; size it with -Pflashsale.load.<setting>=<value>.
+tasks.register<Test>("flashSaleLoadTest") {
+    description = "Drives concurrent flash-sale orders and cancellations and checks that stock is never oversold."
+    group = "verification"
+    testClassesDirs = sourceSets["test"].output.classesDirs
+    classpath = sourceSets["test"].runtimeClasspath
+    useJUnitPlatform {
+        includeTags("load")
+    }
+    project.properties.filterKeys { it.startsWith("flashsale.load.") }
+        .forEach { (key, value) -> systemProperty(key, value.toString()) }
+    testLogging.showStandardStreams = true
+    outputs.upToDateWhen { false }
+    // A validation gate must not pass on skipped or undiscovered tests.
+    afterSuite(KotlinClosure2<TestDescriptor, TestResult, Unit>({ descriptor, result ->
+        if (descriptor.parent == null && result.successfulTestCount == 0L) {
+            throw GradleException("flashSaleLoadTest ran no load test; it needs a running Docker daemon")
+        }
+    }))
+}
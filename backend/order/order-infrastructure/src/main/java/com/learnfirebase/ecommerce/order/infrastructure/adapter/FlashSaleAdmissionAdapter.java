@@ -0,0 +1,25 @@
+package com.learnfirebase.ecommerce.order.infrastructure.adapter;
+
+import org.springframework.stereotype.Component;
+
+import com.learnfirebase.ecommerce.order.application.port.out.FlashSaleAdmissionPort;
+import com.learnfirebase.ecommerce.promotion.application.port.in.FlashSaleAdmissionUseCase;
+
+import lombok.RequiredArgsConstructor;
+
+@Component
+@RequiredArgsConstructor
+public class FlashSaleAdmissionAdapter implements FlashSaleAdmissionPort {
+
+    private final FlashSaleAdmissionUseCase flashSaleAdmissionUseCase;
+
+    @Override
+    public boolean consume(String flashSaleId, String userId, String token) {
+        return flashSaleAdmissionUseCase.consumeAdmission(flashSaleId, userId, token);
+    }
+
+    @Override
+    public void restore(String flashSaleId, String userId, String token) {
+        flashSaleAdmissionUseCase.restoreAdmission(flashSaleId, userId, token);
+    }
+}
@@ -6,7 +6,9 @@ import java.util.UUID;
 import org.springframework.stereotype.Component;
 
 import com.learnfirebase.ecommerce.order.application.port.out.LoadFlashSalePort;
+import com.learnfirebase.ecommerce.promotion.application.port.out.FlashSaleCachePort;
 import com.learnfirebase.ecommerce.promotion.application.port.out.FlashSaleRepository;
+import com.learnfirebase.ecommerce.promotion.application.port.out.FlashSaleSchedulePort;
 import com.learnfirebase.ecommerce.promotion.domain.model.FlashSale;
 import com.learnfirebase.ecommerce.promotion.domain.model.FlashSaleId;
 
@@ -17,9 +19,16 @@ import lombok.RequiredArgsConstructor;
 public class LoadFlashSaleAdapter implements LoadFlashSalePort {
 
     private final FlashSaleRepository flashSaleRepository;
+    private final FlashSaleCachePort flashSaleCachePort;
+    private final FlashSaleSchedulePort flashSaleSchedulePort;
 
     @Override
     public Optional<FlashSale> loadFlashSale(String flashSaleId) {
-        return flashSaleRepository.findById(new FlashSaleId(UUID.fromString(flashSaleId)));
+        FlashSaleId id = new FlashSaleId(UUID.fromString(flashSaleId));
+        // The node's schedule index answers for every upcoming or running sale; Redis snapshots cover a node that
+        // has not loaded it yet, so start-of-sale checkouts don't all hit Postgres.
+        return flashSaleSchedulePort.findById(id)
+                .or(() -> flashSaleCachePort.getSnapshot(id))
+                .or(() -> flashSaleRepository.findById(id));
     }
 }
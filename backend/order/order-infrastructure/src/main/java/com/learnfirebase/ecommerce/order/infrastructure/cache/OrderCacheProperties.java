@@ -0,0 +1,25 @@
+package com.learnfirebase.ecommerce.order.infrastructure.cache;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+@Data
+@ConfigurationProperties(prefix = "order-cache")
+public class OrderCacheProperties {
+    /**
+     * How long a node serves an order from memory. Invalidation messages normally evict it much sooner; the
+     * TTL only bounds staleness when one is lost.
+     */
+    private Duration localTtl = Duration.ofSeconds(30);
+    /**
+     * The in-process level is cleared once it grows beyond this many orders.
+     */
+    private int localMaxEntries = 10_000;
+    /**
+     * Expiry of the shared Redis copy.
+     */
+    private Duration redisTtl = Duration.ofMinutes(10);
+}
@@ -0,0 +1,36 @@
+package com.learnfirebase.ecommerce.order.infrastructure.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonPOJOBuilder;
+import com.learnfirebase.ecommerce.order.application.dto.OrderDto;
+
+/**
+ * Jackson setup for storing {@link OrderDto} outside the JVM. OrderDto is an immutable Lombok value, so it is
+ * read back through its builder.
+ */
+public final class OrderDtoJson {
+
+    private OrderDtoJson() {
+    }
+
+    public static ObjectMapper mapper(ObjectMapper objectMapper) {
+        return objectMapper.copy()
+                .addMixIn(OrderDto.class, OrderDtoMixin.class)
+                .addMixIn(OrderDto.OrderDtoBuilder.class, BuilderMixin.class)
+                .addMixIn(OrderDto.OrderItemDto.class, OrderItemDtoMixin.class)
+                .addMixIn(OrderDto.OrderItemDto.OrderItemDtoBuilder.class, BuilderMixin.class);
+    }
+
+    @JsonDeserialize(builder = OrderDto.OrderDtoBuilder.class)
+    private abstract static class OrderDtoMixin {
+    }
+
+    @JsonDeserialize(builder = OrderDto.OrderItemDto.OrderItemDtoBuilder.class)
+    private abstract static class OrderItemDtoMixin {
+    }
+
+    @JsonPOJOBuilder(withPrefix = "")
+    private abstract static class BuilderMixin {
+    }
+}
@@ -0,0 +1,147 @@
+package com.learnfirebase.ecommerce.order.infrastructure.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.learnfirebase.ecommerce.order.application.dto.OrderDto;
+import com.learnfirebase.ecommerce.order.application.port.out.OrderCachePort;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Order detail cache with an in-process level in front of a shared Redis level. Writers update both levels and
+ * publish the order id on {@link #INVALIDATION_CHANNEL}; every other node drops its in-process copy, so a node
+ * never keeps serving a state older than the last write it could have seen. Read-through fills only create
+ * the Redis entry (SET NX) and publish nothing: a reader that loaded an order just before a write must not
+ * replace the writer's newer copy. Redis failures degrade to misses.
+ */
+@Slf4j
+@Component
+public class TwoLevelOrderCache implements OrderCachePort, MessageListener {
+    public static final String INVALIDATION_CHANNEL = "order-cache:invalidate";
+    private static final String KEY = "order:dto:%s";
+
+    private final StringRedisTemplate redisTemplate;
+    private final OrderCacheProperties properties;
+    private final ObjectMapper objectMapper;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final Map<String, CachedOrder> local = new ConcurrentHashMap<>();
+
+    private final Counter localHits;
+    private final Counter redisHits;
+    private final Counter misses;
+
+    public TwoLevelOrderCache(StringRedisTemplate redisTemplate, OrderCacheProperties properties,
+            ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.redisTemplate = redisTemplate;
+        this.properties = properties;
+        this.objectMapper = OrderDtoJson.mapper(objectMapper);
+        this.localHits = Counter.builder("order.cache.hits").tag("level", "local").register(meterRegistry);
+        this.redisHits = Counter.builder("order.cache.hits").tag("level", "redis").register(meterRegistry);
+        this.misses = Counter.builder("order.cache.misses").register(meterRegistry);
+    }
+
+    @Override
+    public Optional<OrderDto> get(String orderId) {
+        long now = System.currentTimeMillis();
+        CachedOrder cached = local.get(orderId);
+        if (cached != null && cached.expiresAt() > now) {
+            localHits.increment();
+            return Optional.of(cached.order());
+        }
+        try {
+            String json = redisTemplate.opsForValue().get(key(orderId));
+            if (json != null) {
+                OrderDto order = objectMapper.readValue(json, OrderDto.class);
+                putLocal(order, now);
+                redisHits.increment();
+                return Optional.of(order);
+            }
+        } catch (Exception ex) {
+            log.warn("Order cache lookup failed for order {}", orderId, ex);
+        }
+        misses.increment();
+        return Optional.empty();
+    }
+
+    @Override
+    public void put(OrderDto order) {
+        putLocal(order, System.currentTimeMillis());
+        try {
+            redisTemplate.opsForValue().set(key(order.getId()), objectMapper.writeValueAsString(order),
+                    properties.getRedisTtl());
+            publishInvalidation(order.getId());
+        } catch (Exception ex) {
+            // A stale shared copy must not outlive a failed write-through.
+            log.warn("Order cache write failed for order {}", order.getId(), ex);
+            evictShared(order.getId());
+        }
+    }
+
+    @Override
+    public void fill(OrderDto order) {
+        try {
+            Boolean created = redisTemplate.opsForValue().setIfAbsent(key(order.getId()),
+                    objectMapper.writeValueAsString(order), properties.getRedisTtl());
+            if (Boolean.TRUE.equals(created)) {
+                putLocal(order, System.currentTimeMillis());
+            }
+        } catch (Exception ex) {
+            log.warn("Order cache fill failed for order {}", order.getId(), ex);
+        }
+    }
+
+    @Override
+    public void evict(String orderId) {
+        local.remove(orderId);
+        evictShared(orderId);
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int separator = body.indexOf('|');
+        if (separator < 0 || body.substring(0, separator).equals(nodeId)) {
+            return;
+        }
+        local.remove(body.substring(separator + 1));
+    }
+
+    private void evictShared(String orderId) {
+        try {
+            redisTemplate.delete(key(orderId));
+            publishInvalidation(orderId);
+        } catch (Exception ex) {
+            log.warn("Order cache eviction failed for order {}", orderId, ex);
+        }
+    }
+
+    private void publishInvalidation(String orderId) {
+        redisTemplate.convertAndSend(INVALIDATION_CHANNEL, nodeId + "|" + orderId);
+    }
+
+    private void putLocal(OrderDto order, long now) {
+        if (local.size() >= properties.getLocalMaxEntries()) {
+            local.clear();
+        }
+        local.put(order.getId(), new CachedOrder(order, now + properties.getLocalTtl().toMillis()));
+    }
+
+    private static String key(String orderId) {
+        return String.format(KEY, orderId);
+    }
+
+    private record CachedOrder(OrderDto order, long expiresAt) {
+    }
+}
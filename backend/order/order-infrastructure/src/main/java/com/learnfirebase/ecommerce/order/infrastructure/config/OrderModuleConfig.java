@@ -1,48 +1,140 @@
 package com.learnfirebase.ecommerce.order.infrastructure.config;
 
+import java.nio.charset.StandardCharsets;
+
+import org.springframework.boot.ApplicationRunner;
 import org.springframework.boot.autoconfigure.domain.EntityScan;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 
+import com.learnfirebase.ecommerce.order.application.port.out.IdempotencyPort;
+import com.learnfirebase.ecommerce.order.application.port.out.FlashSaleAdmissionPort;
 import com.learnfirebase.ecommerce.order.application.port.out.InventoryReservationPort;
 import com.learnfirebase.ecommerce.order.application.port.out.LoadProductPort;
+import com.learnfirebase.ecommerce.order.application.port.out.OrderCachePort;
+import com.learnfirebase.ecommerce.order.application.port.out.OrderIntakeQueuePort;
 import com.learnfirebase.ecommerce.order.application.port.out.OrderOutboxPort;
 import com.learnfirebase.ecommerce.order.application.port.out.OrderRepository;
 import com.learnfirebase.ecommerce.order.application.port.out.PaymentGatewayPort;
 import com.learnfirebase.ecommerce.order.application.port.out.PaymentTransactionPort;
+import com.learnfirebase.ecommerce.order.application.port.out.OrderTicketNotifierPort;
+import com.learnfirebase.ecommerce.order.application.port.out.OrderTicketPort;
+import com.learnfirebase.ecommerce.order.application.port.out.SellerOrderViewPort;
 import com.learnfirebase.ecommerce.order.application.port.out.AdminOutboxPort;
 import com.learnfirebase.ecommerce.order.application.service.AdminOutboxService;
+import com.learnfirebase.ecommerce.order.application.service.IdempotentOrderService;
 import com.learnfirebase.ecommerce.order.application.service.OrderApplicationService;
+import com.learnfirebase.ecommerce.order.application.service.OrderIntakeService;
+import com.learnfirebase.ecommerce.order.application.service.QueuedOrderProcessor;
+import com.learnfirebase.ecommerce.order.application.service.SellerOrderViewService;
+import com.learnfirebase.ecommerce.order.infrastructure.cache.OrderCacheProperties;
+import com.learnfirebase.ecommerce.order.infrastructure.cache.TwoLevelOrderCache;
+import com.learnfirebase.ecommerce.order.infrastructure.idempotency.IdempotencyProperties;
+import com.learnfirebase.ecommerce.order.infrastructure.intake.OrderIntakeProperties;
+import com.learnfirebase.ecommerce.order.infrastructure.inventory.ReservationScripts;
+import com.learnfirebase.ecommerce.order.infrastructure.inventory.ReservationSweepProperties;
 import com.learnfirebase.ecommerce.order.infrastructure.outbox.OutboxEntity;
+import com.learnfirebase.ecommerce.order.infrastructure.outbox.OutboxProperties;
 import com.learnfirebase.ecommerce.order.infrastructure.outbox.OutboxRepository;
+import com.learnfirebase.ecommerce.order.infrastructure.outbox.OutboxSignal;
 import com.learnfirebase.ecommerce.order.infrastructure.payment.PaymentTransactionEntity;
 import com.learnfirebase.ecommerce.order.infrastructure.payment.PaymentTransactionJpaRepository;
 import com.learnfirebase.ecommerce.order.infrastructure.payment.VnPayProperties;
+import com.learnfirebase.ecommerce.order.infrastructure.payment.reconciliation.PaymentReconciliationProperties;
 import com.learnfirebase.ecommerce.order.infrastructure.persistence.JpaOrderEntity;
 import com.learnfirebase.ecommerce.order.infrastructure.persistence.SpringDataOrderJpaRepository;
 
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
 @Configuration
 @EnableJpaRepositories(basePackageClasses = {SpringDataOrderJpaRepository.class, OutboxRepository.class, PaymentTransactionJpaRepository.class})
 @EntityScan(basePackageClasses = {JpaOrderEntity.class, OutboxEntity.class, PaymentTransactionEntity.class})
-@EnableConfigurationProperties(VnPayProperties.class)
+@EnableConfigurationProperties({VnPayProperties.class, OutboxProperties.class, OrderCacheProperties.class,
+        ReservationSweepProperties.class, IdempotencyProperties.class, OrderIntakeProperties.class,
+        PaymentReconciliationProperties.class})
 public class OrderModuleConfig {
     @Bean
     public OrderApplicationService orderApplicationService(
         OrderRepository orderRepository,
         LoadProductPort loadProductPort,
         com.learnfirebase.ecommerce.order.application.port.out.LoadFlashSalePort loadFlashSalePort,
+        FlashSaleAdmissionPort flashSaleAdmissionPort,
         InventoryReservationPort inventoryReservationPort,
         OrderOutboxPort orderOutboxPort,
         PaymentGatewayPort paymentGatewayPort,
-        PaymentTransactionPort paymentTransactionPort
+        PaymentTransactionPort paymentTransactionPort,
+        SellerOrderViewPort sellerOrderViewPort,
+        OrderCachePort orderCachePort
     ) {
-        return new OrderApplicationService(orderRepository, loadProductPort, loadFlashSalePort, inventoryReservationPort, orderOutboxPort, paymentGatewayPort, paymentTransactionPort);
+        return new OrderApplicationService(orderRepository, loadProductPort, loadFlashSalePort, flashSaleAdmissionPort, inventoryReservationPort, orderOutboxPort, paymentGatewayPort, paymentTransactionPort, sellerOrderViewPort, orderCachePort);
+    }
+
+    @Bean
+    public IdempotentOrderService idempotentOrderService(OrderApplicationService orderApplicationService,
+        IdempotencyPort idempotencyPort, IdempotencyProperties idempotencyProperties) {
+        return new IdempotentOrderService(orderApplicationService, orderApplicationService, idempotencyPort,
+            idempotencyProperties.getInFlightWait());
+    }
+
+    @Bean
+    public OrderIntakeService orderIntakeService(OrderIntakeQueuePort orderIntakeQueuePort,
+        OrderTicketPort orderTicketPort, FlashSaleAdmissionPort flashSaleAdmissionPort) {
+        return new OrderIntakeService(orderIntakeQueuePort, orderTicketPort, flashSaleAdmissionPort);
+    }
+
+    @Bean
+    public QueuedOrderProcessor queuedOrderProcessor(OrderApplicationService orderApplicationService,
+        OrderTicketPort orderTicketPort, OrderTicketNotifierPort orderTicketNotifierPort) {
+        return new QueuedOrderProcessor(orderApplicationService, orderTicketPort, orderTicketNotifierPort);
+    }
+
+    @Bean
+    public SellerOrderViewService sellerOrderViewService(OrderRepository orderRepository,
+        SellerOrderViewPort sellerOrderViewPort) {
+        return new SellerOrderViewService(orderRepository, sellerOrderViewPort);
     }
 
     @Bean
     public AdminOutboxService adminOutboxService(AdminOutboxPort adminOutboxPort) {
         return new AdminOutboxService(adminOutboxPort);
     }
+
+    @Bean
+    public ApplicationRunner reservationScriptPreloader(StringRedisTemplate redisTemplate) {
+        return args -> ReservationScripts.ALL.forEach(script -> {
+            try {
+                String sha = redisTemplate.execute((RedisCallback<String>) connection -> connection.scriptingCommands()
+                        .scriptLoad(script.getScriptAsString().getBytes(StandardCharsets.UTF_8)));
+                log.info("Loaded reservation script {}", sha);
+            } catch (Exception ex) {
+                log.warn("Could not preload reservation script {}, it will be loaded on first use", script.getSha1(), ex);
+            }
+        });
+    }
+
+    @Bean
+    public RedisMessageListenerContainer orderCacheInvalidationListener(RedisConnectionFactory connectionFactory,
+        TwoLevelOrderCache orderCache) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(orderCache, new ChannelTopic(TwoLevelOrderCache.INVALIDATION_CHANNEL));
+        return container;
+    }
+
+    @Bean
+    public RedisMessageListenerContainer outboxCommitListener(RedisConnectionFactory connectionFactory,
+        OutboxSignal outboxSignal) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(outboxSignal, new ChannelTopic(OutboxSignal.COMMITTED_CHANNEL));
+        return container;
+    }
 }
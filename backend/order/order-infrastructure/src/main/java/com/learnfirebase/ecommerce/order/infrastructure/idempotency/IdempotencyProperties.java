@@ -0,0 +1,24 @@
+package com.learnfirebase.ecommerce.order.infrastructure.idempotency;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+@Data
+@ConfigurationProperties(prefix = "order-idempotency")
+public class IdempotencyProperties {
+    /**
+     * How long a completed response is replayed for the same Idempotency-Key.
+     */
+    private Duration ttl = Duration.ofHours(24);
+    /**
+     * How long a key stays locked by a request that has not finished. Bounds how long a crashed node blocks it.
+     */
+    private Duration inProgressTtl = Duration.ofMinutes(2);
+    /**
+     * How long a duplicate waits for the first execution before it is answered with 409 Conflict.
+     */
+    private Duration inFlightWait = Duration.ofSeconds(10);
+}
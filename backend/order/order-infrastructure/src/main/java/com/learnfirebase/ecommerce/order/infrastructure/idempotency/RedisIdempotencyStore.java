@@ -0,0 +1,218 @@
+package com.learnfirebase.ecommerce.order.infrastructure.idempotency;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.learnfirebase.ecommerce.order.application.dto.OrderDto;
+import com.learnfirebase.ecommerce.order.application.model.IdempotencyRecord;
+import com.learnfirebase.ecommerce.order.application.model.IdempotencyStatus;
+import com.learnfirebase.ecommerce.order.application.port.out.IdempotencyPort;
+import com.learnfirebase.ecommerce.order.infrastructure.cache.OrderDtoJson;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Idempotency records in Redis, with order_idempotency_keys taking over whenever a Redis call fails. Keys are
+ * claimed with SET NX (or INSERT ... ON CONFLICT in the database), so exactly one request owns a key at a time.
+ * An unfinished claim expires after {@code inProgressTtl}, a completed response after {@code ttl}.
+ */
+@Slf4j
+@Component
+public class RedisIdempotencyStore implements IdempotencyPort {
+    private static final String KEY = "order:idempotency:%s:%s";
+
+    private final StringRedisTemplate redisTemplate;
+    private final JdbcTemplate jdbcTemplate;
+    private final IdempotencyProperties properties;
+    private final ObjectMapper objectMapper;
+
+    public RedisIdempotencyStore(StringRedisTemplate redisTemplate, JdbcTemplate jdbcTemplate,
+            IdempotencyProperties properties, ObjectMapper objectMapper) {
+        this.redisTemplate = redisTemplate;
+        this.jdbcTemplate = jdbcTemplate;
+        this.properties = properties;
+        this.objectMapper = OrderDtoJson.mapper(objectMapper);
+    }
+
+    @Override
+    public Optional<IdempotencyRecord> begin(IdempotencyRecord inProgress) {
+        try {
+            String key = key(inProgress.getUserId(), inProgress.getKey());
+            String value = write(inProgress);
+            // A second round covers a record that expired between the failed SET NX and the GET.
+            for (int attempt = 0; attempt < 2; attempt++) {
+                if (Boolean.TRUE.equals(redisTemplate.opsForValue()
+                        .setIfAbsent(key, value, properties.getInProgressTtl()))) {
+                    return Optional.empty();
+                }
+                String existing = redisTemplate.opsForValue().get(key);
+                if (existing != null) {
+                    return Optional.of(read(inProgress.getUserId(), inProgress.getKey(), existing));
+                }
+            }
+            // The key kept being claimed and released under us, so another request is working on it. Reporting
+            // the key as in flight makes the caller wait and try again instead of running alongside it.
+            return Optional.of(inProgress);
+        } catch (RuntimeException ex) {
+            log.warn("Redis idempotency claim failed, using the database", ex);
+            return beginInDatabase(inProgress);
+        }
+    }
+
+    @Override
+    public Optional<IdempotencyRecord> find(String userId, String key) {
+        try {
+            String existing = redisTemplate.opsForValue().get(key(userId, key));
+            return existing == null ? Optional.empty() : Optional.of(read(userId, key, existing));
+        } catch (RuntimeException ex) {
+            log.warn("Redis idempotency lookup failed, using the database", ex);
+            return findInDatabase(userId, key);
+        }
+    }
+
+    @Override
+    public void complete(IdempotencyRecord completed) {
+        try {
+            redisTemplate.opsForValue().set(key(completed.getUserId(), completed.getKey()), write(completed),
+                    properties.getTtl());
+        } catch (RuntimeException ex) {
+            log.warn("Redis idempotency write failed, using the database", ex);
+            upsertInDatabase(completed, properties.getTtl());
+        }
+    }
+
+    @Override
+    public void release(String userId, String key) {
+        try {
+            redisTemplate.delete(key(userId, key));
+        } catch (RuntimeException ex) {
+            log.warn("Redis idempotency release failed, using the database", ex);
+            jdbcTemplate.update("DELETE FROM order_idempotency_keys WHERE user_id = ? AND idempotency_key = ?",
+                    userId, key);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${order-idempotency.purge-interval-ms:3600000}")
+    public void purgeExpired() {
+        int purged = jdbcTemplate.update("DELETE FROM order_idempotency_keys WHERE expires_at < ?",
+                Timestamp.from(Instant.now()));
+        if (purged > 0) {
+            log.info("Purged {} expired idempotency keys", purged);
+        }
+    }
+
+    private Optional<IdempotencyRecord> beginInDatabase(IdempotencyRecord inProgress) {
+        // An expired row is taken over in place, so a stale claim never blocks the key.
+        int claimed = upsertInDatabase(inProgress, properties.getInProgressTtl(), true);
+        if (claimed > 0) {
+            return Optional.empty();
+        }
+        return findInDatabase(inProgress.getUserId(), inProgress.getKey());
+    }
+
+    private Optional<IdempotencyRecord> findInDatabase(String userId, String key) {
+        return jdbcTemplate.query("""
+                SELECT fingerprint, status, response, created_at
+                FROM order_idempotency_keys
+                WHERE user_id = ? AND idempotency_key = ? AND expires_at >= ?
+                """, (rs, rowNum) -> IdempotencyRecord.builder()
+                .userId(userId)
+                .key(key)
+                .fingerprint(rs.getString("fingerprint"))
+                .status(IdempotencyStatus.valueOf(rs.getString("status")))
+                .response(readResponse(rs.getString("response")))
+                .createdAt(rs.getTimestamp("created_at").toInstant())
+                .build(), userId, key, Timestamp.from(Instant.now()))
+                .stream()
+                .findFirst();
+    }
+
+    private void upsertInDatabase(IdempotencyRecord record, Duration ttl) {
+        upsertInDatabase(record, ttl, false);
+    }
+
+    private int upsertInDatabase(IdempotencyRecord record, Duration ttl, boolean onlyIfExpired) {
+        Instant now = Instant.now();
+        return jdbcTemplate.update("""
+                INSERT INTO order_idempotency_keys
+                    (user_id, idempotency_key, fingerprint, status, response, created_at, expires_at)
+                VALUES (?, ?, ?, ?, ?, ?, ?)
+                ON CONFLICT (user_id, idempotency_key) DO UPDATE SET
+                    fingerprint = EXCLUDED.fingerprint,
+                    status = EXCLUDED.status,
+                    response = EXCLUDED.response,
+                    created_at = EXCLUDED.created_at,
+                    expires_at = EXCLUDED.expires_at
+                WHERE NOT ? OR order_idempotency_keys.expires_at < ?
+                """,
+                record.getUserId(),
+                record.getKey(),
+                record.getFingerprint(),
+                record.getStatus().name(),
+                record.getResponse() == null ? null : writeResponse(record.getResponse()),
+                Timestamp.from(record.getCreatedAt() != null ? record.getCreatedAt() : now),
+                Timestamp.from(now.plus(ttl)),
+                onlyIfExpired,
+                Timestamp.from(now));
+    }
+
+    private String write(IdempotencyRecord record) {
+        try {
+            return objectMapper.writeValueAsString(new StoredRecord(record.getFingerprint(), record.getStatus(),
+                    record.getResponse(), record.getCreatedAt()));
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Could not serialize idempotency record", ex);
+        }
+    }
+
+    private IdempotencyRecord read(String userId, String key, String json) {
+        try {
+            StoredRecord stored = objectMapper.readValue(json, StoredRecord.class);
+            return IdempotencyRecord.builder()
+                    .userId(userId)
+                    .key(key)
+                    .fingerprint(stored.fingerprint())
+                    .status(stored.status())
+                    .response(stored.response())
+                    .createdAt(stored.createdAt())
+                    .build();
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Could not read idempotency record", ex);
+        }
+    }
+
+    private String writeResponse(OrderDto response) {
+        try {
+            return objectMapper.writeValueAsString(response);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Could not serialize idempotent response", ex);
+        }
+    }
+
+    private OrderDto readResponse(String json) {
+        if (json == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(json, OrderDto.class);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Could not read idempotent response", ex);
+        }
+    }
+
+    private static String key(String userId, String key) {
+        return String.format(KEY, userId, key);
+    }
+
+    private record StoredRecord(String fingerprint, IdempotencyStatus status, OrderDto response, Instant createdAt) {
+    }
+}
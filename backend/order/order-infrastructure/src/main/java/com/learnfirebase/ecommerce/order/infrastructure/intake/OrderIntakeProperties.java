@@ -0,0 +1,36 @@
+package com.learnfirebase.ecommerce.order.infrastructure.intake;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+@Data
+@ConfigurationProperties(prefix = "order-intake")
+public class OrderIntakeProperties {
+    /**
+     * Accept POST /api/orders with 202 and a ticket instead of creating the order on the request thread.
+     */
+    private boolean async = false;
+    /**
+     * Queue partitions, each drained by its own worker. Orders of one user always share a partition.
+     */
+    private int partitions = 4;
+    /**
+     * Orders a partition holds before new submissions are rejected.
+     */
+    private int queueCapacity = 1_000;
+    /**
+     * Largest micro-batch a worker takes from its partition.
+     */
+    private int batchSize = 50;
+    /**
+     * How long a worker waits for more orders before it processes a partial batch.
+     */
+    private Duration batchLinger = Duration.ofMillis(20);
+    /**
+     * How long tickets can be polled after their last update.
+     */
+    private Duration ticketTtl = Duration.ofHours(1);
+}
@@ -0,0 +1,122 @@
+package com.learnfirebase.ecommerce.order.infrastructure.intake;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import com.learnfirebase.ecommerce.order.application.model.QueuedOrder;
+import com.learnfirebase.ecommerce.order.application.port.in.ProcessQueuedOrdersUseCase;
+import com.learnfirebase.ecommerce.order.application.port.out.OrderIntakeQueuePort;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * In-process intake queue split into bounded partitions by user. One worker per partition takes whatever is
+ * queued (up to a batch) and hands it to {@link ProcessQueuedOrdersUseCase}, so the number of orders created
+ * concurrently, and with it the database connections they hold, is capped by the partition count no matter
+ * how many requests arrive. Orders still queued on shutdown are processed before the workers stop.
+ */
+@Slf4j
+@Component
+public class PartitionedOrderIntakeQueue implements OrderIntakeQueuePort, SmartLifecycle {
+    private final ProcessQueuedOrdersUseCase processQueuedOrdersUseCase;
+    private final OrderIntakeProperties properties;
+    private final List<BlockingQueue<QueuedOrder>> partitions = new ArrayList<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private ExecutorService workers;
+    private volatile boolean running;
+
+    public PartitionedOrderIntakeQueue(ProcessQueuedOrdersUseCase processQueuedOrdersUseCase,
+            OrderIntakeProperties properties, MeterRegistry meterRegistry) {
+        this.processQueuedOrdersUseCase = processQueuedOrdersUseCase;
+        this.properties = properties;
+        for (int i = 0; i < properties.getPartitions(); i++) {
+            partitions.add(new ArrayBlockingQueue<>(properties.getQueueCapacity()));
+        }
+        Gauge.builder("order.intake.queue.depth", queued, AtomicInteger::get).register(meterRegistry);
+    }
+
+    @Override
+    public boolean offer(QueuedOrder order) {
+        if (!running) {
+            return false;
+        }
+        int partition = Math.floorMod(order.getTicket().getUserId().hashCode(), partitions.size());
+        boolean accepted = partitions.get(partition).offer(order);
+        if (accepted) {
+            queued.incrementAndGet();
+        }
+        return accepted;
+    }
+
+    @Override
+    public void start() {
+        if (!properties.isAsync()) {
+            return;
+        }
+        running = true;
+        AtomicInteger threadIndex = new AtomicInteger();
+        workers = Executors.newFixedThreadPool(partitions.size(), runnable -> {
+            Thread thread = new Thread(runnable, "order-intake-worker-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        partitions.forEach(partition -> workers.submit(() -> drain(partition)));
+    }
+
+    @Override
+    public void stop() {
+        if (workers == null) {
+            return;
+        }
+        running = false;
+        workers.shutdown();
+        try {
+            if (!workers.awaitTermination(30, TimeUnit.SECONDS)) {
+                log.warn("Order intake workers did not finish, {} queued orders are dropped", queued.get());
+                workers.shutdownNow();
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            workers.shutdownNow();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void drain(BlockingQueue<QueuedOrder> partition) {
+        List<QueuedOrder> batch = new ArrayList<>(properties.getBatchSize());
+        while (running || !partition.isEmpty()) {
+            try {
+                QueuedOrder first = partition.poll(properties.getBatchLinger().toMillis(), TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                partition.drainTo(batch, properties.getBatchSize() - 1);
+                queued.addAndGet(-batch.size());
+                processQueuedOrdersUseCase.process(List.copyOf(batch));
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException ex) {
+                log.error("Order intake batch of {} orders failed", batch.size(), ex);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+}
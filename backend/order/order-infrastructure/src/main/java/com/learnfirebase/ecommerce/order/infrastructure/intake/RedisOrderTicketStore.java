@@ -0,0 +1,126 @@
+package com.learnfirebase.ecommerce.order.infrastructure.intake;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.redis.connection.RedisStringCommands.SetOption;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.learnfirebase.ecommerce.order.application.dto.OrderDto;
+import com.learnfirebase.ecommerce.order.application.model.OrderTicket;
+import com.learnfirebase.ecommerce.order.application.model.OrderTicketStatus;
+import com.learnfirebase.ecommerce.order.application.port.out.OrderTicketPort;
+import com.learnfirebase.ecommerce.order.infrastructure.cache.OrderDtoJson;
+
+/**
+ * Tickets live in Redis so any node can answer a poll, whichever node queued or processed the order. Idempotency
+ * keys are bound to tickets under {@code order:ticket-key:<userId>:<key>} for as long as tickets are kept.
+ */
+@Component
+public class RedisOrderTicketStore implements OrderTicketPort {
+    private static final String KEY = "order:ticket:%s";
+    private static final String IDEMPOTENCY_KEY = "order:ticket-key:%s:%s";
+
+    /**
+     * KEYS: idempotency key. ARGV: ticketId, ttl millis. Returns the ticket id the key is bound to.
+     */
+    static final RedisScript<String> BIND_KEY = new DefaultRedisScript<>(
+            "local bound = redis.call('get', KEYS[1]); " +
+            "if bound then return bound end; " +
+            "redis.call('set', KEYS[1], ARGV[1], 'px', ARGV[2]); " +
+            "return ARGV[1];",
+            String.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final OrderIntakeProperties properties;
+    private final ObjectMapper objectMapper;
+
+    public RedisOrderTicketStore(StringRedisTemplate redisTemplate, OrderIntakeProperties properties,
+            ObjectMapper objectMapper) {
+        this.redisTemplate = redisTemplate;
+        this.properties = properties;
+        this.objectMapper = OrderDtoJson.mapper(objectMapper);
+    }
+
+    @Override
+    public void saveAll(List<OrderTicket> tickets) {
+        if (tickets.isEmpty()) {
+            return;
+        }
+        List<byte[][]> entries = tickets.stream()
+                .map(ticket -> new byte[][] { bytes(key(ticket.getTicketId())), bytes(write(ticket)) })
+                .toList();
+        Expiration expiration = Expiration.from(properties.getTicketTtl());
+        // A micro-batch of results costs one round trip.
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            entries.forEach(entry -> connection.stringCommands().set(entry[0], entry[1], expiration, SetOption.upsert()));
+            return null;
+        });
+    }
+
+    @Override
+    public Optional<OrderTicket> find(String ticketId) {
+        String json = redisTemplate.opsForValue().get(key(ticketId));
+        return json == null ? Optional.empty() : Optional.of(read(json));
+    }
+
+    @Override
+    public String bindKey(String userId, String idempotencyKey, String ticketId) {
+        String bound = redisTemplate.execute(BIND_KEY, List.of(String.format(IDEMPOTENCY_KEY, userId, idempotencyKey)),
+                ticketId, String.valueOf(properties.getTicketTtl().toMillis()));
+        return bound != null ? bound : ticketId;
+    }
+
+    @Override
+    public void unbindKey(String userId, String idempotencyKey) {
+        redisTemplate.delete(String.format(IDEMPOTENCY_KEY, userId, idempotencyKey));
+    }
+
+    private String write(OrderTicket ticket) {
+        try {
+            return objectMapper.writeValueAsString(new StoredTicket(ticket.getTicketId(), ticket.getUserId(),
+                    ticket.getStatus(), ticket.getOrder(), ticket.getError(), ticket.getCreatedAt(),
+                    ticket.getUpdatedAt()));
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Could not serialize order ticket " + ticket.getTicketId(), ex);
+        }
+    }
+
+    private OrderTicket read(String json) {
+        try {
+            StoredTicket stored = objectMapper.readValue(json, StoredTicket.class);
+            return OrderTicket.builder()
+                    .ticketId(stored.ticketId())
+                    .userId(stored.userId())
+                    .status(stored.status())
+                    .order(stored.order())
+                    .error(stored.error())
+                    .createdAt(stored.createdAt())
+                    .updatedAt(stored.updatedAt())
+                    .build();
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Could not read order ticket", ex);
+        }
+    }
+
+    private static String key(String ticketId) {
+        return String.format(KEY, ticketId);
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private record StoredTicket(String ticketId, String userId, OrderTicketStatus status, OrderDto order,
+            String error, Instant createdAt, Instant updatedAt) {
+    }
+}
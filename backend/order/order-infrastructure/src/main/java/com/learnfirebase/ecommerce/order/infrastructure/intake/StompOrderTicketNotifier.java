@@ -0,0 +1,31 @@
+package com.learnfirebase.ecommerce.order.infrastructure.intake;
+
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Component;
+
+import com.learnfirebase.ecommerce.order.application.model.OrderTicket;
+import com.learnfirebase.ecommerce.order.application.port.out.OrderTicketNotifierPort;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Pushes finished tickets over the existing STOMP broker. Clients subscribe to /user/queue/orders.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StompOrderTicketNotifier implements OrderTicketNotifierPort {
+    static final String DESTINATION = "/queue/orders";
+
+    private final SimpMessagingTemplate simpMessagingTemplate;
+
+    @Override
+    public void publish(OrderTicket ticket) {
+        try {
+            simpMessagingTemplate.convertAndSendToUser(ticket.getUserId(), DESTINATION, ticket);
+        } catch (RuntimeException ex) {
+            log.warn("Could not push order ticket {} to user {}", ticket.getTicketId(), ticket.getUserId(), ex);
+        }
+    }
+}
@@ -2,17 +2,17 @@ package com.learnfirebase.ecommerce.order.infrastructure.inventory;
 
 import java.time.Instant;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.stream.Collectors;
 
 import org.springframework.data.redis.core.StringRedisTemplate;
-import org.springframework.data.redis.core.script.DefaultRedisScript;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+import com.learnfirebase.ecommerce.common.infrastructure.redis.ShardedCounter;
+import com.learnfirebase.ecommerce.common.infrastructure.redis.StockLeases;
 import com.learnfirebase.ecommerce.order.application.port.out.InventoryReservationPort;
 
 import lombok.RequiredArgsConstructor;
@@ -27,70 +27,69 @@ public class InventoryReservationAdapter implements InventoryReservationPort {
     private static final String AVAILABLE_KEY = "inventory:%s:%s:available";
     private static final String RESERVED_KEY = "inventory:%s:%s:reserved";
     private static final String RESERVATION_HASH = "inventory:reservation:%s";
-    private static final String RESERVATION_EXPIRATIONS = "inventory:reservation:expirations";
+    static final String RESERVATION_EXPIRATIONS = "inventory:reservation:expirations";
+    // "<inventoryId>:<productId>" of every SKU whose counters changed; drained into inventory_items by the
+    // inventory module's write-behind flusher.
+    static final String DIRTY_STOCK = "inventory:stock:dirty";
     private static final long RESERVATION_TTL_SECONDS = 15 * 60;
+    // The hash outlives its expiry so the sweeper can still read what to release after a late or failed sweep.
+    private static final long RESERVATION_HASH_GRACE_SECONDS = 60 * 60;
     private static final String FLASH_SALE_STOCK_KEY_PREFIX = "flashsale:%s:stock";
 
     private final StringRedisTemplate redisTemplate;
-    private final com.learnfirebase.ecommerce.order.application.port.out.OrderRepository orderRepository;
+    private final ReservationExpirySweeper reservationExpirySweeper;
+    private final ShardedCounter flashSaleStock;
+    private final StockLeases flashSaleLeases;
 
     @Override
     public boolean reserve(String orderId, Map<String, Integer> productQuantities) {
-        List<String> reservedKeys = new ArrayList<>();
-        try {
-            for (Map.Entry<String, Integer> entry : productQuantities.entrySet()) {
-                String productId = entry.getKey();
-                int qty = entry.getValue();
-                if (qty <= 0) {
-                    continue;
-                }
-                boolean success = adjustStockAtomically(productId, qty * -1);
-                if (!success) {
-                    rollback(reservedKeys);
-                    return false;
-                }
-                reservedKeys.add(productId + ":" + qty);
-                redisTemplate.opsForHash().put(Objects.requireNonNull(reservationKey(orderId)),
-                        Objects.requireNonNull(productId), Objects.requireNonNull(String.valueOf(qty)));
+        List<String> keys = new ArrayList<>();
+        List<String> args = new ArrayList<>();
+        keys.add(reservationKey(orderId));
+        keys.add(RESERVATION_EXPIRATIONS);
+        args.add(orderId);
+        args.add(String.valueOf(Instant.now().getEpochSecond() + RESERVATION_TTL_SECONDS));
+        args.add(String.valueOf(RESERVATION_TTL_SECONDS + RESERVATION_HASH_GRACE_SECONDS));
+        productQuantities.forEach((productId, qty) -> {
+            if (qty == null || qty <= 0) {
+                return;
             }
-            if (!reservedKeys.isEmpty()) {
-                long expiresAt = Instant.now().getEpochSecond() + RESERVATION_TTL_SECONDS;
-                redisTemplate.opsForZSet().add(RESERVATION_EXPIRATIONS, Objects.requireNonNull(orderId), expiresAt);
-                redisTemplate.expire(Objects.requireNonNull(reservationKey(orderId)),
-                        Objects.requireNonNull(java.time.Duration.ofSeconds(RESERVATION_TTL_SECONDS)));
+            keys.add(availableKey(productId));
+            keys.add(reservedKey(productId));
+            args.add(productId);
+            args.add(String.valueOf(qty));
+        });
+        if (args.size() == 3) {
+            return true;
+        }
+        keys.add(DIRTY_STOCK);
+
+        try {
+            // Single round trip: all SKUs are checked before any of them is decremented.
+            Long result = redisTemplate.execute(ReservationScripts.RESERVE_ALL, keys, args.toArray());
+            if (result == null || result < 0) {
+                log.info("Insufficient stock to reserve order {} (line {})", orderId, result == null ? null : -result);
+                return false;
             }
             return true;
         } catch (Exception ex) {
             log.error("Failed to reserve inventory for order {}", orderId, ex);
-            rollback(reservedKeys);
             return false;
         }
     }
 
     @Override
     public boolean reserveFlashSale(String orderId, String flashSaleId, int quantity) {
-        String key = String.format(FLASH_SALE_STOCK_KEY_PREFIX, flashSaleId);
-
-        String scriptText = "local current = tonumber(redis.call('get', KEYS[1]) or '-1'); " +
-                "if current ~= nil and current >= tonumber(ARGV[1]) then " +
-                "   return redis.call('decrby', KEYS[1], ARGV[1]); " +
-                "else " +
-                "   return -1; " +
-                "end";
-
-        DefaultRedisScript<Long> script = new DefaultRedisScript<>();
-        script.setScriptText(scriptText);
-        script.setResultType(Long.class);
-
-        Long result = redisTemplate.execute(script, Objects.requireNonNull(List.of(Objects.requireNonNull(key))),
-                String.valueOf(quantity));
-        return result != null && result >= 0;
+        // The order id spreads the buyers of one sale over its sub-counters.
+        return flashSaleLeases.tryTake(String.format(FLASH_SALE_STOCK_KEY_PREFIX, flashSaleId), quantity, orderId);
     }
 
     @Override
     public void releaseFlashSale(String flashSaleId, int quantity) {
-        String key = String.format(FLASH_SALE_STOCK_KEY_PREFIX, flashSaleId);
-        redisTemplate.opsForValue().increment(Objects.requireNonNull(key), quantity);
+        // A sale finalized since the caller checked it has no counter any more, and add never recreates one.
+        if (!flashSaleStock.add(String.format(FLASH_SALE_STOCK_KEY_PREFIX, flashSaleId), quantity, null)) {
+            log.info("Flash sale {} has no stock counter; {} released units were not returned", flashSaleId, quantity);
+        }
     }
 
     @Override
@@ -125,82 +124,18 @@ public class InventoryReservationAdapter implements InventoryReservationPort {
     @Override
     @Scheduled(fixedDelay = 60000)
     public void releaseExpiredReservations() {
-        long now = Instant.now().getEpochSecond();
-        var expired = redisTemplate.opsForZSet().rangeByScore(RESERVATION_EXPIRATIONS, 0, now);
-        if (expired == null || expired.isEmpty()) {
-            return;
-        }
-        List<String> expiredOrders = expired.stream()
-                .filter(Objects::nonNull)
-                .toList();
-        for (String orderId : expiredOrders) {
-            release(orderId, Collections.emptyMap());
-            redisTemplate.opsForZSet().remove(RESERVATION_EXPIRATIONS, orderId);
-
-            // Sync Order Status to CANCELLED in DB
-            try {
-                orderRepository.findById(new com.learnfirebase.ecommerce.order.domain.model.OrderId(orderId))
-                        .ifPresent(order -> {
-                            if (order
-                                    .getStatus() == com.learnfirebase.ecommerce.order.domain.model.OrderStatus.PENDING) {
-                                order.cancel("Stock reservation expired");
-                                orderRepository.save(order);
-                                log.info("Cancelled order {} due to stock reservation expiration", orderId);
-                            }
-                        });
-            } catch (Exception e) {
-                log.error("Failed to cancel order {} after stock release", orderId, e);
-            }
-
-            log.info("Released expired reservation for order {}", orderId);
-        }
-    }
-
-    private boolean adjustStockAtomically(String productId, int delta) {
-        String scriptText = "local availKey = KEYS[1]; " +
-                "local reservedKey = KEYS[2]; " +
-                "local delta = tonumber(ARGV[1]); " +
-                "local current = tonumber(redis.call('get', availKey) or '0'); " +
-                "if current + delta < 0 then return -1 end; " +
-                "redis.call('incrby', availKey, delta); " +
-                "redis.call('incrby', reservedKey, -delta); " +
-                "return redis.call('get', availKey);";
-
-        DefaultRedisScript<Long> script = new DefaultRedisScript<>();
-        script.setScriptText(scriptText);
-        script.setResultType(Long.class);
-
-        String availKey = availableKey(productId);
-        String reservedKey = reservedKey(productId);
-
-        Long result = redisTemplate.execute(script,
-                Objects.requireNonNull(List.of(Objects.requireNonNull(availKey), Objects.requireNonNull(reservedKey))),
-                String.valueOf(delta));
-        return result != null && result >= 0;
+        reservationExpirySweeper.sweep();
     }
 
-    private void rollback(List<String> reservedKeys) {
-        for (String entry : reservedKeys) {
-            String[] parts = entry.split(":");
-            if (parts.length != 2) {
-                continue;
-            }
-            String productId = parts[0];
-            int qty = Integer.parseInt(parts[1]);
-            redisTemplate.opsForValue().increment(Objects.requireNonNull(availableKey(productId)), qty);
-            decrementReserved(productId, qty);
-        }
-    }
-
-    private String availableKey(String productId) {
+    static String availableKey(String productId) {
         return String.format(AVAILABLE_KEY, INVENTORY_ID, productId);
     }
 
-    private String reservedKey(String productId) {
+    static String reservedKey(String productId) {
         return String.format(RESERVED_KEY, INVENTORY_ID, productId);
     }
 
-    private String reservationKey(String orderId) {
+    static String reservationKey(String orderId) {
         return String.format(RESERVATION_HASH, orderId);
     }
 
@@ -214,14 +149,8 @@ public class InventoryReservationAdapter implements InventoryReservationPort {
             return;
         }
         String key = reservedKey(productId);
-
-        String script = "local current = tonumber(redis.call('get', KEYS[1]) or '0'); " +
-                "local next = math.max(0, current - tonumber(ARGV[1])); " +
-                "redis.call('set', KEYS[1], next); " +
-                "return next;";
-
-        redisTemplate.execute(new DefaultRedisScript<>(script, Long.class),
-                Objects.requireNonNull(List.of(Objects.requireNonNull(key))), String.valueOf(qty));
+        redisTemplate.execute(ReservationScripts.DECREMENT_RESERVED,
+                Objects.requireNonNull(List.of(Objects.requireNonNull(key), DIRTY_STOCK)), String.valueOf(qty));
     }
 
 }
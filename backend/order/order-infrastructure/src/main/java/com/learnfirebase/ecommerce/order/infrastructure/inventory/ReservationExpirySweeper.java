@@ -0,0 +1,139 @@
+package com.learnfirebase.ecommerce.order.infrastructure.inventory;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import com.learnfirebase.ecommerce.order.application.port.out.OrderCachePort;
+import com.learnfirebase.ecommerce.order.infrastructure.persistence.ExpiredOrderCancellationRepository;
+import com.learnfirebase.ecommerce.order.infrastructure.persistence.ExpiredOrderCancellationRepository.Outcome;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Settles expired stock reservations chunk by chunk. Every node may run it at the same time: a chunk is claimed
+ * atomically in Redis, so nodes split the backlog between them instead of processing an order twice.
+ * Per chunk the still-PENDING orders are cancelled with one statement, then the stock of cancelled (or unknown)
+ * orders is released with one script. Orders that were paid or settled meanwhile only leave the expiry index.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ReservationExpirySweeper {
+    static final String CANCEL_REASON = "Stock reservation expired";
+
+    private final StringRedisTemplate redisTemplate;
+    private final ExpiredOrderCancellationRepository cancellationRepository;
+    private final OrderCachePort orderCachePort;
+    private final ReservationSweepProperties properties;
+
+    public int sweep() {
+        int released = 0;
+        for (int chunk = 0; chunk < properties.getMaxChunksPerRun(); chunk++) {
+            List<String> claimed = claimExpired();
+            if (claimed.isEmpty()) {
+                break;
+            }
+            try {
+                released += settle(claimed);
+            } catch (Exception ex) {
+                // The claim lapses after the lease and another sweep retries the chunk.
+                log.error("Failed to settle {} expired reservations", claimed.size(), ex);
+                break;
+            }
+            if (claimed.size() < properties.getChunkSize()) {
+                break;
+            }
+        }
+        return released;
+    }
+
+    private List<String> claimExpired() {
+        long now = Instant.now().getEpochSecond();
+        List<?> claimed = redisTemplate.execute(ReservationScripts.CLAIM_EXPIRED,
+                List.of(InventoryReservationAdapter.RESERVATION_EXPIRATIONS),
+                String.valueOf(now),
+                String.valueOf(now + properties.getClaimLease().toSeconds()),
+                String.valueOf(properties.getChunkSize()));
+        if (claimed == null) {
+            return List.of();
+        }
+        return claimed.stream().filter(Objects::nonNull).map(Object::toString).toList();
+    }
+
+    private int settle(List<String> orderIds) {
+        List<Outcome> outcomes = cancellationRepository.cancelPending(orderIds, CANCEL_REASON);
+        Set<String> releasable = new HashSet<>();
+        for (Outcome outcome : outcomes) {
+            // Without an order row nothing else will ever settle the reservation.
+            if (!outcome.exists() || outcome.isCancelled()) {
+                releasable.add(outcome.orderId());
+            }
+        }
+
+        List<String> toRelease = orderIds.stream().filter(releasable::contains).toList();
+        Map<String, Map<String, String>> reservations = readReservations(toRelease);
+
+        List<String> keys = new ArrayList<>();
+        List<String> args = new ArrayList<>();
+        keys.add(InventoryReservationAdapter.RESERVATION_EXPIRATIONS);
+        args.add(String.valueOf(orderIds.size()));
+        for (String orderId : orderIds) {
+            boolean release = releasable.contains(orderId);
+            Map<String, String> lines = release
+                    ? reservations.getOrDefault(orderId, Collections.emptyMap())
+                    : Collections.emptyMap();
+            keys.add(InventoryReservationAdapter.reservationKey(orderId));
+            args.add(orderId);
+            args.add(release ? "1" : "0");
+            args.add(String.valueOf(lines.size()));
+            lines.forEach((productId, qty) -> {
+                keys.add(InventoryReservationAdapter.availableKey(productId));
+                keys.add(InventoryReservationAdapter.reservedKey(productId));
+                args.add(qty);
+            });
+        }
+        keys.add(InventoryReservationAdapter.DIRTY_STOCK);
+        Long released = redisTemplate.execute(ReservationScripts.RELEASE_EXPIRED, keys, args.toArray());
+
+        outcomes.stream().filter(Outcome::cancelled).forEach(outcome -> orderCachePort.evict(outcome.orderId()));
+        long cancelled = outcomes.stream().filter(Outcome::cancelled).count();
+        log.info("Settled {} expired reservations: {} orders cancelled, {} reservations released",
+                orderIds.size(), cancelled, released);
+        return released == null ? 0 : released.intValue();
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Map<String, String>> readReservations(List<String> orderIds) {
+        if (orderIds.isEmpty()) {
+            return Map.of();
+        }
+        // One pipelined round trip for the whole chunk instead of an HGETALL per order.
+        List<Object> hashes = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (String orderId : orderIds) {
+                connection.hashCommands().hGetAll(
+                        InventoryReservationAdapter.reservationKey(orderId).getBytes(StandardCharsets.UTF_8));
+            }
+            return null;
+        });
+        Map<String, Map<String, String>> reservations = new HashMap<>();
+        for (int i = 0; i < orderIds.size() && i < hashes.size(); i++) {
+            if (hashes.get(i) instanceof Map<?, ?> hash && !hash.isEmpty()) {
+                reservations.put(orderIds.get(i), (Map<String, String>) hash);
+            }
+        }
+        return reservations;
+    }
+}
@@ -0,0 +1,118 @@
+package com.learnfirebase.ecommerce.order.infrastructure.inventory;
+
+import java.util.List;
+
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+
+/**
+ * Lua scripts used by the reservation adapter. Each script is a shared constant so its SHA1 is computed
+ * once and Spring can call EVALSHA, falling back to EVAL only if Redis has lost its script cache.
+ * <p>
+ * These scripts need a standalone Redis (optionally with replicas), not Redis Cluster: one call touches the
+ * counters of several SKUs, the order's reservation hash and the shared expirations zset and dirty-stock set,
+ * which Cluster rejects with CROSSSLOT. A per-order hash tag cannot help, since every order shares the SKU
+ * counters. Flash-sale stock is the part that has to spread over a cluster, and it lives in {@code ShardedCounter}.
+ */
+public final class ReservationScripts {
+
+    /**
+     * Reserves every SKU of an order, or none of them: all lines are checked before any counter changes, so a
+     * short line leaves nothing to roll back.
+     * KEYS: reservation hash, expirations zset, then (available, reserved) for each SKU, then the dirty-stock set.
+     * ARGV: orderId, expiresAt (epoch seconds), ttl seconds, then (productId, qty) for each SKU.
+     * Returns the number of SKUs reserved, or -i if the i-th SKU is short on stock.
+     */
+    public static final RedisScript<Long> RESERVE_ALL = new DefaultRedisScript<>(
+            "local n = (#ARGV - 3) / 2; " +
+            "for i = 1, n do " +
+            "   local qty = tonumber(ARGV[2 * i + 3]); " +
+            "   local current = tonumber(redis.call('get', KEYS[2 * i + 1]) or '0'); " +
+            "   if current < qty then return -i end; " +
+            "end; " +
+            "for i = 1, n do " +
+            "   local qty = tonumber(ARGV[2 * i + 3]); " +
+            "   redis.call('decrby', KEYS[2 * i + 1], qty); " +
+            "   redis.call('incrby', KEYS[2 * i + 2], qty); " +
+            "   redis.call('hset', KEYS[1], ARGV[2 * i + 2], qty); " +
+            "   redis.call('sadd', KEYS[#KEYS], string.match(KEYS[2 * i + 1], '^inventory:(.+):available$')); " +
+            "end; " +
+            "if n > 0 then " +
+            "   redis.call('zadd', KEYS[2], ARGV[2], ARGV[1]); " +
+            "   redis.call('expire', KEYS[1], ARGV[3]); " +
+            "end; " +
+            "return n;",
+            Long.class);
+
+    /**
+     * KEYS: reserved counter, dirty-stock set. ARGV: qty.
+     */
+    public static final RedisScript<Long> DECREMENT_RESERVED = new DefaultRedisScript<>(
+            "local current = tonumber(redis.call('get', KEYS[1]) or '0'); " +
+            "local next = math.max(0, current - tonumber(ARGV[1])); " +
+            "redis.call('set', KEYS[1], next); " +
+            "redis.call('sadd', KEYS[2], string.match(KEYS[1], '^inventory:(.+):reserved$')); " +
+            "return next;",
+            Long.class);
+
+    /**
+     * Claims up to a chunk of expired reservations by pushing their expiry forward by a lease, so a concurrent
+     * sweeper on another node skips them. Claims of a node that dies mid-chunk simply expire again.
+     * KEYS: expirations zset. ARGV: now (epoch seconds), lease expiry (epoch seconds), chunk size.
+     * Returns the claimed order ids.
+     */
+    @SuppressWarnings("rawtypes")
+    public static final RedisScript<List> CLAIM_EXPIRED = new DefaultRedisScript<>(
+            "local ids = redis.call('zrangebyscore', KEYS[1], '-inf', ARGV[1], 'LIMIT', 0, tonumber(ARGV[3])); " +
+            "for _, id in ipairs(ids) do " +
+            "   redis.call('zadd', KEYS[1], ARGV[2], id); " +
+            "end; " +
+            "return ids;",
+            List.class);
+
+    /**
+     * Settles a claimed chunk of expired reservations in one call. Stock of an order flagged for release is
+     * returned only while its reservation hash still exists, so a payment or cancellation that already
+     * settled it makes the release a no-op. Every order of the chunk leaves the expirations zset.
+     * KEYS: expirations zset, then per order its reservation hash followed by (available, reserved) per SKU,
+     * then the dirty-stock set.
+     * ARGV: order count, then per order (orderId, release flag, SKU count, qty per SKU).
+     * Returns the number of reservations released.
+     */
+    public static final RedisScript<Long> RELEASE_EXPIRED = new DefaultRedisScript<>(
+            "local k = 2; " +
+            "local a = 2; " +
+            "local released = 0; " +
+            "for o = 1, tonumber(ARGV[1]) do " +
+            "   local orderId = ARGV[a]; " +
+            "   local release = ARGV[a + 1] == '1' and redis.call('exists', KEYS[k]) == 1; " +
+            "   local n = tonumber(ARGV[a + 2]); " +
+            "   local hash = KEYS[k]; " +
+            "   a = a + 3; " +
+            "   k = k + 1; " +
+            "   for i = 1, n do " +
+            "      if release then " +
+            "         local qty = tonumber(ARGV[a]); " +
+            "         redis.call('incrby', KEYS[k], qty); " +
+            "         local reserved = tonumber(redis.call('get', KEYS[k + 1]) or '0'); " +
+            "         redis.call('set', KEYS[k + 1], math.max(0, reserved - qty)); " +
+            "         redis.call('sadd', KEYS[#KEYS], string.match(KEYS[k], '^inventory:(.+):available$')); " +
+            "      end; " +
+            "      a = a + 1; " +
+            "      k = k + 2; " +
+            "   end; " +
+            "   if release then " +
+            "      redis.call('del', hash); " +
+            "      released = released + 1; " +
+            "   end; " +
+            "   redis.call('zrem', KEYS[1], orderId); " +
+            "end; " +
+            "return released;",
+            Long.class);
+
+    public static final List<RedisScript<?>> ALL = List.of(RESERVE_ALL, DECREMENT_RESERVED,
+            CLAIM_EXPIRED, RELEASE_EXPIRED);
+
+    private ReservationScripts() {
+    }
+}
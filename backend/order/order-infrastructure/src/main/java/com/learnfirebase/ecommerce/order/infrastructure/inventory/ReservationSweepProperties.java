@@ -0,0 +1,24 @@
+package com.learnfirebase.ecommerce.order.infrastructure.inventory;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+@Data
+@ConfigurationProperties(prefix = "inventory.reservation-sweep")
+public class ReservationSweepProperties {
+    /**
+     * Expired reservations claimed, cancelled and released together.
+     */
+    private int chunkSize = 500;
+    /**
+     * Upper bound of chunks one sweep processes before yielding to the next scheduled run.
+     */
+    private int maxChunksPerRun = 100;
+    /**
+     * How long a claimed chunk is hidden from other nodes. A chunk whose node dies is picked up again after it.
+     */
+    private Duration claimLease = Duration.ofSeconds(60);
+}
@@ -0,0 +1,98 @@
+package com.learnfirebase.ecommerce.order.infrastructure.outbox;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Collects Kafka send results so the producer I/O thread only enqueues an id. A scheduled flush turns the
+ * buffered acks into a handful of set-based updates. Acks lost before a flush leave rows in PROCESSING, which
+ * {@link OutboxWorker#retryFailedAndStuck()} republishes.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OutboxAckBuffer implements DisposableBean {
+    private final OutboxBulkUpdater bulkUpdater;
+    private final OutboxProperties properties;
+
+    private final Queue<String> published = new ConcurrentLinkedQueue<>();
+    private final Queue<Failure> failed = new ConcurrentLinkedQueue<>();
+
+    public void published(String eventId) {
+        published.add(eventId);
+    }
+
+    public void failed(String eventId, String error) {
+        failed.add(new Failure(eventId, error));
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.ack-flush-interval-ms:200}")
+    public void flush() {
+        flushPublished();
+        flushFailed();
+    }
+
+    @Override
+    public void destroy() {
+        flush();
+    }
+
+    private void flushPublished() {
+        List<String> chunk = new ArrayList<>();
+        String id;
+        while ((id = published.poll()) != null) {
+            chunk.add(id);
+            if (chunk.size() >= properties.getAckBatchSize()) {
+                writePublished(chunk);
+                chunk = new ArrayList<>();
+            }
+        }
+        writePublished(chunk);
+    }
+
+    private void flushFailed() {
+        Map<String, List<String>> byError = new LinkedHashMap<>();
+        Failure failure;
+        while ((failure = failed.poll()) != null) {
+            List<String> ids = byError.computeIfAbsent(failure.error(), k -> new ArrayList<>());
+            ids.add(failure.eventId());
+            if (ids.size() >= properties.getAckBatchSize()) {
+                writeFailed(failure.error(), byError.remove(failure.error()));
+            }
+        }
+        byError.forEach(this::writeFailed);
+    }
+
+    private void writePublished(List<String> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        try {
+            bulkUpdater.markPublished(ids);
+        } catch (Exception ex) {
+            log.error("[OUTBOX-ACK] Failed to mark {} outbox events as published", ids.size(), ex);
+        }
+    }
+
+    private void writeFailed(String error, List<String> ids) {
+        try {
+            bulkUpdater.markFailed(ids, error);
+        } catch (Exception ex) {
+            log.error("[OUTBOX-ACK] Failed to mark {} outbox events as failed", ids.size(), ex);
+        }
+    }
+
+    private record Failure(String eventId, String error) {
+    }
+}
@@ -0,0 +1,113 @@
+package com.learnfirebase.ecommerce.order.infrastructure.outbox;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import lombok.RequiredArgsConstructor;
+
+@Repository
+@RequiredArgsConstructor
+public class OutboxBulkUpdater {
+    static final int MAX_ATTEMPTS = 5;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void insertPending(List<OutboxEntity> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate("""
+                INSERT INTO order_outbox
+                    (id, aggregate_id, type, payload, status, created_at, updated_at, attempt_count, lane)
+                VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)
+                """, events, events.size(), (ps, event) -> {
+            ps.setString(1, event.getId());
+            ps.setString(2, event.getAggregateId());
+            ps.setString(3, event.getType());
+            ps.setString(4, event.getPayload());
+            ps.setString(5, event.getStatus().name());
+            ps.setTimestamp(6, Timestamp.from(event.getCreatedAt()));
+            ps.setTimestamp(7, Timestamp.from(event.getUpdatedAt()));
+            ps.setInt(8, event.getAttemptCount());
+            ps.setInt(9, event.getLane());
+        });
+    }
+
+    public List<OutboxEntity> claimPending(int lane, int limit) {
+        Timestamp now = Timestamp.from(Instant.now());
+        // The outer status check makes a concurrent claim on the same rows skip them once the first one commits.
+        List<OutboxEntity> claimed = jdbcTemplate.query("""
+                UPDATE order_outbox
+                SET status = 'PROCESSING', updated_at = ?
+                WHERE status = 'PENDING'
+                  AND id IN (
+                      SELECT id FROM order_outbox
+                      WHERE lane = ? AND status = 'PENDING'
+                      ORDER BY created_at
+                      LIMIT ?)
+                RETURNING id, aggregate_id, type, payload, created_at, attempt_count, lane
+                """, (rs, rowNum) -> OutboxEntity.builder()
+                .id(rs.getString("id"))
+                .aggregateId(rs.getString("aggregate_id"))
+                .type(rs.getString("type"))
+                .payload(rs.getString("payload"))
+                .status(OutboxStatus.PROCESSING)
+                .createdAt(rs.getTimestamp("created_at") != null ? rs.getTimestamp("created_at").toInstant() : null)
+                .updatedAt(now.toInstant())
+                .attemptCount(rs.getInt("attempt_count"))
+                .lane(rs.getInt("lane"))
+                .build(), now, lane, limit);
+        // RETURNING does not keep the subquery order, so restore per-aggregate order before publishing.
+        claimed.sort(Comparator.comparing(OutboxEntity::getCreatedAt, Comparator.nullsFirst(Comparator.naturalOrder())));
+        return claimed;
+    }
+
+    public int markPublished(Collection<String> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        Timestamp now = Timestamp.from(Instant.now());
+        return jdbcTemplate.update("""
+                UPDATE order_outbox
+                SET status = 'PUBLISHED', updated_at = ?
+                WHERE id = ANY(?)
+                """, ps -> {
+            ps.setTimestamp(1, now);
+            ps.setArray(2, ps.getConnection().createArrayOf("varchar", ids.toArray()));
+        });
+    }
+
+    public int markFailed(Collection<String> ids, String error) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        Timestamp now = Timestamp.from(Instant.now());
+        // Exponential backoff (20s, 40s, 80s...) and dead-lettering are computed per row from its own attempt_count.
+        return jdbcTemplate.update("""
+                UPDATE order_outbox
+                SET attempt_count = attempt_count + 1,
+                    last_error = ?,
+                    updated_at = ?,
+                    status = CASE WHEN attempt_count + 1 >= ? THEN 'DEAD_LETTER' ELSE 'FAILED' END,
+                    dead_letter_at = CASE WHEN attempt_count + 1 >= ? THEN CAST(? AS TIMESTAMP) ELSE dead_letter_at END,
+                    next_retry_at = CASE WHEN attempt_count + 1 >= ? THEN next_retry_at
+                        ELSE CAST(? AS TIMESTAMP) + make_interval(secs => power(2, attempt_count + 1) * 10) END
+                WHERE id = ANY(?)
+                """, ps -> {
+            ps.setString(1, error);
+            ps.setTimestamp(2, now);
+            ps.setInt(3, MAX_ATTEMPTS);
+            ps.setInt(4, MAX_ATTEMPTS);
+            ps.setTimestamp(5, now);
+            ps.setInt(6, MAX_ATTEMPTS);
+            ps.setTimestamp(7, now);
+            ps.setArray(8, ps.getConnection().createArrayOf("varchar", ids.toArray()));
+        });
+    }
+}
@@ -0,0 +1,145 @@
+package com.learnfirebase.ecommerce.order.infrastructure.outbox;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Drains PENDING outbox rows as soon as {@link OutboxSignal} fires after a commit. Each lane leased by this node
+ * is drained by at most one thread at a time, so events of one aggregate keep their order while different lanes
+ * publish in parallel. Commits on other nodes wake it through the same signal; the poll interval is only a
+ * safety net for signals lost to crashes or Redis outages.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OutboxDispatcher implements SmartLifecycle {
+    private static final List<OutboxStatus> BACKLOG_STATUSES = List.of(OutboxStatus.PENDING, OutboxStatus.FAILED);
+
+    private final OutboxWorker outboxWorker;
+    private final OutboxRepository outboxRepository;
+    private final OutboxSignal outboxSignal;
+    private final OutboxMetrics outboxMetrics;
+    private final OutboxProperties properties;
+    private final OutboxLaneLeaseManager leaseManager;
+
+    private final Map<Integer, LaneState> lanes = new ConcurrentHashMap<>();
+    private volatile Thread thread;
+    private volatile ExecutorService laneExecutor;
+    private volatile boolean running;
+
+    @Override
+    public void start() {
+        AtomicInteger threadIndex = new AtomicInteger();
+        laneExecutor = Executors.newFixedThreadPool(properties.getLaneThreads(), runnable -> {
+            Thread laneThread = new Thread(runnable, "outbox-lane-" + threadIndex.incrementAndGet());
+            laneThread.setDaemon(true);
+            return laneThread;
+        });
+        running = true;
+        thread = new Thread(this::run, "outbox-dispatcher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        Thread current = thread;
+        if (current != null) {
+            current.interrupt();
+        }
+        ExecutorService executor = laneExecutor;
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                boolean signalled = outboxSignal.await(properties.getPollInterval());
+                leaseManager.ownedLanes().forEach(this::schedule);
+                if (!signalled) {
+                    outboxMetrics.updateBacklog(outboxRepository.countByStatusIn(BACKLOG_STATUSES));
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception ex) {
+                log.error("[OUTBOX-DISPATCH] Failed to dispatch outbox lanes", ex);
+            }
+        }
+    }
+
+    private void schedule(int lane) {
+        LaneState state = lanes.computeIfAbsent(lane, l -> new LaneState(l, properties.getMinBatchSize()));
+        state.pending.set(true);
+        if (state.draining.compareAndSet(false, true)) {
+            laneExecutor.execute(() -> runLane(state));
+        }
+    }
+
+    private void runLane(LaneState state) {
+        try {
+            while (running && state.pending.getAndSet(false) && leaseManager.ownedLanes().contains(state.lane)) {
+                drain(state);
+            }
+        } catch (Exception ex) {
+            log.error("[OUTBOX-DISPATCH] Failed to drain outbox lane {}", state.lane, ex);
+        } finally {
+            state.draining.set(false);
+        }
+        // A signal may have arrived between the last drain and releasing the lane.
+        if (running && state.pending.get() && state.draining.compareAndSet(false, true)) {
+            laneExecutor.execute(() -> runLane(state));
+        }
+    }
+
+    private void drain(LaneState state) {
+        int limit;
+        int claimed;
+        do {
+            limit = state.batchSize;
+            claimed = outboxWorker.publishPending(state.lane, limit);
+            state.batchSize = nextBatchSize(limit, claimed);
+        } while (running && claimed >= limit);
+    }
+
+    int nextBatchSize(int limit, int claimed) {
+        if (claimed >= limit) {
+            return Math.min(limit * 2, properties.getMaxBatchSize());
+        }
+        if (claimed < limit / 2) {
+            return Math.max(limit / 2, properties.getMinBatchSize());
+        }
+        return limit;
+    }
+
+    private static final class LaneState {
+        private final int lane;
+        private final AtomicBoolean pending = new AtomicBoolean();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile int batchSize;
+
+        private LaneState(int lane, int batchSize) {
+            this.lane = lane;
+            this.batchSize = batchSize;
+        }
+    }
+}
@@ -41,4 +41,6 @@ public class OutboxEntity {
     
     private Instant nextRetryAt;
     private Instant deadLetterAt;
+
+    private int lane;
 }
@@ -0,0 +1,102 @@
+package com.learnfirebase.ecommerce.order.infrastructure.outbox;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Leases outbox lanes to this node. Every node heartbeats, works out its fair share of lanes from the number
+ * of live nodes, renews what it holds up to that share and picks up lanes whose leases have expired.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OutboxLaneLeaseManager implements DisposableBean {
+    private final JdbcTemplate jdbcTemplate;
+    private final OutboxProperties properties;
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final Set<Integer> ownedLanes = ConcurrentHashMap.newKeySet();
+
+    public static int laneOf(String aggregateId, int lanes) {
+        return aggregateId == null ? 0 : Math.floorMod(aggregateId.hashCode(), lanes);
+    }
+
+    public Set<Integer> ownedLanes() {
+        return Set.copyOf(ownedLanes);
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.lease-renew-interval-ms:10000}")
+    public void renewLeases() {
+        Instant now = Instant.now();
+        Timestamp leaseUntil = Timestamp.from(now.plus(properties.getLeaseDuration()));
+        try {
+            jdbcTemplate.update("""
+                    INSERT INTO outbox_dispatcher_node (node_id, heartbeat_at) VALUES (?, ?)
+                    ON CONFLICT (node_id) DO UPDATE SET heartbeat_at = EXCLUDED.heartbeat_at
+                    """, nodeId, Timestamp.from(now));
+            Integer liveNodes = jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM outbox_dispatcher_node WHERE heartbeat_at > ?", Integer.class,
+                    Timestamp.from(now.minus(properties.getLeaseDuration())));
+            int fairShare = (int) Math.ceil((double) properties.getLanes() / Math.max(1, liveNodes == null ? 1 : liveNodes));
+
+            int held = 0;
+            for (Integer lane : new TreeSet<>(ownedLanes)) {
+                if (held < fairShare && tryAcquire(lane, leaseUntil, now)) {
+                    held++;
+                } else {
+                    release(lane);
+                }
+            }
+            for (int lane = 0; lane < properties.getLanes() && held < fairShare; lane++) {
+                if (!ownedLanes.contains(lane) && tryAcquire(lane, leaseUntil, now)) {
+                    ownedLanes.add(lane);
+                    held++;
+                }
+            }
+        } catch (Exception ex) {
+            // Leases lapse on their own; dropping local ownership keeps this node from publishing a lane it may have lost.
+            log.error("[OUTBOX-LEASE] Failed to renew outbox lane leases for node {}", nodeId, ex);
+            ownedLanes.clear();
+        }
+    }
+
+    @Override
+    public void destroy() {
+        ownedLanes.clear();
+        try {
+            jdbcTemplate.update("DELETE FROM outbox_lane_lease WHERE owner = ?", nodeId);
+            jdbcTemplate.update("DELETE FROM outbox_dispatcher_node WHERE node_id = ?", nodeId);
+        } catch (Exception ex) {
+            log.warn("[OUTBOX-LEASE] Could not release outbox lanes for node {}", nodeId, ex);
+        }
+    }
+
+    private boolean tryAcquire(int lane, Timestamp leaseUntil, Instant now) {
+        int updated = jdbcTemplate.update("""
+                INSERT INTO outbox_lane_lease (lane, owner, lease_until) VALUES (?, ?, ?)
+                ON CONFLICT (lane) DO UPDATE SET owner = EXCLUDED.owner, lease_until = EXCLUDED.lease_until
+                WHERE outbox_lane_lease.owner = EXCLUDED.owner OR outbox_lane_lease.lease_until < ?
+                """, lane, nodeId, leaseUntil, Timestamp.from(now));
+        if (updated == 0) {
+            ownedLanes.remove(lane);
+        }
+        return updated > 0;
+    }
+
+    private void release(int lane) {
+        ownedLanes.remove(lane);
+        jdbcTemplate.update("DELETE FROM outbox_lane_lease WHERE lane = ? AND owner = ?", lane, nodeId);
+    }
+}
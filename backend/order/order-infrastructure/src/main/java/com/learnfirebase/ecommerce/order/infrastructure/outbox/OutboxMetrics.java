@@ -0,0 +1,34 @@
+package com.learnfirebase.ecommerce.order.infrastructure.outbox;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+@Component
+public class OutboxMetrics {
+    private final AtomicLong backlog = new AtomicLong();
+    private final Timer publishLag;
+
+    public OutboxMetrics(MeterRegistry meterRegistry) {
+        meterRegistry.gauge("outbox.backlog", backlog);
+        this.publishLag = Timer.builder("outbox.publish.lag")
+                .description("Time from outbox insert to Kafka acknowledgement")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+    }
+
+    public void updateBacklog(long pending) {
+        backlog.set(pending);
+    }
+
+    public void recordPublished(Instant createdAt) {
+        if (createdAt != null) {
+            publishLag.record(Duration.between(createdAt, Instant.now()));
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package com.learnfirebase.ecommerce.order.infrastructure.outbox;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Keeps the daily partitions of order_outbox rolling: creates partitions ahead of time so new rows never fall
+ * into the default partition, and retires partitions past the retention window once every row in them is
+ * PUBLISHED or DEAD_LETTER. Retiring detaches the partition, moves its dead letters back into order_outbox (they
+ * land in the default partition, where the admin console still finds them) and drops it, optionally archiving the
+ * published rows first, which costs a catalog change instead of a large DELETE.
+ * <p>
+ * Every step runs in its own short transaction under an advisory lock, so only one node maintains partitions at a
+ * time and the ACCESS EXCLUSIVE lock {@code DETACH PARTITION} takes on order_outbox is held for the detach alone,
+ * never across the copy. A partition left detached by a crash between the steps is picked up on the next run.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OutboxPartitionMaintainer {
+    private static final long ADVISORY_LOCK_KEY = 0x6f7574626f78L;
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.BASIC_ISO_DATE;
+    private static final Pattern PARTITION_NAME = Pattern.compile("order_outbox_p(\\d{8})");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final OutboxProperties properties;
+
+    @Scheduled(initialDelay = 0, fixedDelayString = "${outbox.partition-maintenance-interval-ms:3600000}")
+    public void maintain() {
+        try {
+            LocalDate today = LocalDate.now();
+            LocalDate cutoff = today.minusDays(properties.getRetentionDays());
+            createPartitions(today);
+            retirePartitions(cutoff);
+            if (!locked(() -> purgeDefaultPartition(cutoff))) {
+                log.debug("[OUTBOX-PARTITION] Maintenance is running on another node");
+            }
+        } catch (Exception ex) {
+            log.error("[OUTBOX-PARTITION] Failed to maintain order_outbox partitions", ex);
+        }
+    }
+
+    private void createPartitions(LocalDate today) {
+        for (int i = 0; i <= properties.getPartitionsAhead(); i++) {
+            LocalDate day = today.plusDays(i);
+            locked(() -> createPartition(day));
+        }
+    }
+
+    private void createPartition(LocalDate day) {
+        String name = partitionName(day);
+        if (partitionExists(name)) {
+            return;
+        }
+        // Rows of this day may already sit in the default partition (e.g. after an outage of this job);
+        // Postgres refuses to create an overlapping partition, so they are moved over before attaching.
+        jdbcTemplate.execute("CREATE TABLE " + name + " (LIKE order_outbox INCLUDING DEFAULTS INCLUDING CONSTRAINTS)");
+        int moved = jdbcTemplate.update("""
+                WITH moved AS (
+                    DELETE FROM order_outbox_default WHERE created_at >= ? AND created_at < ? RETURNING *
+                )
+                INSERT INTO %s SELECT * FROM moved
+                """.formatted(name), Timestamp.valueOf(day.atStartOfDay()),
+                Timestamp.valueOf(day.plusDays(1).atStartOfDay()));
+        jdbcTemplate.execute(String.format(
+                "ALTER TABLE order_outbox ATTACH PARTITION %s FOR VALUES FROM ('%s') TO ('%s')",
+                name, day, day.plusDays(1)));
+        log.info("[OUTBOX-PARTITION] Created partition {} ({} events moved from the default partition)", name, moved);
+    }
+
+    private void retirePartitions(LocalDate cutoff) {
+        for (String name : listDetached()) {
+            locked(() -> dropDetached(name));
+        }
+        for (String name : listPartitions()) {
+            Optional<LocalDate> day = partitionDay(name);
+            if (day.isEmpty() || !day.get().isBefore(cutoff)) {
+                continue;
+            }
+            Boolean unfinished = jdbcTemplate.queryForObject("SELECT EXISTS (SELECT 1 FROM " + name
+                    + " WHERE status IS NULL OR status NOT IN ('PUBLISHED', 'DEAD_LETTER'))", Boolean.class);
+            if (Boolean.TRUE.equals(unfinished)) {
+                log.warn("[OUTBOX-PARTITION] Keeping {}: it still holds events that were not published", name);
+                continue;
+            }
+            if (locked(() -> jdbcTemplate.execute("ALTER TABLE order_outbox DETACH PARTITION " + name))) {
+                locked(() -> dropDetached(name));
+            }
+        }
+    }
+
+    /**
+     * Everything but published rows goes back into order_outbox, including rows whose status changed after the
+     * check above, so detaching can never lose an event.
+     */
+    private void dropDetached(String name) {
+        if (!partitionExists(name)) {
+            return;
+        }
+        int kept = jdbcTemplate.update("INSERT INTO order_outbox SELECT * FROM " + name
+                + " WHERE status IS DISTINCT FROM 'PUBLISHED'");
+        if (properties.isArchivePartitions()) {
+            jdbcTemplate.execute("INSERT INTO order_outbox_archive SELECT * FROM " + name + " WHERE status = 'PUBLISHED'");
+        }
+        jdbcTemplate.execute("DROP TABLE " + name);
+        log.info("[OUTBOX-PARTITION] Retired partition {} (archived: {}, {} unpublished events kept)", name,
+                properties.isArchivePartitions(), kept);
+    }
+
+    /**
+     * The default partition only receives rows that predate partitioning or were written while no daily
+     * partition existed, so it is trimmed with a plain delete instead of being detached.
+     */
+    private void purgeDefaultPartition(LocalDate cutoff) {
+        Timestamp before = Timestamp.valueOf(cutoff.atStartOfDay());
+        if (properties.isArchivePartitions()) {
+            jdbcTemplate.update("""
+                    INSERT INTO order_outbox_archive
+                    SELECT * FROM order_outbox_default WHERE status = 'PUBLISHED' AND created_at < ?
+                    """, before);
+        }
+        int purged = jdbcTemplate.update(
+                "DELETE FROM order_outbox_default WHERE status = 'PUBLISHED' AND created_at < ?", before);
+        if (purged > 0) {
+            log.info("[OUTBOX-PARTITION] Purged {} published events from the default partition", purged);
+        }
+    }
+
+    /**
+     * Runs one step in its own transaction if no other node holds the maintenance lock.
+     */
+    private boolean locked(Runnable step) {
+        Boolean ran = transactionTemplate.execute(status -> {
+            Boolean locked = jdbcTemplate.queryForObject("SELECT pg_try_advisory_xact_lock(?)", Boolean.class,
+                    ADVISORY_LOCK_KEY);
+            if (!Boolean.TRUE.equals(locked)) {
+                return false;
+            }
+            step.run();
+            return true;
+        });
+        return Boolean.TRUE.equals(ran);
+    }
+
+    private List<String> listDetached() {
+        return jdbcTemplate.queryForList("""
+                SELECT relname FROM pg_class
+                WHERE relname ~ '^order_outbox_p[0-9]{8}$' AND relkind = 'r' AND NOT relispartition
+                ORDER BY relname
+                """, String.class);
+    }
+
+    private List<String> listPartitions() {
+        return jdbcTemplate.queryForList("""
+                SELECT child.relname
+                FROM pg_inherits
+                JOIN pg_class parent ON parent.oid = pg_inherits.inhparent
+                JOIN pg_class child ON child.oid = pg_inherits.inhrelid
+                WHERE parent.relname = 'order_outbox'
+                ORDER BY child.relname
+                """, String.class);
+    }
+
+    private boolean partitionExists(String name) {
+        Boolean exists = jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, name);
+        return Boolean.TRUE.equals(exists);
+    }
+
+    static String partitionName(LocalDate day) {
+        return "order_outbox_p" + day.format(SUFFIX);
+    }
+
+    static Optional<LocalDate> partitionDay(String name) {
+        Matcher matcher = PARTITION_NAME.matcher(name);
+        return matcher.matches() ? Optional.of(LocalDate.parse(matcher.group(1), SUFFIX)) : Optional.empty();
+    }
+}
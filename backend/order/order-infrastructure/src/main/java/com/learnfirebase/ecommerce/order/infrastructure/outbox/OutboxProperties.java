@@ -0,0 +1,53 @@
+package com.learnfirebase.ecommerce.order.infrastructure.outbox;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+@Data
+@ConfigurationProperties(prefix = "outbox")
+public class OutboxProperties {
+    /**
+     * Safety-net poll interval used when no commit signal arrives.
+     */
+    private Duration pollInterval = Duration.ofSeconds(30);
+    /**
+     * Lower bound of the adaptive drain batch.
+     */
+    private int minBatchSize = 10;
+    /**
+     * Upper bound of the adaptive drain batch.
+     */
+    private int maxBatchSize = 500;
+    /**
+     * Maximum number of acknowledged ids written by one bulk status update.
+     */
+    private int ackBatchSize = 1000;
+    /**
+     * Number of lanes aggregates are hashed into. Events of one aggregate always share a lane and are
+     * published in order by whichever node leases it. Only change this once the outbox is drained.
+     */
+    private int lanes = 8;
+    /**
+     * Threads per node that drain leased lanes in parallel.
+     */
+    private int laneThreads = 4;
+    /**
+     * How long a lane lease stays valid without renewal.
+     */
+    private Duration leaseDuration = Duration.ofSeconds(30);
+    /**
+     * Days a fully published daily partition is kept before it is retired.
+     */
+    private int retentionDays = 7;
+    /**
+     * Daily partitions created ahead of today.
+     */
+    private int partitionsAhead = 3;
+    /**
+     * Copy retired partitions into order_outbox_archive instead of dropping them outright.
+     */
+    private boolean archivePartitions = false;
+}
@@ -1,5 +1,6 @@
 package com.learnfirebase.ecommerce.order.infrastructure.outbox;
 
+import java.util.Collection;
 import java.util.List;
 
 import org.springframework.data.domain.Page;
@@ -12,8 +13,14 @@ public interface OutboxRepository extends JpaRepository<OutboxEntity, String> {
     
     @Query(value = "SELECT * FROM order_outbox o WHERE o.status = :status FOR UPDATE SKIP LOCKED LIMIT :limit", nativeQuery = true)
     List<OutboxEntity> findAndLockByStatus(@Param("status") String status, @Param("limit") int limit);
+
+    @Query(value = "SELECT * FROM order_outbox o WHERE o.status = :status AND o.lane IN (:lanes) FOR UPDATE SKIP LOCKED LIMIT :limit", nativeQuery = true)
+    List<OutboxEntity> findAndLockByStatusInLanes(@Param("status") String status, @Param("lanes") Collection<Integer> lanes,
+            @Param("limit") int limit);
     
     List<OutboxEntity> findByStatus(OutboxStatus status);
     
     Page<OutboxEntity> findByStatusIn(List<OutboxStatus> statuses, Pageable pageable);
+
+    long countByStatusIn(List<OutboxStatus> statuses);
 }
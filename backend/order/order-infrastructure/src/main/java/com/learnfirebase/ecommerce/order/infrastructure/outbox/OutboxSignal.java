@@ -0,0 +1,66 @@
+package com.learnfirebase.ecommerce.order.infrastructure.outbox;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Wakes the outbox dispatcher as soon as new events are committed. Signals raised while the
+ * dispatcher is busy collapse into a single pending wake-up.
+ * <p>
+ * A commit also wakes the dispatchers of the other nodes through {@link #COMMITTED_CHANNEL}, since the
+ * lane of the new events may be leased elsewhere. A lost message only delays publishing until the next poll.
+ */
+@Slf4j
+@Component
+public class OutboxSignal implements MessageListener {
+    public static final String COMMITTED_CHANNEL = "outbox:committed";
+
+    private final StringRedisTemplate redisTemplate;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final Semaphore wakeUps = new Semaphore(0);
+
+    public OutboxSignal(StringRedisTemplate redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    public void signal() {
+        if (wakeUps.availablePermits() == 0) {
+            wakeUps.release();
+        }
+    }
+
+    /**
+     * Wakes this node and every other node after events were committed.
+     */
+    public void committed() {
+        signal();
+        try {
+            redisTemplate.convertAndSend(COMMITTED_CHANNEL, nodeId);
+        } catch (Exception ex) {
+            log.warn("[OUTBOX-SIGNAL] Could not wake other dispatchers: {}", ex.getMessage());
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        if (!nodeId.equals(new String(message.getBody(), StandardCharsets.UTF_8))) {
+            signal();
+        }
+    }
+
+    boolean await(Duration timeout) throws InterruptedException {
+        boolean signalled = wakeUps.tryAcquire(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        wakeUps.drainPermits();
+        return signalled;
+    }
+}
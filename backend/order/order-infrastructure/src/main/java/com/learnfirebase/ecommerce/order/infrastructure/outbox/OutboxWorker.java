@@ -1,13 +1,17 @@
 package com.learnfirebase.ecommerce.order.infrastructure.outbox;
 
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
 
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import lombok.RequiredArgsConstructor;
@@ -24,33 +28,33 @@ public class OutboxWorker {
     private final OutboxRepository outboxRepository;
     private final KafkaTemplate<String, String> kafkaTemplate;
     private final ObjectMapper objectMapper;
-
-    @Scheduled(fixedDelay = 5000)
-    @Transactional
-    public void publishPending() {
-        List<OutboxEntity> pending = outboxRepository.findAndLockByStatus(OutboxStatus.PENDING.name(), 50);
-        if (pending.isEmpty()) return;
-
-        pending.forEach(event -> {
-            event.setStatus(OutboxStatus.PROCESSING);
-            event.setUpdatedAt(Instant.now());
-        });
-        outboxRepository.saveAll(pending);
-
-        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
-            @Override
-            public void afterCommit() {
-                pending.forEach(OutboxWorker.this::publishAsync);
-            }
-        });
+    private final OutboxSignal outboxSignal;
+    private final OutboxMetrics outboxMetrics;
+    private final OutboxAckBuffer ackBuffer;
+    private final OutboxBulkUpdater bulkUpdater;
+    private final OutboxProperties properties;
+    private final OutboxLaneLeaseManager leaseManager;
+
+    public int publishPending(int lane, int limit) {
+        List<OutboxEntity> claimed = bulkUpdater.claimPending(lane, limit);
+        claimed.forEach(this::publishAsync);
+        return claimed.size();
     }
 
+    /**
+     * Retries only the lanes leased by this node, so a retry cannot overtake events the lane's owner is
+     * still publishing.
+     */
     @Scheduled(fixedDelay = 60000)
     @Transactional
     public void retryFailedAndStuck() {
+        Set<Integer> lanes = leaseManager.ownedLanes();
+        if (lanes.isEmpty()) {
+            return;
+        }
         Instant now = Instant.now();
-        List<OutboxEntity> failed = outboxRepository.findAndLockByStatus(OutboxStatus.FAILED.name(), 50);
-        List<OutboxEntity> stuck = outboxRepository.findAndLockByStatus(OutboxStatus.PROCESSING.name(), 50);
+        List<OutboxEntity> failed = outboxRepository.findAndLockByStatusInLanes(OutboxStatus.FAILED.name(), lanes, 50);
+        List<OutboxEntity> stuck = outboxRepository.findAndLockByStatusInLanes(OutboxStatus.PROCESSING.name(), lanes, 50);
         
         List<OutboxEntity> toRetry = new java.util.ArrayList<>();
 
@@ -112,27 +116,13 @@ public class OutboxWorker {
 
     private void markPublished(OutboxEntity event) {
         log.info("[OUTBOX-PUBLISH-SUCCESS] Outbox event {} successfully published to Kafka. Aggregate: {}", event.getId(), event.getAggregateId());
-        event.setStatus(OutboxStatus.PUBLISHED);
-        event.setUpdatedAt(Instant.now());
-        outboxRepository.save(event);
+        ackBuffer.published(event.getId());
+        outboxMetrics.recordPublished(event.getCreatedAt());
     }
 
     private void markFailed(OutboxEntity event, Throwable ex) {
         log.error("[OUTBOX-PUBLISH-ERROR] Outbox event {} failed to publish. Attempt: {}, Status: {}. Error: {}", event.getId(), event.getAttemptCount() + 1, event.getStatus(), ex.getMessage(), ex);
-        int newAttemptCount = event.getAttemptCount() + 1;
-        event.setAttemptCount(newAttemptCount);
-        event.setLastError(ex.getMessage());
-        event.setUpdatedAt(Instant.now());
-
-        if (newAttemptCount >= 5) {
-            event.setStatus(OutboxStatus.DEAD_LETTER);
-            event.setDeadLetterAt(Instant.now());
-        } else {
-            event.setStatus(OutboxStatus.FAILED);
-            event.setNextRetryAt(Instant.now().plusSeconds((long) Math.pow(2, newAttemptCount) * 10)); // Exponential backoff: 20s, 40s, 80s...
-        }
-        
-        outboxRepository.save(event);
+        ackBuffer.failed(event.getId(), ex.getMessage());
     }
 
     public void saveRawEvent(String aggregateId, String type, Object payload) {
@@ -140,6 +130,7 @@ public class OutboxWorker {
             OutboxEntity entity = OutboxEntity.builder()
                     .id(UUID.randomUUID().toString())
                     .aggregateId(aggregateId)
+                    .lane(OutboxLaneLeaseManager.laneOf(aggregateId, properties.getLanes()))
                     .type(type)
                     .payload(objectMapper.writeValueAsString(payload))
                     .status(OutboxStatus.PENDING)
@@ -148,8 +139,53 @@ public class OutboxWorker {
                     .attemptCount(0)
                     .build();
             outboxRepository.save(Objects.requireNonNull(entity));
+            signalAfterCommit();
         } catch (Exception e) {
             log.error("Could not serialize outbox payload", e);
         }
     }
+
+    /**
+     * Stores one event of the given type per aggregate with a single batched insert.
+     */
+    public void saveRawEvents(String type, Map<String, ?> payloadsByAggregateId) {
+        if (payloadsByAggregateId.isEmpty()) {
+            return;
+        }
+        Instant now = Instant.now();
+        List<OutboxEntity> entities = new ArrayList<>(payloadsByAggregateId.size());
+        try {
+            for (Map.Entry<String, ?> entry : payloadsByAggregateId.entrySet()) {
+                entities.add(OutboxEntity.builder()
+                        .id(UUID.randomUUID().toString())
+                        .aggregateId(entry.getKey())
+                        .lane(OutboxLaneLeaseManager.laneOf(entry.getKey(), properties.getLanes()))
+                        .type(type)
+                        .payload(objectMapper.writeValueAsString(entry.getValue()))
+                        .status(OutboxStatus.PENDING)
+                        .createdAt(now)
+                        .updatedAt(now)
+                        .attemptCount(0)
+                        .build());
+            }
+        } catch (JsonProcessingException e) {
+            // Unlike a single event, a batch is part of a set-based write and must roll back with it.
+            throw new IllegalStateException("Could not serialize outbox payload", e);
+        }
+        bulkUpdater.insertPending(entities);
+        signalAfterCommit();
+    }
+
+    private void signalAfterCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            outboxSignal.committed();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                outboxSignal.committed();
+            }
+        });
+    }
 }
@@ -1,6 +1,7 @@
 package com.learnfirebase.ecommerce.order.infrastructure.payment;
 
 import java.time.Instant;
+import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 
@@ -40,6 +41,22 @@ public class PaymentTransactionAdapter implements PaymentTransactionPort {
         });
     }
 
+    @Override
+    public List<PaymentRecord> findUpdatedBefore(Instant updatedBefore, String afterOrderId, String afterReference,
+            int limit) {
+        List<PaymentTransactionJpaRepository.TransactionKey> page = afterOrderId == null
+                ? repository.findFirstUpdatedBefore(updatedBefore, limit)
+                : repository.findUpdatedBeforeAfter(updatedBefore, afterOrderId, afterReference, limit);
+        return page.stream()
+                .map(key -> PaymentRecord.builder()
+                        .reference(key.getReference())
+                        .orderId(key.getOrderId())
+                        .status(PaymentStatus.valueOf(key.getStatus()))
+                        .amount(key.getAmount())
+                        .build())
+                .toList();
+    }
+
     private PaymentTransactionEntity toEntity(PaymentRecord record) {
         return PaymentTransactionEntity.builder()
                 .reference(record.getReference())
@@ -1,9 +1,47 @@
 package com.learnfirebase.ecommerce.order.infrastructure.payment;
 
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface PaymentTransactionJpaRepository extends JpaRepository<PaymentTransactionEntity, String> {
     Optional<PaymentTransactionEntity> findByOrderId(String orderId);
+
+    // Keyset pages in binary (order_id, reference) order, served by idx_payment_transactions_order_ref_c. Only the
+    // columns needed to match a transaction to its order are read, never the raw payload.
+    @Query(value = """
+            SELECT t.reference AS "reference", t.order_id AS "orderId", t.status AS "status", t.amount AS "amount"
+            FROM payment_transactions t
+            WHERE t.updated_at < :updatedBefore
+            ORDER BY t.order_id COLLATE "C", t.reference COLLATE "C"
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<TransactionKey> findFirstUpdatedBefore(@Param("updatedBefore") Instant updatedBefore,
+            @Param("limit") int limit);
+
+    @Query(value = """
+            SELECT t.reference AS "reference", t.order_id AS "orderId", t.status AS "status", t.amount AS "amount"
+            FROM payment_transactions t
+            WHERE t.updated_at < :updatedBefore
+              AND (t.order_id COLLATE "C", t.reference COLLATE "C") > (:orderId COLLATE "C", :reference COLLATE "C")
+            ORDER BY t.order_id COLLATE "C", t.reference COLLATE "C"
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<TransactionKey> findUpdatedBeforeAfter(@Param("updatedBefore") Instant updatedBefore,
+            @Param("orderId") String orderId, @Param("reference") String reference, @Param("limit") int limit);
+
+    interface TransactionKey {
+        String getReference();
+
+        String getOrderId();
+
+        String getStatus();
+
+        BigDecimal getAmount();
+    }
 }
@@ -0,0 +1,227 @@
+package com.learnfirebase.ecommerce.order.infrastructure.payment;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.Map;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * HMAC-SHA512 signing of VNPAY queries. The canonical query is the parameters sorted by name, joined as
+ * {@code name=value} with {@code &}, each value form-encoded as {@link java.net.URLEncoder} does with UTF-8.
+ * Parameters without a value are left out, as in VNPAY's reference integration.
+ * <p>
+ * Each thread keeps its own initialised {@link Mac} and query buffer, so signing allocates little beyond the
+ * sorted key array and the result. Signatures are compared in constant time.
+ */
+public final class VnPaySigner {
+    public static final String SECURE_HASH = "vnp_SecureHash";
+    public static final String SECURE_HASH_TYPE = "vnp_SecureHashType";
+
+    private static final String ALGORITHM = "HmacSHA512";
+    private static final int SIGNATURE_BYTES = 64;
+    private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] UPPER_HEX = "0123456789ABCDEF".getBytes(StandardCharsets.US_ASCII);
+
+    private final byte[] key;
+    private final ThreadLocal<Engine> engines = ThreadLocal.withInitial(this::newEngine);
+
+    public VnPaySigner(String hashSecret) {
+        this.key = hashSecret == null ? new byte[0] : hashSecret.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Returns the canonical query of {@code params} followed by its {@code vnp_SecureHash}, ready to be appended
+     * to a payment or return URL.
+     */
+    public String signedQuery(Map<String, String> params) {
+        Engine engine = engines.get();
+        CanonicalQuery query = engine.query;
+        query.reset();
+        appendCanonical(query, params);
+        byte[] signature = engine.sign(query);
+        int signedLength = query.length;
+        query.appendRaw('&');
+        query.appendRaw(SECURE_HASH);
+        query.appendRaw('=');
+        query.appendHex(signature);
+        String result = query.toString();
+        query.length = signedLength;
+        return result;
+    }
+
+    /**
+     * Checks the {@code vnp_SecureHash} of a callback against its other parameters.
+     * {@code vnp_SecureHashType} is not part of the signed data.
+     */
+    public boolean verify(Map<String, String> params) {
+        byte[] provided = decodeHex(params.get(SECURE_HASH));
+        if (provided == null) {
+            return false;
+        }
+        Engine engine = engines.get();
+        engine.query.reset();
+        appendCanonical(engine.query, params);
+        return MessageDigest.isEqual(provided, engine.sign(engine.query));
+    }
+
+    private static void appendCanonical(CanonicalQuery query, Map<String, String> params) {
+        String[] names = new String[params.size()];
+        int count = 0;
+        for (Map.Entry<String, String> entry : params.entrySet()) {
+            String name = entry.getKey();
+            String value = entry.getValue();
+            if (name == null || value == null || value.isEmpty()
+                    || SECURE_HASH.equals(name) || SECURE_HASH_TYPE.equals(name)) {
+                continue;
+            }
+            names[count++] = name;
+        }
+        Arrays.sort(names, 0, count);
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                query.appendRaw('&');
+            }
+            query.appendRaw(names[i]);
+            query.appendRaw('=');
+            query.appendEncoded(params.get(names[i]));
+        }
+    }
+
+    private static byte[] decodeHex(String hex) {
+        if (hex == null || hex.length() != SIGNATURE_BYTES * 2) {
+            return null;
+        }
+        byte[] bytes = new byte[SIGNATURE_BYTES];
+        for (int i = 0; i < SIGNATURE_BYTES; i++) {
+            int high = Character.digit(hex.charAt(2 * i), 16);
+            int low = Character.digit(hex.charAt(2 * i + 1), 16);
+            if (high < 0 || low < 0) {
+                return null;
+            }
+            bytes[i] = (byte) ((high << 4) | low);
+        }
+        return bytes;
+    }
+
+    private Engine newEngine() {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(new SecretKeySpec(key, ALGORITHM));
+            return new Engine(mac, new CanonicalQuery());
+        } catch (GeneralSecurityException | IllegalArgumentException ex) {
+            throw new IllegalStateException("Failed to initialise VNPAY signature", ex);
+        }
+    }
+
+    private record Engine(Mac mac, CanonicalQuery query) {
+        byte[] sign(CanonicalQuery data) {
+            // doFinal resets the Mac, leaving it ready for this thread's next signature.
+            mac.update(data.bytes, 0, data.length);
+            return mac.doFinal();
+        }
+    }
+
+    /**
+     * Growable ASCII buffer. Encoded output is always ASCII, so it is signed and turned into a String without
+     * an intermediate character copy.
+     */
+    static final class CanonicalQuery {
+        private static final int INITIAL_CAPACITY = 1024;
+
+        private byte[] bytes = new byte[INITIAL_CAPACITY];
+        private int length;
+
+        void reset() {
+            length = 0;
+        }
+
+        void appendRaw(char c) {
+            ensureCapacity(1);
+            bytes[length++] = (byte) c;
+        }
+
+        void appendRaw(String value) {
+            ensureCapacity(value.length());
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c >= 0x80) {
+                    // Parameter names are ASCII in practice; anything else is written as UTF-8.
+                    appendUtf8(value.substring(i), false);
+                    return;
+                }
+                bytes[length++] = (byte) c;
+            }
+        }
+
+        void appendEncoded(String value) {
+            ensureCapacity(value.length());
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (isUnreserved(c)) {
+                    ensureCapacity(1);
+                    bytes[length++] = (byte) c;
+                } else if (c == ' ') {
+                    ensureCapacity(1);
+                    bytes[length++] = '+';
+                } else if (c < 0x80) {
+                    appendEscaped(c);
+                } else {
+                    int end = i + 1;
+                    while (end < value.length() && value.charAt(end) >= 0x80) {
+                        end++;
+                    }
+                    appendUtf8(value.substring(i, end), true);
+                    i = end - 1;
+                }
+            }
+        }
+
+        void appendHex(byte[] data) {
+            ensureCapacity(data.length * 2);
+            for (byte b : data) {
+                bytes[length++] = HEX[(b >> 4) & 0x0f];
+                bytes[length++] = HEX[b & 0x0f];
+            }
+        }
+
+        @Override
+        public String toString() {
+            return new String(bytes, 0, length, StandardCharsets.ISO_8859_1);
+        }
+
+        private void appendUtf8(String value, boolean escape) {
+            // Unpaired surrogates become '?', exactly as URLEncoder's UTF-8 encoder replaces them.
+            byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+            for (byte b : utf8) {
+                if (escape) {
+                    appendEscaped(b & 0xff);
+                } else {
+                    ensureCapacity(1);
+                    bytes[length++] = b;
+                }
+            }
+        }
+
+        private void appendEscaped(int b) {
+            ensureCapacity(3);
+            bytes[length++] = '%';
+            bytes[length++] = UPPER_HEX[(b >> 4) & 0x0f];
+            bytes[length++] = UPPER_HEX[b & 0x0f];
+        }
+
+        private void ensureCapacity(int extra) {
+            if (length + extra > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, length + extra));
+            }
+        }
+
+        private static boolean isUnreserved(char c) {
+            return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')
+                    || c == '.' || c == '-' || c == '*' || c == '_';
+        }
+    }
+}
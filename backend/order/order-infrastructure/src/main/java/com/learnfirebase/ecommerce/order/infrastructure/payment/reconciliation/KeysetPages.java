@@ -0,0 +1,45 @@
+package com.learnfirebase.ecommerce.order.infrastructure.payment.reconciliation;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.Function;
+
+/**
+ * Forward-only iteration over a keyset-paged query, {@code pageSize} rows per query. Each page is read by a
+ * statement of its own, keyed on the last row of the previous page ({@code null} for the first), so nothing stays
+ * open between pages: no cursor, no transaction and no snapshot holding back vacuum while the run goes on.
+ */
+final class KeysetPages<T> implements Iterator<T> {
+    private final int pageSize;
+    private final Function<T, List<T>> nextPage;
+    private final ArrayDeque<T> buffer;
+    private T last;
+    private boolean exhausted;
+
+    KeysetPages(int pageSize, Function<T, List<T>> nextPage) {
+        this.pageSize = pageSize;
+        this.nextPage = nextPage;
+        this.buffer = new ArrayDeque<>(pageSize);
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (buffer.isEmpty() && !exhausted) {
+            List<T> page = nextPage.apply(last);
+            buffer.addAll(page);
+            exhausted = page.size() < pageSize;
+        }
+        return !buffer.isEmpty();
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        last = buffer.poll();
+        return last;
+    }
+}
@@ -0,0 +1,31 @@
+package com.learnfirebase.ecommerce.order.infrastructure.payment.reconciliation;
+
+import java.math.BigDecimal;
+
+import com.learnfirebase.ecommerce.order.infrastructure.payment.PaymentTransactionStatus;
+
+/**
+ * One line of the reconciliation report. {@code action} is what the run did about it, {@code detail} why.
+ */
+public record Mismatch(
+        MismatchType type,
+        String orderId,
+        String reference,
+        String orderStatus,
+        PaymentTransactionStatus transactionStatus,
+        BigDecimal orderAmount,
+        BigDecimal transactionAmount,
+        Action action,
+        String detail) {
+
+    public enum Action {
+        REPORTED,
+        REPAIRED,
+        REPAIR_FAILED
+    }
+
+    Mismatch withOutcome(Action outcome, String outcomeDetail) {
+        return new Mismatch(type, orderId, reference, orderStatus, transactionStatus, orderAmount, transactionAmount,
+                outcome, outcomeDetail);
+    }
+}
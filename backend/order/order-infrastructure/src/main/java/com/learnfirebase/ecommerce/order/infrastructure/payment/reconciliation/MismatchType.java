@@ -0,0 +1,14 @@
+package com.learnfirebase.ecommerce.order.infrastructure.payment.reconciliation;
+
+public enum MismatchType {
+    /** The gateway confirmed the payment but the order is still waiting for it. */
+    PAID_ORDER_PENDING,
+    /** The gateway confirmed the payment of an order that was cancelled; the buyer needs a refund. */
+    PAID_ORDER_CANCELLED,
+    /** A successful transaction does not cover the order total. */
+    AMOUNT_MISMATCH,
+    /** More than one successful transaction for the same order. */
+    DUPLICATE_PAYMENT,
+    /** The transaction references an order that does not exist. */
+    ORPHAN_TRANSACTION
+}
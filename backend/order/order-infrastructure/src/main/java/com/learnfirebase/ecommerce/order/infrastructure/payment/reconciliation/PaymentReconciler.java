@@ -0,0 +1,172 @@
+package com.learnfirebase.ecommerce.order.infrastructure.payment.reconciliation;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.learnfirebase.ecommerce.order.application.command.HandlePaymentCallbackCommand;
+import com.learnfirebase.ecommerce.order.application.model.PaymentRecord;
+import com.learnfirebase.ecommerce.order.application.port.in.HandlePaymentCallbackUseCase;
+import com.learnfirebase.ecommerce.order.application.port.out.PaymentGatewayPort;
+import com.learnfirebase.ecommerce.order.application.port.out.PaymentTransactionPort;
+import com.learnfirebase.ecommerce.order.infrastructure.payment.PaymentTransactionStatus;
+import com.learnfirebase.ecommerce.order.infrastructure.payment.VnPaySigner;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Merge-joins payment transactions ordered by order id with orders ordered by id, holding one order and the
+ * transactions of that order at a time. Both inputs must be sorted by the same (binary) ordering.
+ * <p>
+ * A paid-but-pending order is repaired by replaying the transaction's stored callback through
+ * {@link HandlePaymentCallbackUseCase}, the same path the gateway callback takes. The callback is only replayed
+ * when its signature still verifies, because a rejected callback would mark the transaction FAILED.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PaymentReconciler {
+    // Legacy statuses CREATED and CONFIRMED are pending orders as far as payment is concerned.
+    private static final Set<String> PENDING = Set.of("PENDING", "CREATED", "CONFIRMED");
+    private static final String CANCELLED = "CANCELLED";
+    private static final TypeReference<Map<String, String>> CALLBACK = new TypeReference<>() {
+    };
+
+    private final HandlePaymentCallbackUseCase handlePaymentCallbackUseCase;
+    private final PaymentGatewayPort paymentGatewayPort;
+    private final PaymentTransactionPort paymentTransactionPort;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    public ReconciliationSummary reconcile(Iterator<TransactionRow> transactions, Iterator<OrderRow> orders,
+            boolean repair, Consumer<Mismatch> report) {
+        ReconciliationSummary summary = new ReconciliationSummary(Instant.now());
+        Consumer<Mismatch> sink = mismatch -> {
+            summary.record(mismatch);
+            report.accept(mismatch);
+        };
+        OrderRow order = advance(orders, summary);
+        List<TransactionRow> group = new ArrayList<>();
+        TransactionRow pending = transactions.hasNext() ? transactions.next() : null;
+        while (pending != null) {
+            String orderId = pending.orderId();
+            group.clear();
+            while (pending != null && pending.orderId().equals(orderId)) {
+                summary.transactionScanned();
+                group.add(pending);
+                pending = transactions.hasNext() ? transactions.next() : null;
+            }
+            while (order != null && order.id().compareTo(orderId) < 0) {
+                order = advance(orders, summary);
+            }
+            OrderRow match = order != null && order.id().equals(orderId) ? order : null;
+            evaluate(match, group, repair, sink);
+        }
+        // Orders past the last transaction cannot mismatch, so the rest of the cursor is not read.
+        return summary;
+    }
+
+    private static OrderRow advance(Iterator<OrderRow> orders, ReconciliationSummary summary) {
+        if (!orders.hasNext()) {
+            return null;
+        }
+        summary.orderScanned();
+        return orders.next();
+    }
+
+    private void evaluate(OrderRow order, List<TransactionRow> transactions, boolean repair,
+            Consumer<Mismatch> sink) {
+        if (order == null) {
+            transactions.forEach(tx -> sink.accept(mismatch(MismatchType.ORPHAN_TRANSACTION, null, tx,
+                    "Order does not exist")));
+            return;
+        }
+        List<TransactionRow> successful = transactions.stream()
+                .filter(tx -> tx.status() == PaymentTransactionStatus.SUCCESS)
+                .toList();
+        if (successful.isEmpty()) {
+            return;
+        }
+        boolean amountsMatch = true;
+        for (TransactionRow tx : successful) {
+            if (order.totalAmount() == null || tx.amount() == null || tx.amount().compareTo(order.totalAmount()) != 0) {
+                amountsMatch = false;
+                sink.accept(mismatch(MismatchType.AMOUNT_MISMATCH, order, tx, "Paid amount differs from the order total"));
+            }
+        }
+        if (successful.size() > 1) {
+            successful.forEach(tx -> sink.accept(mismatch(MismatchType.DUPLICATE_PAYMENT, order, tx,
+                    successful.size() + " successful transactions for one order")));
+        }
+        TransactionRow paid = successful.get(0);
+        if (CANCELLED.equals(order.status())) {
+            sink.accept(mismatch(MismatchType.PAID_ORDER_CANCELLED, order, paid, "Refund required"));
+        } else if (order.status() == null || PENDING.contains(order.status())) {
+            Mismatch found = mismatch(MismatchType.PAID_ORDER_PENDING, order, paid, null);
+            if (!repair) {
+                sink.accept(found.withOutcome(Mismatch.Action.REPORTED, "Repair disabled"));
+            } else if (!amountsMatch) {
+                sink.accept(found.withOutcome(Mismatch.Action.REPORTED, "Not repaired because of the amount mismatch"));
+            } else {
+                sink.accept(repair(found));
+            }
+        }
+    }
+
+    private Mismatch repair(Mismatch found) {
+        Optional<Map<String, String>> callback = paymentTransactionPort.findByReference(found.reference())
+                .map(PaymentRecord::getRawPayload)
+                .flatMap(this::readCallback);
+        if (callback.isEmpty() || !callback.get().containsKey(VnPaySigner.SECURE_HASH)) {
+            return found.withOutcome(Mismatch.Action.REPORTED, "No signed callback stored for the transaction");
+        }
+        PaymentGatewayPort.PaymentVerification verification = paymentGatewayPort.verify(
+                PaymentGatewayPort.PaymentCallback.builder().parameters(callback.get()).build());
+        if (!verification.isSuccess()) {
+            return found.withOutcome(Mismatch.Action.REPORTED, "Stored callback no longer verifies: "
+                    + verification.getErrorMessage());
+        }
+        try {
+            handlePaymentCallbackUseCase.handleCallback(HandlePaymentCallbackCommand.builder()
+                    .parameters(callback.get())
+                    .build());
+            return found.withOutcome(Mismatch.Action.REPAIRED, "Callback replayed");
+        } catch (RuntimeException ex) {
+            log.warn("[PAYMENT-RECONCILIATION] Replaying callback {} for order {} failed", found.reference(),
+                    found.orderId(), ex);
+            return found.withOutcome(Mismatch.Action.REPAIR_FAILED, ex.getMessage());
+        }
+    }
+
+    private Optional<Map<String, String>> readCallback(String rawPayload) {
+        if (rawPayload == null || rawPayload.isBlank()) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(objectMapper.readValue(rawPayload, CALLBACK));
+        } catch (Exception ex) {
+            return Optional.empty();
+        }
+    }
+
+    private static Mismatch mismatch(MismatchType type, OrderRow order, TransactionRow tx, String detail) {
+        return new Mismatch(type, tx.orderId(), tx.reference(), order == null ? null : order.status(), tx.status(),
+                order == null ? null : order.totalAmount(), tx.amount(), Mismatch.Action.REPORTED, detail);
+    }
+
+    public record TransactionRow(String reference, String orderId, PaymentTransactionStatus status, BigDecimal amount) {
+    }
+
+    public record OrderRow(String id, String status, BigDecimal totalAmount) {
+    }
+}
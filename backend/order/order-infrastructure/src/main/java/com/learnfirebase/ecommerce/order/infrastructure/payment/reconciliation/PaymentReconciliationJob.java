@@ -0,0 +1,150 @@
+package com.learnfirebase.ecommerce.order.infrastructure.payment.reconciliation;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Iterator;
+import java.util.Optional;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.learnfirebase.ecommerce.order.application.model.PaymentRecord;
+import com.learnfirebase.ecommerce.order.application.port.out.PaymentTransactionPort;
+import com.learnfirebase.ecommerce.order.infrastructure.payment.PaymentTransactionStatus;
+import com.learnfirebase.ecommerce.order.infrastructure.payment.reconciliation.PaymentReconciler.OrderRow;
+import com.learnfirebase.ecommerce.order.infrastructure.payment.reconciliation.PaymentReconciler.TransactionRow;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Reconciles payment_transactions against orders on a schedule and writes a CSV report of every mismatch.
+ * Both tables are read in keyset pages in binary key order ({@code COLLATE "C"}, matching
+ * {@link String#compareTo} for the ASCII ids in use), so memory stays constant however many rows there are.
+ * Every page is a short statement of its own and no transaction spans the run, so a long run does not hold back
+ * vacuum on either table. Transactions are paged through {@link PaymentTransactionPort}.
+ * <p>
+ * Runs on one node at a time via a session advisory lock. The connection holding it stays idle outside any
+ * transaction, so it pins no snapshot; the lock is released when the run ends or the session dies.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PaymentReconciliationJob {
+    static final long ADVISORY_LOCK_KEY = 0x7061796d656e74L;
+    private static final DateTimeFormatter REPORT_NAME =
+            DateTimeFormatter.ofPattern("'payment-reconciliation-'yyyyMMdd'T'HHmmss'Z.csv'").withZone(ZoneOffset.UTC);
+
+    private static final String FIRST_ORDERS_SQL = """
+            SELECT id, status, total_amount
+            FROM orders
+            ORDER BY id COLLATE "C"
+            LIMIT ?
+            """;
+    private static final String ORDERS_AFTER_SQL = """
+            SELECT id, status, total_amount
+            FROM orders
+            WHERE id COLLATE "C" > ?
+            ORDER BY id COLLATE "C"
+            LIMIT ?
+            """;
+
+    private final DataSource dataSource;
+    private final PaymentTransactionPort paymentTransactionPort;
+    private final PaymentReconciler reconciler;
+    private final PaymentReconciliationProperties properties;
+
+    @Scheduled(cron = "${payment-reconciliation.cron:0 30 3 * * *}")
+    public void run() {
+        try {
+            reconcile().ifPresentOrElse(
+                    summary -> log.info("[PAYMENT-RECONCILIATION] Finished: {}", summary),
+                    () -> log.debug("[PAYMENT-RECONCILIATION] Running on another node"));
+        } catch (Exception ex) {
+            log.error("[PAYMENT-RECONCILIATION] Reconciliation failed", ex);
+        }
+    }
+
+    /**
+     * Runs one reconciliation, or returns empty when another node holds the lock.
+     */
+    public Optional<ReconciliationSummary> reconcile() throws Exception {
+        Instant startedAt = Instant.now();
+        try (Connection lock = dataSource.getConnection()) {
+            lock.setAutoCommit(true);
+            if (!advisoryLock(lock, "SELECT pg_try_advisory_lock(?)")) {
+                return Optional.empty();
+            }
+            try {
+                Path target = Path.of(properties.getReportDirectory(), REPORT_NAME.format(startedAt));
+                try (ReconciliationReportWriter report = new ReconciliationReportWriter(target)) {
+                    ReconciliationSummary summary = reconciler.reconcile(
+                            transactions(startedAt.minus(properties.getSettleGrace())), orders(),
+                            properties.isRepair(), report);
+                    Path written = report.complete();
+                    log.info("[PAYMENT-RECONCILIATION] {} mismatches written to {}", summary.getTotalMismatches(),
+                            written);
+                    return Optional.of(summary);
+                }
+            } finally {
+                advisoryLock(lock, "SELECT pg_advisory_unlock(?)");
+            }
+        }
+    }
+
+    private Iterator<TransactionRow> transactions(Instant updatedBefore) {
+        int pageSize = properties.getPageSize();
+        return new KeysetPages<>(pageSize, last -> paymentTransactionPort
+                .findUpdatedBefore(updatedBefore, last == null ? null : last.orderId(),
+                        last == null ? null : last.reference(), pageSize)
+                .stream()
+                .map(PaymentReconciliationJob::transaction)
+                .toList());
+    }
+
+    private Iterator<OrderRow> orders() {
+        int pageSize = properties.getPageSize();
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        return new KeysetPages<>(pageSize, last -> last == null
+                ? jdbcTemplate.query(FIRST_ORDERS_SQL, PaymentReconciliationJob::order, pageSize)
+                : jdbcTemplate.query(ORDERS_AFTER_SQL, PaymentReconciliationJob::order, last.id(), pageSize));
+    }
+
+    private static boolean advisoryLock(Connection connection, String sql) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setLong(1, ADVISORY_LOCK_KEY);
+            try (ResultSet rs = statement.executeQuery()) {
+                return rs.next() && rs.getBoolean(1);
+            }
+        }
+    }
+
+    private static TransactionRow transaction(PaymentRecord record) {
+        return new TransactionRow(
+                record.getReference(),
+                record.getOrderId(),
+                PaymentTransactionStatus.valueOf(record.getStatus().name()),
+                record.getAmount());
+    }
+
+    private static OrderRow order(ResultSet rs, int rowNum) throws SQLException {
+        String total = rs.getString("total_amount");
+        BigDecimal totalAmount;
+        try {
+            totalAmount = total == null ? null : new BigDecimal(total.trim());
+        } catch (NumberFormatException ex) {
+            totalAmount = null;
+        }
+        return new OrderRow(rs.getString("id"), rs.getString("status"), totalAmount);
+    }
+}
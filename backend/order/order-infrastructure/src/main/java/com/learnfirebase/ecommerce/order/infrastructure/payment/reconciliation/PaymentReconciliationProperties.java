@@ -0,0 +1,33 @@
+package com.learnfirebase.ecommerce.order.infrastructure.payment.reconciliation;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+@Data
+@ConfigurationProperties(prefix = "payment-reconciliation")
+public class PaymentReconciliationProperties {
+    /**
+     * When the reconciliation runs; "-" disables the schedule.
+     */
+    private String cron = "0 30 3 * * *";
+    /**
+     * Rows read from each table per keyset page. Bounds the memory of a run regardless of table size.
+     */
+    private int pageSize = 1000;
+    /**
+     * Transactions updated more recently than this are left out, so callbacks still being handled are not
+     * reported (or replayed) as mismatches.
+     */
+    private Duration settleGrace = Duration.ofMinutes(15);
+    /**
+     * Replay the stored, signed callback of paid transactions whose order is still pending.
+     */
+    private boolean repair = true;
+    /**
+     * Directory the CSV reports are written to.
+     */
+    private String reportDirectory = "reports/payment-reconciliation";
+}
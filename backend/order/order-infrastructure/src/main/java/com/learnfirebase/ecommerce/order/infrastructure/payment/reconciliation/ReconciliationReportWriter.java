@@ -0,0 +1,73 @@
+package com.learnfirebase.ecommerce.order.infrastructure.payment.reconciliation;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.function.Consumer;
+
+/**
+ * Streams mismatches into a CSV file as they are found. The report is written under a temporary name and
+ * moved into place by {@link #complete()}, so a half-written report is never mistaken for a finished one.
+ */
+final class ReconciliationReportWriter implements Consumer<Mismatch>, AutoCloseable {
+    private static final String HEADER =
+            "type,order_id,reference,order_status,transaction_status,order_amount,transaction_amount,action,detail";
+
+    private final Path target;
+    private final Path partial;
+    private final BufferedWriter writer;
+
+    ReconciliationReportWriter(Path target) throws IOException {
+        Files.createDirectories(target.toAbsolutePath().getParent());
+        this.target = target;
+        this.partial = target.resolveSibling(target.getFileName() + ".partial");
+        this.writer = Files.newBufferedWriter(partial, StandardCharsets.UTF_8);
+        writer.write(HEADER);
+        writer.newLine();
+    }
+
+    @Override
+    public void accept(Mismatch mismatch) {
+        try {
+            writer.write(String.join(",",
+                    mismatch.type().name(),
+                    csv(mismatch.orderId()),
+                    csv(mismatch.reference()),
+                    csv(mismatch.orderStatus()),
+                    mismatch.transactionStatus() == null ? "" : mismatch.transactionStatus().name(),
+                    mismatch.orderAmount() == null ? "" : mismatch.orderAmount().toPlainString(),
+                    mismatch.transactionAmount() == null ? "" : mismatch.transactionAmount().toPlainString(),
+                    mismatch.action().name(),
+                    csv(mismatch.detail())));
+            writer.newLine();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    Path complete() throws IOException {
+        writer.close();
+        Files.move(partial, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return target;
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+        Files.deleteIfExists(partial);
+    }
+
+    private static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
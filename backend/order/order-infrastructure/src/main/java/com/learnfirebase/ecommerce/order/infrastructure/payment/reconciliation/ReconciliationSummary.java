@@ -0,0 +1,55 @@
+package com.learnfirebase.ecommerce.order.infrastructure.payment.reconciliation;
+
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.Map;
+
+import lombok.Getter;
+
+/**
+ * Running totals of one reconciliation run; only counters, so it stays small however many rows are scanned.
+ */
+@Getter
+public final class ReconciliationSummary {
+    private final Instant startedAt;
+    private final Map<MismatchType, Long> mismatches = new EnumMap<>(MismatchType.class);
+    private long transactionsScanned;
+    private long ordersScanned;
+    private long repaired;
+    private long repairFailed;
+
+    ReconciliationSummary(Instant startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    void transactionScanned() {
+        transactionsScanned++;
+    }
+
+    void orderScanned() {
+        ordersScanned++;
+    }
+
+    void record(Mismatch mismatch) {
+        mismatches.merge(mismatch.type(), 1L, Long::sum);
+        if (mismatch.action() == Mismatch.Action.REPAIRED) {
+            repaired++;
+        } else if (mismatch.action() == Mismatch.Action.REPAIR_FAILED) {
+            repairFailed++;
+        }
+    }
+
+    public long getMismatchCount(MismatchType type) {
+        return mismatches.getOrDefault(type, 0L);
+    }
+
+    public long getTotalMismatches() {
+        return mismatches.values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    @Override
+    public String toString() {
+        return "transactions=" + transactionsScanned + ", orders=" + ordersScanned + ", mismatches=" + mismatches
+                + ", repaired=" + repaired + ", repairFailed=" + repairFailed;
+    }
+}
@@ -0,0 +1,84 @@
+package com.learnfirebase.ecommerce.order.infrastructure.persistence;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.learnfirebase.ecommerce.order.domain.event.OrderCancelled;
+import com.learnfirebase.ecommerce.order.domain.model.OrderStatus;
+import com.learnfirebase.ecommerce.order.infrastructure.outbox.OutboxWorker;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Cancels many PENDING orders with one set-based update and stores their OrderCancelled events in the same
+ * transaction, for callers that already know the orders must go (expired stock reservations).
+ */
+@Repository
+@RequiredArgsConstructor
+public class ExpiredOrderCancellationRepository {
+    private final JdbcTemplate jdbcTemplate;
+    private final OutboxWorker outboxWorker;
+
+    /**
+     * Cancels those of the given orders that are still PENDING (including the legacy CREATED and CONFIRMED
+     * statuses). Orders in any other state are left untouched and reported with their stored status; ids
+     * without an order are reported with a null status.
+     */
+    @Transactional
+    public List<Outcome> cancelPending(Collection<String> orderIds, String reason) {
+        if (orderIds.isEmpty()) {
+            return List.of();
+        }
+        Instant now = Instant.now();
+        // The outer SELECT reads the snapshot taken before the update, so status is the state each order was in.
+        List<Outcome> outcomes = jdbcTemplate.query("""
+                WITH requested AS (
+                    SELECT DISTINCT unnest(CAST(? AS varchar[])) AS id),
+                cancelled AS (
+                    UPDATE orders o
+                    SET status = 'CANCELLED', updated_at = ?
+                    FROM requested r
+                    WHERE o.id = r.id AND o.status IN ('PENDING', 'CREATED', 'CONFIRMED')
+                    RETURNING o.id, o.user_id)
+                SELECT r.id, o.status, c.id AS cancelled_id, c.user_id
+                FROM requested r
+                LEFT JOIN orders o ON o.id = r.id
+                LEFT JOIN cancelled c ON c.id = r.id
+                """, ps -> {
+            ps.setArray(1, ps.getConnection().createArrayOf("varchar", orderIds.toArray()));
+            ps.setTimestamp(2, Timestamp.from(now));
+        }, (rs, rowNum) -> rs.getString("cancelled_id") != null
+                ? new Outcome(rs.getString("id"), rs.getString("user_id"), OrderStatus.CANCELLED.name(), true)
+                : new Outcome(rs.getString("id"), null, rs.getString("status"), false));
+
+        Map<String, OrderCancelled> events = new LinkedHashMap<>();
+        for (Outcome outcome : outcomes) {
+            if (outcome.cancelled()) {
+                events.put(outcome.orderId(), new OrderCancelled(outcome.orderId(), outcome.userId(), reason, now));
+            }
+        }
+        outboxWorker.saveRawEvents(OrderCancelled.class.getSimpleName(), events);
+        return outcomes;
+    }
+
+    /**
+     * Result for one requested order. {@code cancelled} is true only for orders this call moved to CANCELLED.
+     */
+    public record Outcome(String orderId, String userId, String status, boolean cancelled) {
+        public boolean exists() {
+            return status != null;
+        }
+
+        public boolean isCancelled() {
+            return OrderStatus.CANCELLED.name().equals(status);
+        }
+    }
+}
@@ -1,15 +1,18 @@
 package com.learnfirebase.ecommerce.order.infrastructure.persistence;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Repository;
 
 import com.learnfirebase.ecommerce.common.domain.valueobject.Money;
+import com.learnfirebase.ecommerce.order.application.model.OrderCursor;
 import com.learnfirebase.ecommerce.order.application.port.out.OrderRepository;
 import com.learnfirebase.ecommerce.order.domain.model.Order;
 import com.learnfirebase.ecommerce.order.domain.model.OrderId;
@@ -52,10 +55,22 @@ public class OrderRepositoryImpl implements OrderRepository {
     }
 
     @Override
-    public List<Order> findBySellerId(String sellerId, int page, int size) {
-        return orderJpaRepository.findBySellerId(sellerId, PageRequest.of(page, size)).stream()
-                .map(this::toDomain)
-                .collect(Collectors.toList());
+    public List<Order> findAllByIds(List<String> ids) {
+        return loadInOrder(ids);
+    }
+
+    @Override
+    public List<Order> findAllAfter(OrderCursor after, int limit) {
+        return loadInOrder(after == null
+                ? orderJpaRepository.findFirstIds(limit)
+                : orderJpaRepository.findIdsAfter(after.getCreatedAt(), after.getId(), limit));
+    }
+
+    @Override
+    public List<Order> findByUserIdAfter(String userId, OrderCursor after, int limit) {
+        return loadInOrder(after == null
+                ? orderJpaRepository.findFirstIdsByUserId(userId, limit)
+                : orderJpaRepository.findIdsByUserIdAfter(userId, after.getCreatedAt(), after.getId(), limit));
     }
 
     @Override
@@ -68,12 +83,20 @@ public class OrderRepositoryImpl implements OrderRepository {
         return orderJpaRepository.countByUserId(userId);
     }
 
-    @Override
-    public long countBySellerId(String sellerId) {
-        return orderJpaRepository.countBySellerId(sellerId);
+    private List<Order> loadInOrder(List<String> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<String, JpaOrderEntity> byId = orderJpaRepository.findAllWithItemsByIdIn(ids).stream()
+                .collect(Collectors.toMap(JpaOrderEntity::getId, Function.identity()));
+        return ids.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .map(this::toDomain)
+                .collect(Collectors.toList());
     }
 
-    private JpaOrderEntity toEntity(Order order) {
+    JpaOrderEntity toEntity(Order order) {
         JpaOrderEntity entity = JpaOrderEntity.builder()
                 .id(order.getId().getValue())
                 .userId(order.getUserId().getValue())
@@ -107,7 +130,7 @@ public class OrderRepositoryImpl implements OrderRepository {
         return entity;
     }
 
-    private Order toDomain(JpaOrderEntity entity) {
+    Order toDomain(JpaOrderEntity entity) {
         return Order.builder()
                 .id(new OrderId(entity.getId()))
                 .userId(new UserId(entity.getUserId()))
@@ -0,0 +1,95 @@
+package com.learnfirebase.ecommerce.order.infrastructure.persistence;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.learnfirebase.ecommerce.order.application.model.OrderCursor;
+import com.learnfirebase.ecommerce.order.application.model.SellerOrderView;
+import com.learnfirebase.ecommerce.order.application.port.out.SellerOrderViewPort;
+
+import lombok.RequiredArgsConstructor;
+
+@Repository
+@RequiredArgsConstructor
+public class SellerOrderViewRepository implements SellerOrderViewPort {
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void upsert(List<SellerOrderView> views, Instant changedAt) {
+        if (views.isEmpty()) {
+            return;
+        }
+        Timestamp updatedAt = Timestamp.from(changedAt);
+        jdbcTemplate.batchUpdate("""
+                INSERT INTO seller_order_view
+                    (seller_id, order_id, status, seller_subtotal, currency, item_count, created_at, updated_at)
+                VALUES (?, ?, ?, ?, ?, ?, ?, ?)
+                ON CONFLICT (seller_id, order_id) DO UPDATE SET
+                    status = EXCLUDED.status,
+                    seller_subtotal = EXCLUDED.seller_subtotal,
+                    currency = EXCLUDED.currency,
+                    item_count = EXCLUDED.item_count,
+                    updated_at = EXCLUDED.updated_at
+                WHERE seller_order_view.updated_at <= EXCLUDED.updated_at
+                """, views, views.size(), (ps, view) -> {
+            ps.setString(1, view.getSellerId());
+            ps.setString(2, view.getOrderId());
+            ps.setString(3, view.getStatus());
+            ps.setBigDecimal(4, view.getSellerSubtotal());
+            ps.setString(5, view.getCurrency());
+            ps.setInt(6, view.getItemCount());
+            ps.setTimestamp(7, Timestamp.from(view.getCreatedAt()));
+            ps.setTimestamp(8, updatedAt);
+        });
+    }
+
+    @Override
+    public int updateStatus(String orderId, String status, Instant changedAt) {
+        Integer rows = jdbcTemplate.queryForObject("""
+                WITH updated AS (
+                    UPDATE seller_order_view SET status = ?, updated_at = ?
+                    WHERE order_id = ? AND updated_at <= ?
+                    RETURNING 1
+                )
+                SELECT (SELECT COUNT(*) FROM updated) + (
+                    SELECT COUNT(*) FROM seller_order_view WHERE order_id = ? AND updated_at > ?
+                )
+                """, Integer.class, status, Timestamp.from(changedAt), orderId, Timestamp.from(changedAt), orderId,
+                Timestamp.from(changedAt));
+        return rows != null ? rows : 0;
+    }
+
+    @Override
+    public List<String> findOrderIds(String sellerId, int page, int size) {
+        return jdbcTemplate.queryForList("""
+                SELECT order_id FROM seller_order_view
+                WHERE seller_id = ?
+                ORDER BY created_at DESC, order_id DESC
+                LIMIT ? OFFSET ?
+                """, String.class, sellerId, size, (long) page * size);
+    }
+
+    @Override
+    public List<String> findOrderIdsAfter(String sellerId, OrderCursor after, int limit) {
+        if (after == null) {
+            return findOrderIds(sellerId, 0, limit);
+        }
+        return jdbcTemplate.queryForList("""
+                SELECT order_id FROM seller_order_view
+                WHERE seller_id = ? AND (created_at, order_id) < (?, ?)
+                ORDER BY created_at DESC, order_id DESC
+                LIMIT ?
+                """, String.class, sellerId, Timestamp.from(after.getCreatedAt()), after.getId(), limit);
+    }
+
+    @Override
+    public long countBySellerId(String sellerId) {
+        Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM seller_order_view WHERE seller_id = ?",
+                Long.class, sellerId);
+        return count != null ? count : 0;
+    }
+}
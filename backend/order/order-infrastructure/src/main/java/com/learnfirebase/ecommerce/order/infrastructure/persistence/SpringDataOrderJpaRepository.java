@@ -1,5 +1,9 @@
 package com.learnfirebase.ecommerce.order.infrastructure.persistence;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -9,11 +13,42 @@ import org.springframework.data.repository.query.Param;
 public interface SpringDataOrderJpaRepository extends JpaRepository<JpaOrderEntity, String> {
     Page<JpaOrderEntity> findByUserId(String userId, Pageable pageable);
 
-    @Query("SELECT distinct o FROM JpaOrderEntity o JOIN o.items i WHERE i.sellerId = :sellerId")
-    Page<JpaOrderEntity> findBySellerId(@Param("sellerId") String sellerId, Pageable pageable);
+    // Keyset queries only return ids; the orders and their items are then loaded with one fetch join.
+    @Query(value = """
+            SELECT o.id FROM orders o
+            ORDER BY o.created_at DESC, o.id DESC
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<String> findFirstIds(@Param("limit") int limit);
 
-    long countByUserId(String userId);
+    @Query(value = """
+            SELECT o.id FROM orders o
+            WHERE (o.created_at, o.id) < (:createdAt, :id)
+            ORDER BY o.created_at DESC, o.id DESC
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<String> findIdsAfter(@Param("createdAt") Instant createdAt, @Param("id") String id,
+            @Param("limit") int limit);
+
+    @Query(value = """
+            SELECT o.id FROM orders o
+            WHERE o.user_id = :userId
+            ORDER BY o.created_at DESC, o.id DESC
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<String> findFirstIdsByUserId(@Param("userId") String userId, @Param("limit") int limit);
 
-    @Query("SELECT count(distinct o) FROM JpaOrderEntity o JOIN o.items i WHERE i.sellerId = :sellerId")
-    long countBySellerId(@Param("sellerId") String sellerId);
+    @Query(value = """
+            SELECT o.id FROM orders o
+            WHERE o.user_id = :userId AND (o.created_at, o.id) < (:createdAt, :id)
+            ORDER BY o.created_at DESC, o.id DESC
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<String> findIdsByUserIdAfter(@Param("userId") String userId, @Param("createdAt") Instant createdAt,
+            @Param("id") String id, @Param("limit") int limit);
+
+    @Query("SELECT DISTINCT o FROM JpaOrderEntity o LEFT JOIN FETCH o.items WHERE o.id IN :ids")
+    List<JpaOrderEntity> findAllWithItemsByIdIn(@Param("ids") Collection<String> ids);
+
+    long countByUserId(String userId);
 }
@@ -1,38 +1,88 @@
 package com.learnfirebase.ecommerce.order.infrastructure.product;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.springframework.stereotype.Component;
 
 import com.learnfirebase.ecommerce.order.application.port.out.LoadProductPort;
+import com.learnfirebase.ecommerce.product.application.dto.ProductPricingDto;
 import com.learnfirebase.ecommerce.product.application.port.out.ProductRepository;
-import com.learnfirebase.ecommerce.product.domain.model.ProductId;
-import com.learnfirebase.ecommerce.product.domain.model.Product;
+import com.learnfirebase.ecommerce.promotion.application.dto.FlashSaleProductSnapshot;
+import com.learnfirebase.ecommerce.promotion.application.port.out.FlashSaleCachePort;
 
 import lombok.RequiredArgsConstructor;
 
 @Component
 @RequiredArgsConstructor
 public class ProductPricingClient implements LoadProductPort {
+    private static final long CACHE_TTL_MILLIS = 5_000;
+    private static final int MAX_CACHE_ENTRIES = 10_000;
+
     private final ProductRepository productRepository;
+    private final FlashSaleCachePort flashSaleCachePort;
+    private final Map<String, CachedPricing> cache = new ConcurrentHashMap<>();
 
     @Override
-    public Map<String, ProductInfo> loadProducts(String currency, Iterable<String> productIds) {
+    public Map<String, ProductInfo> loadProducts(String currency, Iterable<String> productIds,
+            Set<String> flashSaleProductIds) {
+        long now = System.currentTimeMillis();
         Map<String, ProductInfo> result = new HashMap<>();
+        List<String> misses = new ArrayList<>();
         for (String id : productIds) {
-            Optional<Product> productOpt = productRepository.findById(new ProductId(id));
-            if (productOpt.isPresent()) {
-                Product p = productOpt.get();
-                result.put(id, ProductInfo.builder()
-                        .id(p.getId().getValue())
-                        .price(p.getPrice().getAmount())
-                        .currency(p.getPrice().getCurrency())
-                        .sellerId(p.getSellerId())
+            CachedPricing cached = cache.get(id);
+            if (cached != null && cached.expiresAt() > now) {
+                result.put(id, cached.info());
+            } else {
+                misses.add(id);
+            }
+        }
+        if (misses.isEmpty()) {
+            return result;
+        }
+
+        // Products of pre-warmed flash sales are in Redis, so a sale opening with a cold local cache stays off the DB.
+        // Only flash-sale lines may use them: they are priced by the sale, while the snapshot keeps the product
+        // price of pre-warm time. For the same reason they are not put in the local cache other lines read.
+        List<String> flashSaleMisses = misses.stream().filter(flashSaleProductIds::contains).toList();
+        if (!flashSaleMisses.isEmpty()) {
+            Map<String, FlashSaleProductSnapshot> snapshots = flashSaleCachePort.getProductSnapshots(flashSaleMisses);
+            for (FlashSaleProductSnapshot snapshot : snapshots.values()) {
+                result.put(snapshot.getProductId(), ProductInfo.builder()
+                        .id(snapshot.getProductId())
+                        .price(snapshot.getPrice())
+                        .currency(snapshot.getCurrency())
+                        .sellerId(snapshot.getSellerId())
                         .build());
             }
+            misses.removeAll(snapshots.keySet());
+            if (misses.isEmpty()) {
+                return result;
+            }
+        }
+
+        // One projection query for every uncached product instead of a full entity load per id.
+        List<ProductPricingDto> loaded = productRepository.findPricingByIds(misses);
+        if (cache.size() + loaded.size() > MAX_CACHE_ENTRIES) {
+            cache.clear();
+        }
+        for (ProductPricingDto pricing : loaded) {
+            ProductInfo info = ProductInfo.builder()
+                    .id(pricing.getProductId())
+                    .price(pricing.getPrice())
+                    .currency(pricing.getCurrency())
+                    .sellerId(pricing.getSellerId())
+                    .build();
+            cache.put(pricing.getProductId(), new CachedPricing(info, now + CACHE_TTL_MILLIS));
+            result.put(pricing.getProductId(), info);
         }
         return result;
     }
+
+    private record CachedPricing(ProductInfo info, long expiresAt) {
+    }
 }
@@ -0,0 +1,132 @@
+package com.learnfirebase.ecommerce.order.infrastructure.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.learnfirebase.ecommerce.order.application.dto.OrderDto;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class TwoLevelOrderCacheTest {
+    private StringRedisTemplate redisTemplate;
+    private ValueOperations<String, String> valueOperations;
+    private SimpleMeterRegistry meterRegistry;
+    private TwoLevelOrderCache cache;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        redisTemplate = mock(StringRedisTemplate.class);
+        valueOperations = mock(ValueOperations.class);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new TwoLevelOrderCache(redisTemplate, new OrderCacheProperties(),
+                new ObjectMapper().registerModule(new JavaTimeModule()), meterRegistry);
+    }
+
+    @Test
+    void putWritesThroughAndServesLaterReadsFromMemory() {
+        cache.put(order());
+
+        assertThat(cache.get("order-1")).contains(order());
+        verify(valueOperations).set(eq("order:dto:order-1"), anyString(), eq(Duration.ofMinutes(10)));
+        verify(redisTemplate).convertAndSend(eq(TwoLevelOrderCache.INVALIDATION_CHANNEL), anyString());
+        verify(valueOperations, never()).get(anyString());
+        assertThat(meterRegistry.get("order.cache.hits").tag("level", "local").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void redisCopyIsReadBackIntoAnEqualDto() {
+        cache.put(order());
+        ArgumentCaptor<String> json = ArgumentCaptor.forClass(String.class);
+        verify(valueOperations).set(eq("order:dto:order-1"), json.capture(), any(Duration.class));
+
+        TwoLevelOrderCache otherNode = new TwoLevelOrderCache(redisTemplate, new OrderCacheProperties(),
+                new ObjectMapper().registerModule(new JavaTimeModule()), meterRegistry);
+        when(valueOperations.get("order:dto:order-1")).thenReturn(json.getValue());
+
+        assertThat(otherNode.get("order-1")).contains(order());
+        assertThat(meterRegistry.get("order.cache.hits").tag("level", "redis").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void invalidationFromAnotherNodeDropsTheLocalCopy() {
+        cache.put(order());
+
+        cache.onMessage(new DefaultMessage(TwoLevelOrderCache.INVALIDATION_CHANNEL.getBytes(StandardCharsets.UTF_8),
+                "other-node|order-1".getBytes(StandardCharsets.UTF_8)), null);
+
+        assertThat(cache.get("order-1")).isEmpty();
+        verify(valueOperations, times(1)).get("order:dto:order-1");
+        assertThat(meterRegistry.get("order.cache.misses").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void fillCreatesTheEntryWithoutBroadcasting() {
+        when(valueOperations.setIfAbsent(eq("order:dto:order-1"), anyString(), eq(Duration.ofMinutes(10))))
+                .thenReturn(true);
+
+        cache.fill(order());
+
+        assertThat(cache.get("order-1")).contains(order());
+        verify(valueOperations, never()).set(anyString(), anyString(), any(Duration.class));
+        verify(redisTemplate, never()).convertAndSend(anyString(), anyString());
+    }
+
+    @Test
+    void fillNeverReplacesACopyStoredByAWriter() {
+        when(valueOperations.setIfAbsent(eq("order:dto:order-1"), anyString(), any(Duration.class))).thenReturn(false);
+
+        cache.fill(order());
+
+        assertThat(cache.get("order-1")).isEmpty();
+        verify(valueOperations).get("order:dto:order-1");
+        verify(redisTemplate, never()).convertAndSend(anyString(), anyString());
+    }
+
+    @Test
+    void redisOutageIsTreatedAsAMiss() {
+        when(valueOperations.get("order:dto:order-2")).thenThrow(new IllegalStateException("Redis down"));
+
+        assertThat(cache.get("order-2")).isEmpty();
+    }
+
+    private OrderDto order() {
+        return OrderDto.builder()
+                .id("order-1")
+                .userId("buyer-1")
+                .status("PAID")
+                .currency("VND")
+                .totalAmount("100000.00")
+                .returnStatus("NONE")
+                .createdAt(Instant.parse("2026-06-15T00:00:00Z"))
+                .updatedAt(Instant.parse("2026-06-15T00:05:00Z"))
+                .item(OrderDto.OrderItemDto.builder()
+                        .productId("product-1")
+                        .sellerId("seller-1")
+                        .quantity(2)
+                        .price("50000.00")
+                        .build())
+                .build();
+    }
+}
@@ -0,0 +1,66 @@
+package com.learnfirebase.ecommerce.order.infrastructure.idempotency;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.learnfirebase.ecommerce.order.application.model.IdempotencyRecord;
+import com.learnfirebase.ecommerce.order.application.model.IdempotencyStatus;
+
+class RedisIdempotencyStoreTest {
+    private ValueOperations<String, String> valueOperations;
+    private RedisIdempotencyStore store;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+        valueOperations = mock(ValueOperations.class);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        store = new RedisIdempotencyStore(redisTemplate, mock(JdbcTemplate.class), new IdempotencyProperties(),
+                new ObjectMapper());
+    }
+
+    @Test
+    void freeKeyIsOwnedByTheCaller() {
+        when(valueOperations.setIfAbsent(anyString(), anyString(), any(Duration.class))).thenReturn(true);
+
+        assertThat(store.begin(inProgress())).isEmpty();
+    }
+
+    @Test
+    void keyThatKeepsChangingHandsIsReportedInFlight() {
+        // Every SET NX loses and every GET finds the key already released again.
+        when(valueOperations.setIfAbsent(anyString(), anyString(), any(Duration.class))).thenReturn(false);
+        when(valueOperations.get(anyString())).thenReturn(null);
+
+        Optional<IdempotencyRecord> holder = store.begin(inProgress());
+
+        assertThat(holder).isPresent();
+        assertThat(holder.get().getStatus()).isEqualTo(IdempotencyStatus.IN_PROGRESS);
+        assertThat(holder.get().getFingerprint()).isEqualTo("fingerprint-1");
+    }
+
+    private static IdempotencyRecord inProgress() {
+        return IdempotencyRecord.builder()
+                .userId("user-1")
+                .key("key-1")
+                .fingerprint("fingerprint-1")
+                .status(IdempotencyStatus.IN_PROGRESS)
+                .createdAt(Instant.now())
+                .build();
+    }
+}
@@ -0,0 +1,108 @@
+package com.learnfirebase.ecommerce.order.infrastructure.intake;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.learnfirebase.ecommerce.order.application.command.CreateOrderCommand;
+import com.learnfirebase.ecommerce.order.application.model.OrderTicket;
+import com.learnfirebase.ecommerce.order.application.model.OrderTicketStatus;
+import com.learnfirebase.ecommerce.order.application.model.QueuedOrder;
+import com.learnfirebase.ecommerce.order.application.port.in.ProcessQueuedOrdersUseCase;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class PartitionedOrderIntakeQueueTest {
+    private PartitionedOrderIntakeQueue queue;
+
+    @AfterEach
+    void tearDown() {
+        if (queue != null) {
+            queue.stop();
+        }
+    }
+
+    @Test
+    void ordersOfOneUserAreProcessedInSubmissionOrder() throws InterruptedException {
+        Map<String, List<String>> processed = new ConcurrentHashMap<>();
+        CountDownLatch done = new CountDownLatch(300);
+        queue = queue(4, 1_000, batch -> batch.forEach(order -> {
+            processed.computeIfAbsent(order.getTicket().getUserId(), user -> new CopyOnWriteArrayList<>())
+                    .add(order.getTicket().getTicketId());
+            done.countDown();
+        }));
+        queue.start();
+
+        for (int i = 0; i < 100; i++) {
+            for (String user : List.of("buyer-1", "buyer-2", "buyer-3")) {
+                assertThat(queue.offer(order(user, user + "-" + i))).isTrue();
+            }
+        }
+
+        assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+        for (String user : List.of("buyer-1", "buyer-2", "buyer-3")) {
+            assertThat(processed.get(user)).hasSize(100);
+            for (int i = 0; i < 100; i++) {
+                assertThat(processed.get(user).get(i)).isEqualTo(user + "-" + i);
+            }
+        }
+    }
+
+    @Test
+    void fullPartitionRejectsNewOrders() throws InterruptedException {
+        CountDownLatch processing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        queue = queue(1, 1, batch -> {
+            processing.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        queue.start();
+
+        assertThat(queue.offer(order("buyer-1", "taken"))).isTrue();
+        assertThat(processing.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(queue.offer(order("buyer-1", "queued"))).isTrue();
+        assertThat(queue.offer(order("buyer-1", "rejected"))).isFalse();
+
+        release.countDown();
+    }
+
+    @Test
+    void stoppedQueueRejectsOrders() {
+        queue = queue(1, 10, batch -> { });
+
+        assertThat(queue.offer(order("buyer-1", "ticket-1"))).isFalse();
+    }
+
+    private static PartitionedOrderIntakeQueue queue(int partitions, int capacity, ProcessQueuedOrdersUseCase processor) {
+        OrderIntakeProperties properties = new OrderIntakeProperties();
+        properties.setAsync(true);
+        properties.setPartitions(partitions);
+        properties.setQueueCapacity(capacity);
+        properties.setBatchLinger(Duration.ofMillis(5));
+        return new PartitionedOrderIntakeQueue(processor, properties, new SimpleMeterRegistry());
+    }
+
+    private static QueuedOrder order(String userId, String ticketId) {
+        OrderTicket ticket = OrderTicket.builder()
+                .ticketId(ticketId)
+                .userId(userId)
+                .status(OrderTicketStatus.QUEUED)
+                .createdAt(Instant.now())
+                .build();
+        return new QueuedOrder(ticket, CreateOrderCommand.builder().userId(userId).currency("VND").build());
+    }
+}
@@ -0,0 +1,130 @@
+package com.learnfirebase.ecommerce.order.infrastructure.inventory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import com.learnfirebase.ecommerce.common.infrastructure.redis.ShardedCounter;
+import com.learnfirebase.ecommerce.common.infrastructure.redis.StockLeases;
+
+@Testcontainers(disabledWithoutDocker = true)
+class InventoryReservationAdapterTest {
+
+    @Container
+    static GenericContainer<?> redis = new GenericContainer<>(DockerImageName.parse("redis:7-alpine"))
+            .withExposedPorts(6379);
+
+    private static LettuceConnectionFactory connectionFactory;
+    private static StringRedisTemplate redisTemplate;
+
+    private InventoryReservationAdapter adapter;
+
+    @BeforeAll
+    static void connect() {
+        connectionFactory = new LettuceConnectionFactory(
+                new RedisStandaloneConfiguration(redis.getHost(), redis.getMappedPort(6379)));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        redisTemplate = new StringRedisTemplate(connectionFactory);
+    }
+
+    @AfterAll
+    static void disconnect() {
+        connectionFactory.destroy();
+    }
+
+    @BeforeEach
+    void setUp() {
+        redisTemplate.execute(connection -> {
+            connection.serverCommands().flushDb();
+            return null;
+        }, true);
+        adapter = new InventoryReservationAdapter(redisTemplate, mock(ReservationExpirySweeper.class),
+                mock(ShardedCounter.class), mock(StockLeases.class));
+    }
+
+    @Test
+    void everyLineIsReservedTogether() {
+        stock("sku-1", 5);
+        stock("sku-2", 3);
+
+        assertThat(adapter.reserve("order-1", lines("sku-1", 2, "sku-2", 3))).isTrue();
+
+        assertThat(counter(InventoryReservationAdapter.availableKey("sku-1"))).isEqualTo(3);
+        assertThat(counter(InventoryReservationAdapter.reservedKey("sku-1"))).isEqualTo(2);
+        assertThat(counter(InventoryReservationAdapter.availableKey("sku-2"))).isZero();
+        assertThat(counter(InventoryReservationAdapter.reservedKey("sku-2"))).isEqualTo(3);
+        assertThat(redisTemplate.<String, String>opsForHash()
+                .entries(InventoryReservationAdapter.reservationKey("order-1")))
+                .containsExactlyInAnyOrderEntriesOf(Map.of("sku-1", "2", "sku-2", "3"));
+        assertThat(redisTemplate.opsForZSet()
+                .score(InventoryReservationAdapter.RESERVATION_EXPIRATIONS, "order-1")).isNotNull();
+        assertThat(redisTemplate.opsForSet().members(InventoryReservationAdapter.DIRTY_STOCK))
+                .containsExactlyInAnyOrder("DEFAULT_INVENTORY:sku-1", "DEFAULT_INVENTORY:sku-2");
+    }
+
+    @Test
+    void oneShortLineLeavesEveryCounterUntouched() {
+        stock("sku-1", 5);
+        stock("sku-2", 1);
+
+        assertThat(adapter.reserve("order-1", lines("sku-1", 2, "sku-2", 3))).isFalse();
+
+        assertThat(counter(InventoryReservationAdapter.availableKey("sku-1"))).isEqualTo(5);
+        assertThat(counter(InventoryReservationAdapter.availableKey("sku-2"))).isEqualTo(1);
+        assertThat(redisTemplate.hasKey(InventoryReservationAdapter.reservedKey("sku-1"))).isFalse();
+        assertThat(redisTemplate.hasKey(InventoryReservationAdapter.reservationKey("order-1"))).isFalse();
+        assertThat(redisTemplate.opsForZSet()
+                .score(InventoryReservationAdapter.RESERVATION_EXPIRATIONS, "order-1")).isNull();
+        assertThat(redisTemplate.hasKey(InventoryReservationAdapter.DIRTY_STOCK)).isFalse();
+    }
+
+    @Test
+    void skuWithoutStockCannotBeReserved() {
+        assertThat(adapter.reserve("order-1", lines("sku-1", 1))).isFalse();
+
+        assertThat(redisTemplate.hasKey(InventoryReservationAdapter.availableKey("sku-1"))).isFalse();
+    }
+
+    @Test
+    void releaseGivesTheUnitsBack() {
+        stock("sku-1", 5);
+        adapter.reserve("order-1", lines("sku-1", 4));
+
+        adapter.release("order-1", null);
+
+        assertThat(counter(InventoryReservationAdapter.availableKey("sku-1"))).isEqualTo(5);
+        assertThat(counter(InventoryReservationAdapter.reservedKey("sku-1"))).isZero();
+        assertThat(redisTemplate.hasKey(InventoryReservationAdapter.reservationKey("order-1"))).isFalse();
+    }
+
+    private static void stock(String sku, int available) {
+        redisTemplate.opsForValue().set(InventoryReservationAdapter.availableKey(sku), String.valueOf(available));
+    }
+
+    private static long counter(String key) {
+        return Long.parseLong(redisTemplate.opsForValue().get(key));
+    }
+
+    private static Map<String, Integer> lines(Object... skusAndQuantities) {
+        Map<String, Integer> lines = new LinkedHashMap<>();
+        for (int i = 0; i < skusAndQuantities.length; i += 2) {
+            lines.put((String) skusAndQuantities[i], (Integer) skusAndQuantities[i + 1]);
+        }
+        return lines;
+    }
+}
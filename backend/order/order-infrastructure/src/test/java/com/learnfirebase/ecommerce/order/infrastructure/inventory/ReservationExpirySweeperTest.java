@@ -0,0 +1,99 @@
+package com.learnfirebase.ecommerce.order.infrastructure.inventory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import com.learnfirebase.ecommerce.order.application.port.out.OrderCachePort;
+import com.learnfirebase.ecommerce.order.infrastructure.persistence.ExpiredOrderCancellationRepository;
+import com.learnfirebase.ecommerce.order.infrastructure.persistence.ExpiredOrderCancellationRepository.Outcome;
+
+class ReservationExpirySweeperTest {
+    private StringRedisTemplate redisTemplate;
+    private ExpiredOrderCancellationRepository cancellationRepository;
+    private OrderCachePort orderCachePort;
+    private ReservationExpirySweeper sweeper;
+
+    @BeforeEach
+    void setUp() {
+        redisTemplate = mock(StringRedisTemplate.class);
+        cancellationRepository = mock(ExpiredOrderCancellationRepository.class);
+        orderCachePort = mock(OrderCachePort.class);
+        sweeper = new ReservationExpirySweeper(redisTemplate, cancellationRepository, orderCachePort,
+                new ReservationSweepProperties());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void chunkIsCancelledInOneCallAndReleasedInOneScript() {
+        when(redisTemplate.execute(eq(ReservationScripts.CLAIM_EXPIRED), anyList(), any(), any(), any()))
+                .thenReturn(List.of("order-1", "order-2", "order-3"));
+        when(cancellationRepository.cancelPending(List.of("order-1", "order-2", "order-3"),
+                ReservationExpirySweeper.CANCEL_REASON)).thenReturn(List.of(
+                        new Outcome("order-1", "buyer-1", "CANCELLED", true),
+                        new Outcome("order-2", null, "PAID", false),
+                        new Outcome("order-3", null, null, false)));
+        when(redisTemplate.executePipelined(any(RedisCallback.class)))
+                .thenReturn(List.of(Map.of("product-1", "2"), Map.of("product-3", "5")));
+        when(redisTemplate.execute(eq(ReservationScripts.RELEASE_EXPIRED), anyList(), any(Object[].class)))
+                .thenReturn(2L);
+
+        assertThat(sweeper.sweep()).isEqualTo(2);
+
+        ArgumentCaptor<List<String>> keys = ArgumentCaptor.forClass(List.class);
+        ArgumentCaptor<Object[]> args = ArgumentCaptor.forClass(Object[].class);
+        verify(redisTemplate).execute(eq(ReservationScripts.RELEASE_EXPIRED), keys.capture(), args.capture());
+        assertThat(keys.getValue()).containsExactly(
+                "inventory:reservation:expirations",
+                "inventory:reservation:order-1",
+                "inventory:DEFAULT_INVENTORY:product-1:available",
+                "inventory:DEFAULT_INVENTORY:product-1:reserved",
+                "inventory:reservation:order-2",
+                "inventory:reservation:order-3",
+                "inventory:DEFAULT_INVENTORY:product-3:available",
+                "inventory:DEFAULT_INVENTORY:product-3:reserved",
+                "inventory:stock:dirty");
+        assertThat(args.getValue()).containsExactly(
+                "3",
+                "order-1", "1", "1", "2",
+                "order-2", "0", "0",
+                "order-3", "1", "1", "5");
+        verify(orderCachePort).evict("order-1");
+        verify(orderCachePort, never()).evict("order-2");
+    }
+
+    @Test
+    void nothingExpiredTouchesNeitherDatabaseNorStock() {
+        when(redisTemplate.execute(eq(ReservationScripts.CLAIM_EXPIRED), anyList(), any(), any(), any()))
+                .thenReturn(List.of());
+
+        assertThat(sweeper.sweep()).isZero();
+
+        verify(cancellationRepository, never()).cancelPending(anyList(), any());
+    }
+
+    @Test
+    void failedCancellationLeavesTheChunkClaimedForARetry() {
+        when(redisTemplate.execute(eq(ReservationScripts.CLAIM_EXPIRED), anyList(), any(), any(), any()))
+                .thenReturn(List.of("order-1"));
+        when(cancellationRepository.cancelPending(anyList(), any())).thenThrow(new IllegalStateException("DB down"));
+
+        assertThat(sweeper.sweep()).isZero();
+
+        verify(redisTemplate, never()).execute(eq(ReservationScripts.RELEASE_EXPIRED), anyList(), any(Object[].class));
+    }
+}
@@ -0,0 +1,338 @@
+package com.learnfirebase.ecommerce.order.infrastructure.loadtest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import com.learnfirebase.ecommerce.common.domain.valueobject.Money;
+import com.learnfirebase.ecommerce.common.infrastructure.redis.ShardedCounter;
+import com.learnfirebase.ecommerce.common.infrastructure.redis.StockLeaseProperties;
+import com.learnfirebase.ecommerce.common.infrastructure.redis.StockLeases;
+import com.learnfirebase.ecommerce.order.application.command.CancelOrderCommand;
+import com.learnfirebase.ecommerce.order.application.command.CreateOrderCommand;
+import com.learnfirebase.ecommerce.order.application.dto.OrderDto;
+import com.learnfirebase.ecommerce.order.application.port.out.FlashSaleAdmissionPort;
+import com.learnfirebase.ecommerce.order.application.port.out.LoadProductPort;
+import com.learnfirebase.ecommerce.order.application.port.out.OrderCachePort;
+import com.learnfirebase.ecommerce.order.application.port.out.OrderRepository;
+import com.learnfirebase.ecommerce.order.application.port.out.PaymentGatewayPort;
+import com.learnfirebase.ecommerce.order.application.port.out.PaymentTransactionPort;
+import com.learnfirebase.ecommerce.order.application.port.out.SellerOrderViewPort;
+import com.learnfirebase.ecommerce.order.application.service.OrderApplicationService;
+import com.learnfirebase.ecommerce.order.domain.exception.OrderDomainException;
+import com.learnfirebase.ecommerce.order.domain.model.Order;
+import com.learnfirebase.ecommerce.order.domain.model.OrderId;
+import com.learnfirebase.ecommerce.order.infrastructure.inventory.InventoryReservationAdapter;
+import com.learnfirebase.ecommerce.order.infrastructure.inventory.ReservationExpirySweeper;
+import com.learnfirebase.ecommerce.promotion.domain.model.FlashSale;
+import com.learnfirebase.ecommerce.promotion.domain.model.FlashSaleId;
+import com.learnfirebase.ecommerce.promotion.domain.model.FlashSaleStatus;
+
+/**
+ * Drives thousands of concurrent flash-sale orders and cancellations through {@link OrderApplicationService}
+ * against a real Redis, with several simulated nodes sharing one sale, and checks that stock is conserved: units
+ * held by live orders plus the Redis counter always add up to the initial stock. Logs throughput and latency
+ * percentiles. Excluded from {@code test}; run with {@code ./gradlew :order:order-infrastructure:flashSaleLoadTest},
+ * sized with {@code -Pflashsale.load.<setting>=<value>} (see the constants below). Unlike the other container
+ * tests it fails rather than skips without Docker, so the gate cannot pass without having run.
+ */
+@Tag("load")
+@Testcontainers
+class FlashSaleLoadHarnessTest {
+    private static final Logger log = LoggerFactory.getLogger(FlashSaleLoadHarnessTest.class);
+    private static final int STOCK = Integer.getInteger("flashsale.load.stock", 2_000);
+    private static final int ORDERS = Integer.getInteger("flashsale.load.orders", 10_000);
+    private static final int THREADS = Integer.getInteger("flashsale.load.threads", 32);
+    private static final int NODES = Integer.getInteger("flashsale.load.nodes", 4);
+    private static final int CANCEL_PERCENT = Integer.getInteger("flashsale.load.cancel-percent", 20);
+    private static final int SHARDS = 8;
+
+    @Container
+    static GenericContainer<?> redis = new GenericContainer<>(DockerImageName.parse("redis:7-alpine"))
+            .withExposedPorts(6379);
+
+    private static LettuceConnectionFactory connectionFactory;
+    private static StringRedisTemplate redisTemplate;
+
+    @BeforeAll
+    static void connect() {
+        connectionFactory = new LettuceConnectionFactory(
+                new RedisStandaloneConfiguration(redis.getHost(), redis.getMappedPort(6379)));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        redisTemplate = new StringRedisTemplate(connectionFactory);
+    }
+
+    @AfterAll
+    static void disconnect() {
+        connectionFactory.destroy();
+    }
+
+    @BeforeEach
+    void flush() {
+        redisTemplate.execute(connection -> {
+            connection.serverCommands().flushDb();
+            return null;
+        }, true);
+    }
+
+    @Test
+    void sharedCountersNeverOversell() throws Exception {
+        report("shared counters", run(false));
+    }
+
+    @Test
+    void leasedCountersNeverOversell() throws Exception {
+        report("leased blocks", run(true));
+    }
+
+    private Result run(boolean leased) throws Exception {
+        FlashSale sale = flashSale();
+        String stockKey = "flashsale:" + sale.getId().getValue() + ":stock";
+        new ShardedCounter(redisTemplate, SHARDS, 2).set(stockKey, STOCK);
+
+        OrderRepository orders = inMemoryOrders();
+        List<StockLeases> leases = new ArrayList<>();
+        List<OrderApplicationService> nodes = new ArrayList<>();
+        for (int node = 0; node < NODES; node++) {
+            ShardedCounter counter = new ShardedCounter(redisTemplate, SHARDS, 2);
+            StockLeaseProperties properties = new StockLeaseProperties();
+            properties.setEnabled(leased);
+            properties.setTtl(Duration.ofMillis(200));
+            StockLeases nodeLeases = new StockLeases(counter, properties);
+            leases.add(nodeLeases);
+            nodes.add(service(orders, sale, new InventoryReservationAdapter(redisTemplate,
+                    mock(ReservationExpirySweeper.class), counter, nodeLeases)));
+        }
+        ScheduledExecutorService sweeper = Executors.newSingleThreadScheduledExecutor();
+        sweeper.scheduleWithFixedDelay(() -> leases.forEach(StockLeases::returnExpired), 50, 50,
+                TimeUnit.MILLISECONDS);
+
+        Result result = new Result();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> buyers = new ArrayList<>();
+        for (int thread = 0; thread < THREADS; thread++) {
+            int buyer = thread;
+            buyers.add(pool.submit(() -> {
+                start.await();
+                OrderApplicationService node = nodes.get(buyer % NODES);
+                for (int i = buyer; i < ORDERS; i += THREADS) {
+                    order(node, sale, "buyer-" + buyer, 1 + i % 3, result);
+                }
+                return null;
+            }));
+        }
+        long began = System.nanoTime();
+        start.countDown();
+        for (Future<?> buyer : buyers) {
+            buyer.get(5, TimeUnit.MINUTES);
+        }
+        result.elapsedNanos = System.nanoTime() - began;
+        pool.shutdown();
+        sweeper.shutdown();
+        sweeper.awaitTermination(1, TimeUnit.SECONDS);
+        leases.forEach(StockLeases::close);
+
+        result.remaining = new ShardedCounter(redisTemplate, SHARDS, 2).total(stockKey);
+        for (int shard = 0; shard < SHARDS; shard++) {
+            result.minShard = Math.min(result.minShard,
+                    Integer.parseInt(redisTemplate.opsForValue().get(stockKey + ":" + shard)));
+        }
+        return result;
+    }
+
+    private void order(OrderApplicationService node, FlashSale sale, String buyer, int quantity, Result result) {
+        long began = System.nanoTime();
+        OrderDto order;
+        try {
+            order = node.execute(CreateOrderCommand.builder()
+                    .userId(buyer)
+                    .currency("VND")
+                    .items(List.of(CreateOrderCommand.OrderItemCommand.builder()
+                            .productId(sale.getProductId())
+                            .flashSaleId(sale.getId().getValue())
+                            .quantity(quantity)
+                            .build()))
+                    .build());
+        } catch (OrderDomainException ex) {
+            result.createLatencies.add(System.nanoTime() - began);
+            result.rejected.incrementAndGet();
+            return;
+        } catch (RuntimeException ex) {
+            result.errors.add(ex);
+            return;
+        }
+        result.createLatencies.add(System.nanoTime() - began);
+        if (ThreadLocalRandom.current().nextInt(100) >= CANCEL_PERCENT) {
+            result.soldUnits.addAndGet(quantity);
+            return;
+        }
+        began = System.nanoTime();
+        try {
+            node.execute(CancelOrderCommand.builder().orderId(order.getId()).reason("load test").build());
+            result.cancelLatencies.add(System.nanoTime() - began);
+            result.cancelled.incrementAndGet();
+        } catch (RuntimeException ex) {
+            // The units stay with the order, which is still live.
+            result.soldUnits.addAndGet(quantity);
+            result.errors.add(ex);
+        }
+    }
+
+    private static void report(String mode, Result result) {
+        double seconds = result.elapsedNanos / 1e9;
+        int operations = result.createLatencies.size() + result.cancelLatencies.size();
+        log.info(String.format("""
+                [FLASH-SALE-LOAD] %s: %d nodes, %d threads, stock %d
+                  orders   %d placed, %d rejected, %d cancelled, %d errors
+                  rate     %.0f ops/s over %.2f s
+                  create   p50 %.2f ms, p99 %.2f ms
+                  cancel   p50 %.2f ms, p99 %.2f ms
+                  stock    %d sold + %d left = %d (lowest shard %d)""",
+                mode, NODES, THREADS, STOCK,
+                result.createLatencies.size() - result.rejected.get(), result.rejected.get(), result.cancelled.get(),
+                result.errors.size(), operations / seconds, seconds,
+                millis(result.createLatencies, 50), millis(result.createLatencies, 99),
+                millis(result.cancelLatencies, 50), millis(result.cancelLatencies, 99),
+                result.soldUnits.get(), result.remaining, result.soldUnits.get() + result.remaining, result.minShard));
+
+        assertThat(result.errors).isEmpty();
+        assertThat(result.minShard).as("no sub-counter below zero").isGreaterThanOrEqualTo(0);
+        assertThat(result.soldUnits.get()).as("never more sold than stocked").isLessThanOrEqualTo(STOCK);
+        assertThat(result.soldUnits.get() + result.remaining).as("every unit is sold or left").isEqualTo(STOCK);
+    }
+
+    private static double millis(Queue<Long> latencies, int percentile) {
+        long[] sorted = latencies.stream().mapToLong(Long::longValue).toArray();
+        if (sorted.length == 0) {
+            return 0;
+        }
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(index, 0)] / 1e6;
+    }
+
+    private static OrderApplicationService service(OrderRepository orders, FlashSale sale,
+            InventoryReservationAdapter inventory) {
+        LoadProductPort products = (currency, ids, flashSaleIds) -> Map.of(sale.getProductId(), LoadProductPort.ProductInfo.builder()
+                .id(sale.getProductId())
+                .price(sale.getOriginalPrice().getAmount())
+                .currency("VND")
+                .sellerId("seller-1")
+                .build());
+        FlashSaleAdmissionPort admitAll = new FlashSaleAdmissionPort() {
+            @Override
+            public boolean consume(String flashSaleId, String userId, String token) {
+                return true;
+            }
+
+            @Override
+            public void restore(String flashSaleId, String userId, String token) {
+            }
+        };
+        OrderCachePort noCache = new OrderCachePort() {
+            @Override
+            public Optional<OrderDto> get(String orderId) {
+                return Optional.empty();
+            }
+
+            @Override
+            public void put(OrderDto order) {
+            }
+
+            @Override
+            public void fill(OrderDto order) {
+            }
+
+            @Override
+            public void evict(String orderId) {
+            }
+        };
+        return new OrderApplicationService(orders, products, id -> Optional.of(sale), admitAll, inventory,
+                event -> { }, mock(PaymentGatewayPort.class), mock(PaymentTransactionPort.class),
+                mock(SellerOrderViewPort.class), noCache);
+    }
+
+    /**
+     * Just enough of a repository for create and cancel; stub-only, so the mock records no invocations under load.
+     */
+    private static OrderRepository inMemoryOrders() {
+        Map<String, Order> stored = new ConcurrentHashMap<>();
+        OrderRepository orders = mock(OrderRepository.class, withSettings().stubOnly());
+        when(orders.save(any())).thenAnswer(invocation -> {
+            Order order = invocation.getArgument(0);
+            stored.put(order.getId().getValue(), order);
+            return order;
+        });
+        when(orders.findById(any())).thenAnswer(invocation ->
+                Optional.ofNullable(stored.get(invocation.<OrderId>getArgument(0).getValue())));
+        return orders;
+    }
+
+    private static FlashSale flashSale() {
+        Instant now = Instant.now();
+        return FlashSale.builder()
+                .id(new FlashSaleId(UUID.randomUUID()))
+                .productId("product-" + UUID.randomUUID())
+                .price(Money.builder().amount(new BigDecimal("50000")).currency("VND").build())
+                .originalPrice(Money.builder().amount(new BigDecimal("100000")).currency("VND").build())
+                .startTime(now.minusSeconds(60))
+                .endTime(now.plus(Duration.ofHours(1)))
+                .totalQuantity(STOCK)
+                .remainingQuantity(STOCK)
+                .status(FlashSaleStatus.ACTIVE)
+                .build();
+    }
+
+    private static final class Result {
+        private final Queue<Long> createLatencies = new ConcurrentLinkedQueue<>();
+        private final Queue<Long> cancelLatencies = new ConcurrentLinkedQueue<>();
+        private final Queue<RuntimeException> errors = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger rejected = new AtomicInteger();
+        private final AtomicInteger cancelled = new AtomicInteger();
+        private final AtomicLong soldUnits = new AtomicLong();
+        private long elapsedNanos;
+        private long remaining;
+        private int minShard = Integer.MAX_VALUE;
+    }
+}
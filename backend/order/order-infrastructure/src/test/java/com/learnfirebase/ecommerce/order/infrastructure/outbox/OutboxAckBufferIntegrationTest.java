@@ -0,0 +1,215 @@
+package com.learnfirebase.ecommerce.order.infrastructure.outbox;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@Testcontainers(disabledWithoutDocker = true)
+class OutboxAckBufferIntegrationTest {
+    private static final int EVENT_COUNT = 10_000;
+    private static final int FAILING_EVENTS = 10;
+    private static final int DEAD_LETTER_EVENTS = 10;
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine")
+            .withDatabaseName("outbox_test")
+            .withUsername("test")
+            .withPassword("test");
+
+    private final AtomicInteger statements = new AtomicInteger();
+    private JdbcTemplate jdbcTemplate;
+    private OutboxBulkUpdater bulkUpdater;
+    private OutboxAckBuffer ackBuffer;
+    private OutboxWorker worker;
+    private KafkaTemplate<String, String> kafkaTemplate;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        DataSource dataSource = new StatementCountingDataSource(new DriverManagerDataSource(
+                postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword()), statements);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("DROP TABLE IF EXISTS order_outbox");
+        jdbcTemplate.execute("""
+                CREATE TABLE order_outbox (
+                    id VARCHAR(255) PRIMARY KEY,
+                    aggregate_id VARCHAR(255),
+                    type VARCHAR(255),
+                    payload TEXT,
+                    status VARCHAR(50),
+                    created_at TIMESTAMP,
+                    updated_at TIMESTAMP,
+                    attempt_count INT NOT NULL DEFAULT 0,
+                    last_error TEXT,
+                    next_retry_at TIMESTAMP,
+                    dead_letter_at TIMESTAMP,
+                    lane INT NOT NULL DEFAULT 0
+                )
+                """);
+
+        OutboxProperties properties = new OutboxProperties();
+        bulkUpdater = new OutboxBulkUpdater(jdbcTemplate);
+        ackBuffer = new OutboxAckBuffer(bulkUpdater, properties);
+        kafkaTemplate = mock(KafkaTemplate.class);
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.registerModule(new com.fasterxml.jackson.datatype.jsr310.JavaTimeModule());
+        worker = new OutboxWorker(mock(OutboxRepository.class), kafkaTemplate, objectMapper,
+                mock(OutboxSignal.class), new OutboxMetrics(new SimpleMeterRegistry()), ackBuffer, bulkUpdater,
+                properties, mock(OutboxLaneLeaseManager.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void tenThousandAcksAreFlushedWithSetBasedStatements() {
+        List<OutboxEntity> events = insertProcessingEvents();
+        CompletableFuture<SendResult<String, String>> ok = CompletableFuture.completedFuture(mock(SendResult.class));
+        CompletableFuture<SendResult<String, String>> broken = new CompletableFuture<>();
+        broken.completeExceptionally(new RuntimeException("Kafka broker unavailable"));
+        when(kafkaTemplate.send(eq("order-events"), anyString(), anyString()))
+                .thenAnswer(invocation -> invocation.getArgument(1, String.class).startsWith("fail-") ? broken : ok);
+
+        events.forEach(worker::publishAsync);
+        statements.set(0);
+        ackBuffer.flush();
+
+        // 9,980 published ids in chunks of 1,000 plus one statement for the failures sharing an error message.
+        assertThat(statements.get()).isEqualTo(11);
+        assertThat(countByStatus("PUBLISHED")).isEqualTo(EVENT_COUNT - FAILING_EVENTS - DEAD_LETTER_EVENTS);
+        assertThat(countByStatus("FAILED")).isEqualTo(FAILING_EVENTS);
+        assertThat(countByStatus("DEAD_LETTER")).isEqualTo(DEAD_LETTER_EVENTS);
+        assertThat(jdbcTemplate.queryForObject("""
+                SELECT COUNT(*) FROM order_outbox
+                WHERE status = 'FAILED' AND attempt_count = 2 AND next_retry_at IS NOT NULL
+                  AND last_error = 'Kafka broker unavailable'
+                """, Integer.class)).isEqualTo(FAILING_EVENTS);
+        assertThat(jdbcTemplate.queryForObject("""
+                SELECT COUNT(*) FROM order_outbox
+                WHERE status = 'DEAD_LETTER' AND attempt_count = 5 AND dead_letter_at IS NOT NULL
+                """, Integer.class)).isEqualTo(DEAD_LETTER_EVENTS);
+    }
+
+    @Test
+    void claimPendingTakesOnlyItsLaneInCreationOrderAndNeverTwice() {
+        Instant base = Instant.now().minusSeconds(60);
+        for (int i = 0; i < 6; i++) {
+            jdbcTemplate.update("""
+                    INSERT INTO order_outbox (id, aggregate_id, type, payload, status, created_at, updated_at, lane)
+                    VALUES (?, 'order-1', 'OrderCreated', '{}', 'PENDING', ?, ?, ?)
+                    """, "e-" + i, Timestamp.from(base.plusSeconds(i)), Timestamp.from(base), i % 2);
+        }
+
+        List<OutboxEntity> first = bulkUpdater.claimPending(0, 2);
+        List<OutboxEntity> second = bulkUpdater.claimPending(0, 10);
+
+        assertThat(first).extracting(OutboxEntity::getId).containsExactly("e-0", "e-2");
+        assertThat(second).extracting(OutboxEntity::getId).containsExactly("e-4");
+        assertThat(countByStatus("PROCESSING")).isEqualTo(3);
+        assertThat(countByStatus("PENDING")).isEqualTo(3);
+    }
+
+    private List<OutboxEntity> insertProcessingEvents() {
+        Instant now = Instant.now();
+        List<OutboxEntity> events = new ArrayList<>(EVENT_COUNT);
+        for (int i = 0; i < EVENT_COUNT; i++) {
+            String id;
+            int attempts;
+            if (i < FAILING_EVENTS) {
+                id = "fail-" + i;
+                attempts = 1;
+            } else if (i < FAILING_EVENTS + DEAD_LETTER_EVENTS) {
+                id = "fail-dead-" + i;
+                attempts = 4;
+            } else {
+                id = "event-" + i;
+                attempts = 0;
+            }
+            events.add(OutboxEntity.builder()
+                    .id(id)
+                    .aggregateId(id)
+                    .type("OrderCreated")
+                    .payload("{}")
+                    .status(OutboxStatus.PROCESSING)
+                    .attemptCount(attempts)
+                    .createdAt(now)
+                    .updatedAt(now)
+                    .build());
+        }
+        jdbcTemplate.batchUpdate("""
+                INSERT INTO order_outbox (id, aggregate_id, type, payload, status, created_at, updated_at, attempt_count)
+                VALUES (?, ?, ?, ?, ?, ?, ?, ?)
+                """, events, 1000, (ps, event) -> {
+            ps.setString(1, event.getId());
+            ps.setString(2, event.getAggregateId());
+            ps.setString(3, event.getType());
+            ps.setString(4, event.getPayload());
+            ps.setString(5, event.getStatus().name());
+            ps.setTimestamp(6, Timestamp.from(event.getCreatedAt()));
+            ps.setTimestamp(7, Timestamp.from(event.getUpdatedAt()));
+            ps.setInt(8, event.getAttemptCount());
+        });
+        return events;
+    }
+
+    private int countByStatus(String status) {
+        Integer count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM order_outbox WHERE status = ?",
+                Integer.class, status);
+        return count != null ? count : 0;
+    }
+
+    static class StatementCountingDataSource extends DelegatingDataSource {
+        private final AtomicInteger counter;
+
+        StatementCountingDataSource(DataSource target, AtomicInteger counter) {
+            super(target);
+            this.counter = counter;
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            Connection connection = super.getConnection();
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[] { Connection.class }, (proxy, method, args) -> {
+                        String name = method.getName();
+                        if (name.equals("prepareStatement") || name.equals("createStatement")
+                                || name.equals("prepareCall")) {
+                            counter.incrementAndGet();
+                        }
+                        try {
+                            return method.invoke(connection, args);
+                        } catch (InvocationTargetException ex) {
+                            throw ex.getTargetException();
+                        }
+                    });
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.learnfirebase.ecommerce.order.infrastructure.outbox;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+class OutboxDispatcherTest {
+
+    private OutboxDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        OutboxProperties properties = new OutboxProperties();
+        properties.setMinBatchSize(10);
+        properties.setMaxBatchSize(80);
+        dispatcher = new OutboxDispatcher(mock(OutboxWorker.class), mock(OutboxRepository.class), new OutboxSignal(mock(StringRedisTemplate.class)),
+                mock(OutboxMetrics.class), properties, mock(OutboxLaneLeaseManager.class));
+    }
+
+    @Test
+    void batchSizeGrowsOnFullBatchesUpToMax() {
+        assertThat(dispatcher.nextBatchSize(10, 10)).isEqualTo(20);
+        assertThat(dispatcher.nextBatchSize(40, 40)).isEqualTo(80);
+        assertThat(dispatcher.nextBatchSize(80, 80)).isEqualTo(80);
+    }
+
+    @Test
+    void batchSizeShrinksOnSparseBatchesDownToMin() {
+        assertThat(dispatcher.nextBatchSize(80, 30)).isEqualTo(40);
+        assertThat(dispatcher.nextBatchSize(20, 5)).isEqualTo(10);
+        assertThat(dispatcher.nextBatchSize(40, 25)).isEqualTo(40);
+    }
+
+    @Test
+    void aggregateAlwaysMapsToTheSameLaneWithinRange() {
+        for (int i = 0; i < 1000; i++) {
+            String aggregateId = "order-" + i;
+            int lane = OutboxLaneLeaseManager.laneOf(aggregateId, 8);
+            assertThat(lane).isBetween(0, 7);
+            assertThat(OutboxLaneLeaseManager.laneOf(aggregateId, 8)).isEqualTo(lane);
+        }
+    }
+
+    @Test
+    void signalsCollapseIntoSingleWakeUp() throws InterruptedException {
+        OutboxSignal signal = new OutboxSignal(mock(StringRedisTemplate.class));
+        signal.signal();
+        signal.signal();
+
+        assertThat(signal.await(Duration.ofMillis(10))).isTrue();
+        assertThat(signal.await(Duration.ofMillis(10))).isFalse();
+    }
+
+    @Test
+    void commitsOfOtherNodesWakeTheDispatcherButItsOwnEchoDoesNot() throws InterruptedException {
+        StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+        OutboxSignal signal = new OutboxSignal(redisTemplate);
+        signal.committed();
+        ArgumentCaptor<String> published = ArgumentCaptor.forClass(String.class);
+        verify(redisTemplate).convertAndSend(eq(OutboxSignal.COMMITTED_CHANNEL), published.capture());
+        assertThat(signal.await(Duration.ofMillis(10))).isTrue();
+
+        signal.onMessage(message(published.getValue()), null);
+        assertThat(signal.await(Duration.ofMillis(10))).isFalse();
+
+        signal.onMessage(message("other-node"), null);
+        assertThat(signal.await(Duration.ofMillis(10))).isTrue();
+    }
+
+    private static DefaultMessage message(String body) {
+        return new DefaultMessage(OutboxSignal.COMMITTED_CHANNEL.getBytes(StandardCharsets.UTF_8),
+                body.getBytes(StandardCharsets.UTF_8));
+    }
+}
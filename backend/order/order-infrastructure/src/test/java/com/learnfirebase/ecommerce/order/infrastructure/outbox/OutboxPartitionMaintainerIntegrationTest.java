@@ -0,0 +1,155 @@
+package com.learnfirebase.ecommerce.order.infrastructure.outbox;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+@Testcontainers(disabledWithoutDocker = true)
+class OutboxPartitionMaintainerIntegrationTest {
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine")
+            .withDatabaseName("outbox_partition_test")
+            .withUsername("test")
+            .withPassword("test");
+
+    private JdbcTemplate jdbcTemplate;
+    private OutboxPartitionMaintainer maintainer;
+    private final LocalDate today = LocalDate.now();
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("DROP TABLE IF EXISTS order_outbox, order_outbox_archive CASCADE");
+        jdbcTemplate.queryForList("SELECT relname FROM pg_class WHERE relname ~ '^order_outbox_p[0-9]{8}$' AND relkind = 'r'",
+                String.class).forEach(table -> jdbcTemplate.execute("DROP TABLE " + table));
+        jdbcTemplate.execute("""
+                CREATE TABLE order_outbox (
+                    id VARCHAR(255) NOT NULL,
+                    aggregate_id VARCHAR(255),
+                    type VARCHAR(255),
+                    payload TEXT,
+                    status VARCHAR(50),
+                    created_at TIMESTAMP NOT NULL,
+                    updated_at TIMESTAMP,
+                    attempt_count INT NOT NULL DEFAULT 0,
+                    last_error TEXT,
+                    next_retry_at TIMESTAMP,
+                    dead_letter_at TIMESTAMP,
+                    lane INT NOT NULL DEFAULT 0,
+                    PRIMARY KEY (id, created_at)
+                ) PARTITION BY RANGE (created_at)
+                """);
+        jdbcTemplate.execute("CREATE TABLE order_outbox_default PARTITION OF order_outbox DEFAULT");
+        jdbcTemplate.execute("CREATE TABLE order_outbox_archive (LIKE order_outbox INCLUDING DEFAULTS)");
+
+        OutboxProperties properties = new OutboxProperties();
+        properties.setArchivePartitions(true);
+        maintainer = new OutboxPartitionMaintainer(jdbcTemplate,
+                new TransactionTemplate(new DataSourceTransactionManager(dataSource)), properties);
+    }
+
+    @Test
+    void createsUpcomingPartitionsAndMovesMatchingRowsOutOfTheDefaultPartition() {
+        insert("today-1", "PENDING", today);
+
+        maintainer.maintain();
+
+        for (int i = 0; i <= 3; i++) {
+            assertThat(partitionExists(OutboxPartitionMaintainer.partitionName(today.plusDays(i)))).isTrue();
+        }
+        assertThat(count("order_outbox_default")).isZero();
+        assertThat(count(OutboxPartitionMaintainer.partitionName(today))).isEqualTo(1);
+    }
+
+    @Test
+    void retiresOnlyExpiredPartitionsWhoseEventsWereAllPublishedOrDeadLettered() {
+        LocalDate published = today.minusDays(10);
+        LocalDate unfinished = today.minusDays(9);
+        LocalDate deadLettered = today.minusDays(8);
+        createPartition(published);
+        createPartition(unfinished);
+        createPartition(deadLettered);
+        insert("old-published-1", "PUBLISHED", published);
+        insert("old-published-2", "PUBLISHED", published);
+        insert("old-published-3", "PUBLISHED", unfinished);
+        insert("old-failed", "FAILED", unfinished);
+        insert("old-published-4", "PUBLISHED", deadLettered);
+        insert("old-dead-letter", "DEAD_LETTER", deadLettered);
+        insert("legacy-published", "PUBLISHED", today.minusDays(30));
+        insert("legacy-failed", "FAILED", today.minusDays(30));
+
+        maintainer.maintain();
+
+        assertThat(partitionExists(OutboxPartitionMaintainer.partitionName(published))).isFalse();
+        assertThat(partitionExists(OutboxPartitionMaintainer.partitionName(unfinished))).isTrue();
+        assertThat(partitionExists(OutboxPartitionMaintainer.partitionName(deadLettered))).isFalse();
+        assertThat(jdbcTemplate.queryForList("SELECT id FROM order_outbox_default ORDER BY id", String.class))
+                .containsExactly("legacy-failed", "old-dead-letter");
+        assertThat(count("order_outbox")).isEqualTo(4);
+        assertThat(jdbcTemplate.queryForList("SELECT id FROM order_outbox_archive ORDER BY id", String.class))
+                .containsExactly("legacy-published", "old-published-1", "old-published-2", "old-published-4");
+    }
+
+    @Test
+    void partitionLeftDetachedByACrashIsFinishedOnTheNextRun() {
+        LocalDate day = today.minusDays(12);
+        String name = OutboxPartitionMaintainer.partitionName(day);
+        createPartition(day);
+        insert("detached-published", "PUBLISHED", day);
+        insert("detached-dead-letter", "DEAD_LETTER", day);
+        jdbcTemplate.execute("ALTER TABLE order_outbox DETACH PARTITION " + name);
+
+        maintainer.maintain();
+
+        assertThat(partitionExists(name)).isFalse();
+        assertThat(jdbcTemplate.queryForList("SELECT id FROM order_outbox", String.class))
+                .containsExactly("detached-dead-letter");
+        assertThat(jdbcTemplate.queryForList("SELECT id FROM order_outbox_archive", String.class))
+                .containsExactly("detached-published");
+    }
+
+    @Test
+    void partitionNamesRoundTrip() {
+        LocalDate day = LocalDate.of(2024, 2, 29);
+
+        assertThat(OutboxPartitionMaintainer.partitionName(day)).isEqualTo("order_outbox_p20240229");
+        assertThat(OutboxPartitionMaintainer.partitionDay("order_outbox_p20240229")).contains(day);
+        assertThat(OutboxPartitionMaintainer.partitionDay("order_outbox_default")).isEmpty();
+    }
+
+    private void createPartition(LocalDate day) {
+        jdbcTemplate.execute(String.format("CREATE TABLE %s PARTITION OF order_outbox FOR VALUES FROM ('%s') TO ('%s')",
+                OutboxPartitionMaintainer.partitionName(day), day, day.plusDays(1)));
+    }
+
+    private void insert(String id, String status, LocalDate day) {
+        Timestamp createdAt = Timestamp.valueOf(day.atTime(12, 0));
+        jdbcTemplate.update("""
+                INSERT INTO order_outbox (id, aggregate_id, type, payload, status, created_at, updated_at)
+                VALUES (?, 'order-1', 'OrderCreated', '{}', ?, ?, ?)
+                """, id, status, createdAt, createdAt);
+    }
+
+    private boolean partitionExists(String name) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, name));
+    }
+
+    private int count(String table) {
+        Integer count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table, Integer.class);
+        return count != null ? count : 0;
+    }
+}
@@ -4,6 +4,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -19,11 +20,16 @@ import org.springframework.kafka.support.SendResult;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
 class OutboxWorkerTest {
 
     private OutboxRepository outboxRepository;
     private KafkaTemplate<String, String> kafkaTemplate;
     private ObjectMapper objectMapper;
+    private OutboxSignal outboxSignal;
+    private OutboxAckBuffer ackBuffer;
+    private SimpleMeterRegistry meterRegistry;
     private OutboxWorker worker;
 
     @BeforeEach
@@ -33,7 +39,12 @@ class OutboxWorkerTest {
         kafkaTemplate = mock(KafkaTemplate.class);
         objectMapper = new ObjectMapper();
         objectMapper.registerModule(new com.fasterxml.jackson.datatype.jsr310.JavaTimeModule());
-        worker = new OutboxWorker(outboxRepository, kafkaTemplate, objectMapper);
+        outboxSignal = mock(OutboxSignal.class);
+        ackBuffer = mock(OutboxAckBuffer.class);
+        meterRegistry = new SimpleMeterRegistry();
+        worker = new OutboxWorker(outboxRepository, kafkaTemplate, objectMapper, outboxSignal,
+                new OutboxMetrics(meterRegistry), ackBuffer, mock(OutboxBulkUpdater.class), new OutboxProperties(),
+                mock(OutboxLaneLeaseManager.class));
     }
 
     @Test
@@ -51,6 +62,8 @@ class OutboxWorkerTest {
         assertThat(saved.getStatus()).isEqualTo(OutboxStatus.PENDING);
         assertThat(saved.getPayload()).contains("123").contains("user-1");
         assertThat(saved.getAttemptCount()).isEqualTo(0);
+        assertThat(saved.getLane()).isEqualTo(OutboxLaneLeaseManager.laneOf("order-123", 8));
+        verify(outboxSignal).committed();
     }
 
     @Test
@@ -72,16 +85,14 @@ class OutboxWorkerTest {
 
         worker.publishAsync(event);
 
-        ArgumentCaptor<OutboxEntity> captor = ArgumentCaptor.forClass(OutboxEntity.class);
-        verify(outboxRepository).save(captor.capture());
-
-        OutboxEntity saved = captor.getValue();
-        assertThat(saved.getStatus()).isEqualTo(OutboxStatus.PUBLISHED);
+        verify(ackBuffer).published("event-123");
+        verify(outboxRepository, never()).save(any());
+        assertThat(meterRegistry.get("outbox.publish.lag").timer().count()).isEqualTo(1);
     }
 
     @Test
     @SuppressWarnings("unchecked")
-    void publishAsyncIncrementsAttemptsAndSetsFailedStatusOnFailure() {
+    void publishAsyncBuffersFailureWithoutSavingOnProducerThread() {
         OutboxEntity event = OutboxEntity.builder()
                 .id("event-123")
                 .aggregateId("order-123")
@@ -99,44 +110,8 @@ class OutboxWorkerTest {
 
         worker.publishAsync(event);
 
-        ArgumentCaptor<OutboxEntity> captor = ArgumentCaptor.forClass(OutboxEntity.class);
-        verify(outboxRepository).save(captor.capture());
-
-        OutboxEntity saved = captor.getValue();
-        assertThat(saved.getStatus()).isEqualTo(OutboxStatus.FAILED);
-        assertThat(saved.getAttemptCount()).isEqualTo(2);
-        assertThat(saved.getLastError()).isEqualTo("Kafka connection lost");
-        assertThat(saved.getNextRetryAt()).isNotNull();
-    }
-
-    @Test
-    @SuppressWarnings("unchecked")
-    void publishAsyncTransitionsToDeadLetterAfterFiveAttempts() {
-        OutboxEntity event = OutboxEntity.builder()
-                .id("event-123")
-                .aggregateId("order-123")
-                .type("OrderCreated")
-                .payload("{\"orderId\":\"123\"}")
-                .status(OutboxStatus.PROCESSING)
-                .attemptCount(4) // This will be the 5th attempt
-                .createdAt(Instant.now())
-                .updatedAt(Instant.now())
-                .build();
-
-        CompletableFuture<SendResult<String, String>> future = new CompletableFuture<>();
-        future.completeExceptionally(new RuntimeException("Kafka broker unavailable"));
-        when(kafkaTemplate.send(eq("order-events"), eq("order-123"), any(String.class))).thenReturn(future);
-
-        worker.publishAsync(event);
-
-        ArgumentCaptor<OutboxEntity> captor = ArgumentCaptor.forClass(OutboxEntity.class);
-        verify(outboxRepository).save(captor.capture());
-
-        OutboxEntity saved = captor.getValue();
-        assertThat(saved.getStatus()).isEqualTo(OutboxStatus.DEAD_LETTER);
-        assertThat(saved.getAttemptCount()).isEqualTo(5);
-        assertThat(saved.getLastError()).isEqualTo("Kafka broker unavailable");
-        assertThat(saved.getDeadLetterAt()).isNotNull();
+        verify(ackBuffer).failed("event-123", "Kafka connection lost");
+        verify(outboxRepository, never()).save(any());
     }
 
     @Test
@@ -0,0 +1,138 @@
+package com.learnfirebase.ecommerce.order.infrastructure.payment;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.junit.jupiter.api.Test;
+
+class VnPaySignerTest {
+    private static final String HASH_SECRET = "test-secret";
+
+    private final VnPaySigner signer = new VnPaySigner(HASH_SECRET);
+
+    @Test
+    void acceptsEveryCallbackInTheCorpus() throws IOException {
+        List<Map<String, String>> callbacks = corpus();
+
+        assertThat(callbacks).hasSizeGreaterThanOrEqualTo(6);
+        assertThat(callbacks).allSatisfy(callback -> assertThat(signer.verify(callback)).isTrue());
+    }
+
+    @Test
+    void rejectsTamperedCallbacks() throws IOException {
+        for (Map<String, String> callback : corpus()) {
+            Map<String, String> tampered = new LinkedHashMap<>(callback);
+            tampered.put("vnp_Amount", "1");
+            assertThat(signer.verify(tampered)).isFalse();
+
+            Map<String, String> truncated = new LinkedHashMap<>(callback);
+            truncated.put(VnPaySigner.SECURE_HASH, callback.get(VnPaySigner.SECURE_HASH).substring(2));
+            assertThat(signer.verify(truncated)).isFalse();
+
+            Map<String, String> unsigned = new LinkedHashMap<>(callback);
+            unsigned.remove(VnPaySigner.SECURE_HASH);
+            assertThat(signer.verify(unsigned)).isFalse();
+        }
+        assertThat(new VnPaySigner("other-secret").verify(corpus().get(0))).isFalse();
+    }
+
+    @Test
+    void signedQueryMatchesTheUrlEncoderReference() throws IOException {
+        for (Map<String, String> callback : corpus()) {
+            Map<String, String> params = new TreeMap<>(callback);
+            params.remove(VnPaySigner.SECURE_HASH);
+            params.remove(VnPaySigner.SECURE_HASH_TYPE);
+            params.values().removeIf(String::isEmpty);
+            String query = referenceQuery(params);
+
+            assertThat(signer.signedQuery(params))
+                .isEqualTo(query + "&vnp_SecureHash=" + referenceHmac(query));
+        }
+    }
+
+    @Test
+    void encodesLikeUrlEncoderForAwkwardValues() {
+        String value = "a b+c&d=e/f?g~h*i.j-k_l%m\u00e9\u4e2d\ud83d\ude00\ud800x";
+        Map<String, String> params = Map.of("vnp_OrderInfo", value);
+
+        String query = "vnp_OrderInfo=" + URLEncoder.encode(value, StandardCharsets.UTF_8);
+        assertThat(signer.signedQuery(params)).isEqualTo(query + "&vnp_SecureHash=" + referenceHmac(query));
+    }
+
+    @Test
+    void threadsSignIndependently() throws Exception {
+        List<Map<String, String>> callbacks = corpus();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < 400; i++) {
+                Map<String, String> callback = callbacks.get(i % callbacks.size());
+                results.add(executor.submit(() -> signer.verify(callback)));
+            }
+            for (Future<Boolean> result : results) {
+                assertThat(result.get()).isTrue();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    static List<Map<String, String>> corpus() throws IOException {
+        try (InputStream in = VnPaySignerTest.class.getResourceAsStream("/vnpay/callbacks.txt")) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8).lines()
+                .filter(line -> !line.isBlank() && !line.startsWith("#"))
+                .map(VnPaySignerTest::parseQuery)
+                .toList();
+        }
+    }
+
+    private static Map<String, String> parseQuery(String query) {
+        return Arrays.stream(query.split("&"))
+            .map(part -> part.split("=", 2))
+            .collect(Collectors.toMap(
+                pair -> URLDecoder.decode(pair[0], StandardCharsets.UTF_8),
+                pair -> pair.length > 1 ? URLDecoder.decode(pair[1], StandardCharsets.UTF_8) : "",
+                (first, second) -> first,
+                LinkedHashMap::new
+            ));
+    }
+
+    private static String referenceQuery(Map<String, String> sorted) {
+        return sorted.entrySet().stream()
+            .map(entry -> entry.getKey() + "=" + URLEncoder.encode(entry.getValue(), StandardCharsets.UTF_8))
+            .collect(Collectors.joining("&"));
+    }
+
+    private static String referenceHmac(String data) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA512");
+            mac.init(new SecretKeySpec(HASH_SECRET.getBytes(StandardCharsets.UTF_8), "HmacSHA512"));
+            byte[] hashBytes = mac.doFinal(data.getBytes(StandardCharsets.UTF_8));
+            StringBuilder result = new StringBuilder();
+            for (byte hashByte : hashBytes) {
+                result.append(String.format("%02x", hashByte));
+            }
+            return result.toString();
+        } catch (Exception e) {
+            throw new IllegalStateException("Failed to sign test payload", e);
+        }
+    }
+}
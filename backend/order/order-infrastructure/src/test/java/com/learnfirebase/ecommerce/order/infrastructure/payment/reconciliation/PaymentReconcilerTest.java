@@ -0,0 +1,185 @@
+package com.learnfirebase.ecommerce.order.infrastructure.payment.reconciliation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.learnfirebase.ecommerce.order.application.command.HandlePaymentCallbackCommand;
+import com.learnfirebase.ecommerce.order.application.model.PaymentRecord;
+import com.learnfirebase.ecommerce.order.application.port.in.HandlePaymentCallbackUseCase;
+import com.learnfirebase.ecommerce.order.application.port.out.PaymentGatewayPort;
+import com.learnfirebase.ecommerce.order.application.port.out.PaymentTransactionPort;
+import com.learnfirebase.ecommerce.order.infrastructure.payment.PaymentTransactionStatus;
+import com.learnfirebase.ecommerce.order.infrastructure.payment.reconciliation.PaymentReconciler.OrderRow;
+import com.learnfirebase.ecommerce.order.infrastructure.payment.reconciliation.PaymentReconciler.TransactionRow;
+
+class PaymentReconcilerTest {
+    private static final BigDecimal TOTAL = new BigDecimal("100000.00");
+
+    private HandlePaymentCallbackUseCase handlePaymentCallbackUseCase;
+    private PaymentGatewayPort paymentGatewayPort;
+    private PaymentTransactionPort paymentTransactionPort;
+    private PaymentReconciler reconciler;
+    private final List<Mismatch> report = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        handlePaymentCallbackUseCase = mock(HandlePaymentCallbackUseCase.class);
+        paymentGatewayPort = mock(PaymentGatewayPort.class);
+        paymentTransactionPort = mock(PaymentTransactionPort.class);
+        reconciler = new PaymentReconciler(handlePaymentCallbackUseCase, paymentGatewayPort, paymentTransactionPort);
+    }
+
+    @Test
+    void detectsEveryKindOfMismatchInOnePass() {
+        List<TransactionRow> transactions = List.of(
+                tx("ref-a", "order-a", PaymentTransactionStatus.SUCCESS, TOTAL),
+                tx("ref-b", "order-b", PaymentTransactionStatus.SUCCESS, TOTAL),
+                tx("ref-c", "order-c", PaymentTransactionStatus.SUCCESS, new BigDecimal("1.00")),
+                tx("ref-d1", "order-d", PaymentTransactionStatus.SUCCESS, TOTAL),
+                tx("ref-d2", "order-d", PaymentTransactionStatus.SUCCESS, TOTAL),
+                tx("ref-e", "order-e", PaymentTransactionStatus.SUCCESS, TOTAL),
+                tx("ref-f", "order-f", PaymentTransactionStatus.FAILED, TOTAL));
+        List<OrderRow> orders = List.of(
+                order("order-0", "PENDING"),
+                order("order-a", "PAID"),
+                order("order-b", "CANCELLED"),
+                order("order-c", "PAID"),
+                order("order-d", "SHIPPING"),
+                order("order-f", "PENDING"),
+                order("order-g", "PENDING"));
+
+        ReconciliationSummary summary = reconciler.reconcile(transactions.iterator(), orders.iterator(), true,
+                report::add);
+
+        assertThat(report).extracting(Mismatch::type, Mismatch::reference).containsExactly(
+                tuple(MismatchType.PAID_ORDER_CANCELLED, "ref-b"),
+                tuple(MismatchType.AMOUNT_MISMATCH, "ref-c"),
+                tuple(MismatchType.DUPLICATE_PAYMENT, "ref-d1"),
+                tuple(MismatchType.DUPLICATE_PAYMENT, "ref-d2"),
+                tuple(MismatchType.ORPHAN_TRANSACTION, "ref-e"));
+        assertThat(summary.getTransactionsScanned()).isEqualTo(7);
+        assertThat(summary.getTotalMismatches()).isEqualTo(5);
+        verify(handlePaymentCallbackUseCase, never()).handleCallback(any());
+    }
+
+    @Test
+    void paidButPendingOrderIsRepairedByReplayingTheSignedCallback() {
+        when(paymentTransactionPort.findByReference("ref-a")).thenReturn(Optional.of(PaymentRecord.builder()
+                .reference("ref-a")
+                .rawPayload("{\"vnp_TxnRef\":\"order-a\",\"vnp_ResponseCode\":\"00\",\"vnp_SecureHash\":\"abc\"}")
+                .build()));
+        when(paymentGatewayPort.verify(any())).thenReturn(
+                PaymentGatewayPort.PaymentVerification.builder().success(true).orderId("order-a").build());
+
+        ReconciliationSummary summary = reconciler.reconcile(
+                List.of(tx("ref-a", "order-a", PaymentTransactionStatus.SUCCESS, TOTAL)).iterator(),
+                List.of(order("order-a", "PENDING")).iterator(), true, report::add);
+
+        verify(handlePaymentCallbackUseCase).handleCallback(HandlePaymentCallbackCommand.builder()
+                .parameters(Map.of("vnp_TxnRef", "order-a", "vnp_ResponseCode", "00",
+                        "vnp_SecureHash", "abc"))
+                .build());
+        assertThat(report).singleElement().satisfies(mismatch -> {
+            assertThat(mismatch.type()).isEqualTo(MismatchType.PAID_ORDER_PENDING);
+            assertThat(mismatch.action()).isEqualTo(Mismatch.Action.REPAIRED);
+        });
+        assertThat(summary.getRepaired()).isEqualTo(1);
+    }
+
+    @Test
+    void callbackThatNoLongerVerifiesIsReportedNotReplayed() {
+        when(paymentTransactionPort.findByReference("ref-a")).thenReturn(Optional.of(PaymentRecord.builder()
+                .reference("ref-a")
+                .rawPayload("{\"vnp_TxnRef\":\"order-a\",\"vnp_SecureHash\":\"abc\"}")
+                .build()));
+        when(paymentGatewayPort.verify(any())).thenReturn(PaymentGatewayPort.PaymentVerification.builder()
+                .success(false).errorMessage("Invalid signature").build());
+
+        reconciler.reconcile(List.of(tx("ref-a", "order-a", PaymentTransactionStatus.SUCCESS, TOTAL)).iterator(),
+                List.of(order("order-a", "PENDING")).iterator(), true, report::add);
+
+        verify(handlePaymentCallbackUseCase, never()).handleCallback(any());
+        assertThat(report).singleElement().extracting(Mismatch::action).isEqualTo(Mismatch.Action.REPORTED);
+    }
+
+    @Test
+    void unsignedLegacyPayloadIsReportedNotReplayed() {
+        when(paymentTransactionPort.findByReference("ref-a")).thenReturn(Optional.of(PaymentRecord.builder()
+                .reference("ref-a")
+                .rawPayload("{\"vnp_TxnRef\":\"order-a\"}")
+                .build()));
+
+        reconciler.reconcile(List.of(tx("ref-a", "order-a", PaymentTransactionStatus.SUCCESS, TOTAL)).iterator(),
+                List.of(order("order-a", "PENDING")).iterator(), true, report::add);
+
+        verify(paymentGatewayPort, never()).verify(any());
+        assertThat(report).singleElement().extracting(Mismatch::detail)
+                .isEqualTo("No signed callback stored for the transaction");
+    }
+
+    @Test
+    void readsEachInputOnceAndStopsReadingOrdersAfterTheLastTransaction() {
+        CountingIterator<TransactionRow> transactions = new CountingIterator<>(IntStream.range(0, 1000)
+                .mapToObj(i -> tx("ref-" + i, id(i * 2), PaymentTransactionStatus.FAILED, TOTAL))
+                .iterator());
+        CountingIterator<OrderRow> orders = new CountingIterator<>(IntStream.range(0, 10_000)
+                .mapToObj(i -> order(id(i), "PAID"))
+                .iterator());
+
+        ReconciliationSummary summary = reconciler.reconcile(transactions, orders, true, report::add);
+
+        assertThat(report).isEmpty();
+        assertThat(transactions.served).isEqualTo(1000);
+        assertThat(orders.served).isEqualTo(1999);
+        assertThat(summary.getOrdersScanned()).isEqualTo(1999);
+    }
+
+    private static String id(int i) {
+        return String.format("order-%06d", i);
+    }
+
+    private static TransactionRow tx(String reference, String orderId, PaymentTransactionStatus status,
+            BigDecimal amount) {
+        return new TransactionRow(reference, orderId, status, amount);
+    }
+
+    private static OrderRow order(String id, String status) {
+        return new OrderRow(id, status, TOTAL);
+    }
+
+    private static final class CountingIterator<T> implements Iterator<T> {
+        private final Iterator<T> delegate;
+        private int served;
+
+        CountingIterator(Iterator<T> delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return delegate.hasNext();
+        }
+
+        @Override
+        public T next() {
+            served++;
+            return delegate.next();
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.learnfirebase.ecommerce.order.infrastructure.product;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import com.learnfirebase.ecommerce.order.application.port.out.LoadProductPort;
+import com.learnfirebase.ecommerce.product.application.dto.ProductPricingDto;
+import com.learnfirebase.ecommerce.product.application.port.out.ProductRepository;
+import com.learnfirebase.ecommerce.promotion.application.dto.FlashSaleProductSnapshot;
+import com.learnfirebase.ecommerce.promotion.application.port.out.FlashSaleCachePort;
+
+class ProductPricingClientTest {
+
+    private ProductRepository productRepository;
+    private FlashSaleCachePort flashSaleCachePort;
+    private ProductPricingClient client;
+
+    @BeforeEach
+    void setUp() {
+        productRepository = mock(ProductRepository.class);
+        flashSaleCachePort = mock(FlashSaleCachePort.class);
+        client = new ProductPricingClient(productRepository, flashSaleCachePort);
+    }
+
+    @Test
+    void loadsAllProductsInOneQueryAndServesRepeatsFromCache() {
+        when(productRepository.findPricingByIds(anyCollection())).thenReturn(List.of(
+                pricing("p-1", "100"),
+                pricing("p-2", "250")));
+
+        Map<String, LoadProductPort.ProductInfo> first = client.loadProducts("VND", List.of("p-1", "p-2", "missing"),
+                Set.of());
+        Map<String, LoadProductPort.ProductInfo> second = client.loadProducts("VND", List.of("p-1", "p-2"), Set.of());
+
+        assertThat(first).containsOnlyKeys("p-1", "p-2");
+        assertThat(first.get("p-2").getPrice()).isEqualByComparingTo("250");
+        assertThat(first.get("p-2").getSellerId()).isEqualTo("seller-p-2");
+        assertThat(second).containsOnlyKeys("p-1", "p-2");
+        verify(productRepository, times(1)).findPricingByIds(anyCollection());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void queriesOnlyUncachedProducts() {
+        when(productRepository.findPricingByIds(anyCollection()))
+                .thenReturn(List.of(pricing("p-1", "100")))
+                .thenReturn(List.of(pricing("p-3", "300")));
+
+        client.loadProducts("VND", List.of("p-1"), Set.of());
+        Map<String, LoadProductPort.ProductInfo> result = client.loadProducts("VND", List.of("p-1", "p-3"), Set.of());
+
+        ArgumentCaptor<Collection<String>> captor = ArgumentCaptor.forClass(Collection.class);
+        verify(productRepository, times(2)).findPricingByIds(captor.capture());
+        assertThat(captor.getAllValues().get(1)).containsExactly("p-3");
+        assertThat(result).containsOnlyKeys("p-1", "p-3");
+    }
+
+    @Test
+    void prewarmedFlashSaleProductsAreServedWithoutTheDatabase() {
+        when(flashSaleCachePort.getProductSnapshots(anyCollection())).thenReturn(Map.of("p-1",
+                FlashSaleProductSnapshot.builder()
+                        .productId("p-1")
+                        .price(new BigDecimal("100"))
+                        .currency("VND")
+                        .sellerId("seller-p-1")
+                        .build()));
+
+        Map<String, LoadProductPort.ProductInfo> result = client.loadProducts("VND", List.of("p-1"), Set.of("p-1"));
+
+        assertThat(result.get("p-1").getSellerId()).isEqualTo("seller-p-1");
+        verify(productRepository, never()).findPricingByIds(anyCollection());
+    }
+
+    @Test
+    void regularLinesNeverUseTheFlashSaleSnapshot() {
+        when(productRepository.findPricingByIds(anyCollection())).thenReturn(List.of(pricing("p-1", "120")));
+
+        Map<String, LoadProductPort.ProductInfo> result = client.loadProducts("VND", List.of("p-1"), Set.of());
+
+        assertThat(result.get("p-1").getPrice()).isEqualByComparingTo("120");
+        verify(flashSaleCachePort, never()).getProductSnapshots(anyCollection());
+    }
+
+    @Test
+    void snapshotServedToAFlashSaleLineIsNotCachedForRegularLines() {
+        when(flashSaleCachePort.getProductSnapshots(anyCollection())).thenReturn(Map.of("p-1",
+                FlashSaleProductSnapshot.builder()
+                        .productId("p-1")
+                        .price(new BigDecimal("100"))
+                        .currency("VND")
+                        .sellerId("seller-p-1")
+                        .build()));
+        when(productRepository.findPricingByIds(anyCollection())).thenReturn(List.of(pricing("p-1", "120")));
+
+        client.loadProducts("VND", List.of("p-1"), Set.of("p-1"));
+        Map<String, LoadProductPort.ProductInfo> regular = client.loadProducts("VND", List.of("p-1"), Set.of());
+
+        assertThat(regular.get("p-1").getPrice()).isEqualByComparingTo("120");
+    }
+
+    private ProductPricingDto pricing(String id, String price) {
+        return ProductPricingDto.builder()
+                .productId(id)
+                .price(new BigDecimal(price))
+                .currency("VND")
+                .sellerId("seller-" + id)
+                .build();
+    }
+}
@@ -2,7 +2,9 @@ package com.learnfirebase.ecommerce.product.adapter.web;
 
 import java.math.BigDecimal;
 import java.security.Principal;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -69,9 +71,7 @@ public class ProductController {
 
         PageResponse<ProductDto> products = queryProductUseCase.searchProducts(query, pageRequest);
 
-        // Enrich with inventory (simplified for MVP, ideally should be batched)
-        List<ProductDto> enriched = products.getContent().stream()
-                .map(this::enrichWithInventory)
+        List<ProductDto> enriched = enrichWithInventory(products.getContent()).stream()
                 .filter(p -> includeOutOfStock || p.getQuantity() == null || p.getQuantity() > 0)
                 .toList();
 
@@ -123,8 +123,7 @@ public class ProductController {
                 .build();
 
         ProductSearchWithFacetsDto result = queryProductUseCase.searchProductsAdvanced(query, pageRequest);
-        List<ProductDto> enriched = result.getItems().stream()
-                .map(this::enrichWithInventory)
+        List<ProductDto> enriched = enrichWithInventory(result.getItems()).stream()
                 .filter(p -> includeOutOfStock || p.getQuantity() == null || p.getQuantity() > 0)
                 .toList();
 
@@ -143,7 +142,7 @@ public class ProductController {
     @GetMapping("/{id}")
     public ResponseEntity<ProductDto> getById(@PathVariable("id") String id) {
         ProductDto product = queryProductUseCase.getProduct(id);
-        return ResponseEntity.ok(enrichWithInventory(product));
+        return ResponseEntity.ok(enrichWithInventory(List.of(product)).get(0));
     }
 
     @PostMapping
@@ -195,45 +194,55 @@ public class ProductController {
         return ResponseEntity.noContent().build();
     }
 
-    private ProductDto enrichWithInventory(ProductDto product) {
+    private List<ProductDto> enrichWithInventory(List<ProductDto> products) {
+        Map<String, InventoryDto.ItemDto> stock;
         try {
-            InventoryDto inventory = queryInventoryUseCase.getInventoryByProductId(product.getId());
-            Integer totalStock = product.getQuantity() != null && product.getQuantity() == 0
-                    ? 0
-                    : inventory.getItems().stream()
-                            .filter(item -> item.getProductId().equals(product.getId()))
-                            .map(item -> Math.max(0, item.getAvailable() - item.getReserved()))
-                            .findFirst()
-                            .orElse(product.getQuantity() != null ? product.getQuantity() : 0);
-
-            // Create a NEW ProductDto builder based on existing one (Dto is immutable)
-            return ProductDto.builder()
-                    .id(product.getId())
-                    .name(product.getName())
-                    .description(product.getDescription())
-                    .price(product.getPrice())
-                    .currency(product.getCurrency())
-                    .categoryId(product.getCategoryId())
-                    .createdAt(product.getCreatedAt())
-                    .updatedAt(product.getUpdatedAt())
-                    .quantity(totalStock)
-                    .sellerId(product.getSellerId())
-                    .images(product.getImages())
-                    .variants(product.getVariants().stream().map(v -> ProductDto.VariantDto.builder()
-                            .sku(v.getSku())
-                            .name(v.getName())
-                            .price(v.getPrice())
-                            .quantity(inventory.getItems().stream()
-                                    .filter(item -> item.getProductId().equals(v.getSku()))
-                                    .map(item -> Math.max(0, item.getAvailable() - item.getReserved()))
-                                    .findFirst()
-                                    .orElse(v.getQuantity() != null ? v.getQuantity() : 0))
-                            .build()).toList())
-                    .build();
+            // One lookup for the product ids and variant SKUs of the whole page.
+            List<String> skus = new ArrayList<>();
+            products.forEach(product -> {
+                skus.add(product.getId());
+                product.getVariants().forEach(v -> skus.add(v.getSku()));
+            });
+            stock = queryInventoryUseCase.getAvailability(skus);
         } catch (Exception e) {
-            // If inventory service fails or no data, return product as is with 0 stock
-            return product;
+            // If inventory service fails, return the products as they are
+            return products;
         }
+        return products.stream().map(product -> enrichWithInventory(product, stock)).toList();
+    }
+
+    private ProductDto enrichWithInventory(ProductDto product, Map<String, InventoryDto.ItemDto> stock) {
+        Integer totalStock = product.getQuantity() != null && product.getQuantity() == 0
+                ? 0
+                : sellable(stock.get(product.getId()), product.getQuantity());
+
+        // Create a NEW ProductDto builder based on existing one (Dto is immutable)
+        return ProductDto.builder()
+                .id(product.getId())
+                .name(product.getName())
+                .description(product.getDescription())
+                .price(product.getPrice())
+                .currency(product.getCurrency())
+                .categoryId(product.getCategoryId())
+                .createdAt(product.getCreatedAt())
+                .updatedAt(product.getUpdatedAt())
+                .quantity(totalStock)
+                .sellerId(product.getSellerId())
+                .images(product.getImages())
+                .variants(product.getVariants().stream().map(v -> ProductDto.VariantDto.builder()
+                        .sku(v.getSku())
+                        .name(v.getName())
+                        .price(v.getPrice())
+                        .quantity(sellable(stock.get(v.getSku()), v.getQuantity()))
+                        .build()).toList())
+                .build();
+    }
+
+    private static int sellable(InventoryDto.ItemDto item, Integer fallback) {
+        if (item == null) {
+            return fallback != null ? fallback : 0;
+        }
+        return Math.max(0, item.getAvailable() - item.getReserved());
     }
 
     @Data
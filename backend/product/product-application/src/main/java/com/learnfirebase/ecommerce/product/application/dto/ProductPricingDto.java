@@ -0,0 +1,15 @@
+package com.learnfirebase.ecommerce.product.application.dto;
+
+import java.math.BigDecimal;
+
+import lombok.Builder;
+import lombok.Value;
+
+@Value
+@Builder
+public class ProductPricingDto {
+    String productId;
+    BigDecimal price;
+    String currency;
+    String sellerId;
+}
@@ -1,7 +1,10 @@
 package com.learnfirebase.ecommerce.product.application.port.out;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
+import com.learnfirebase.ecommerce.product.application.dto.ProductPricingDto;
 import com.learnfirebase.ecommerce.product.application.dto.ProductSearchQuery;
 import com.learnfirebase.ecommerce.common.application.pagination.PageRequest;
 import com.learnfirebase.ecommerce.common.application.pagination.PageResponse;
@@ -12,6 +15,8 @@ public interface ProductRepository {
     Product save(Product product);
 
     Optional<Product> findById(ProductId id);
+
+    List<ProductPricingDto> findPricingByIds(Collection<String> ids);
     
     void delete(ProductId id);
 
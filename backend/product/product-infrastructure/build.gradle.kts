@@ -15,4 +15,5 @@ dependencies {
     implementation("org.postgresql:postgresql")
     implementation("org.elasticsearch.client:elasticsearch-rest-client")
     implementation("com.fasterxml.jackson.core:jackson-databind")
+    implementation("io.micrometer:micrometer-core")
 }
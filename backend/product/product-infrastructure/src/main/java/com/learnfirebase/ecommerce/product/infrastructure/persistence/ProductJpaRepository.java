@@ -1,5 +1,8 @@
 package com.learnfirebase.ecommerce.product.infrastructure.persistence;
 
+import java.util.Collection;
+import java.util.List;
+
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Modifying;
@@ -10,4 +13,7 @@ public interface ProductJpaRepository extends JpaRepository<ProductEntity, Strin
     @Modifying
     @Query("UPDATE ProductEntity p SET p.soldCount = COALESCE(p.soldCount, 0) + :quantity WHERE p.id = :id")
     void incrementSoldCount(@Param("id") String id, @Param("quantity") int quantity);
+
+    @Query("SELECT p.id AS id, p.price AS price, p.currency AS currency, p.sellerId AS sellerId FROM ProductEntity p WHERE p.id IN :ids")
+    List<ProductPricingView> findPricingByIdIn(@Param("ids") Collection<String> ids);
 }
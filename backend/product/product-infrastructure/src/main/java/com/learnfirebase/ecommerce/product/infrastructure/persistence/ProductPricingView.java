@@ -0,0 +1,13 @@
+package com.learnfirebase.ecommerce.product.infrastructure.persistence;
+
+import java.math.BigDecimal;
+
+public interface ProductPricingView {
+    String getId();
+
+    BigDecimal getPrice();
+
+    String getCurrency();
+
+    String getSellerId();
+}
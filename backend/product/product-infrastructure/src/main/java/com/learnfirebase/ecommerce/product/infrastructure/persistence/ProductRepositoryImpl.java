@@ -1,5 +1,6 @@
 package com.learnfirebase.ecommerce.product.infrastructure.persistence;
 
+import java.util.Collection;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
@@ -11,6 +12,7 @@ import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.data.jpa.domain.Specification;
 
+import com.learnfirebase.ecommerce.product.application.dto.ProductPricingDto;
 import com.learnfirebase.ecommerce.product.application.dto.ProductSearchQuery;
 import com.learnfirebase.ecommerce.common.application.pagination.PageRequest;
 import com.learnfirebase.ecommerce.common.application.pagination.PageResponse;
@@ -45,6 +47,22 @@ public class ProductRepositoryImpl implements ProductRepository {
         return productJpaRepository.findById(Objects.requireNonNull(id.getValue())).map(this::toDomain);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<ProductPricingDto> findPricingByIds(Collection<String> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return List.of();
+        }
+        return productJpaRepository.findPricingByIdIn(ids).stream()
+                .map(view -> ProductPricingDto.builder()
+                        .productId(view.getId())
+                        .price(view.getPrice())
+                        .currency(view.getCurrency())
+                        .sellerId(view.getSellerId())
+                        .build())
+                .toList();
+    }
+
     @Override
     @Transactional
     public void delete(ProductId id) {
@@ -164,7 +182,7 @@ public class ProductRepositoryImpl implements ProductRepository {
                 .build();
     }
 
-    private ProductEntity toEntity(Product product) {
+    ProductEntity toEntity(Product product) {
         ProductEntity entity = ProductEntity.builder()
                 .id(product.getId().getValue())
                 .name(product.getName())
@@ -200,7 +218,7 @@ public class ProductRepositoryImpl implements ProductRepository {
         return entity;
     }
 
-    private Product toDomain(ProductEntity entity) {
+    Product toDomain(ProductEntity entity) {
         return Product.builder()
                 .id(new ProductId(entity.getId()))
                 .name(entity.getName())
@@ -37,6 +37,7 @@ public class ElasticsearchProductSearchAdapter implements ProductSearchIndexPort
 
     private final RestClient restClient;
     private final ElasticsearchProperties properties;
+    private final ProductIndexQueue indexQueue;
     private final ObjectMapper objectMapper = new ObjectMapper();
 
     @Override
@@ -52,13 +53,11 @@ public class ElasticsearchProductSearchAdapter implements ProductSearchIndexPort
             doc.put("soldCount", product.getSoldCount() == null ? 0 : product.getSoldCount());
             doc.put("sellerId", product.getSellerId());
             doc.put("categoryId", product.getCategory() != null ? product.getCategory().getId() : null);
+            Instant updatedAt = product.getUpdatedAt() != null ? product.getUpdatedAt() : Instant.now();
             doc.put("createdAt", product.getCreatedAt() != null ? product.getCreatedAt().toString() : Instant.now().toString());
-            doc.put("updatedAt", product.getUpdatedAt() != null ? product.getUpdatedAt().toString() : Instant.now().toString());
+            doc.put("updatedAt", updatedAt.toString());
 
-            Request request = new Request("PUT", "/" + properties.getIndex() + "/_doc/" + product.getId().getValue());
-            request.addParameter("refresh", "wait_for");
-            request.setJsonEntity(objectMapper.writeValueAsString(doc));
-            restClient.performRequest(request);
+            indexQueue.index(product.getId().getValue(), objectMapper.writeValueAsString(doc), updatedAt);
         } catch (Exception e) {
             log.warn("Failed to index product {}: {}", product.getId().getValue(), e.getMessage());
         }
@@ -67,13 +66,7 @@ public class ElasticsearchProductSearchAdapter implements ProductSearchIndexPort
     @Override
     public void deleteIndex(String productId) {
         if (productId == null) return;
-        try {
-            Request request = new Request("DELETE", "/" + properties.getIndex() + "/_doc/" + productId);
-            request.addParameter("refresh", "wait_for");
-            restClient.performRequest(request);
-        } catch (Exception e) {
-            log.warn("Failed to delete product index {}: {}", productId, e.getMessage());
-        }
+        indexQueue.delete(productId, Instant.now());
     }
 
     @Override
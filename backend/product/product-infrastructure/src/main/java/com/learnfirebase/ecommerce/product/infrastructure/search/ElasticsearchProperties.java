@@ -1,5 +1,7 @@
 package com.learnfirebase.ecommerce.product.infrastructure.search;
 
+import java.time.Duration;
+
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
 import lombok.Data;
@@ -12,4 +14,30 @@ public class ElasticsearchProperties {
     private String username;
     private String password;
     private String index = "products";
+    /**
+     * Most index/delete actions sent in one {@code _bulk} request; a queue this deep is flushed without waiting.
+     */
+    private int bulkSize = 500;
+    /**
+     * Longest a queued product change waits before it is sent.
+     */
+    private Duration flushInterval = Duration.ofSeconds(1);
+    /**
+     * Wait before resending after a failed bulk request; doubles on each further failure up to
+     * {@code maxRetryBackoff}.
+     */
+    private Duration retryBackoff = Duration.ofMillis(500);
+    private Duration maxRetryBackoff = Duration.ofSeconds(30);
+    /**
+     * How often {@link ProductIndexSweeper} looks for product changes that were never settled.
+     */
+    private Duration sweepInterval = Duration.ofMinutes(5);
+    /**
+     * Age a product change must reach before the sweeper treats it as lost rather than still on its way.
+     */
+    private Duration sweepGrace = Duration.ofMinutes(5);
+    /**
+     * Most products one sweep queues; bounds the catch-up after an outage, and the first reindex of the catalog.
+     */
+    private int sweepLimit = 5000;
 }
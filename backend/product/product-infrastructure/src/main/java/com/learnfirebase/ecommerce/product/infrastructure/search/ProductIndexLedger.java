@@ -0,0 +1,77 @@
+package com.learnfirebase.ecommerce.product.infrastructure.search;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Records in products.indexed_at the last change of each product that Elasticsearch has settled, in the row the
+ * change itself was written to. A product whose updated_at or deleted_at is newer still has a change in some
+ * node's in-memory {@link ProductIndexQueue}, or had one there when the node died; {@link ProductIndexSweeper}
+ * finds those through the partial index of V12 and queues them again, so every committed change reaches the
+ * index at least once.
+ */
+@Component
+@RequiredArgsConstructor
+public class ProductIndexLedger {
+    private static final String SETTLE_INDEXED_SQL = """
+            UPDATE products SET indexed_at = ?
+            WHERE id = ? AND (indexed_at IS NULL OR indexed_at < ?)
+            """;
+    private static final String SETTLE_DELETED_SQL = """
+            UPDATE products SET indexed_at = GREATEST(updated_at, deleted_at)
+            WHERE id = ? AND deleted_at IS NOT NULL
+            """;
+    // The first condition is the predicate of idx_products_index_pending, which serves the scan.
+    private static final String PENDING_SQL = """
+            SELECT id, deleted_at IS NOT NULL AS deleted
+            FROM products
+            WHERE (indexed_at IS NULL OR indexed_at < updated_at OR indexed_at < deleted_at)
+              AND COALESCE(deleted_at, updated_at, created_at, TIMESTAMPTZ 'epoch') < ?
+              AND id > ?
+            ORDER BY id
+            LIMIT ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Marks the given actions as settled: applied, superseded by a newer version or rejected for good.
+     */
+    void settle(List<ProductIndexQueue.Action> actions) {
+        List<Object[]> indexed = new ArrayList<>();
+        List<Object[]> deleted = new ArrayList<>();
+        for (ProductIndexQueue.Action action : actions) {
+            if (action.delete()) {
+                deleted.add(new Object[] {action.productId()});
+            } else {
+                Timestamp changedAt = Timestamp.from(action.changedAt());
+                indexed.add(new Object[] {changedAt, action.productId(), changedAt});
+            }
+        }
+        if (!indexed.isEmpty()) {
+            jdbcTemplate.batchUpdate(SETTLE_INDEXED_SQL, indexed);
+        }
+        if (!deleted.isEmpty()) {
+            jdbcTemplate.batchUpdate(SETTLE_DELETED_SQL, deleted);
+        }
+    }
+
+    /**
+     * One page, in id order after {@code afterId}, of products with a change older than {@code changedBefore}
+     * that was never settled.
+     */
+    List<PendingProduct> findPending(Instant changedBefore, String afterId, int limit) {
+        return jdbcTemplate.query(PENDING_SQL, (rs, rowNum) -> new PendingProduct(rs.getString("id"),
+                rs.getBoolean("deleted")), Timestamp.from(changedBefore), afterId, limit);
+    }
+
+    record PendingProduct(String id, boolean deleted) {
+    }
+}
@@ -0,0 +1,307 @@
+package com.learnfirebase.ecommerce.product.infrastructure.search;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.elasticsearch.client.Request;
+import org.elasticsearch.client.Response;
+import org.elasticsearch.client.ResponseException;
+import org.elasticsearch.client.RestClient;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Product changes waiting to reach Elasticsearch, at most one per product: a newer change replaces the queued
+ * one, so a product saved ten times in a second is indexed once. A background thread sends them through
+ * {@code _bulk} every {@code flushInterval}, or as soon as {@code bulkSize} are queued. Actions or whole
+ * requests rejected with 429 or 5xx, and requests that fail in transit, are queued again (unless a newer change
+ * arrived meanwhile) and resent after a backoff. A request rejected as a whole for any other reason is split in
+ * halves until the rejected actions are isolated; those, and actions rejected on their own, are dropped, counted
+ * and logged, since resending them cannot help.
+ * <p>
+ * Every action carries the time of the change as an external version, so Elasticsearch refuses (409) a write
+ * older than the document it holds: a retried or backed-off change from one node never overwrites a newer one
+ * another node indexed first.
+ * <p>
+ * Nothing is refreshed on request: documents become searchable with the index's own refresh, about a second
+ * later, and saving a product no longer waits for Elasticsearch at all.
+ * <p>
+ * The queue lives in memory; what makes delivery durable is {@link ProductIndexLedger}. Settled actions are
+ * recorded there, and {@link ProductIndexSweeper} queues again any change that stays unsettled, such as one
+ * lost when a node dies.
+ */
+@Slf4j
+@Component
+public class ProductIndexQueue implements SmartLifecycle {
+    private final RestClient restClient;
+    private final ElasticsearchProperties properties;
+    private final ProductIndexLedger ledger;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<String, Action> pending = new ConcurrentHashMap<>();
+    private final Semaphore wakeUps = new Semaphore(0);
+    private final Counter indexed;
+    private final Counter retried;
+    private final Counter stale;
+    private final Counter dropped;
+    private volatile Thread flusher;
+    private volatile boolean running;
+
+    public ProductIndexQueue(RestClient restClient, ElasticsearchProperties properties, ProductIndexLedger ledger,
+            MeterRegistry meterRegistry) {
+        this.restClient = restClient;
+        this.properties = properties;
+        this.ledger = ledger;
+        Gauge.builder("search.index.queue.depth", pending, Map::size).register(meterRegistry);
+        this.indexed = Counter.builder("search.index.actions").tag("outcome", "indexed").register(meterRegistry);
+        this.retried = Counter.builder("search.index.actions").tag("outcome", "retried").register(meterRegistry);
+        this.stale = Counter.builder("search.index.actions").tag("outcome", "stale").register(meterRegistry);
+        this.dropped = Counter.builder("search.index.actions").tag("outcome", "dropped").register(meterRegistry);
+    }
+
+    /**
+     * Queues {@code document} (JSON) as the source of the product as of {@code changedAt}, its version.
+     */
+    public void index(String productId, String document, Instant changedAt) {
+        enqueue(new Action(productId, document, changedAt));
+    }
+
+    public void delete(String productId, Instant deletedAt) {
+        enqueue(new Action(productId, null, deletedAt));
+    }
+
+    public int depth() {
+        return pending.size();
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        flusher = new Thread(this::run, "product-index-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        Thread current = flusher;
+        if (current != null) {
+            current.interrupt();
+            try {
+                current.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        // One last attempt, so changes made just before shutdown are not lost with the node.
+        while (!pending.isEmpty() && flush()) {
+            // keep flushing while Elasticsearch accepts
+        }
+        if (!pending.isEmpty()) {
+            log.warn("[SEARCH-INDEX] {} product changes were not indexed before shutdown", pending.size());
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void enqueue(Action action) {
+        pending.merge(action.productId(), action,
+                (queued, next) -> next.changedAt().isBefore(queued.changedAt()) ? queued : next);
+        if (pending.size() >= properties.getBulkSize() && wakeUps.availablePermits() == 0) {
+            wakeUps.release();
+        }
+    }
+
+    private void run() {
+        long backoff = properties.getRetryBackoff().toMillis();
+        while (running) {
+            try {
+                wakeUps.tryAcquire(properties.getFlushInterval().toMillis(), TimeUnit.MILLISECONDS);
+                wakeUps.drainPermits();
+                while (running && !pending.isEmpty()) {
+                    if (flush()) {
+                        backoff = properties.getRetryBackoff().toMillis();
+                    } else {
+                        Thread.sleep(backoff);
+                        backoff = Math.min(backoff * 2, properties.getMaxRetryBackoff().toMillis());
+                    }
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException ex) {
+                log.error("[SEARCH-INDEX] Flush failed", ex);
+            }
+        }
+    }
+
+    /**
+     * Sends one batch. Returns false when something has to be retried, so the caller backs off.
+     */
+    boolean flush() {
+        List<Action> batch = drain();
+        if (batch.isEmpty()) {
+            return true;
+        }
+        List<Action> settled = new ArrayList<>(batch.size());
+        boolean done = send(batch, settled);
+        settle(settled);
+        return done;
+    }
+
+    private boolean send(List<Action> batch, List<Action> settled) {
+        JsonNode items;
+        try {
+            Response response = restClient.performRequest(bulkRequest(batch));
+            items = objectMapper.readTree(response.getEntity().getContent()).path("items");
+        } catch (ResponseException ex) {
+            int status = ex.getResponse().getStatusLine().getStatusCode();
+            if (retryable(status)) {
+                return retry(batch, ex);
+            }
+            if (batch.size() > 1) {
+                // Rejected as a whole (malformed, too large, ...): halve it until the culprits stand alone.
+                log.warn("[SEARCH-INDEX] Elasticsearch rejected a bulk request of {} actions with {}, splitting it",
+                        batch.size(), status);
+                int half = batch.size() / 2;
+                boolean first = send(batch.subList(0, half), settled);
+                boolean second = send(batch.subList(half, batch.size()), settled);
+                return first && second;
+            }
+            Action action = batch.get(0);
+            dropped.increment();
+            settled.add(action);
+            log.error("[SEARCH-INDEX] Elasticsearch rejected product {} with {}, dropping it: {}", action.productId(),
+                    status, ex.getMessage());
+            return true;
+        } catch (IOException ex) {
+            return retry(batch, ex);
+        }
+        if (!items.isArray() || items.size() != batch.size()) {
+            // Without one item per action there is no telling which ones were applied; the sweeper resends them.
+            dropped.increment(batch.size());
+            log.error("[SEARCH-INDEX] Bulk response for {} actions carries {} items, dropping the batch", batch.size(),
+                    items.isArray() ? items.size() : "no");
+            return true;
+        }
+        boolean done = true;
+        for (int i = 0; i < batch.size(); i++) {
+            Action action = batch.get(i);
+            // Each item is keyed by its action type: {"index": {...}} or {"delete": {...}}.
+            JsonNode item = items.path(i);
+            JsonNode result = item.size() > 0 ? item.elements().next() : item;
+            int status = result.path("status").asInt(500);
+            if (status < 300 || (action.delete() && status == 404)) {
+                indexed.increment();
+                settled.add(action);
+            } else if (status == 409) {
+                // The index already holds this version of the product or a newer one.
+                stale.increment();
+                settled.add(action);
+            } else if (retryable(status)) {
+                requeue(action);
+                done = false;
+            } else {
+                dropped.increment();
+                settled.add(action);
+                log.warn("[SEARCH-INDEX] Elasticsearch rejected product {} with {}: {}", action.productId(), status,
+                        result.path("error").path("reason").asText(""));
+            }
+        }
+        return done;
+    }
+
+    private void settle(List<Action> settled) {
+        if (settled.isEmpty()) {
+            return;
+        }
+        try {
+            ledger.settle(settled);
+        } catch (RuntimeException ex) {
+            // Harmless beyond the extra work: the sweeper resends them, and the index refuses them as stale.
+            log.warn("[SEARCH-INDEX] Could not record {} settled product changes: {}", settled.size(),
+                    ex.getMessage());
+        }
+    }
+
+    private boolean retry(List<Action> batch, IOException ex) {
+        log.warn("[SEARCH-INDEX] Bulk request of {} actions failed, retrying: {}", batch.size(), ex.getMessage());
+        batch.forEach(this::requeue);
+        return false;
+    }
+
+    private static boolean retryable(int status) {
+        return status == 429 || status >= 500;
+    }
+
+    private List<Action> drain() {
+        List<Action> batch = new ArrayList<>(Math.min(pending.size(), properties.getBulkSize()));
+        Iterator<Action> actions = pending.values().iterator();
+        while (actions.hasNext() && batch.size() < properties.getBulkSize()) {
+            Action action = actions.next();
+            if (pending.remove(action.productId(), action)) {
+                batch.add(action);
+            }
+        }
+        return batch;
+    }
+
+    private void requeue(Action action) {
+        // A change queued while this one was in flight is newer and wins.
+        if (pending.putIfAbsent(action.productId(), action) == null) {
+            retried.increment();
+        }
+    }
+
+    private Request bulkRequest(List<Action> batch) throws IOException {
+        StringBuilder body = new StringBuilder();
+        for (Action action : batch) {
+            Map<String, Object> target = new LinkedHashMap<>();
+            target.put("_index", properties.getIndex());
+            target.put("_id", action.productId());
+            target.put("version", action.version());
+            target.put("version_type", "external");
+            body.append(objectMapper.writeValueAsString(Map.of(action.delete() ? "delete" : "index", target)))
+                    .append('\n');
+            if (!action.delete()) {
+                body.append(action.document()).append('\n');
+            }
+        }
+        Request request = new Request("POST", "/_bulk");
+        request.setJsonEntity(body.toString());
+        return request;
+    }
+
+    record Action(String productId, String document, Instant changedAt) {
+        boolean delete() {
+            return document == null;
+        }
+
+        /**
+         * Microseconds since the epoch, the precision of the timestamps the change was stored with.
+         */
+        long version() {
+            return ChronoUnit.MICROS.between(Instant.EPOCH, changedAt);
+        }
+    }
+}
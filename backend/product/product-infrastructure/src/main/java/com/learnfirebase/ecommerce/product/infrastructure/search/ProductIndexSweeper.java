@@ -0,0 +1,70 @@
+package com.learnfirebase.ecommerce.product.infrastructure.search;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.learnfirebase.ecommerce.product.application.port.out.ProductRepository;
+import com.learnfirebase.ecommerce.product.application.port.out.ProductSearchIndexPort;
+import com.learnfirebase.ecommerce.product.domain.model.ProductId;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Queues again the product changes {@link ProductIndexLedger} has not seen settled after {@code sweepGrace}:
+ * changes lost with a node's in-memory queue, or whose settlement could not be recorded. Every node sweeps; a
+ * product queued by two nodes is indexed twice with the same version, and the second write is refused as stale.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ProductIndexSweeper {
+    private final ProductIndexLedger ledger;
+    private final ProductRepository productRepository;
+    private final ProductSearchIndexPort productSearchIndexPort;
+    private final ElasticsearchProperties properties;
+
+    @Scheduled(fixedDelayString = "${search.elasticsearch.sweep-interval:PT5M}",
+            initialDelayString = "${search.elasticsearch.sweep-interval:PT5M}")
+    public void run() {
+        try {
+            int queued = sweep();
+            if (queued > 0) {
+                log.info("[SEARCH-INDEX] Queued {} product changes that were never settled", queued);
+            }
+        } catch (RuntimeException ex) {
+            log.error("[SEARCH-INDEX] Sweep failed", ex);
+        }
+    }
+
+    /**
+     * Queues up to {@code sweepLimit} unsettled products and returns how many were queued.
+     */
+    int sweep() {
+        Instant changedBefore = Instant.now().minus(properties.getSweepGrace());
+        String after = "";
+        int queued = 0;
+        while (queued < properties.getSweepLimit()) {
+            int limit = Math.min(properties.getBulkSize(), properties.getSweepLimit() - queued);
+            List<ProductIndexLedger.PendingProduct> page = ledger.findPending(changedBefore, after, limit);
+            for (ProductIndexLedger.PendingProduct pending : page) {
+                if (pending.deleted()) {
+                    productSearchIndexPort.deleteIndex(pending.id());
+                } else {
+                    productRepository.findById(new ProductId(pending.id())).ifPresentOrElse(
+                            productSearchIndexPort::index,
+                            () -> productSearchIndexPort.deleteIndex(pending.id()));
+                }
+            }
+            queued += page.size();
+            if (page.size() < limit) {
+                break;
+            }
+            after = page.get(page.size() - 1).id();
+        }
+        return queued;
+    }
+}
@@ -1,6 +1,7 @@
 package com.learnfirebase.ecommerce.product.infrastructure.search;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
 
 import com.learnfirebase.ecommerce.common.application.pagination.PageRequest;
 import com.learnfirebase.ecommerce.product.application.dto.ProductSearchQuery;
@@ -11,6 +12,7 @@ import java.net.InetSocketAddress;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.elasticsearch.client.RestClient;
 import org.apache.http.HttpHost;
 import org.junit.jupiter.api.AfterEach;
@@ -34,7 +36,8 @@ class ElasticsearchProductSearchAdapterTest {
         properties.setHost("http://127.0.0.1:" + server.getAddress().getPort());
         properties.setIndex("products");
         restClient = RestClient.builder(HttpHost.create(properties.getHost())).build();
-        adapter = new ElasticsearchProductSearchAdapter(restClient, properties);
+        adapter = new ElasticsearchProductSearchAdapter(restClient, properties,
+            new ProductIndexQueue(restClient, properties, mock(ProductIndexLedger.class), new SimpleMeterRegistry()));
     }
 
     @AfterEach
@@ -0,0 +1,219 @@
+package com.learnfirebase.ecommerce.product.infrastructure.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import org.apache.http.HttpHost;
+import org.elasticsearch.client.RestClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+class ProductIndexQueueTest {
+    private static final Instant T1 = Instant.parse("2024-05-01T10:00:00.000001Z");
+    private static final Instant T2 = Instant.parse("2024-05-01T10:00:00.000002Z");
+
+    private HttpServer server;
+    private RestClient restClient;
+    private ProductIndexQueue queue;
+    private SimpleMeterRegistry meterRegistry;
+    private ProductIndexLedger ledger;
+    private final List<String> requestBodies = new ArrayList<>();
+    private final Deque<Reply> replies = new ArrayDeque<>();
+    private Runnable duringRequest = () -> { };
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/_bulk", this::handleBulk);
+        server.start();
+
+        ElasticsearchProperties properties = new ElasticsearchProperties();
+        properties.setHost("http://127.0.0.1:" + server.getAddress().getPort());
+        properties.setIndex("products");
+        restClient = RestClient.builder(HttpHost.create(properties.getHost())).build();
+        meterRegistry = new SimpleMeterRegistry();
+        ledger = mock(ProductIndexLedger.class);
+        queue = new ProductIndexQueue(restClient, properties, ledger, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        if (restClient != null) {
+            restClient.close();
+        }
+        if (server != null) {
+            server.stop(0);
+        }
+    }
+
+    @Test
+    void updatesOfOneProductAreCoalescedIntoASingleBulkAction() {
+        queue.index("product-1", "{\"name\":\"v1\"}", T1);
+        queue.index("product-1", "{\"name\":\"v2\"}", T2);
+        queue.delete("product-2", T1);
+        assertThat(meterRegistry.get("search.index.queue.depth").gauge().value()).isEqualTo(2.0);
+        replies.add(new Reply(200, items("index", 200, "delete", 200)));
+
+        assertThat(queue.flush()).isTrue();
+
+        assertThat(queue.depth()).isZero();
+        assertThat(requestBodies).hasSize(1);
+        assertThat(requestBodies.get(0))
+            .contains("{\"name\":\"v2\"}")
+            .doesNotContain("v1")
+            .contains("\"delete\"")
+            .contains("\"_index\":\"products\"");
+        assertThat(meterRegistry.get("search.index.actions").tag("outcome", "indexed").counter().count())
+            .isEqualTo(2.0);
+    }
+
+    @Test
+    void throttledActionsAreRetriedAndRejectedOnesDropped() {
+        queue.index("product-1", "{\"name\":\"a\"}", T1);
+        replies.add(new Reply(200, items("index", 429)));
+
+        assertThat(queue.flush()).isFalse();
+        assertThat(queue.depth()).isEqualTo(1);
+
+        replies.add(new Reply(200, items("index", 400)));
+
+        assertThat(queue.flush()).isTrue();
+        assertThat(queue.depth()).isZero();
+        assertThat(meterRegistry.get("search.index.actions").tag("outcome", "retried").counter().count())
+            .isEqualTo(1.0);
+        assertThat(meterRegistry.get("search.index.actions").tag("outcome", "dropped").counter().count())
+            .isEqualTo(1.0);
+    }
+
+    @Test
+    void failedRequestIsRequeuedWithoutOverwritingANewerUpdate() {
+        queue.index("product-1", "{\"name\":\"old\"}", T1);
+        queue.index("product-2", "{\"name\":\"other\"}", T1);
+        replies.add(new Reply(503, "{}"));
+        duringRequest = () -> queue.index("product-1", "{\"name\":\"new\"}", T2);
+
+        assertThat(queue.flush()).isFalse();
+        assertThat(queue.depth()).isEqualTo(2);
+
+        duringRequest = () -> { };
+        replies.add(new Reply(200, items("index", 200, "index", 200)));
+
+        assertThat(queue.flush()).isTrue();
+        assertThat(requestBodies.get(1)).contains("new").doesNotContain("old").contains("other");
+    }
+
+    @Test
+    void actionsCarryTheChangeTimeAsExternalVersionAndStaleOnesAreSettled() {
+        queue.index("product-1", "{\"name\":\"new\"}", T2);
+        queue.index("product-1", "{\"name\":\"old\"}", T1);
+        replies.add(new Reply(200, items("index", 409)));
+
+        assertThat(queue.flush()).isTrue();
+
+        assertThat(requestBodies.get(0))
+            .contains("\"version\":" + (T2.getEpochSecond() * 1_000_000 + 2))
+            .contains("\"version_type\":\"external\"")
+            .contains("new")
+            .doesNotContain("old");
+        assertThat(meterRegistry.get("search.index.actions").tag("outcome", "stale").counter().count())
+            .isEqualTo(1.0);
+        assertThat(settled()).extracting(ProductIndexQueue.Action::changedAt).containsExactly(T2);
+    }
+
+    @Test
+    void bulkRequestRejectedAsAWholeIsSplitUntilOnlyTheRejectedActionIsDropped() {
+        queue.index("product-1", "{\"name\":\"a\"}", T1);
+        queue.index("product-2", "{\"name\":\"b\"}", T1);
+        String rejected = "{\"error\":{\"type\":\"illegal_argument_exception\"},\"status\":400}";
+        replies.add(new Reply(400, rejected));
+        replies.add(new Reply(200, items("index", 200)));
+        replies.add(new Reply(400, rejected));
+
+        assertThat(queue.flush()).isTrue();
+
+        assertThat(requestBodies).hasSize(3);
+        assertThat(queue.depth()).isZero();
+        assertThat(meterRegistry.get("search.index.actions").tag("outcome", "indexed").counter().count())
+            .isEqualTo(1.0);
+        assertThat(meterRegistry.get("search.index.actions").tag("outcome", "dropped").counter().count())
+            .isEqualTo(1.0);
+        assertThat(meterRegistry.get("search.index.actions").tag("outcome", "retried").counter().count())
+            .isZero();
+        assertThat(settled()).extracting(ProductIndexQueue.Action::productId)
+            .containsExactlyInAnyOrder("product-1", "product-2");
+    }
+
+    @Test
+    void throttledBulkRequestIsRetried() {
+        queue.index("product-1", "{\"name\":\"a\"}", T1);
+        replies.add(new Reply(429, "{}"));
+
+        assertThat(queue.flush()).isFalse();
+        assertThat(queue.depth()).isEqualTo(1);
+        verify(ledger, never()).settle(anyList());
+    }
+
+    @Test
+    void responseWithoutItemsFailsTheBatchInsteadOfRetryingIt() {
+        queue.index("product-1", "{\"name\":\"a\"}", T1);
+        replies.add(new Reply(200, "{\"took\":1}"));
+
+        assertThat(queue.flush()).isTrue();
+
+        assertThat(queue.depth()).isZero();
+        assertThat(meterRegistry.get("search.index.actions").tag("outcome", "dropped").counter().count())
+            .isEqualTo(1.0);
+        assertThat(meterRegistry.get("search.index.actions").tag("outcome", "retried").counter().count())
+            .isZero();
+        // Nothing is known to be applied, so the sweeper has to find it again.
+        verify(ledger, never()).settle(anyList());
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<ProductIndexQueue.Action> settled() {
+        ArgumentCaptor<List<ProductIndexQueue.Action>> actions = ArgumentCaptor.forClass(List.class);
+        verify(ledger).settle(actions.capture());
+        return actions.getValue();
+    }
+
+    private void handleBulk(HttpExchange exchange) throws IOException {
+        requestBodies.add(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+        duringRequest.run();
+        Reply reply = replies.isEmpty() ? new Reply(500, "{}") : replies.poll();
+        byte[] response = reply.body().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(reply.status(), response.length);
+        exchange.getResponseBody().write(response);
+        exchange.close();
+    }
+
+    /**
+     * Builds a bulk response; arguments alternate between action type and status, in request order.
+     */
+    private static String items(Object... typesAndStatuses) {
+        List<String> items = new ArrayList<>();
+        for (int i = 0; i < typesAndStatuses.length; i += 2) {
+            items.add("{\"" + typesAndStatuses[i] + "\":{\"status\":" + typesAndStatuses[i + 1] + "}}");
+        }
+        return "{\"errors\":true,\"items\":[" + String.join(",", items) + "]}";
+    }
+
+    private record Reply(int status, String body) {
+    }
+}
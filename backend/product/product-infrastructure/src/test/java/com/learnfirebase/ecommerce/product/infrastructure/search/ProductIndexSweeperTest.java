@@ -0,0 +1,69 @@
+package com.learnfirebase.ecommerce.product.infrastructure.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.learnfirebase.ecommerce.product.application.port.out.ProductRepository;
+import com.learnfirebase.ecommerce.product.application.port.out.ProductSearchIndexPort;
+import com.learnfirebase.ecommerce.product.domain.model.Product;
+import com.learnfirebase.ecommerce.product.domain.model.ProductId;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ProductIndexSweeperTest {
+
+    private ProductIndexLedger ledger;
+    private ProductRepository productRepository;
+    private ProductSearchIndexPort searchIndexPort;
+    private ElasticsearchProperties properties;
+    private ProductIndexSweeper sweeper;
+
+    @BeforeEach
+    void setUp() {
+        ledger = mock(ProductIndexLedger.class);
+        productRepository = mock(ProductRepository.class);
+        searchIndexPort = mock(ProductSearchIndexPort.class);
+        properties = new ElasticsearchProperties();
+        properties.setBulkSize(2);
+        properties.setSweepLimit(10);
+        sweeper = new ProductIndexSweeper(ledger, productRepository, searchIndexPort, properties);
+    }
+
+    @Test
+    void unsettledProductsAreQueuedAgainPageByPage() {
+        Product product1 = Product.builder().id(new ProductId("product-1")).build();
+        when(productRepository.findById(any())).thenReturn(Optional.empty());
+        when(productRepository.findById(new ProductId("product-1"))).thenReturn(Optional.of(product1));
+        when(ledger.findPending(any(), eq(""), eq(2))).thenReturn(List.of(
+            new ProductIndexLedger.PendingProduct("product-1", false),
+            new ProductIndexLedger.PendingProduct("product-2", true)));
+        when(ledger.findPending(any(), eq("product-2"), eq(2))).thenReturn(List.of(
+            new ProductIndexLedger.PendingProduct("product-3", false)));
+
+        assertThat(sweeper.sweep()).isEqualTo(3);
+
+        verify(searchIndexPort).index(product1);
+        verify(searchIndexPort).deleteIndex("product-2");
+        // Gone from the table since it was listed: nothing left to index.
+        verify(searchIndexPort).deleteIndex("product-3");
+    }
+
+    @Test
+    void sweepStopsAtTheLimit() {
+        properties.setSweepLimit(2);
+        when(ledger.findPending(any(), eq(""), eq(2))).thenReturn(List.of(
+            new ProductIndexLedger.PendingProduct("product-1", true),
+            new ProductIndexLedger.PendingProduct("product-2", true)));
+
+        assertThat(sweeper.sweep()).isEqualTo(2);
+
+        verify(ledger, never()).findPending(any(), eq("product-2"), eq(2));
+    }
+}
@@ -1,16 +1,24 @@
 package com.learnfirebase.ecommerce.promotion.adapter.web;
 
+import java.security.Principal;
 import java.util.List;
 
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
 
 import com.learnfirebase.ecommerce.promotion.application.command.CreateFlashSaleCommand;
+import com.learnfirebase.ecommerce.promotion.application.dto.WaitingRoomState;
+import com.learnfirebase.ecommerce.promotion.application.dto.WaitingRoomStatus;
 import com.learnfirebase.ecommerce.promotion.application.port.in.CreateFlashSaleUseCase;
+import com.learnfirebase.ecommerce.promotion.application.port.in.FlashSaleWaitingRoomUseCase;
 import com.learnfirebase.ecommerce.promotion.application.port.in.ListFlashSalesUseCase;
 import com.learnfirebase.ecommerce.promotion.domain.model.FlashSale;
 import com.learnfirebase.ecommerce.promotion.domain.model.FlashSaleId;
@@ -24,6 +32,7 @@ public class FlashSaleController {
 
     private final CreateFlashSaleUseCase createFlashSaleUseCase;
     private final ListFlashSalesUseCase listFlashSalesUseCase;
+    private final FlashSaleWaitingRoomUseCase waitingRoomUseCase;
 
     @PostMapping("/admin/flash-sales")
     public ResponseEntity<FlashSaleId> createFlashSale(@RequestBody CreateFlashSaleCommand command) {
@@ -36,7 +45,33 @@ public class FlashSaleController {
     }
 
     @GetMapping("/flash-sales")
-    public ResponseEntity<List<FlashSale>> getActiveFlashSales() {
+    public ResponseEntity<List<FlashSale>> getActiveFlashSales(
+            @RequestParam(value = "productId", required = false) String productId) {
+        if (productId != null) {
+            return ResponseEntity.ok(listFlashSalesUseCase.findActiveFlashSale(productId).stream().toList());
+        }
         return ResponseEntity.ok(listFlashSalesUseCase.listActiveFlashSales());
     }
+
+    @PostMapping("/flash-sales/{flashSaleId}/waiting-room")
+    public ResponseEntity<WaitingRoomStatus> joinWaitingRoom(@PathVariable("flashSaleId") String flashSaleId,
+            Principal principal) {
+        if (principal == null) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED);
+        }
+        WaitingRoomStatus status = waitingRoomUseCase.join(flashSaleId, principal.getName());
+        if (status.getState() == WaitingRoomState.SOLD_OUT) {
+            return ResponseEntity.status(HttpStatus.GONE).body(status);
+        }
+        return ResponseEntity.ok(status);
+    }
+
+    @GetMapping("/flash-sales/{flashSaleId}/waiting-room")
+    public ResponseEntity<WaitingRoomStatus> getWaitingRoomStatus(@PathVariable("flashSaleId") String flashSaleId,
+            Principal principal) {
+        if (principal == null) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED);
+        }
+        return ResponseEntity.ok(waitingRoomUseCase.getStatus(flashSaleId, principal.getName()));
+    }
 }
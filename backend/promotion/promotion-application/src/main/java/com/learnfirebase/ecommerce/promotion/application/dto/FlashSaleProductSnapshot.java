@@ -0,0 +1,18 @@
+package com.learnfirebase.ecommerce.promotion.application.dto;
+
+import java.math.BigDecimal;
+
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Catalog data of a flash-sale product, cached next to the sale so checkout does not read the catalog.
+ */
+@Value
+@Builder
+public class FlashSaleProductSnapshot {
+    String productId;
+    BigDecimal price;
+    String currency;
+    String sellerId;
+}
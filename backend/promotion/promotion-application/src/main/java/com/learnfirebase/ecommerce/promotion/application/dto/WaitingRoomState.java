@@ -0,0 +1,12 @@
+package com.learnfirebase.ecommerce.promotion.application.dto;
+
+public enum WaitingRoomState {
+    /** In the queue; {@code position} users are ahead. */
+    WAITING,
+    /** Holds an admission token that lets them order until it expires. */
+    ADMITTED,
+    /** Not queued and the sale has no stock left. */
+    SOLD_OUT,
+    /** Not queued: never joined, or the admission expired or was used. */
+    NOT_QUEUED
+}
@@ -0,0 +1,16 @@
+package com.learnfirebase.ecommerce.promotion.application.dto;
+
+import java.time.Instant;
+
+import lombok.Builder;
+import lombok.Value;
+
+@Value
+@Builder
+public class WaitingRoomStatus {
+    String flashSaleId;
+    WaitingRoomState state;
+    Long position;
+    String admissionToken;
+    Instant admissionExpiresAt;
+}
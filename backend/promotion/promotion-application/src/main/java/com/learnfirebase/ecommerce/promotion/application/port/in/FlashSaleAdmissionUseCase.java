@@ -0,0 +1,14 @@
+package com.learnfirebase.ecommerce.promotion.application.port.in;
+
+public interface FlashSaleAdmissionUseCase {
+    /**
+     * Uses up the user's admission to the flash sale; false if the token is missing, forged, expired or used.
+     */
+    boolean consumeAdmission(String flashSaleId, String userId, String token);
+
+    /**
+     * Gives a consumed admission back, e.g. when the order it was used for failed, so it can be used again until
+     * it expires.
+     */
+    void restoreAdmission(String flashSaleId, String userId, String token);
+}
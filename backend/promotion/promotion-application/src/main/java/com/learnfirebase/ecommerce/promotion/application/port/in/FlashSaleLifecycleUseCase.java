@@ -0,0 +1,21 @@
+package com.learnfirebase.ecommerce.promotion.application.port.in;
+
+import java.time.Duration;
+import java.time.Instant;
+
+public interface FlashSaleLifecycleUseCase {
+    /**
+     * Loads stock and snapshots of every sale running at {@code now} or starting within {@code lead}.
+     */
+    int prewarm(Instant now, Duration lead);
+
+    /**
+     * Copies the Redis stock of running sales into their remaining quantity.
+     */
+    int writeBack(Instant now);
+
+    /**
+     * Ends sales past their end time with their final stock and evicts their cache entries.
+     */
+    int finalizeEnded(Instant now);
+}
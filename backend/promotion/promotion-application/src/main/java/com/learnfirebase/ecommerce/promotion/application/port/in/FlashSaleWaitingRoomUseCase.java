@@ -0,0 +1,9 @@
+package com.learnfirebase.ecommerce.promotion.application.port.in;
+
+import com.learnfirebase.ecommerce.promotion.application.dto.WaitingRoomStatus;
+
+public interface FlashSaleWaitingRoomUseCase {
+    WaitingRoomStatus join(String flashSaleId, String userId);
+    WaitingRoomStatus getStatus(String flashSaleId, String userId);
+    int admitWaiting();
+}
@@ -1,10 +1,12 @@
 package com.learnfirebase.ecommerce.promotion.application.port.in;
 
 import java.util.List;
+import java.util.Optional;
 
 import com.learnfirebase.ecommerce.promotion.domain.model.FlashSale;
 
 public interface ListFlashSalesUseCase {
     List<FlashSale> listActiveFlashSales();
+    Optional<FlashSale> findActiveFlashSale(String productId);
     List<FlashSale> listAllFlashSales();
 }
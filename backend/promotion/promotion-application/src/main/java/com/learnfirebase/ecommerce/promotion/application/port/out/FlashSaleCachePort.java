@@ -1,9 +1,28 @@
 package com.learnfirebase.ecommerce.promotion.application.port.out;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+
+import com.learnfirebase.ecommerce.promotion.application.dto.FlashSaleProductSnapshot;
+import com.learnfirebase.ecommerce.promotion.domain.model.FlashSale;
 import com.learnfirebase.ecommerce.promotion.domain.model.FlashSaleId;
 
 public interface FlashSaleCachePort {
     void setStock(FlashSaleId id, int quantity);
     boolean decrementStock(FlashSaleId id, int quantity);
     Integer getStock(FlashSaleId id);
+
+    /**
+     * Caches the sale and, if known, its product until {@code expiresAt}.
+     */
+    void putSnapshot(FlashSale flashSale, FlashSaleProductSnapshot product, Instant expiresAt);
+    Optional<FlashSale> getSnapshot(FlashSaleId id);
+    Map<String, FlashSaleProductSnapshot> getProductSnapshots(Collection<String> productIds);
+
+    /**
+     * Removes the stock counter, the sale snapshot and the product snapshot, so the sale price stops being served.
+     */
+    void evict(FlashSale flashSale);
 }
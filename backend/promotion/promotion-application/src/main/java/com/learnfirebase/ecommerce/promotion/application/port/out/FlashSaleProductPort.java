@@ -0,0 +1,10 @@
+package com.learnfirebase.ecommerce.promotion.application.port.out;
+
+import java.util.Collection;
+import java.util.Map;
+
+import com.learnfirebase.ecommerce.promotion.application.dto.FlashSaleProductSnapshot;
+
+public interface FlashSaleProductPort {
+    Map<String, FlashSaleProductSnapshot> loadProducts(Collection<String> productIds);
+}
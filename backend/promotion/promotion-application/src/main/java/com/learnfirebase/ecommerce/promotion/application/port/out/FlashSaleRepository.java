@@ -1,5 +1,7 @@
 package com.learnfirebase.ecommerce.promotion.application.port.out;
 
+import java.time.Instant;
+import java.util.Map;
 import java.util.Optional;
 
 import com.learnfirebase.ecommerce.promotion.domain.model.FlashSale;
@@ -11,4 +13,25 @@ public interface FlashSaleRepository {
     Optional<FlashSale> findActiveByProductId(String productId);
     java.util.List<FlashSale> findAllActive();
     java.util.List<FlashSale> findAll();
+
+    /**
+     * ACTIVE sales that are running at some point between {@code from} and {@code to}.
+     */
+    java.util.List<FlashSale> findActiveBetween(Instant from, Instant to);
+
+    /**
+     * ACTIVE sales whose end time is at or before {@code now}.
+     */
+    java.util.List<FlashSale> findActiveEndedBy(Instant now);
+
+    /**
+     * Sets the remaining quantity of several sales in one batch; returns the number of rows changed.
+     */
+    int updateRemainingQuantities(Map<FlashSaleId, Integer> remaining);
+
+    /**
+     * Locks the row of an ACTIVE sale until the transaction ends and returns its total quantity minus the units
+     * held by orders that are not cancelled; empty if the sale is not ACTIVE.
+     */
+    Optional<Integer> lockRemainingFromOrders(FlashSaleId id);
 }
@@ -0,0 +1,31 @@
+package com.learnfirebase.ecommerce.promotion.application.port.out;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import com.learnfirebase.ecommerce.promotion.domain.model.FlashSale;
+import com.learnfirebase.ecommerce.promotion.domain.model.FlashSaleId;
+
+/**
+ * Per-node index of upcoming and running flash sales. The sales it returns are shared, so callers must not
+ * modify them.
+ */
+public interface FlashSaleSchedulePort {
+    /**
+     * An ACTIVE sale that has not ended yet, or empty when it is not indexed and must be loaded elsewhere.
+     */
+    Optional<FlashSale> findById(FlashSaleId id);
+
+    Optional<FlashSale> findActiveByProductId(String productId);
+
+    /**
+     * Sales running now, in start time order.
+     */
+    List<FlashSale> findActive();
+
+    /**
+     * Reloads the sales on every node once the current transaction, if any, has committed.
+     */
+    void changed(Collection<FlashSaleId> ids);
+}
@@ -0,0 +1,41 @@
+package com.learnfirebase.ecommerce.promotion.application.port.out;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.Set;
+
+import com.learnfirebase.ecommerce.promotion.domain.model.FlashSaleId;
+
+public interface WaitingRoomPort {
+    /**
+     * Appends the user to the queue unless already queued, and returns how many users are ahead.
+     */
+    long enqueue(FlashSaleId id, String userId);
+
+    Optional<Long> position(FlashSaleId id, String userId);
+
+    Optional<Admission> findAdmission(FlashSaleId id, String userId);
+
+    /**
+     * Sales whose waiting room has been joined and not closed yet.
+     */
+    Set<FlashSaleId> openRooms();
+
+    /**
+     * Admits users from the head of the queue at the configured rate, never holding more unexpired admissions
+     * than {@code remainingStock}. Returns how many were admitted.
+     */
+    int admit(FlashSaleId id, int remainingStock);
+
+    /**
+     * Drops everyone still waiting, once the sale is over; admissions already issued stay valid until they expire.
+     */
+    void close(FlashSaleId id);
+
+    boolean consume(FlashSaleId id, String userId, String token);
+
+    void restore(FlashSaleId id, String userId, String token);
+
+    record Admission(String token, Instant expiresAt) {
+    }
+}
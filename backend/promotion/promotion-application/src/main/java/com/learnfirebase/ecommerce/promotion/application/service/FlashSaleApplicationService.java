@@ -2,6 +2,7 @@ package com.learnfirebase.ecommerce.promotion.application.service;
 
 import java.time.Instant;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 import com.learnfirebase.ecommerce.common.domain.valueobject.Money;
@@ -10,6 +11,7 @@ import com.learnfirebase.ecommerce.promotion.application.port.in.CreateFlashSale
 import com.learnfirebase.ecommerce.promotion.application.port.in.ListFlashSalesUseCase;
 import com.learnfirebase.ecommerce.promotion.application.port.out.FlashSaleCachePort;
 import com.learnfirebase.ecommerce.promotion.application.port.out.FlashSaleRepository;
+import com.learnfirebase.ecommerce.promotion.application.port.out.FlashSaleSchedulePort;
 import com.learnfirebase.ecommerce.promotion.domain.exception.PromotionDomainException;
 import com.learnfirebase.ecommerce.promotion.domain.model.FlashSale;
 import com.learnfirebase.ecommerce.promotion.domain.model.FlashSaleId;
@@ -22,6 +24,7 @@ public class FlashSaleApplicationService implements CreateFlashSaleUseCase, List
 
     private final FlashSaleRepository flashSaleRepository;
     private final FlashSaleCachePort flashSaleCachePort;
+    private final FlashSaleSchedulePort flashSaleSchedulePort;
 
     @Override
     public FlashSaleId createFlashSale(CreateFlashSaleCommand command) {
@@ -52,6 +55,7 @@ public class FlashSaleApplicationService implements CreateFlashSaleUseCase, List
         if (saved.isActive()) {
             flashSaleCachePort.setStock(saved.getId(), saved.getRemainingQuantity());
         }
+        flashSaleSchedulePort.changed(List.of(saved.getId()));
 
         return saved.getId();
     }
@@ -91,7 +95,12 @@ public class FlashSaleApplicationService implements CreateFlashSaleUseCase, List
 
     @Override
     public List<FlashSale> listActiveFlashSales() {
-        return flashSaleRepository.findAllActive();
+        return flashSaleSchedulePort.findActive();
+    }
+
+    @Override
+    public Optional<FlashSale> findActiveFlashSale(String productId) {
+        return flashSaleSchedulePort.findActiveByProductId(productId);
     }
 
     @Override
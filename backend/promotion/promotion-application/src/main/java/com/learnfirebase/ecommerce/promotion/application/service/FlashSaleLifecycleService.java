@@ -0,0 +1,97 @@
+package com.learnfirebase.ecommerce.promotion.application.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import com.learnfirebase.ecommerce.promotion.application.dto.FlashSaleProductSnapshot;
+import com.learnfirebase.ecommerce.promotion.application.port.in.FlashSaleLifecycleUseCase;
+import com.learnfirebase.ecommerce.promotion.application.port.out.FlashSaleCachePort;
+import com.learnfirebase.ecommerce.promotion.application.port.out.FlashSaleProductPort;
+import com.learnfirebase.ecommerce.promotion.application.port.out.FlashSaleRepository;
+import com.learnfirebase.ecommerce.promotion.application.port.out.FlashSaleSchedulePort;
+import com.learnfirebase.ecommerce.promotion.application.port.out.WaitingRoomPort;
+import com.learnfirebase.ecommerce.promotion.domain.model.FlashSale;
+import com.learnfirebase.ecommerce.promotion.domain.model.FlashSaleId;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Moves a flash sale through its cache lifecycle. Before the start, the Redis stock counter and the sale and
+ * product snapshots are loaded so the first buyers find them warm. While it runs, the counter is periodically
+ * copied into {@code remainingQuantity}. Once it has ended, the final count is stored, the sale is marked ENDED
+ * and its Redis keys are evicted. Write-backs and endings are announced to the schedule index of every node.
+ * <p>
+ * An existing counter is never overwritten, so pre-warming a running sale again (or on another node) cannot hand
+ * out sold units twice. If the counter is lost, the next pre-warm rebuilds it from the orders holding the sale's
+ * units, with the sale row locked; the last write-back may be several seconds behind and would oversell.
+ */
+@RequiredArgsConstructor
+public class FlashSaleLifecycleService implements FlashSaleLifecycleUseCase {
+    // Snapshots outlive the sale a little, so a late finalize still finds them and a missed one cannot leak them.
+    static final Duration SNAPSHOT_GRACE = Duration.ofHours(1);
+
+    private final FlashSaleRepository flashSaleRepository;
+    private final FlashSaleCachePort flashSaleCachePort;
+    private final FlashSaleProductPort flashSaleProductPort;
+    private final WaitingRoomPort waitingRoomPort;
+    private final FlashSaleSchedulePort flashSaleSchedulePort;
+
+    @Override
+    public int prewarm(Instant now, Duration lead) {
+        List<FlashSale> sales = flashSaleRepository.findActiveBetween(now, now.plus(lead));
+        if (sales.isEmpty()) {
+            return 0;
+        }
+        Set<String> productIds = sales.stream().map(FlashSale::getProductId).collect(Collectors.toSet());
+        Map<String, FlashSaleProductSnapshot> products = flashSaleProductPort.loadProducts(productIds);
+        for (FlashSale sale : sales) {
+            if (flashSaleCachePort.getStock(sale.getId()) == null) {
+                flashSaleRepository.lockRemainingFromOrders(sale.getId())
+                        .ifPresent(remaining -> flashSaleCachePort.setStock(sale.getId(), remaining));
+            }
+            flashSaleCachePort.putSnapshot(sale, products.get(sale.getProductId()),
+                    sale.getEndTime().plus(SNAPSHOT_GRACE));
+        }
+        return sales.size();
+    }
+
+    @Override
+    public int writeBack(Instant now) {
+        Map<FlashSaleId, Integer> changed = new LinkedHashMap<>();
+        for (FlashSale sale : flashSaleRepository.findActiveBetween(now, now)) {
+            Integer stock = flashSaleCachePort.getStock(sale.getId());
+            if (stock != null && !stock.equals(sale.getRemainingQuantity())) {
+                changed.put(sale.getId(), stock);
+            }
+        }
+        if (changed.isEmpty()) {
+            return 0;
+        }
+        int updated = flashSaleRepository.updateRemainingQuantities(changed);
+        flashSaleSchedulePort.changed(changed.keySet());
+        return updated;
+    }
+
+    @Override
+    public int finalizeEnded(Instant now) {
+        List<FlashSale> ended = flashSaleRepository.findActiveEndedBy(now);
+        for (FlashSale sale : ended) {
+            Integer stock = flashSaleCachePort.getStock(sale.getId());
+            sale.end(stock != null ? stock
+                    : flashSaleRepository.lockRemainingFromOrders(sale.getId()).orElse(sale.getRemainingQuantity()));
+            // The final count is saved before the keys go, so it can never be lost with them.
+            flashSaleRepository.save(sale);
+            flashSaleCachePort.evict(sale);
+            waitingRoomPort.close(sale.getId());
+        }
+        if (!ended.isEmpty()) {
+            flashSaleSchedulePort.changed(ended.stream().map(FlashSale::getId).toList());
+        }
+        return ended.size();
+    }
+}
@@ -0,0 +1,122 @@
+package com.learnfirebase.ecommerce.promotion.application.service;
+
+import java.util.Optional;
+import java.util.UUID;
+
+import com.learnfirebase.ecommerce.common.domain.ResourceNotFoundDomainException;
+import com.learnfirebase.ecommerce.promotion.application.dto.WaitingRoomState;
+import com.learnfirebase.ecommerce.promotion.application.dto.WaitingRoomStatus;
+import com.learnfirebase.ecommerce.promotion.application.port.in.FlashSaleAdmissionUseCase;
+import com.learnfirebase.ecommerce.promotion.application.port.in.FlashSaleWaitingRoomUseCase;
+import com.learnfirebase.ecommerce.promotion.application.port.out.FlashSaleCachePort;
+import com.learnfirebase.ecommerce.promotion.application.port.out.WaitingRoomPort;
+import com.learnfirebase.ecommerce.promotion.domain.exception.PromotionDomainException;
+import com.learnfirebase.ecommerce.promotion.domain.model.FlashSaleId;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Waiting room in front of flash-sale checkout. Buyers queue in arrival order and are admitted at a fixed rate,
+ * with no more admissions outstanding than units left, so checkout only sees buyers who can still succeed. While
+ * the stock counter reads zero, joins are turned away and nobody is admitted, without touching the database. The
+ * queue itself is kept: units leased to nodes or released by cancellations may still come back, so only the
+ * finalize step of the sale's lifecycle closes the room.
+ * <p>
+ * Only the Redis stock counter is read here; a sale whose counter does not exist is not open for queueing.
+ * When {@code admissionEnforced} is off, orders are accepted without a token and the room is advisory.
+ */
+@RequiredArgsConstructor
+public class FlashSaleWaitingRoomService implements FlashSaleWaitingRoomUseCase, FlashSaleAdmissionUseCase {
+
+    private final WaitingRoomPort waitingRoomPort;
+    private final FlashSaleCachePort flashSaleCachePort;
+    private final boolean admissionEnforced;
+
+    @Override
+    public WaitingRoomStatus join(String flashSaleId, String userId) {
+        FlashSaleId id = parse(flashSaleId);
+        Optional<WaitingRoomPort.Admission> admission = waitingRoomPort.findAdmission(id, userId);
+        if (admission.isPresent()) {
+            return admitted(flashSaleId, admission.get());
+        }
+        Integer stock = flashSaleCachePort.getStock(id);
+        if (stock == null) {
+            throw new ResourceNotFoundDomainException("Flash sale is not open: " + flashSaleId);
+        }
+        if (stock <= 0) {
+            return status(flashSaleId, WaitingRoomState.SOLD_OUT, null);
+        }
+        return status(flashSaleId, WaitingRoomState.WAITING, waitingRoomPort.enqueue(id, userId) + 1);
+    }
+
+    @Override
+    public WaitingRoomStatus getStatus(String flashSaleId, String userId) {
+        FlashSaleId id = parse(flashSaleId);
+        Optional<WaitingRoomPort.Admission> admission = waitingRoomPort.findAdmission(id, userId);
+        if (admission.isPresent()) {
+            return admitted(flashSaleId, admission.get());
+        }
+        Optional<Long> ahead = waitingRoomPort.position(id, userId);
+        if (ahead.isPresent()) {
+            return status(flashSaleId, WaitingRoomState.WAITING, ahead.get() + 1);
+        }
+        Integer stock = flashSaleCachePort.getStock(id);
+        return status(flashSaleId, stock == null || stock <= 0 ? WaitingRoomState.SOLD_OUT : WaitingRoomState.NOT_QUEUED,
+                null);
+    }
+
+    @Override
+    public int admitWaiting() {
+        int admitted = 0;
+        for (FlashSaleId id : waitingRoomPort.openRooms()) {
+            Integer stock = flashSaleCachePort.getStock(id);
+            if (stock != null && stock > 0) {
+                admitted += waitingRoomPort.admit(id, stock);
+            }
+        }
+        return admitted;
+    }
+
+    @Override
+    public boolean consumeAdmission(String flashSaleId, String userId, String token) {
+        if (!admissionEnforced) {
+            return true;
+        }
+        if (token == null || token.isBlank() || userId == null) {
+            return false;
+        }
+        return waitingRoomPort.consume(parse(flashSaleId), userId, token);
+    }
+
+    @Override
+    public void restoreAdmission(String flashSaleId, String userId, String token) {
+        if (admissionEnforced && token != null && !token.isBlank() && userId != null) {
+            waitingRoomPort.restore(parse(flashSaleId), userId, token);
+        }
+    }
+
+    private static FlashSaleId parse(String flashSaleId) {
+        try {
+            return new FlashSaleId(UUID.fromString(flashSaleId));
+        } catch (IllegalArgumentException | NullPointerException ex) {
+            throw new PromotionDomainException("Invalid flash sale id: " + flashSaleId);
+        }
+    }
+
+    private static WaitingRoomStatus admitted(String flashSaleId, WaitingRoomPort.Admission admission) {
+        return WaitingRoomStatus.builder()
+                .flashSaleId(flashSaleId)
+                .state(WaitingRoomState.ADMITTED)
+                .admissionToken(admission.token())
+                .admissionExpiresAt(admission.expiresAt())
+                .build();
+    }
+
+    private static WaitingRoomStatus status(String flashSaleId, WaitingRoomState state, Long position) {
+        return WaitingRoomStatus.builder()
+                .flashSaleId(flashSaleId)
+                .state(state)
+                .position(position)
+                .build();
+    }
+}
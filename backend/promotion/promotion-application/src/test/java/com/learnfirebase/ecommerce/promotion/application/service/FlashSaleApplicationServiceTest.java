@@ -9,11 +9,13 @@ import static org.mockito.Mockito.when;
 import java.math.BigDecimal;
 import java.time.Instant;
 import java.util.List;
+import java.util.Optional;
 
 import com.learnfirebase.ecommerce.common.domain.valueobject.Money;
 import com.learnfirebase.ecommerce.promotion.application.command.CreateFlashSaleCommand;
 import com.learnfirebase.ecommerce.promotion.application.port.out.FlashSaleCachePort;
 import com.learnfirebase.ecommerce.promotion.application.port.out.FlashSaleRepository;
+import com.learnfirebase.ecommerce.promotion.application.port.out.FlashSaleSchedulePort;
 import com.learnfirebase.ecommerce.promotion.domain.exception.PromotionDomainException;
 import com.learnfirebase.ecommerce.promotion.domain.model.FlashSale;
 import com.learnfirebase.ecommerce.promotion.domain.model.FlashSaleId;
@@ -32,12 +34,14 @@ class FlashSaleApplicationServiceTest {
     private FlashSaleRepository flashSaleRepository;
     @Mock
     private FlashSaleCachePort flashSaleCachePort;
+    @Mock
+    private FlashSaleSchedulePort flashSaleSchedulePort;
 
     private FlashSaleApplicationService service;
 
     @BeforeEach
     void setUp() {
-        service = new FlashSaleApplicationService(flashSaleRepository, flashSaleCachePort);
+        service = new FlashSaleApplicationService(flashSaleRepository, flashSaleCachePort, flashSaleSchedulePort);
     }
 
     @Test
@@ -57,6 +61,7 @@ class FlashSaleApplicationServiceTest {
         assertThat(saved.getRemainingQuantity()).isEqualTo(30);
         assertThat(saved.getStatus()).isEqualTo(FlashSaleStatus.ACTIVE);
         verify(flashSaleCachePort).setStock(saved.getId(), 30);
+        verify(flashSaleSchedulePort).changed(List.of(saved.getId()));
     }
 
     @Test
@@ -101,14 +106,17 @@ class FlashSaleApplicationServiceTest {
     }
 
     @Test
-    void listMethodsDelegateToRepository() {
+    void activeListingsComeFromTheScheduleIndexAndAdminListingFromRepository() {
         FlashSale active = flashSale("active");
         FlashSale ended = flashSale("ended");
-        when(flashSaleRepository.findAllActive()).thenReturn(List.of(active));
+        when(flashSaleSchedulePort.findActive()).thenReturn(List.of(active));
+        when(flashSaleSchedulePort.findActiveByProductId("product-1")).thenReturn(Optional.of(active));
         when(flashSaleRepository.findAll()).thenReturn(List.of(active, ended));
 
         assertThat(service.listActiveFlashSales()).containsExactly(active);
+        assertThat(service.findActiveFlashSale("product-1")).contains(active);
         assertThat(service.listAllFlashSales()).containsExactly(active, ended);
+        verify(flashSaleRepository, never()).findAllActive();
     }
 
     private CreateFlashSaleCommand validCommand() {
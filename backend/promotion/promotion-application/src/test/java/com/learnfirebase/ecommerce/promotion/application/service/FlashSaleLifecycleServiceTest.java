@@ -0,0 +1,195 @@
+package com.learnfirebase.ecommerce.promotion.application.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import com.learnfirebase.ecommerce.common.domain.valueobject.Money;
+import com.learnfirebase.ecommerce.promotion.application.dto.FlashSaleProductSnapshot;
+import com.learnfirebase.ecommerce.promotion.application.port.out.FlashSaleCachePort;
+import com.learnfirebase.ecommerce.promotion.application.port.out.FlashSaleProductPort;
+import com.learnfirebase.ecommerce.promotion.application.port.out.FlashSaleRepository;
+import com.learnfirebase.ecommerce.promotion.application.port.out.FlashSaleSchedulePort;
+import com.learnfirebase.ecommerce.promotion.application.port.out.WaitingRoomPort;
+import com.learnfirebase.ecommerce.promotion.domain.model.FlashSale;
+import com.learnfirebase.ecommerce.promotion.domain.model.FlashSaleId;
+import com.learnfirebase.ecommerce.promotion.domain.model.FlashSaleStatus;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class FlashSaleLifecycleServiceTest {
+    private static final Instant NOW = Instant.parse("2026-01-01T10:00:00Z");
+    private static final Duration LEAD = Duration.ofMinutes(5);
+
+    @Mock
+    private FlashSaleRepository flashSaleRepository;
+    @Mock
+    private FlashSaleCachePort flashSaleCachePort;
+    @Mock
+    private FlashSaleProductPort flashSaleProductPort;
+    @Mock
+    private WaitingRoomPort waitingRoomPort;
+    @Mock
+    private FlashSaleSchedulePort flashSaleSchedulePort;
+
+    private FlashSaleLifecycleService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new FlashSaleLifecycleService(flashSaleRepository, flashSaleCachePort, flashSaleProductPort,
+                waitingRoomPort, flashSaleSchedulePort);
+    }
+
+    @Test
+    void prewarmLoadsCounterAndSnapshotsOfUpcomingSale() {
+        FlashSale upcoming = sale("p-1", NOW.plusSeconds(120), 50);
+        FlashSaleProductSnapshot product = FlashSaleProductSnapshot.builder()
+                .productId("p-1").price(new BigDecimal("200")).currency("VND").sellerId("seller-1").build();
+        when(flashSaleRepository.findActiveBetween(NOW, NOW.plus(LEAD))).thenReturn(List.of(upcoming));
+        when(flashSaleProductPort.loadProducts(Set.of("p-1"))).thenReturn(Map.of("p-1", product));
+        when(flashSaleCachePort.getStock(upcoming.getId())).thenReturn(null);
+        when(flashSaleRepository.lockRemainingFromOrders(upcoming.getId())).thenReturn(Optional.of(50));
+
+        assertThat(service.prewarm(NOW, LEAD)).isEqualTo(1);
+
+        verify(flashSaleCachePort).setStock(upcoming.getId(), 50);
+        verify(flashSaleCachePort).putSnapshot(upcoming, product,
+                upcoming.getEndTime().plus(FlashSaleLifecycleService.SNAPSHOT_GRACE));
+    }
+
+    @Test
+    void prewarmNeverOverwritesALiveCounter() {
+        FlashSale running = sale("p-1", NOW.minusSeconds(60), 50);
+        when(flashSaleRepository.findActiveBetween(NOW, NOW.plus(LEAD))).thenReturn(List.of(running));
+        when(flashSaleCachePort.getStock(running.getId())).thenReturn(12);
+
+        service.prewarm(NOW, LEAD);
+
+        verify(flashSaleCachePort, never()).setStock(any(), anyInt());
+        verify(flashSaleCachePort).putSnapshot(any(), any(), any());
+    }
+
+    @Test
+    void prewarmReseedsALostCounterFromTheOrdersNotTheLastWriteBack() {
+        // The last write-back still says 50, but three more units were sold before the counter was lost.
+        FlashSale running = sale("p-1", NOW.minusSeconds(60), 50);
+        when(flashSaleRepository.findActiveBetween(NOW, NOW.plus(LEAD))).thenReturn(List.of(running));
+        when(flashSaleCachePort.getStock(running.getId())).thenReturn(null);
+        when(flashSaleRepository.lockRemainingFromOrders(running.getId())).thenReturn(Optional.of(47));
+
+        service.prewarm(NOW, LEAD);
+
+        verify(flashSaleCachePort).setStock(running.getId(), 47);
+    }
+
+    @Test
+    void prewarmLeavesTheCounterOfASaleNoLongerActiveAlone() {
+        FlashSale finalized = sale("p-1", NOW.minusSeconds(60), 50);
+        when(flashSaleRepository.findActiveBetween(NOW, NOW.plus(LEAD))).thenReturn(List.of(finalized));
+        when(flashSaleCachePort.getStock(finalized.getId())).thenReturn(null);
+        when(flashSaleRepository.lockRemainingFromOrders(finalized.getId())).thenReturn(Optional.empty());
+
+        service.prewarm(NOW, LEAD);
+
+        verify(flashSaleCachePort, never()).setStock(any(), anyInt());
+    }
+
+    @Test
+    void writeBackUpdatesOnlySalesWhoseCounterMoved() {
+        FlashSale sold = sale("p-1", NOW.minusSeconds(60), 50);
+        FlashSale idle = sale("p-2", NOW.minusSeconds(60), 30);
+        when(flashSaleRepository.findActiveBetween(NOW, NOW)).thenReturn(List.of(sold, idle));
+        when(flashSaleCachePort.getStock(sold.getId())).thenReturn(41);
+        when(flashSaleCachePort.getStock(idle.getId())).thenReturn(30);
+        when(flashSaleRepository.updateRemainingQuantities(Map.of(sold.getId(), 41))).thenReturn(1);
+
+        assertThat(service.writeBack(NOW)).isEqualTo(1);
+        verify(flashSaleSchedulePort).changed(Set.of(sold.getId()));
+    }
+
+    @Test
+    void writeBackWithNothingToWriteSkipsTheDatabase() {
+        when(flashSaleRepository.findActiveBetween(NOW, NOW)).thenReturn(List.of());
+
+        assertThat(service.writeBack(NOW)).isZero();
+
+        verify(flashSaleRepository, never()).updateRemainingQuantities(anyMap());
+        verify(flashSaleSchedulePort, never()).changed(any());
+    }
+
+    @Test
+    void finalizeSavesTheFinalCountBeforeEvicting() {
+        FlashSale ended = sale("p-1", NOW.minusSeconds(3600), 50);
+        when(flashSaleRepository.findActiveEndedBy(NOW)).thenReturn(List.of(ended));
+        when(flashSaleCachePort.getStock(ended.getId())).thenReturn(7);
+
+        assertThat(service.finalizeEnded(NOW)).isEqualTo(1);
+
+        assertThat(ended.getStatus()).isEqualTo(FlashSaleStatus.ENDED);
+        assertThat(ended.getRemainingQuantity()).isEqualTo(7);
+        InOrder order = inOrder(flashSaleRepository, flashSaleCachePort, waitingRoomPort);
+        order.verify(flashSaleRepository).save(ended);
+        order.verify(flashSaleCachePort).evict(ended);
+        order.verify(waitingRoomPort).close(ended.getId());
+        verify(flashSaleSchedulePort).changed(List.of(ended.getId()));
+    }
+
+    @Test
+    void finalizeCountsTheOrdersWhenTheCounterIsGone() {
+        FlashSale ended = sale("p-1", NOW.minusSeconds(3600), 9);
+        when(flashSaleRepository.findActiveEndedBy(NOW)).thenReturn(List.of(ended));
+        when(flashSaleCachePort.getStock(ended.getId())).thenReturn(null);
+        when(flashSaleRepository.lockRemainingFromOrders(ended.getId())).thenReturn(Optional.of(4));
+
+        service.finalizeEnded(NOW);
+
+        assertThat(ended.getRemainingQuantity()).isEqualTo(4);
+    }
+
+    @Test
+    void finalizeFallsBackToTheStoredCountWhenTheCounterIsGone() {
+        FlashSale ended = sale("p-1", NOW.minusSeconds(3600), 9);
+        when(flashSaleRepository.findActiveEndedBy(NOW)).thenReturn(List.of(ended));
+        when(flashSaleCachePort.getStock(ended.getId())).thenReturn(null);
+        when(flashSaleRepository.lockRemainingFromOrders(ended.getId())).thenReturn(Optional.empty());
+
+        service.finalizeEnded(NOW);
+
+        assertThat(ended.getRemainingQuantity()).isEqualTo(9);
+    }
+
+    private static FlashSale sale(String productId, Instant start, int remaining) {
+        Money price = Money.builder().amount(new BigDecimal("100")).currency("VND").build();
+        return FlashSale.builder()
+                .id(new FlashSaleId(UUID.randomUUID()))
+                .productId(productId)
+                .price(price)
+                .originalPrice(price)
+                .startTime(start)
+                .endTime(start.plus(Duration.ofMinutes(30)))
+                .totalQuantity(100)
+                .remainingQuantity(remaining)
+                .status(FlashSaleStatus.ACTIVE)
+                .build();
+    }
+}
@@ -0,0 +1,138 @@
+package com.learnfirebase.ecommerce.promotion.application.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import com.learnfirebase.ecommerce.common.domain.ResourceNotFoundDomainException;
+import com.learnfirebase.ecommerce.promotion.application.dto.WaitingRoomState;
+import com.learnfirebase.ecommerce.promotion.application.dto.WaitingRoomStatus;
+import com.learnfirebase.ecommerce.promotion.application.port.out.FlashSaleCachePort;
+import com.learnfirebase.ecommerce.promotion.application.port.out.WaitingRoomPort;
+import com.learnfirebase.ecommerce.promotion.domain.exception.PromotionDomainException;
+import com.learnfirebase.ecommerce.promotion.domain.model.FlashSaleId;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class FlashSaleWaitingRoomServiceTest {
+    private static final String SALE = UUID.randomUUID().toString();
+    private static final FlashSaleId SALE_ID = new FlashSaleId(SALE);
+
+    @Mock
+    private WaitingRoomPort waitingRoomPort;
+    @Mock
+    private FlashSaleCachePort flashSaleCachePort;
+
+    private FlashSaleWaitingRoomService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new FlashSaleWaitingRoomService(waitingRoomPort, flashSaleCachePort, true);
+    }
+
+    @Test
+    void joinQueuesBuyerWhileStockRemains() {
+        when(waitingRoomPort.findAdmission(SALE_ID, "buyer-1")).thenReturn(Optional.empty());
+        when(flashSaleCachePort.getStock(SALE_ID)).thenReturn(10);
+        when(waitingRoomPort.enqueue(SALE_ID, "buyer-1")).thenReturn(4L);
+
+        WaitingRoomStatus status = service.join(SALE, "buyer-1");
+
+        assertThat(status.getState()).isEqualTo(WaitingRoomState.WAITING);
+        assertThat(status.getPosition()).isEqualTo(5L);
+    }
+
+    @Test
+    void joinIsRejectedWithoutQueueingOnceStockIsGone() {
+        when(waitingRoomPort.findAdmission(SALE_ID, "buyer-1")).thenReturn(Optional.empty());
+        when(flashSaleCachePort.getStock(SALE_ID)).thenReturn(0);
+
+        WaitingRoomStatus status = service.join(SALE, "buyer-1");
+
+        assertThat(status.getState()).isEqualTo(WaitingRoomState.SOLD_OUT);
+        verify(waitingRoomPort, never()).enqueue(any(), any());
+    }
+
+    @Test
+    void joinOfASaleWithoutStockCounterIsNotFound() {
+        when(waitingRoomPort.findAdmission(SALE_ID, "buyer-1")).thenReturn(Optional.empty());
+        when(flashSaleCachePort.getStock(SALE_ID)).thenReturn(null);
+
+        assertThatThrownBy(() -> service.join(SALE, "buyer-1")).isInstanceOf(ResourceNotFoundDomainException.class);
+    }
+
+    @Test
+    void admittedBuyerGetsTheirTokenInsteadOfQueueingAgain() {
+        Instant expiresAt = Instant.now().plusSeconds(60);
+        when(waitingRoomPort.findAdmission(SALE_ID, "buyer-1"))
+                .thenReturn(Optional.of(new WaitingRoomPort.Admission("token", expiresAt)));
+
+        WaitingRoomStatus status = service.join(SALE, "buyer-1");
+
+        assertThat(status.getState()).isEqualTo(WaitingRoomState.ADMITTED);
+        assertThat(status.getAdmissionToken()).isEqualTo("token");
+        assertThat(status.getAdmissionExpiresAt()).isEqualTo(expiresAt);
+        verify(waitingRoomPort, never()).enqueue(any(), any());
+    }
+
+    @Test
+    void admissionIsBoundedByStockAndPausedWhileStockReadsZero() {
+        FlashSaleId soldOut = new FlashSaleId(UUID.randomUUID());
+        when(waitingRoomPort.openRooms()).thenReturn(Set.of(SALE_ID, soldOut));
+        when(flashSaleCachePort.getStock(SALE_ID)).thenReturn(7);
+        when(flashSaleCachePort.getStock(soldOut)).thenReturn(0);
+        when(waitingRoomPort.admit(SALE_ID, 7)).thenReturn(3);
+
+        assertThat(service.admitWaiting()).isEqualTo(3);
+
+        // Leased or soon released units may come back, so the queue is kept until the sale is finalized.
+        verify(waitingRoomPort, never()).close(any());
+        verify(waitingRoomPort, never()).admit(eq(soldOut), anyInt());
+    }
+
+    @Test
+    void orderWithoutTokenIsNotAdmitted() {
+        assertThat(service.consumeAdmission(SALE, "buyer-1", null)).isFalse();
+        assertThat(service.consumeAdmission(SALE, "buyer-1", " ")).isFalse();
+        verifyNoInteractions(waitingRoomPort);
+    }
+
+    @Test
+    void tokenIsConsumedThroughTheWaitingRoom() {
+        when(waitingRoomPort.consume(SALE_ID, "buyer-1", "token")).thenReturn(true);
+
+        assertThat(service.consumeAdmission(SALE, "buyer-1", "token")).isTrue();
+    }
+
+    @Test
+    void unenforcedWaitingRoomAdmitsEveryOrder() {
+        FlashSaleWaitingRoomService advisory = new FlashSaleWaitingRoomService(waitingRoomPort, flashSaleCachePort,
+                false);
+
+        assertThat(advisory.consumeAdmission(SALE, "buyer-1", null)).isTrue();
+        advisory.restoreAdmission(SALE, "buyer-1", "token");
+        verifyNoInteractions(waitingRoomPort);
+    }
+
+    @Test
+    void malformedSaleIdIsRejected() {
+        assertThatThrownBy(() -> service.getStatus("not-a-uuid", "buyer-1"))
+                .isInstanceOf(PromotionDomainException.class);
+    }
+}
@@ -43,4 +43,13 @@ public class FlashSale extends AggregateRoot<FlashSaleId> {
         }
         this.remainingQuantity -= quantity;
     }
+
+    /**
+     * Closes the sale at its end time with the stock that was left unsold.
+     */
+    public void end(int unsold) {
+        this.remainingQuantity = unsold;
+        this.status = FlashSaleStatus.ENDED;
+        this.updatedAt = Instant.now();
+    }
 }
@@ -1,56 +1,178 @@
 package com.learnfirebase.ecommerce.promotion.infrastructure.cache;
 
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Objects;
+import java.util.Map;
+import java.util.Optional;
 
 import org.springframework.data.redis.core.StringRedisTemplate;
-import org.springframework.data.redis.core.script.DefaultRedisScript;
 import org.springframework.stereotype.Component;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.learnfirebase.ecommerce.common.domain.valueobject.Money;
+import com.learnfirebase.ecommerce.common.infrastructure.redis.ShardedCounter;
+import com.learnfirebase.ecommerce.common.infrastructure.redis.StockLeases;
+import com.learnfirebase.ecommerce.promotion.application.dto.FlashSaleProductSnapshot;
 import com.learnfirebase.ecommerce.promotion.application.port.out.FlashSaleCachePort;
+import com.learnfirebase.ecommerce.promotion.domain.model.FlashSale;
 import com.learnfirebase.ecommerce.promotion.domain.model.FlashSaleId;
+import com.learnfirebase.ecommerce.promotion.domain.model.FlashSaleStatus;
 
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 
+/**
+ * Flash-sale stock is a {@link ShardedCounter}, so the buyers of one sale spread over several keys instead of all
+ * queueing on a single one. Takes go through {@link StockLeases}, which serves them locally when lease mode is on.
+ * <p>
+ * Sale and product snapshots are JSON strings under {@code flashsale:<id>:snapshot} and
+ * {@code flashsale:product:<productId>}, the latter so product lookups of many sales are one MGET.
+ */
+@Slf4j
 @Component
 @RequiredArgsConstructor
 public class RedisFlashSaleAdapter implements FlashSaleCachePort {
 
+    private final ShardedCounter shardedCounter;
+    private final StockLeases stockLeases;
     private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper = new ObjectMapper();
 
     private static final String STOCK_KEY_PREFIX = "flashsale:%s:stock";
+    private static final String SNAPSHOT_KEY = "flashsale:%s:snapshot";
+    private static final String PRODUCT_KEY = "flashsale:product:%s";
 
     @Override
     public void setStock(FlashSaleId id, int quantity) {
-        String key = String.format(STOCK_KEY_PREFIX, id.getValue());
-        redisTemplate.opsForValue().set(Objects.requireNonNull(key), Objects.requireNonNull(String.valueOf(quantity)));
+        shardedCounter.set(stockKey(id), quantity);
     }
 
     @Override
     public boolean decrementStock(FlashSaleId id, int quantity) {
-        String key = String.format(STOCK_KEY_PREFIX, id.getValue());
+        return stockLeases.tryTake(stockKey(id), quantity, null);
+    }
 
-        String scriptText = "local current = tonumber(redis.call('get', KEYS[1])); " +
-                "if current ~= nil and current >= tonumber(ARGV[1]) then " +
-                "   return redis.call('decrby', KEYS[1], ARGV[1]); " +
-                "else " +
-                "   return -1; " +
-                "end";
+    @Override
+    public Integer getStock(FlashSaleId id) {
+        return shardedCounter.total(stockKey(id));
+    }
 
-        DefaultRedisScript<Long> script = new DefaultRedisScript<>();
-        script.setScriptText(scriptText);
-        script.setResultType(Long.class);
+    @Override
+    public void putSnapshot(FlashSale flashSale, FlashSaleProductSnapshot product, Instant expiresAt) {
+        Duration ttl = Duration.between(Instant.now(), expiresAt);
+        if (ttl.isNegative() || ttl.isZero()) {
+            return;
+        }
+        try {
+            redisTemplate.opsForValue().set(snapshotKey(flashSale.getId()),
+                    objectMapper.writeValueAsString(SaleJson.of(flashSale)), ttl);
+            if (product != null) {
+                redisTemplate.opsForValue().set(String.format(PRODUCT_KEY, product.getProductId()),
+                        objectMapper.writeValueAsString(new ProductJson(product.getPrice(), product.getCurrency(),
+                                product.getSellerId())), ttl);
+            }
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Cannot serialise snapshot of flash sale " + flashSale.getId(), ex);
+        }
+    }
 
-        Long result = redisTemplate.execute(script, Objects.requireNonNull(List.of(Objects.requireNonNull(key))),
-                String.valueOf(quantity));
+    @Override
+    public Optional<FlashSale> getSnapshot(FlashSaleId id) {
+        String json = redisTemplate.opsForValue().get(snapshotKey(id));
+        if (json == null) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(objectMapper.readValue(json, SaleJson.class).toDomain(id));
+        } catch (JsonProcessingException ex) {
+            log.warn("Ignoring unreadable snapshot of flash sale {}", id.getValue(), ex);
+            return Optional.empty();
+        }
+    }
 
-        return result != null && result >= 0;
+    @Override
+    public Map<String, FlashSaleProductSnapshot> getProductSnapshots(Collection<String> productIds) {
+        if (productIds.isEmpty()) {
+            return Map.of();
+        }
+        List<String> ids = new ArrayList<>(productIds);
+        List<String> values = redisTemplate.opsForValue()
+                .multiGet(ids.stream().map(productId -> String.format(PRODUCT_KEY, productId)).toList());
+        Map<String, FlashSaleProductSnapshot> result = new HashMap<>();
+        for (int i = 0; values != null && i < ids.size(); i++) {
+            if (values.get(i) == null) {
+                continue;
+            }
+            try {
+                ProductJson product = objectMapper.readValue(values.get(i), ProductJson.class);
+                result.put(ids.get(i), FlashSaleProductSnapshot.builder()
+                        .productId(ids.get(i))
+                        .price(product.price())
+                        .currency(product.currency())
+                        .sellerId(product.sellerId())
+                        .build());
+            } catch (JsonProcessingException ex) {
+                log.warn("Ignoring unreadable snapshot of product {}", ids.get(i), ex);
+            }
+        }
+        return result;
     }
 
     @Override
-    public Integer getStock(FlashSaleId id) {
-        String key = String.format(STOCK_KEY_PREFIX, id.getValue());
-        String val = redisTemplate.opsForValue().get(Objects.requireNonNull(key));
-        return val != null ? Integer.parseInt(val) : null;
+    public void evict(FlashSale flashSale) {
+        shardedCounter.delete(stockKey(flashSale.getId()));
+        // Another sale of the same product gets its product snapshot back from the pre-warm that follows.
+        redisTemplate.delete(List.of(snapshotKey(flashSale.getId()),
+                String.format(PRODUCT_KEY, flashSale.getProductId())));
+    }
+
+    private static String stockKey(FlashSaleId id) {
+        return String.format(STOCK_KEY_PREFIX, id.getValue());
+    }
+
+    private static String snapshotKey(FlashSaleId id) {
+        return String.format(SNAPSHOT_KEY, id.getValue());
+    }
+
+    private record SaleJson(String productId, BigDecimal price, String currency, BigDecimal originalPrice,
+            String originalCurrency, long startTime, long endTime, Integer totalQuantity, Integer remainingQuantity,
+            FlashSaleStatus status, Long createdAt, Long updatedAt) {
+
+        static SaleJson of(FlashSale sale) {
+            return new SaleJson(sale.getProductId(), sale.getPrice().getAmount(), sale.getPrice().getCurrency(),
+                    sale.getOriginalPrice().getAmount(), sale.getOriginalPrice().getCurrency(),
+                    sale.getStartTime().toEpochMilli(), sale.getEndTime().toEpochMilli(), sale.getTotalQuantity(),
+                    sale.getRemainingQuantity(), sale.getStatus(), millis(sale.getCreatedAt()),
+                    millis(sale.getUpdatedAt()));
+        }
+
+        FlashSale toDomain(FlashSaleId id) {
+            return FlashSale.builder()
+                    .id(id)
+                    .productId(productId)
+                    .price(Money.builder().amount(price).currency(currency).build())
+                    .originalPrice(Money.builder().amount(originalPrice).currency(originalCurrency).build())
+                    .startTime(Instant.ofEpochMilli(startTime))
+                    .endTime(Instant.ofEpochMilli(endTime))
+                    .totalQuantity(totalQuantity)
+                    .remainingQuantity(remainingQuantity)
+                    .status(status)
+                    .createdAt(createdAt == null ? null : Instant.ofEpochMilli(createdAt))
+                    .updatedAt(updatedAt == null ? null : Instant.ofEpochMilli(updatedAt))
+                    .build();
+        }
+
+        private static Long millis(Instant instant) {
+            return instant == null ? null : instant.toEpochMilli();
+        }
+    }
+
+    private record ProductJson(BigDecimal price, String currency, String sellerId) {
     }
 }
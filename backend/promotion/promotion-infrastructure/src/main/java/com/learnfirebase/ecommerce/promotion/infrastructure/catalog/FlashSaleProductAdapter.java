@@ -0,0 +1,38 @@
+package com.learnfirebase.ecommerce.promotion.infrastructure.catalog;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.stereotype.Component;
+
+import com.learnfirebase.ecommerce.product.application.dto.ProductPricingDto;
+import com.learnfirebase.ecommerce.product.application.port.out.ProductRepository;
+import com.learnfirebase.ecommerce.promotion.application.dto.FlashSaleProductSnapshot;
+import com.learnfirebase.ecommerce.promotion.application.port.out.FlashSaleProductPort;
+
+import lombok.RequiredArgsConstructor;
+
+@Component
+@RequiredArgsConstructor
+public class FlashSaleProductAdapter implements FlashSaleProductPort {
+
+    private final ProductRepository productRepository;
+
+    @Override
+    public Map<String, FlashSaleProductSnapshot> loadProducts(Collection<String> productIds) {
+        if (productIds.isEmpty()) {
+            return Map.of();
+        }
+        Map<String, FlashSaleProductSnapshot> result = new HashMap<>();
+        for (ProductPricingDto pricing : productRepository.findPricingByIds(productIds)) {
+            result.put(pricing.getProductId(), FlashSaleProductSnapshot.builder()
+                    .productId(pricing.getProductId())
+                    .price(pricing.getPrice())
+                    .currency(pricing.getCurrency())
+                    .sellerId(pricing.getSellerId())
+                    .build());
+        }
+        return result;
+    }
+}
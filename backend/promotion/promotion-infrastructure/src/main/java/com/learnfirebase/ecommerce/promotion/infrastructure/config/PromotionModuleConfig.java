@@ -1,19 +1,36 @@
 package com.learnfirebase.ecommerce.promotion.infrastructure.config;
 
 import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 
+import com.learnfirebase.ecommerce.promotion.application.port.out.FlashSaleCachePort;
+import com.learnfirebase.ecommerce.promotion.application.port.out.FlashSaleProductPort;
+import com.learnfirebase.ecommerce.promotion.application.port.out.FlashSaleRepository;
+import com.learnfirebase.ecommerce.promotion.application.port.out.FlashSaleSchedulePort;
 import com.learnfirebase.ecommerce.promotion.application.port.out.PromotionRepository;
 import com.learnfirebase.ecommerce.promotion.application.port.out.PromotionUsageRepository;
+import com.learnfirebase.ecommerce.promotion.application.port.out.WaitingRoomPort;
+import com.learnfirebase.ecommerce.promotion.application.service.FlashSaleLifecycleService;
+import com.learnfirebase.ecommerce.promotion.application.service.FlashSaleWaitingRoomService;
 import com.learnfirebase.ecommerce.promotion.application.service.PromotionApplicationService;
+import com.learnfirebase.ecommerce.promotion.infrastructure.lifecycle.FlashSaleLifecycleProperties;
 import com.learnfirebase.ecommerce.promotion.infrastructure.persistence.PromotionEntity;
 import com.learnfirebase.ecommerce.promotion.infrastructure.persistence.PromotionJpaRepository;
+import com.learnfirebase.ecommerce.promotion.infrastructure.schedule.FlashSaleScheduleIndex;
+import com.learnfirebase.ecommerce.promotion.infrastructure.schedule.FlashSaleScheduleProperties;
+import com.learnfirebase.ecommerce.promotion.infrastructure.waitingroom.WaitingRoomProperties;
 
 @Configuration
 @EnableJpaRepositories(basePackageClasses = PromotionJpaRepository.class)
 @EntityScan(basePackageClasses = PromotionEntity.class)
+@EnableConfigurationProperties({WaitingRoomProperties.class, FlashSaleLifecycleProperties.class,
+        FlashSaleScheduleProperties.class})
 public class PromotionModuleConfig {
     @Bean
     public PromotionApplicationService promotionApplicationService(PromotionRepository promotionRepository, PromotionUsageRepository promotionUsageRepository) {
@@ -23,8 +40,10 @@ public class PromotionModuleConfig {
     @Bean
     public com.learnfirebase.ecommerce.promotion.application.service.FlashSaleApplicationService flashSaleApplicationService(
             com.learnfirebase.ecommerce.promotion.application.port.out.FlashSaleRepository flashSaleRepository,
-            com.learnfirebase.ecommerce.promotion.application.port.out.FlashSaleCachePort flashSaleCachePort) {
-        return new com.learnfirebase.ecommerce.promotion.application.service.FlashSaleApplicationService(flashSaleRepository, flashSaleCachePort);
+            com.learnfirebase.ecommerce.promotion.application.port.out.FlashSaleCachePort flashSaleCachePort,
+            FlashSaleSchedulePort flashSaleSchedulePort) {
+        return new com.learnfirebase.ecommerce.promotion.application.service.FlashSaleApplicationService(flashSaleRepository, flashSaleCachePort,
+                flashSaleSchedulePort);
     }
 
     @Bean
@@ -32,4 +51,27 @@ public class PromotionModuleConfig {
             com.learnfirebase.ecommerce.promotion.application.port.out.CouponRepository couponRepository) {
         return new com.learnfirebase.ecommerce.promotion.application.service.SellerPromotionApplicationService(couponRepository);
     }
+
+    @Bean
+    public FlashSaleWaitingRoomService flashSaleWaitingRoomService(WaitingRoomPort waitingRoomPort,
+            FlashSaleCachePort flashSaleCachePort, WaitingRoomProperties waitingRoomProperties) {
+        return new FlashSaleWaitingRoomService(waitingRoomPort, flashSaleCachePort, waitingRoomProperties.isEnforced());
+    }
+
+    @Bean
+    public FlashSaleLifecycleService flashSaleLifecycleService(FlashSaleRepository flashSaleRepository,
+            FlashSaleCachePort flashSaleCachePort, FlashSaleProductPort flashSaleProductPort,
+            WaitingRoomPort waitingRoomPort, FlashSaleSchedulePort flashSaleSchedulePort) {
+        return new FlashSaleLifecycleService(flashSaleRepository, flashSaleCachePort, flashSaleProductPort,
+                waitingRoomPort, flashSaleSchedulePort);
+    }
+
+    @Bean
+    public RedisMessageListenerContainer flashSaleScheduleListener(RedisConnectionFactory connectionFactory,
+            FlashSaleScheduleIndex flashSaleScheduleIndex) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(flashSaleScheduleIndex, new ChannelTopic(FlashSaleScheduleIndex.CHANGE_CHANNEL));
+        return container;
+    }
 }
@@ -0,0 +1,55 @@
+package com.learnfirebase.ecommerce.promotion.infrastructure.lifecycle;
+
+import java.time.Instant;
+import java.util.function.Supplier;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.learnfirebase.ecommerce.promotion.application.port.in.FlashSaleLifecycleUseCase;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Finalizes ended sales, pre-warms upcoming ones and writes running counters back, on one node at a time via an
+ * advisory lock. Each step is its own transaction, so a Redis failure in one does not roll back the others.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class FlashSaleLifecycleJob {
+    private static final long ADVISORY_LOCK_KEY = 0x666c6173686c6366L;
+
+    private final FlashSaleLifecycleUseCase lifecycleUseCase;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final FlashSaleLifecycleProperties properties;
+
+    @Scheduled(fixedDelayString = "${flash-sale.lifecycle.interval-ms:10000}")
+    public void run() {
+        Instant now = Instant.now();
+        step("Finalize", () -> lifecycleUseCase.finalizeEnded(now));
+        step("Pre-warm", () -> lifecycleUseCase.prewarm(now, properties.getPrewarmLead()));
+        step("Write-back", () -> lifecycleUseCase.writeBack(now));
+    }
+
+    private void step(String name, Supplier<Integer> work) {
+        try {
+            Integer sales = transactionTemplate.execute(status -> {
+                Boolean locked = jdbcTemplate.queryForObject("SELECT pg_try_advisory_xact_lock(?)", Boolean.class,
+                        ADVISORY_LOCK_KEY);
+                return Boolean.TRUE.equals(locked) ? work.get() : null;
+            });
+            if (sales == null) {
+                log.debug("[FLASH-SALE-LIFECYCLE] {} running on another node", name);
+            } else if (sales > 0) {
+                log.info("[FLASH-SALE-LIFECYCLE] {} touched {} sales", name, sales);
+            }
+        } catch (Exception ex) {
+            log.error("[FLASH-SALE-LIFECYCLE] {} failed", name, ex);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.learnfirebase.ecommerce.promotion.infrastructure.lifecycle;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+@Data
+@ConfigurationProperties(prefix = "flash-sale.lifecycle")
+public class FlashSaleLifecycleProperties {
+    /**
+     * How long before its start a sale's stock counter and snapshots are loaded into Redis.
+     */
+    private Duration prewarmLead = Duration.ofMinutes(5);
+    /**
+     * Delay between runs of the pre-warm, write-back and finalize steps.
+     */
+    private long intervalMs = 10_000;
+}
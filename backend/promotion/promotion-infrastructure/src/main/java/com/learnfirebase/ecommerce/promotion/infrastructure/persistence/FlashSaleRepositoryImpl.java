@@ -1,8 +1,13 @@
 package com.learnfirebase.ecommerce.promotion.infrastructure.persistence;
 
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Component;
 
 import com.learnfirebase.ecommerce.common.domain.valueobject.Money;
@@ -16,7 +21,22 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class FlashSaleRepositoryImpl implements FlashSaleRepository {
 
+    // Only ACTIVE rows are written, so a write-back racing the finalize of the same sale cannot undo it.
+    private static final String UPDATE_REMAINING_SQL =
+            "UPDATE flash_sales SET remaining_quantity = ?, updated_at = ? WHERE id = CAST(? AS uuid) AND status = 'ACTIVE'";
+
+    // The sale row is locked first, so the units counted below cannot be finalized or written back meanwhile.
+    private static final String LOCK_TOTAL_SQL =
+            "SELECT total_quantity FROM flash_sales WHERE id = CAST(? AS uuid) AND status = 'ACTIVE' FOR UPDATE";
+    private static final String SOLD_SQL = """
+            SELECT COALESCE(SUM(oi.quantity), 0)
+            FROM order_items oi
+            JOIN orders o ON o.id = oi.order_id
+            WHERE oi.flash_sale_id = ? AND o.status <> 'CANCELLED'
+            """;
+
     private final SpringDataFlashSaleRepository repository;
+    private final JdbcTemplate jdbcTemplate;
 
     @Override
     public FlashSale save(FlashSale flashSale) {
@@ -45,6 +65,48 @@ public class FlashSaleRepositoryImpl implements FlashSaleRepository {
         return repository.findAll().stream().map(this::toDomain).collect(java.util.stream.Collectors.toList());
     }
 
+    @Override
+    public java.util.List<FlashSale> findActiveBetween(Instant from, Instant to) {
+        return repository.findActiveBetween(from, to).stream().map(this::toDomain).toList();
+    }
+
+    @Override
+    public java.util.List<FlashSale> findActiveEndedBy(Instant now) {
+        return repository.findActiveEndedBy(now).stream().map(this::toDomain).toList();
+    }
+
+    @Override
+    public int updateRemainingQuantities(Map<FlashSaleId, Integer> remaining) {
+        if (remaining.isEmpty()) {
+            return 0;
+        }
+        Timestamp now = Timestamp.from(Instant.now());
+        int[][] counts = jdbcTemplate.batchUpdate(UPDATE_REMAINING_SQL, new ArrayList<>(remaining.entrySet()),
+                remaining.size(), (ps, row) -> {
+                    ps.setInt(1, row.getValue());
+                    ps.setTimestamp(2, now);
+                    ps.setString(3, row.getKey().getValue());
+                });
+        int updated = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                // The driver may report SUCCESS_NO_INFO (-2) instead of a row count.
+                updated += Math.max(count, 0);
+            }
+        }
+        return updated;
+    }
+
+    @Override
+    public Optional<Integer> lockRemainingFromOrders(FlashSaleId id) {
+        java.util.List<Integer> total = jdbcTemplate.queryForList(LOCK_TOTAL_SQL, Integer.class, id.getValue());
+        if (total.isEmpty()) {
+            return Optional.empty();
+        }
+        Integer sold = jdbcTemplate.queryForObject(SOLD_SQL, Integer.class, id.getValue());
+        return Optional.of(Math.max(total.get(0) - (sold == null ? 0 : sold), 0));
+    }
+
     private FlashSaleEntity toEntity(FlashSale flashSale) {
         return FlashSaleEntity.builder()
                 .id(flashSale.getId() != null ? java.util.UUID.fromString(flashSale.getId().getValue()) : null)
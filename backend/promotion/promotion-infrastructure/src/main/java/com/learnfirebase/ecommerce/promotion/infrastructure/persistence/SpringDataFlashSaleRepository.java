@@ -1,5 +1,6 @@
 package com.learnfirebase.ecommerce.promotion.infrastructure.persistence;
 
+import java.time.Instant;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -15,4 +16,10 @@ public interface SpringDataFlashSaleRepository extends JpaRepository<FlashSaleEn
 
     @Query("SELECT f FROM FlashSaleEntity f WHERE f.status = 'ACTIVE' AND f.startTime <= CURRENT_TIMESTAMP AND f.endTime >= CURRENT_TIMESTAMP")
     java.util.List<FlashSaleEntity> findAllActive();
+
+    @Query("SELECT f FROM FlashSaleEntity f WHERE f.status = 'ACTIVE' AND f.startTime <= :to AND f.endTime > :from")
+    java.util.List<FlashSaleEntity> findActiveBetween(Instant from, Instant to);
+
+    @Query("SELECT f FROM FlashSaleEntity f WHERE f.status = 'ACTIVE' AND f.endTime <= :now")
+    java.util.List<FlashSaleEntity> findActiveEndedBy(Instant now);
 }
@@ -0,0 +1,266 @@
+package com.learnfirebase.ecommerce.promotion.infrastructure.schedule;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.learnfirebase.ecommerce.promotion.application.port.out.FlashSaleRepository;
+import com.learnfirebase.ecommerce.promotion.application.port.out.FlashSaleSchedulePort;
+import com.learnfirebase.ecommerce.promotion.domain.model.FlashSale;
+import com.learnfirebase.ecommerce.promotion.domain.model.FlashSaleId;
+import com.learnfirebase.ecommerce.promotion.domain.model.FlashSaleStatus;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Keeps every ACTIVE, unfinished sale starting within {@code horizon} in memory, with a timer at its start that
+ * makes it visible by product and in the active listing, and one at its end that drops it. Timers, reloads and
+ * change events all run on a single thread, so the maps are only ever written by it and readers never lock.
+ * <p>
+ * Writers announce changed sale ids on {@link #CHANGE_CHANNEL}; every node then re-reads those sales. A periodic
+ * full reload catches anything a node missed. Until the first load succeeds, product and listing lookups go to
+ * the repository.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class FlashSaleScheduleIndex implements FlashSaleSchedulePort, MessageListener, SmartLifecycle {
+    public static final String CHANGE_CHANNEL = "flash-sale-schedule:changed";
+
+    private final FlashSaleRepository flashSaleRepository;
+    private final StringRedisTemplate redisTemplate;
+    private final FlashSaleScheduleProperties properties;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final Map<FlashSaleId, Entry> scheduled = new ConcurrentHashMap<>();
+    private final Map<FlashSaleId, FlashSale> running = new ConcurrentHashMap<>();
+    private final Map<String, FlashSale> runningByProduct = new ConcurrentHashMap<>();
+    private volatile ScheduledExecutorService timer;
+    private volatile boolean loaded;
+
+    @Override
+    public void start() {
+        timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "flash-sale-schedule");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = properties.getReloadInterval().toMillis();
+        timer.scheduleWithFixedDelay(this::reload, 0, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void stop() {
+        ScheduledExecutorService current = timer;
+        timer = null;
+        loaded = false;
+        if (current != null) {
+            current.shutdownNow();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return timer != null;
+    }
+
+    @Override
+    public Optional<FlashSale> findById(FlashSaleId id) {
+        Entry entry = scheduled.get(id);
+        return entry == null ? Optional.empty() : Optional.of(entry.sale());
+    }
+
+    @Override
+    public Optional<FlashSale> findActiveByProductId(String productId) {
+        if (!loaded) {
+            return flashSaleRepository.findActiveByProductId(productId);
+        }
+        return Optional.ofNullable(runningByProduct.get(productId));
+    }
+
+    @Override
+    public List<FlashSale> findActive() {
+        if (!loaded) {
+            return flashSaleRepository.findAllActive();
+        }
+        return running.values().stream().sorted(Comparator.comparing(FlashSale::getStartTime)).toList();
+    }
+
+    @Override
+    public void changed(Collection<FlashSaleId> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        Set<FlashSaleId> copy = Set.copyOf(ids);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    announce(copy);
+                }
+            });
+        } else {
+            announce(copy);
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int separator = body.indexOf('|');
+        if (separator < 0 || body.substring(0, separator).equals(nodeId)) {
+            return;
+        }
+        submitRefresh(Arrays.stream(body.substring(separator + 1).split(","))
+                .filter(id -> !id.isBlank())
+                .map(FlashSaleId::new)
+                .collect(Collectors.toSet()));
+    }
+
+    private void announce(Set<FlashSaleId> ids) {
+        submitRefresh(ids);
+        try {
+            redisTemplate.convertAndSend(CHANGE_CHANNEL, nodeId + "|"
+                    + ids.stream().map(FlashSaleId::getValue).collect(Collectors.joining(",")));
+        } catch (Exception ex) {
+            log.warn("[FLASH-SALE-SCHEDULE] Could not announce changed sales {}, other nodes catch up on reload",
+                    ids, ex);
+        }
+    }
+
+    private void submitRefresh(Set<FlashSaleId> ids) {
+        ScheduledExecutorService current = timer;
+        if (current != null && !ids.isEmpty()) {
+            current.execute(() -> refresh(ids));
+        }
+    }
+
+    void reload() {
+        try {
+            Instant now = Instant.now();
+            List<FlashSale> sales = flashSaleRepository.findActiveBetween(now, now.plus(properties.getHorizon()));
+            Set<FlashSaleId> current = new HashSet<>();
+            for (FlashSale sale : sales) {
+                current.add(sale.getId());
+                put(sale, now);
+            }
+            scheduled.keySet().stream().filter(id -> !current.contains(id)).toList().forEach(this::remove);
+            loaded = true;
+            log.debug("[FLASH-SALE-SCHEDULE] Indexed {} sales, {} running", scheduled.size(), running.size());
+        } catch (Exception ex) {
+            log.error("[FLASH-SALE-SCHEDULE] Reload failed", ex);
+        }
+    }
+
+    void refresh(Set<FlashSaleId> ids) {
+        Instant now = Instant.now();
+        for (FlashSaleId id : ids) {
+            try {
+                flashSaleRepository.findById(id).ifPresentOrElse(sale -> put(sale, now), () -> remove(id));
+            } catch (Exception ex) {
+                log.error("[FLASH-SALE-SCHEDULE] Refresh of sale {} failed", id.getValue(), ex);
+            }
+        }
+    }
+
+    private void put(FlashSale sale, Instant now) {
+        if (sale.getStatus() != FlashSaleStatus.ACTIVE || !sale.getEndTime().isAfter(now)
+                || sale.getStartTime().isAfter(now.plus(properties.getHorizon()))) {
+            remove(sale.getId());
+            return;
+        }
+        Entry previous = scheduled.get(sale.getId());
+        if (previous != null) {
+            previous.cancel();
+        }
+        ScheduledFuture<?> activation = null;
+        if (sale.getStartTime().isAfter(now)) {
+            activation = timer.schedule(() -> activate(sale), millisBetween(now, sale.getStartTime()),
+                    TimeUnit.MILLISECONDS);
+        }
+        ScheduledFuture<?> expiry = timer.schedule(() -> expire(sale), millisBetween(now, sale.getEndTime()),
+                TimeUnit.MILLISECONDS);
+        scheduled.put(sale.getId(), new Entry(sale, activation, expiry));
+        if (activation == null) {
+            // Replaced in place, so a running sale never disappears from lookups while it is refreshed.
+            activate(sale);
+        } else {
+            deactivate(sale.getId());
+        }
+    }
+
+    private void remove(FlashSaleId id) {
+        Entry entry = scheduled.remove(id);
+        if (entry != null) {
+            entry.cancel();
+        }
+        deactivate(id);
+    }
+
+    private void activate(FlashSale sale) {
+        Entry entry = scheduled.get(sale.getId());
+        if (entry == null || entry.sale() != sale) {
+            return;
+        }
+        FlashSale previous = running.put(sale.getId(), sale);
+        if (previous != null && previous != sale) {
+            runningByProduct.remove(previous.getProductId(), previous);
+        }
+        runningByProduct.put(sale.getProductId(), sale);
+    }
+
+    private void expire(FlashSale sale) {
+        Entry entry = scheduled.get(sale.getId());
+        if (entry != null && entry.sale() == sale) {
+            scheduled.remove(sale.getId());
+            deactivate(sale.getId());
+        }
+    }
+
+    private void deactivate(FlashSaleId id) {
+        FlashSale sale = running.remove(id);
+        if (sale != null && runningByProduct.remove(sale.getProductId(), sale)) {
+            // Another sale of the same product may still be running.
+            running.values().stream()
+                    .filter(other -> other.getProductId().equals(sale.getProductId()))
+                    .findFirst()
+                    .ifPresent(other -> runningByProduct.put(other.getProductId(), other));
+        }
+    }
+
+    private static long millisBetween(Instant from, Instant to) {
+        return Math.max(0, to.toEpochMilli() - from.toEpochMilli());
+    }
+
+    private record Entry(FlashSale sale, ScheduledFuture<?> activation, ScheduledFuture<?> expiry) {
+        void cancel() {
+            if (activation != null) {
+                activation.cancel(false);
+            }
+            expiry.cancel(false);
+        }
+    }
+}
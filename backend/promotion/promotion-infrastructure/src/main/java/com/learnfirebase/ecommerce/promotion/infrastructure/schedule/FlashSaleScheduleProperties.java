@@ -0,0 +1,20 @@
+package com.learnfirebase.ecommerce.promotion.infrastructure.schedule;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+@Data
+@ConfigurationProperties(prefix = "flash-sale.schedule")
+public class FlashSaleScheduleProperties {
+    /**
+     * Sales starting later than this are left out of the index until a reload brings them within range.
+     */
+    private Duration horizon = Duration.ofDays(7);
+    /**
+     * Full reload from the database, a safety net for change events lost while a node was disconnected.
+     */
+    private Duration reloadInterval = Duration.ofMinutes(5);
+}
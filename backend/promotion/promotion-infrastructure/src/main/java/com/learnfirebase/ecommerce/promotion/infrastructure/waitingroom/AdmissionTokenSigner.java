@@ -0,0 +1,64 @@
+package com.learnfirebase.ecommerce.promotion.infrastructure.waitingroom;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Base64;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * Admission tokens are {@code <expiresAtMillis>.<signature>}, the signature an HMAC-SHA256 of the sale, the user
+ * and the expiry. A forged or mismatched token is turned away without a Redis call; whether a genuine token is
+ * still unused is up to the waiting room.
+ */
+final class AdmissionTokenSigner {
+    private static final String ALGORITHM = "HmacSHA256";
+
+    private final SecretKeySpec key;
+    private final ThreadLocal<Mac> macs = ThreadLocal.withInitial(this::newMac);
+
+    AdmissionTokenSigner(String secret) {
+        if (secret == null || secret.isBlank()) {
+            throw new IllegalArgumentException("Admission token secret must not be blank");
+        }
+        this.key = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), ALGORITHM);
+    }
+
+    String sign(String flashSaleId, String userId, long expiresAt) {
+        return expiresAt + "." + Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(signature(flashSaleId, userId, expiresAt));
+    }
+
+    /**
+     * Returns the expiry of a token signed for this sale and user, or {@code null} if the token is not.
+     */
+    Long verify(String flashSaleId, String userId, String token) {
+        int dot = token.indexOf('.');
+        if (dot <= 0) {
+            return null;
+        }
+        try {
+            long expiresAt = Long.parseLong(token, 0, dot, 10);
+            byte[] provided = Base64.getUrlDecoder().decode(token.substring(dot + 1));
+            return MessageDigest.isEqual(provided, signature(flashSaleId, userId, expiresAt)) ? expiresAt : null;
+        } catch (IllegalArgumentException ex) {
+            return null;
+        }
+    }
+
+    private byte[] signature(String flashSaleId, String userId, long expiresAt) {
+        return macs.get().doFinal((flashSaleId + ':' + userId + ':' + expiresAt).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException ex) {
+            throw new IllegalStateException("HMAC-SHA256 is not available", ex);
+        }
+    }
+}
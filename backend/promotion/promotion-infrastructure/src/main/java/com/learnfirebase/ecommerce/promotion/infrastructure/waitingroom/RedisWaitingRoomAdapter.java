@@ -0,0 +1,191 @@
+package com.learnfirebase.ecommerce.promotion.infrastructure.waitingroom;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import com.learnfirebase.ecommerce.promotion.application.port.out.WaitingRoomPort;
+import com.learnfirebase.ecommerce.promotion.domain.model.FlashSaleId;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * One waiting room per sale, all in Redis so every node sees the same queue:
+ * <ul>
+ * <li>{@code flashsale:{<id>}:queue} — zset of waiting users scored by arrival sequence, so ranks are FIFO;</li>
+ * <li>{@code flashsale:{<id>}:admitted} — zset of admitted users scored by admission expiry (epoch millis);</li>
+ * <li>{@code flashsale:{<id>}:admission-clock} — when users were last admitted, which paces admission at
+ * {@code admissionRate} per second however many nodes run the admission job;</li>
+ * <li>{@code flashsale:waiting-rooms} — ids of sales whose room is open, removed when the sale is closed.</li>
+ * </ul>
+ * The per-sale keys share the {@code {<id>}} hash tag, so each script touches a single Redis Cluster slot; the
+ * global set of rooms is only ever updated outside the scripts.
+ * A token is the signed expiry of the user's entry in the admitted zset; consuming it removes the entry, so each
+ * admission buys once.
+ */
+@Slf4j
+@Component
+public class RedisWaitingRoomAdapter implements WaitingRoomPort {
+    private static final String QUEUE_KEY = "flashsale:{%s}:queue";
+    private static final String SEQUENCE_KEY = "flashsale:{%s}:queue:seq";
+    private static final String ADMITTED_KEY = "flashsale:{%s}:admitted";
+    private static final String CLOCK_KEY = "flashsale:{%s}:admission-clock";
+    private static final String ROOMS_KEY = "flashsale:waiting-rooms";
+
+    /**
+     * KEYS: queue, sequence. ARGV: userId. Returns the number of users ahead.
+     */
+    static final RedisScript<Long> JOIN = new DefaultRedisScript<>(
+            "local rank = redis.call('zrank', KEYS[1], ARGV[1]); " +
+            "if rank then return rank end; " +
+            "redis.call('zadd', KEYS[1], redis.call('incr', KEYS[2]), ARGV[1]); " +
+            "return redis.call('zrank', KEYS[1], ARGV[1]);",
+            Long.class);
+
+    /**
+     * KEYS: queue, admitted, admission clock. ARGV: now, rate per second, remaining stock, ttl millis. Admits as many users as the time since the last admission allows at the rate (at most one
+     * second's worth), bounded by the stock not yet covered by unexpired admissions. Returns the number admitted.
+     */
+    static final RedisScript<Long> ADMIT = new DefaultRedisScript<>(
+            "local now = tonumber(ARGV[1]); " +
+            "local rate = tonumber(ARGV[2]); " +
+            "redis.call('zremrangebyscore', KEYS[2], '-inf', now); " +
+            "local last = tonumber(redis.call('get', KEYS[3]) or '0'); " +
+            "local n = math.min(rate, math.floor((now - last) * rate / 1000), " +
+            "   tonumber(ARGV[3]) - redis.call('zcard', KEYS[2])); " +
+            "if n <= 0 then return 0 end; " +
+            "local popped = redis.call('zpopmin', KEYS[1], n); " +
+            "local expiresAt = now + tonumber(ARGV[4]); " +
+            "for i = 1, #popped, 2 do " +
+            "   redis.call('zadd', KEYS[2], expiresAt, popped[i]); " +
+            "end; " +
+            "if #popped > 0 then " +
+            "   redis.call('pexpire', KEYS[2], ARGV[4]); " +
+            "   redis.call('set', KEYS[3], now, 'px', ARGV[4]); " +
+            "end; " +
+            "return #popped / 2;",
+            Long.class);
+
+    /**
+     * KEYS: admitted. ARGV: userId, expiresAt. Removes the admission if it is the one the token was signed for.
+     */
+    static final RedisScript<Long> CONSUME = new DefaultRedisScript<>(
+            "local score = redis.call('zscore', KEYS[1], ARGV[1]); " +
+            "if score and tonumber(score) == tonumber(ARGV[2]) then " +
+            "   return redis.call('zrem', KEYS[1], ARGV[1]); " +
+            "end; " +
+            "return 0;",
+            Long.class);
+
+    /**
+     * KEYS: admitted. ARGV: userId, expiresAt, now. Puts an unexpired admission back.
+     */
+    static final RedisScript<Long> RESTORE = new DefaultRedisScript<>(
+            "local left = tonumber(ARGV[2]) - tonumber(ARGV[3]); " +
+            "if left <= 0 then return 0 end; " +
+            "redis.call('zadd', KEYS[1], 'nx', ARGV[2], ARGV[1]); " +
+            "if redis.call('pttl', KEYS[1]) < left then redis.call('pexpire', KEYS[1], left) end; " +
+            "return 1;",
+            Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final WaitingRoomProperties properties;
+    private final AdmissionTokenSigner signer;
+
+    public RedisWaitingRoomAdapter(StringRedisTemplate redisTemplate, WaitingRoomProperties properties) {
+        this.redisTemplate = redisTemplate;
+        this.properties = properties;
+        this.signer = new AdmissionTokenSigner(secret(properties));
+    }
+
+    @Override
+    public long enqueue(FlashSaleId id, String userId) {
+        Long ahead = redisTemplate.execute(JOIN, List.of(key(QUEUE_KEY, id), key(SEQUENCE_KEY, id)), userId);
+        // After the join, so the admission job cannot miss a user: the room stays listed until close.
+        redisTemplate.opsForSet().add(ROOMS_KEY, id.getValue());
+        return ahead == null ? 0 : ahead;
+    }
+
+    @Override
+    public Optional<Long> position(FlashSaleId id, String userId) {
+        return Optional.ofNullable(redisTemplate.opsForZSet().rank(key(QUEUE_KEY, id), userId));
+    }
+
+    @Override
+    public Optional<Admission> findAdmission(FlashSaleId id, String userId) {
+        Double score = redisTemplate.opsForZSet().score(key(ADMITTED_KEY, id), userId);
+        if (score == null || score.longValue() <= System.currentTimeMillis()) {
+            return Optional.empty();
+        }
+        long expiresAt = score.longValue();
+        return Optional.of(new Admission(signer.sign(id.getValue(), userId, expiresAt),
+                Instant.ofEpochMilli(expiresAt)));
+    }
+
+    @Override
+    public Set<FlashSaleId> openRooms() {
+        Set<String> ids = redisTemplate.opsForSet().members(ROOMS_KEY);
+        return ids == null ? Set.of() : ids.stream().map(FlashSaleId::new).collect(Collectors.toSet());
+    }
+
+    @Override
+    public int admit(FlashSaleId id, int remainingStock) {
+        Long admitted = redisTemplate.execute(ADMIT,
+                List.of(key(QUEUE_KEY, id), key(ADMITTED_KEY, id), key(CLOCK_KEY, id)),
+                String.valueOf(System.currentTimeMillis()), String.valueOf(properties.getAdmissionRate()),
+                String.valueOf(remainingStock), String.valueOf(properties.getAdmissionTtl().toMillis()));
+        return admitted == null ? 0 : admitted.intValue();
+    }
+
+    @Override
+    public void close(FlashSaleId id) {
+        redisTemplate.delete(List.of(key(QUEUE_KEY, id), key(SEQUENCE_KEY, id), key(CLOCK_KEY, id)));
+        redisTemplate.opsForSet().remove(ROOMS_KEY, id.getValue());
+    }
+
+    @Override
+    public boolean consume(FlashSaleId id, String userId, String token) {
+        Long expiresAt = signer.verify(id.getValue(), userId, token);
+        if (expiresAt == null || expiresAt <= System.currentTimeMillis()) {
+            return false;
+        }
+        Long removed = redisTemplate.execute(CONSUME, List.of(key(ADMITTED_KEY, id)), userId,
+                String.valueOf(expiresAt));
+        return removed != null && removed > 0;
+    }
+
+    @Override
+    public void restore(FlashSaleId id, String userId, String token) {
+        Long expiresAt = signer.verify(id.getValue(), userId, token);
+        if (expiresAt != null) {
+            redisTemplate.execute(RESTORE, List.of(key(ADMITTED_KEY, id)), userId, String.valueOf(expiresAt),
+                    String.valueOf(System.currentTimeMillis()));
+        }
+    }
+
+    private static String secret(WaitingRoomProperties properties) {
+        String secret = properties.getTokenSecret();
+        if (secret != null && !secret.isBlank()) {
+            return secret;
+        }
+        if (properties.isEnforced()) {
+            throw new IllegalStateException(
+                    "flash-sale.waiting-room.token-secret must be set when the waiting room is enforced");
+        }
+        // Tokens are not checked while admission is not enforced, so a per-node key is enough.
+        log.warn("No waiting-room token secret configured; admission tokens are signed with a per-node key");
+        return UUID.randomUUID().toString();
+    }
+
+    private static String key(String pattern, FlashSaleId id) {
+        return String.format(pattern, id.getValue());
+    }
+}
@@ -0,0 +1,31 @@
+package com.learnfirebase.ecommerce.promotion.infrastructure.waitingroom;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.learnfirebase.ecommerce.promotion.application.port.in.FlashSaleWaitingRoomUseCase;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Runs on every node; the admission clock in Redis keeps the combined rate at {@code admission-rate}.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class WaitingRoomAdmissionJob {
+    private final FlashSaleWaitingRoomUseCase waitingRoomUseCase;
+
+    @Scheduled(fixedDelayString = "${flash-sale.waiting-room.admission-interval-ms:200}")
+    public void run() {
+        try {
+            int admitted = waitingRoomUseCase.admitWaiting();
+            if (admitted > 0) {
+                log.debug("[FLASH-SALE-WAITING-ROOM] Admitted {} users", admitted);
+            }
+        } catch (Exception ex) {
+            log.error("[FLASH-SALE-WAITING-ROOM] Admission failed", ex);
+        }
+    }
+}
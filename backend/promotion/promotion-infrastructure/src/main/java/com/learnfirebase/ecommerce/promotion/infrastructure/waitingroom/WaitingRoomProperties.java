@@ -0,0 +1,28 @@
+package com.learnfirebase.ecommerce.promotion.infrastructure.waitingroom;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+@Data
+@ConfigurationProperties(prefix = "flash-sale.waiting-room")
+public class WaitingRoomProperties {
+    /**
+     * Orders for a flash sale must present an admission token from the waiting room.
+     */
+    private boolean enforced = false;
+    /**
+     * Admissions per second for one sale, across all nodes.
+     */
+    private int admissionRate = 50;
+    /**
+     * How long an admission token can be used to order.
+     */
+    private Duration admissionTtl = Duration.ofMinutes(2);
+    /**
+     * Key for signing admission tokens; must be the same on every node, and is required when {@link #enforced}.
+     */
+    private String tokenSecret = "";
+}
@@ -0,0 +1,145 @@
+package com.learnfirebase.ecommerce.promotion.infrastructure.schedule;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import com.learnfirebase.ecommerce.common.domain.valueobject.Money;
+import com.learnfirebase.ecommerce.promotion.application.port.out.FlashSaleRepository;
+import com.learnfirebase.ecommerce.promotion.domain.model.FlashSale;
+import com.learnfirebase.ecommerce.promotion.domain.model.FlashSaleId;
+import com.learnfirebase.ecommerce.promotion.domain.model.FlashSaleStatus;
+
+class FlashSaleScheduleIndexTest {
+
+    private FlashSaleRepository flashSaleRepository;
+    private FlashSaleScheduleIndex index;
+
+    @BeforeEach
+    void setUp() {
+        flashSaleRepository = mock(FlashSaleRepository.class);
+        when(flashSaleRepository.findActiveBetween(any(), any())).thenReturn(List.of());
+        index = new FlashSaleScheduleIndex(flashSaleRepository, mock(StringRedisTemplate.class),
+                new FlashSaleScheduleProperties());
+    }
+
+    @AfterEach
+    void tearDown() {
+        index.stop();
+    }
+
+    @Test
+    void upcomingSaleTurnsActiveAtItsStartAndLeavesAtItsEnd() {
+        Instant now = Instant.now();
+        FlashSale sale = sale("p-1", now.plusMillis(300), now.plusMillis(700), FlashSaleStatus.ACTIVE);
+        when(flashSaleRepository.findActiveBetween(any(), any())).thenReturn(List.of(sale));
+
+        index.start();
+        await(() -> index.findById(sale.getId()).isPresent());
+
+        assertThat(index.findActiveByProductId("p-1")).isEmpty();
+        await(() -> index.findActiveByProductId("p-1").isPresent());
+        assertThat(index.findActive()).containsExactly(sale);
+        await(() -> index.findById(sale.getId()).isEmpty());
+        assertThat(index.findActiveByProductId("p-1")).isEmpty();
+        assertThat(index.findActive()).isEmpty();
+    }
+
+    @Test
+    void lookupsFallBackToTheRepositoryUntilTheFirstLoad() {
+        FlashSale sale = sale("p-1", Instant.now().minusSeconds(60), Instant.now().plusSeconds(60),
+                FlashSaleStatus.ACTIVE);
+        when(flashSaleRepository.findAllActive()).thenReturn(List.of(sale));
+
+        assertThat(index.findActive()).containsExactly(sale);
+        verify(flashSaleRepository).findAllActive();
+    }
+
+    @Test
+    void changeEventFromAnotherNodeReloadsTheSale() {
+        Instant now = Instant.now();
+        FlashSaleId id = new FlashSaleId(UUID.randomUUID());
+        FlashSale running = sale(id, "p-1", now.minusSeconds(60), now.plusSeconds(60), FlashSaleStatus.ACTIVE);
+        FlashSale ended = sale(id, "p-1", now.minusSeconds(60), now.plusSeconds(60), FlashSaleStatus.ENDED);
+        index.start();
+        await(() -> index.findActive().isEmpty() && index.findActiveByProductId("p-1").isEmpty());
+
+        when(flashSaleRepository.findById(id)).thenReturn(Optional.of(running));
+        index.onMessage(changeOf(id), null);
+        await(() -> index.findActiveByProductId("p-1").isPresent());
+
+        when(flashSaleRepository.findById(id)).thenReturn(Optional.of(ended));
+        index.onMessage(changeOf(id), null);
+        await(() -> index.findById(id).isEmpty());
+        assertThat(index.findActiveByProductId("p-1")).isEmpty();
+    }
+
+    @Test
+    void secondRunningSaleOfAProductTakesOverWhenTheFirstEnds() {
+        Instant now = Instant.now();
+        FlashSale endingSoon = sale("p-1", now.minusSeconds(60), now.plusMillis(300), FlashSaleStatus.ACTIVE);
+        FlashSale later = sale("p-1", now.minusSeconds(30), now.plusSeconds(60), FlashSaleStatus.ACTIVE);
+        when(flashSaleRepository.findActiveBetween(any(), any())).thenReturn(List.of(later, endingSoon));
+
+        index.start();
+        await(() -> index.findActive().size() == 2);
+        await(() -> index.findActive().size() == 1);
+
+        assertThat(index.findActiveByProductId("p-1")).contains(later);
+    }
+
+    private static DefaultMessage changeOf(FlashSaleId id) {
+        return new DefaultMessage(FlashSaleScheduleIndex.CHANGE_CHANNEL.getBytes(StandardCharsets.UTF_8),
+                ("other-node|" + id.getValue()).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void await(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condition not met in time").isLessThan(deadline);
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new AssertionError(ex);
+            }
+        }
+    }
+
+    private static FlashSale sale(String productId, Instant start, Instant end, FlashSaleStatus status) {
+        return sale(new FlashSaleId(UUID.randomUUID()), productId, start, end, status);
+    }
+
+    private static FlashSale sale(FlashSaleId id, String productId, Instant start, Instant end,
+            FlashSaleStatus status) {
+        Money price = Money.builder().amount(new BigDecimal("100")).currency("VND").build();
+        return FlashSale.builder()
+                .id(id)
+                .productId(productId)
+                .price(price)
+                .originalPrice(price)
+                .startTime(start)
+                .endTime(end)
+                .totalQuantity(10)
+                .remainingQuantity(10)
+                .status(status)
+                .build();
+    }
+}
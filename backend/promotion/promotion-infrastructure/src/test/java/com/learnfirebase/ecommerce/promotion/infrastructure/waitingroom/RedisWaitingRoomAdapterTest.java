@@ -0,0 +1,78 @@
+package com.learnfirebase.ecommerce.promotion.infrastructure.waitingroom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.redis.core.SetOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import com.learnfirebase.ecommerce.promotion.domain.model.FlashSaleId;
+
+import io.lettuce.core.cluster.SlotHash;
+
+class RedisWaitingRoomAdapterTest {
+
+    @Test
+    void enforcedWaitingRoomWithoutSecretFailsToStart() {
+        WaitingRoomProperties properties = new WaitingRoomProperties();
+        properties.setEnforced(true);
+        properties.setTokenSecret(" ");
+
+        assertThatThrownBy(() -> new RedisWaitingRoomAdapter(mock(StringRedisTemplate.class), properties))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("token-secret");
+    }
+
+    @Test
+    void tokenSignedWithAnotherSecretIsTurnedAwayWithoutARedisCall() {
+        WaitingRoomProperties properties = new WaitingRoomProperties();
+        properties.setEnforced(true);
+        properties.setTokenSecret("node-secret");
+        StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+        RedisWaitingRoomAdapter adapter = new RedisWaitingRoomAdapter(redisTemplate, properties);
+        FlashSaleId id = new FlashSaleId(UUID.randomUUID());
+        String forged = new AdmissionTokenSigner("other-secret")
+                .sign(id.getValue(), "buyer-1", System.currentTimeMillis() + 60_000);
+
+        assertThat(adapter.consume(id, "buyer-1", forged)).isFalse();
+        verifyNoInteractions(redisTemplate);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void keysOfEachScriptShareOneClusterSlot() {
+        WaitingRoomProperties properties = new WaitingRoomProperties();
+        properties.setTokenSecret("node-secret");
+        StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+        when(redisTemplate.opsForSet()).thenReturn(mock(SetOperations.class));
+        RedisWaitingRoomAdapter adapter = new RedisWaitingRoomAdapter(redisTemplate, properties);
+        FlashSaleId id = new FlashSaleId(UUID.randomUUID());
+
+        adapter.enqueue(id, "buyer-1");
+        adapter.admit(id, 10);
+
+        ArgumentCaptor<List<String>> keys = ArgumentCaptor.forClass(List.class);
+        verify(redisTemplate).execute(eq(RedisWaitingRoomAdapter.JOIN), keys.capture(), any(Object[].class));
+        verify(redisTemplate).execute(eq(RedisWaitingRoomAdapter.ADMIT), keys.capture(), any(Object[].class));
+        for (List<String> scriptKeys : keys.getAllValues()) {
+            assertThat(scriptKeys.stream().map(SlotHash::getSlot).distinct()).hasSize(1);
+        }
+    }
+
+    @Test
+    void signerRejectsABlankSecret() {
+        assertThatThrownBy(() -> new AdmissionTokenSigner(""))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -74,6 +74,9 @@ listOf(
 
     // bootstrap
     "bootstrap",
+
+    // JMH benchmarks, run with ./gradlew :benchmarks:jmh
+    "benchmarks",
 ).forEach { includeModule(it) }
 
 // Ensure intermediate parent projects point to backend folders to avoid missing directory warnings.